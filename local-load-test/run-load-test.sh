@@ -296,7 +296,9 @@ JSON
 collect_results() {
   log "Collecting results -> $REPORT"
   local errors run_secs peak
-  errors="$(grep -c 'Artemis request failed' "$BENCH_LOG" 2>/dev/null || true)"
+  errors="$(docker exec "$BENCH_PG" psql -U benchmarking -d benchmarking -tAc \
+    "SELECT number_of_failures FROM simulation_stats WHERE request_type='TOTAL' AND persona IS NULL
+        AND simulation_run_id = (SELECT max(id) FROM simulation_run)" 2>/dev/null | tr -d ' ')"
   errors="${errors:-0}"
   run_secs="$(docker exec "$BENCH_PG" psql -U benchmarking -d benchmarking -tAc \
     "SELECT ROUND(EXTRACT(EPOCH FROM (end_date_time-start_date_time))) FROM simulation_run ORDER BY id DESC LIMIT 1" 2>/dev/null | tr -d ' ')"
@@ -321,11 +323,13 @@ collect_results() {
     docker exec "$BENCH_PG" psql -U benchmarking -d benchmarking -c \
       "SELECT request_type AS \"Request type\",
               number_of_requests AS \"Count\",
+              number_of_failures AS \"Failed\",
               ROUND(avg_response_time/1e6) AS \"Avg ms\",
               (SELECT ROUND(max(b.avg_response_time)/1e6)
                  FROM stats_by_second b WHERE b.simulation_stats_id = s.id) AS \"Worst-sec avg ms\",
               (SELECT max(b.number_of_requests)
-                 FROM stats_by_second b WHERE b.simulation_stats_id = s.id) AS \"Peak req/s\"
+                 FROM stats_by_second b WHERE b.simulation_stats_id = s.id) AS \"Peak req/s\",
+              status_codes AS \"Status codes\"
          FROM simulation_stats s
         WHERE simulation_run_id = (SELECT max(id) FROM simulation_run)
         ORDER BY avg_response_time DESC" 2>/dev/null
@@ -334,7 +338,7 @@ collect_results() {
   echo
   log "Report written to: $REPORT"
   if [[ "$errors" != "0" ]]; then
-    warn "$errors failed requests were logged — inspect $BENCH_LOG"
+    warn "$errors requests failed — inspect $BENCH_LOG"
   fi
 }
 
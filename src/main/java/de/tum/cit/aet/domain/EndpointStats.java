@@ -0,0 +1,143 @@
+package de.tum.cit.aet.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import de.tum.cit.aet.util.HttpStatusCounts;
+import jakarta.persistence.*;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * The requests of a run to one endpoint, by HTTP method and URI template, over the whole run.
+ * <p>
+ * Where a request type like {@link RequestType#MISC} covers dozens of endpoints, a regression in one of them is lost in
+ * the average of the type; here it stands out. An action of several requests counts towards the endpoint of its first.
+ */
+@Entity
+@Table(name = "endpoint_stats")
+public class EndpointStats {
+
+    /**
+     * The longest URI template stored, in line with the column.
+     */
+    public static final int MAX_URI_TEMPLATE_LENGTH = 1024;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "endpoint_stats_seq")
+    @SequenceGenerator(name = "endpoint_stats_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "http_method", nullable = false)
+    private String httpMethod;
+
+    @Column(name = "uri_template", nullable = false, length = MAX_URI_TEMPLATE_LENGTH)
+    private String uriTemplate;
+
+    @Column(name = "number_of_requests", nullable = false)
+    private long numberOfRequests;
+
+    /**
+     * The number of requests that failed, which the number of requests and the response times leave out.
+     */
+    @Column(name = "number_of_failures", nullable = false)
+    private long numberOfFailures;
+
+    /**
+     * The number of requests with each HTTP status, see {@link HttpStatusCounts}, or {@code null} if none had one.
+     */
+    @Column(name = "status_codes")
+    private String statusCodes;
+
+    @Column(name = "avg_response_time", nullable = false)
+    private long avgResponseTime;
+
+    @Embedded
+    private ResponseTimePercentiles percentiles;
+
+    @Embedded
+    private RequestTimingBreakdown timings;
+
+    @ManyToOne
+    @JoinColumn(name = "simulation_run_id", nullable = false)
+    @JsonIgnore
+    private SimulationRun simulationRun;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getHttpMethod() {
+        return httpMethod;
+    }
+
+    public void setHttpMethod(String httpMethod) {
+        this.httpMethod = httpMethod;
+    }
+
+    public String getUriTemplate() {
+        return uriTemplate;
+    }
+
+    public void setUriTemplate(String uriTemplate) {
+        this.uriTemplate = uriTemplate;
+    }
+
+    public long getNumberOfRequests() {
+        return numberOfRequests;
+    }
+
+    public void setNumberOfRequests(long numberOfRequests) {
+        this.numberOfRequests = numberOfRequests;
+    }
+
+    public long getNumberOfFailures() {
+        return numberOfFailures;
+    }
+
+    public void setNumberOfFailures(long numberOfFailures) {
+        this.numberOfFailures = numberOfFailures;
+    }
+
+    public SortedMap<Integer, Long> getStatusCodes() {
+        return HttpStatusCounts.decode(statusCodes);
+    }
+
+    public void setStatusCodes(Map<Integer, Long> statusCodes) {
+        this.statusCodes = HttpStatusCounts.encode(statusCodes);
+    }
+
+    public long getAvgResponseTime() {
+        return avgResponseTime;
+    }
+
+    public void setAvgResponseTime(long avgResponseTime) {
+        this.avgResponseTime = avgResponseTime;
+    }
+
+    public ResponseTimePercentiles getPercentiles() {
+        return percentiles;
+    }
+
+    public void setPercentiles(ResponseTimePercentiles percentiles) {
+        this.percentiles = percentiles;
+    }
+
+    public RequestTimingBreakdown getTimings() {
+        return timings;
+    }
+
+    public void setTimings(RequestTimingBreakdown timings) {
+        this.timings = timings;
+    }
+
+    public SimulationRun getSimulationRun() {
+        return simulationRun;
+    }
+
+    public void setSimulationRun(SimulationRun simulationRun) {
+        this.simulationRun = simulationRun;
+    }
+}
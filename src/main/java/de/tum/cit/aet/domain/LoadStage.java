@@ -0,0 +1,105 @@
+package de.tum.cit.aet.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import java.time.ZonedDateTime;
+
+/**
+ * One stage of a run's concurrency profile, with the wall-clock time it actually started and ended, so the latency
+ * measured between the two can be read against the load level the stage applied.
+ */
+@Entity
+@Table(name = "load_stage")
+public class LoadStage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "stage_index", nullable = false)
+    private int stageIndex;
+
+    @Column(name = "description", nullable = false)
+    private String description;
+
+    @Column(name = "from_concurrency", nullable = false)
+    private int fromConcurrency;
+
+    @Column(name = "to_concurrency", nullable = false)
+    private int toConcurrency;
+
+    @Column(name = "start_date_time", nullable = false)
+    private ZonedDateTime startDateTime;
+
+    @Column(name = "end_date_time")
+    private ZonedDateTime endDateTime;
+
+    @ManyToOne
+    @JoinColumn(name = "simulation_run_id", nullable = false)
+    @JsonIgnore
+    private SimulationRun simulationRun;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public int getStageIndex() {
+        return stageIndex;
+    }
+
+    public void setStageIndex(int stageIndex) {
+        this.stageIndex = stageIndex;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public int getFromConcurrency() {
+        return fromConcurrency;
+    }
+
+    public void setFromConcurrency(int fromConcurrency) {
+        this.fromConcurrency = fromConcurrency;
+    }
+
+    public int getToConcurrency() {
+        return toConcurrency;
+    }
+
+    public void setToConcurrency(int toConcurrency) {
+        this.toConcurrency = toConcurrency;
+    }
+
+    public ZonedDateTime getStartDateTime() {
+        return startDateTime;
+    }
+
+    public void setStartDateTime(ZonedDateTime startDateTime) {
+        this.startDateTime = startDateTime;
+    }
+
+    public ZonedDateTime getEndDateTime() {
+        return endDateTime;
+    }
+
+    public void setEndDateTime(ZonedDateTime endDateTime) {
+        this.endDateTime = endDateTime;
+    }
+
+    public SimulationRun getSimulationRun() {
+        return simulationRun;
+    }
+
+    public void setSimulationRun(SimulationRun simulationRun) {
+        this.simulationRun = simulationRun;
+    }
+}
@@ -2,4 +2,84 @@ package de.tum.cit.aet.domain;
 
 import java.time.ZonedDateTime;
 
-public record RequestStat(ZonedDateTime dateTime, Long duration, RequestType type) {}
+/**
+ * One completed or failed request of a simulated user.
+ *
+ * @param dateTime    when the request completed
+ * @param duration    how long it took, in nanoseconds, without the time it was held back by the rate limiter
+ * @param type        the type of the request
+ * @param persona     the name of the persona the user acted as, or {@code null} if the simulation has no personas
+ * @param limiterWait how long the request was held back by the rate limiter before it was sent, in nanoseconds
+ * @param student     the server-wide ID of the user, or 0 if unknown
+ * @param timings     where the time of the request went, {@link RequestTimings#NONE} if it was not timed
+ * @param endpoint    the HTTP method and URI template of the request, e.g. {@code GET api/core/public/account}, of the
+ *                    first request for an action of several, or {@code null} if unknown
+ * @param status      the HTTP status of the response, of the last response for an action of several, or 0 if none
+ *                    arrived or the request was not made over HTTP
+ * @param error       the simple name of the exception the request failed with, e.g. {@code ReadTimeoutException}, or
+ *                    {@code null} if it succeeded
+ */
+public record RequestStat(
+    ZonedDateTime dateTime,
+    Long duration,
+    RequestType type,
+    String persona,
+    long limiterWait,
+    int student,
+    RequestTimings timings,
+    String endpoint,
+    int status,
+    String error
+) {
+    /**
+     * Create a stat of a request of a user without a persona that was not held back, succeeded and was not timed by
+     * phase.
+     *
+     * @param dateTime when the request completed
+     * @param duration how long it took, in nanoseconds
+     * @param type     the type of the request
+     * @return the stat, with an unknown user, endpoint and status
+     */
+    public static RequestStat of(ZonedDateTime dateTime, long duration, RequestType type) {
+        return of(dateTime, duration, type, null, 0, 0);
+    }
+
+    /**
+     * Create a stat of a request that succeeded and was not timed by phase.
+     *
+     * @param dateTime    when the request completed
+     * @param duration    how long it took, in nanoseconds, without the time it was held back by the rate limiter
+     * @param type        the type of the request
+     * @param persona     the name of the persona the user acted as, or {@code null} if the simulation has no personas
+     * @param limiterWait how long the request was held back by the rate limiter before it was sent, in nanoseconds
+     * @param student     the server-wide ID of the user, or 0 if unknown
+     * @return the stat, with an unknown endpoint and status
+     */
+    public static RequestStat of(ZonedDateTime dateTime, long duration, RequestType type, String persona, long limiterWait, int student) {
+        return new RequestStat(dateTime, duration, type, persona, limiterWait, student, RequestTimings.NONE, null, 0, null);
+    }
+
+    /**
+     * @param endpoint the HTTP method and URI template of the request, or {@code null} if unknown
+     * @return this stat, with the endpoint the request went to
+     */
+    public RequestStat withEndpoint(String endpoint) {
+        return new RequestStat(dateTime, duration, type, persona, limiterWait, student, timings, endpoint, status, error);
+    }
+
+    /**
+     * @param status the HTTP status of the response, or 0 if none arrived
+     * @param error  the simple name of the exception the request failed with, or {@code null} if it succeeded
+     * @return this stat, with how the request ended
+     */
+    public RequestStat withOutcome(int status, String error) {
+        return new RequestStat(dateTime, duration, type, persona, limiterWait, student, timings, endpoint, status, error);
+    }
+
+    /**
+     * @return whether the request failed, with an error status or without a response
+     */
+    public boolean failed() {
+        return error != null;
+    }
+}
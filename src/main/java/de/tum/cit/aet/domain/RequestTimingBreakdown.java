@@ -0,0 +1,89 @@
+package de.tum.cit.aet.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/**
+ * The average phases of a set of requests, in nanoseconds, see {@link RequestTimings}.
+ * <p>
+ * The averages are taken over the requests the HTTP client timed, including those that reused a connection and so spent
+ * no time resolving, connecting or in a TLS handshake, but not git operations or websocket actions, which it does not
+ * time. An action of several requests counts as that many. Stats calculated before the phases were recorded, or of
+ * requests that were not timed, have none.
+ */
+@Embeddable
+public class RequestTimingBreakdown {
+
+    @Column(name = "avg_resolve_time")
+    private long avgResolveTime;
+
+    @Column(name = "avg_connect_time")
+    private long avgConnectTime;
+
+    @Column(name = "avg_tls_handshake_time")
+    private long avgTlsHandshakeTime;
+
+    @Column(name = "avg_first_byte_time")
+    private long avgFirstByteTime;
+
+    @Column(name = "avg_transfer_time")
+    private long avgTransferTime;
+
+    /**
+     * @param totals the summed phases of the requests, with the number of requests that were timed
+     * @return the average phases, or {@code null} if none of the requests were timed
+     */
+    public static RequestTimingBreakdown of(RequestTimings totals) {
+        long count = totals.requests();
+        if (count == 0) {
+            return null;
+        }
+        RequestTimingBreakdown breakdown = new RequestTimingBreakdown();
+        breakdown.setAvgResolveTime(totals.resolve() / count);
+        breakdown.setAvgConnectTime(totals.connect() / count);
+        breakdown.setAvgTlsHandshakeTime(totals.tlsHandshake() / count);
+        breakdown.setAvgFirstByteTime(totals.firstByte() / count);
+        breakdown.setAvgTransferTime(totals.transfer() / count);
+        return breakdown;
+    }
+
+    public long getAvgResolveTime() {
+        return avgResolveTime;
+    }
+
+    public void setAvgResolveTime(long avgResolveTime) {
+        this.avgResolveTime = avgResolveTime;
+    }
+
+    public long getAvgConnectTime() {
+        return avgConnectTime;
+    }
+
+    public void setAvgConnectTime(long avgConnectTime) {
+        this.avgConnectTime = avgConnectTime;
+    }
+
+    public long getAvgTlsHandshakeTime() {
+        return avgTlsHandshakeTime;
+    }
+
+    public void setAvgTlsHandshakeTime(long avgTlsHandshakeTime) {
+        this.avgTlsHandshakeTime = avgTlsHandshakeTime;
+    }
+
+    public long getAvgFirstByteTime() {
+        return avgFirstByteTime;
+    }
+
+    public void setAvgFirstByteTime(long avgFirstByteTime) {
+        this.avgFirstByteTime = avgFirstByteTime;
+    }
+
+    public long getAvgTransferTime() {
+        return avgTransferTime;
+    }
+
+    public void setAvgTransferTime(long avgTransferTime) {
+        this.avgTransferTime = avgTransferTime;
+    }
+}
@@ -0,0 +1,39 @@
+package de.tum.cit.aet.domain;
+
+/**
+ * Where the time of a request went, as far as the HTTP client can tell, in nanoseconds. For a stat that covers several
+ * requests, the sum over them, along with how many there were, so that averages are taken per request rather than per
+ * stat.
+ * <p>
+ * A request on a connection taken from the pool has no resolve, connect or TLS handshake time; those are spent once
+ * per connection, by the request that opened it. What the phases leave of the request's duration was spent in the
+ * tool: waiting for a connection from the pool, writing the request, and decoding the response.
+ *
+ * @param resolve      looking up the server's address
+ * @param connect      opening the TCP connection
+ * @param tlsHandshake the TLS handshake on the new connection
+ * @param firstByte    from sending the request to receiving the response headers, the server's share of the request
+ * @param transfer     from the response headers to the last byte of the body
+ * @param requests     the number of requests whose phases these are, 0 if none was timed
+ */
+public record RequestTimings(long resolve, long connect, long tlsHandshake, long firstByte, long transfer, long requests) {
+    /**
+     * The timings of a request the HTTP client did not time, e.g. a git operation.
+     */
+    public static final RequestTimings NONE = new RequestTimings(0, 0, 0, 0, 0, 0);
+
+    /**
+     * @param other the timings to add
+     * @return the sum of these timings and the given ones
+     */
+    public RequestTimings plus(RequestTimings other) {
+        return new RequestTimings(
+            resolve + other.resolve,
+            connect + other.connect,
+            tlsHandshake + other.tlsHandshake,
+            firstByte + other.firstByte,
+            transfer + other.transfer,
+            requests + other.requests
+        );
+    }
+}
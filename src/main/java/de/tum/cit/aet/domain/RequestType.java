@@ -23,4 +23,20 @@ public enum RequestType {
     PUSH_SSH,
     PUSH_TOKEN,
     PUSH_PASSWORD,
+    /**
+     * The requests students make when released into the exam together, see {@link Simulation#isExamStartSpike()}.
+     * Copies of requests that are also counted under their own type, so they are left out of {@link #TOTAL}.
+     */
+    EXAM_START_SPIKE,
+    /**
+     * How long requests were held back by the rate limiter of the server before they were sent, see
+     * {@link RequestStat#limiterWait()}. Never the type of a request itself, and left out of {@link #TOTAL}.
+     */
+    RATE_LIMIT_WAIT,
+    /**
+     * A whole page load, from its first request going out to its last one completing, while its requests run in
+     * parallel like in a browser. The requests are also counted under their own types, so this is left out of
+     * {@link #TOTAL}.
+     */
+    PAGE_LOAD,
 }
@@ -0,0 +1,114 @@
+package de.tum.cit.aet.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import de.tum.cit.aet.util.LatencyHistograms;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import org.HdrHistogram.Histogram;
+
+/**
+ * The percentiles of a set of response times, in nanoseconds, along with the histogram they were taken from.
+ * <p>
+ * The histogram is stored but not sent to clients; see {@link LatencyHistograms} for why it is kept. Stats calculated
+ * before percentiles were recorded have none.
+ */
+@Embeddable
+public class ResponseTimePercentiles {
+
+    @Column(name = "p50_response_time")
+    private long p50;
+
+    @Column(name = "p90_response_time")
+    private long p90;
+
+    @Column(name = "p95_response_time")
+    private long p95;
+
+    @Column(name = "p99_response_time")
+    private long p99;
+
+    @Column(name = "p999_response_time")
+    private long p999;
+
+    @Column(name = "max_response_time")
+    private long max;
+
+    @Column(name = "response_time_histogram", columnDefinition = "text")
+    @JsonIgnore
+    private String histogram;
+
+    /**
+     * @param histogram the response times in nanoseconds
+     * @return the percentiles of the histogram, or {@code null} if it is empty
+     */
+    public static ResponseTimePercentiles of(Histogram histogram) {
+        if (histogram.getTotalCount() == 0) {
+            return null;
+        }
+        ResponseTimePercentiles percentiles = new ResponseTimePercentiles();
+        percentiles.setP50(histogram.getValueAtPercentile(50));
+        percentiles.setP90(histogram.getValueAtPercentile(90));
+        percentiles.setP95(histogram.getValueAtPercentile(95));
+        percentiles.setP99(histogram.getValueAtPercentile(99));
+        percentiles.setP999(histogram.getValueAtPercentile(99.9));
+        percentiles.setMax(histogram.getMaxValue());
+        percentiles.setHistogram(LatencyHistograms.encode(histogram));
+        return percentiles;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public void setP50(long p50) {
+        this.p50 = p50;
+    }
+
+    public long getP90() {
+        return p90;
+    }
+
+    public void setP90(long p90) {
+        this.p90 = p90;
+    }
+
+    public long getP95() {
+        return p95;
+    }
+
+    public void setP95(long p95) {
+        this.p95 = p95;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public void setP99(long p99) {
+        this.p99 = p99;
+    }
+
+    public long getP999() {
+        return p999;
+    }
+
+    public void setP999(long p999) {
+        this.p999 = p999;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public void setMax(long max) {
+        this.max = max;
+    }
+
+    public String getHistogram() {
+        return histogram;
+    }
+
+    public void setHistogram(String histogram) {
+        this.histogram = histogram;
+    }
+}
@@ -79,6 +79,162 @@ public class Simulation {
     @Column(name = "cancel_build_jobs_after_run", nullable = false)
     private boolean cancelBuildJobsAfterRun = false;
 
+    /**
+     * How students arrive at the exam. The default keeps the phased, closed-loop behaviour; every other mode starts
+     * each student's whole session on a schedule that does not wait for the server, see {@link ArrivalMode}.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "arrival_mode", nullable = false)
+    private ArrivalMode arrivalMode = ArrivalMode.CLOSED_LOOP;
+
+    /**
+     * Students arriving per second, for {@link ArrivalMode#CONSTANT_RATE} and {@link ArrivalMode#POISSON}.
+     */
+    @Column(name = "arrival_rate", nullable = false)
+    private double arrivalRate;
+
+    /**
+     * Comma separated {@code second:rate} points, for {@link ArrivalMode#RATE_CURVE}. See
+     * {@link de.tum.cit.aet.util.ArrivalSchedule#rateCurve(int, String)} for the format.
+     */
+    @Column(name = "arrival_rate_curve")
+    private String arrivalRateCurve;
+
+    /**
+     * Run each student's whole session as one continuous task under the concurrency ceiling, instead of one batch per
+     * phase with every student waiting for the slowest at each phase boundary. Open-loop runs always do this.
+     */
+    @Column(name = "pipelined_sessions", nullable = false)
+    private boolean pipelinedSessions = false;
+
+    /**
+     * In a pipelined or open-loop run, hold every student back before the exam starts until all of them got there,
+     * the one synchronisation point a real exam has. Phased runs already wait at every phase boundary.
+     */
+    @Column(name = "exam_start_barrier", nullable = false)
+    private boolean examStartBarrier = false;
+
+    /**
+     * Hold every student back right before they navigate into and start the exam, then release all of them at once, as
+     * when a real exam opens on the hour. The released students make their start requests without waiting for a
+     * concurrency slot, and the requests are reported separately as the exam start spike.
+     */
+    @Column(name = "exam_start_spike", nullable = false)
+    private boolean examStartSpike = false;
+
+    /**
+     * The most, in milliseconds, each student released by the exam start spike waits before pressing start, drawn
+     * uniformly per student. 0 releases all of them in the same instant.
+     */
+    @Column(name = "exam_start_jitter_millis", nullable = false)
+    private int examStartJitterMillis = 0;
+
+    /**
+     * How the concurrency ceiling changes over the run, e.g. a ramp-up before the exam and a spike at its start. Empty
+     * for a fixed ceiling. See {@link de.tum.cit.aet.util.ConcurrencyProfile} for the format. Only applies to
+     * closed-loop runs, since open-loop runs have no ceiling.
+     */
+    @Column(name = "concurrency_profile")
+    private String concurrencyProfile;
+
+    /**
+     * Search for the highest concurrency the server sustains within the SLO below, instead of using a fixed ceiling or
+     * a profile. See {@link de.tum.cit.aet.util.AdaptiveConcurrencyController}. Only applies to closed-loop runs.
+     */
+    @Column(name = "adaptive_concurrency", nullable = false)
+    private boolean adaptiveConcurrency = false;
+
+    /**
+     * How many students the adaptive search adds after every evaluation interval that held the SLO.
+     */
+    @Column(name = "adaptive_step", nullable = false)
+    private int adaptiveStep = 10;
+
+    /**
+     * The highest 95th percentile latency, in milliseconds, the adaptive search accepts.
+     */
+    @Column(name = "slo_latency_millis", nullable = false)
+    private int sloLatencyMillis = 1000;
+
+    /**
+     * The highest share of failed requests, between 0 and 1, the adaptive search accepts.
+     */
+    @Column(name = "slo_error_rate", nullable = false)
+    private double sloErrorRate = 0.01;
+
+    /**
+     * Spread the students over the worker instances configured in {@code benchmarking.distributed.workers} instead of
+     * simulating all of them on this host, which then only prepares the exam and collects the results. Only applies to
+     * phased closed-loop runs.
+     */
+    @Column(name = "distributed", nullable = false)
+    private boolean distributed = false;
+
+    /**
+     * Whether each student keeps connections of its own, like a browser, or all students take them from one pool, see
+     * {@link ConnectionPool}.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "connection_pool", nullable = false)
+    private ConnectionPool connectionPool = ConnectionPool.PER_STUDENT;
+
+    /**
+     * Run each student's whole session as one non-blocking pipeline on the HTTP event loops instead of on a thread of
+     * its own, so that one host can simulate tens of thousands of students. Only git operations take a thread. The
+     * students open no exam websocket. Only applies to closed-loop runs with a fixed ceiling and no scenario.
+     */
+    @Column(name = "reactive_sessions", nullable = false)
+    private boolean reactiveSessions = false;
+
+    /**
+     * How long students pause after a REST call, e.g. {@code lognormal 800 4000}. Empty for no pause. See
+     * {@link de.tum.cit.aet.util.ThinkTime} for the format.
+     */
+    @Column(name = "think_time_rest")
+    private String thinkTimeRest;
+
+    /**
+     * How long students pause after a git clone or push, i.e. the time they spend changing code before the next push.
+     * Defaults to the fixed pause simulated students always took between pushes.
+     */
+    @Column(name = "think_time_git")
+    private String thinkTimeGit = "fixed 100";
+
+    /**
+     * How long students pause after opening the exam websocket.
+     */
+    @Column(name = "think_time_websocket")
+    private String thinkTimeWebsocket;
+
+    /**
+     * How long, in minutes, every student stays in the exam after working on the exercises, autosaving as the exam
+     * client does, before handing in. 0 hands in right away, as a compressed run always did.
+     */
+    @Column(name = "soak_duration_minutes", nullable = false)
+    private int soakDurationMinutes = 0;
+
+    /**
+     * How often, in seconds, a soaking student re-submits their text, modeling and quiz answers. The exam client
+     * autosaves every 30 seconds.
+     */
+    @Column(name = "autosave_interval_seconds", nullable = false)
+    private int autosaveIntervalSeconds = 30;
+
+    /**
+     * The session every student runs, in YAML or JSON, instead of the built-in flow. Empty for the built-in flow. See
+     * {@link de.tum.cit.aet.service.simulation.Scenario} for the format. A simulation with a scenario runs its students
+     * as whole sessions, like a pipelined run.
+     */
+    @Column(name = "scenario", columnDefinition = "text")
+    private String scenario;
+
+    /**
+     * The kinds of student to mix, in YAML or JSON, with their weights and settings. Empty for students that all behave
+     * the same. See {@link de.tum.cit.aet.util.Persona} for the format.
+     */
+    @Column(name = "personas", columnDefinition = "text")
+    private String personas;
+
     @OneToMany(mappedBy = "simulation", fetch = FetchType.EAGER, cascade = CascadeType.REMOVE)
     @JsonIgnore
     private Set<SimulationSchedule> schedules;
@@ -212,6 +368,196 @@ public class Simulation {
         this.numberOfCommitsAndPushesTo = numberOfCommitsAndPushesTo;
     }
 
+    public ArrivalMode getArrivalMode() {
+        return arrivalMode;
+    }
+
+    public void setArrivalMode(ArrivalMode arrivalMode) {
+        this.arrivalMode = arrivalMode;
+    }
+
+    public double getArrivalRate() {
+        return arrivalRate;
+    }
+
+    public void setArrivalRate(double arrivalRate) {
+        this.arrivalRate = arrivalRate;
+    }
+
+    public String getArrivalRateCurve() {
+        return arrivalRateCurve;
+    }
+
+    public void setArrivalRateCurve(String arrivalRateCurve) {
+        this.arrivalRateCurve = arrivalRateCurve;
+    }
+
+    public boolean isPipelinedSessions() {
+        return pipelinedSessions;
+    }
+
+    public void setPipelinedSessions(boolean pipelinedSessions) {
+        this.pipelinedSessions = pipelinedSessions;
+    }
+
+    public boolean isExamStartBarrier() {
+        return examStartBarrier;
+    }
+
+    public void setExamStartBarrier(boolean examStartBarrier) {
+        this.examStartBarrier = examStartBarrier;
+    }
+
+    public boolean isExamStartSpike() {
+        return examStartSpike;
+    }
+
+    public void setExamStartSpike(boolean examStartSpike) {
+        this.examStartSpike = examStartSpike;
+    }
+
+    public int getExamStartJitterMillis() {
+        return examStartJitterMillis;
+    }
+
+    public void setExamStartJitterMillis(int examStartJitterMillis) {
+        this.examStartJitterMillis = examStartJitterMillis;
+    }
+
+    public String getConcurrencyProfile() {
+        return concurrencyProfile;
+    }
+
+    public void setConcurrencyProfile(String concurrencyProfile) {
+        this.concurrencyProfile = concurrencyProfile;
+    }
+
+    public boolean isAdaptiveConcurrency() {
+        return adaptiveConcurrency;
+    }
+
+    public void setAdaptiveConcurrency(boolean adaptiveConcurrency) {
+        this.adaptiveConcurrency = adaptiveConcurrency;
+    }
+
+    public int getAdaptiveStep() {
+        return adaptiveStep;
+    }
+
+    public void setAdaptiveStep(int adaptiveStep) {
+        this.adaptiveStep = adaptiveStep;
+    }
+
+    public int getSloLatencyMillis() {
+        return sloLatencyMillis;
+    }
+
+    public void setSloLatencyMillis(int sloLatencyMillis) {
+        this.sloLatencyMillis = sloLatencyMillis;
+    }
+
+    public double getSloErrorRate() {
+        return sloErrorRate;
+    }
+
+    public void setSloErrorRate(double sloErrorRate) {
+        this.sloErrorRate = sloErrorRate;
+    }
+
+    public boolean isDistributed() {
+        return distributed;
+    }
+
+    public void setDistributed(boolean distributed) {
+        this.distributed = distributed;
+    }
+
+    public ConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    public void setConnectionPool(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+    }
+
+    public boolean isReactiveSessions() {
+        return reactiveSessions;
+    }
+
+    public void setReactiveSessions(boolean reactiveSessions) {
+        this.reactiveSessions = reactiveSessions;
+    }
+
+    public String getThinkTimeRest() {
+        return thinkTimeRest;
+    }
+
+    public void setThinkTimeRest(String thinkTimeRest) {
+        this.thinkTimeRest = thinkTimeRest;
+    }
+
+    public String getThinkTimeGit() {
+        return thinkTimeGit;
+    }
+
+    public void setThinkTimeGit(String thinkTimeGit) {
+        this.thinkTimeGit = thinkTimeGit;
+    }
+
+    public String getThinkTimeWebsocket() {
+        return thinkTimeWebsocket;
+    }
+
+    public void setThinkTimeWebsocket(String thinkTimeWebsocket) {
+        this.thinkTimeWebsocket = thinkTimeWebsocket;
+    }
+
+    public int getSoakDurationMinutes() {
+        return soakDurationMinutes;
+    }
+
+    public void setSoakDurationMinutes(int soakDurationMinutes) {
+        this.soakDurationMinutes = soakDurationMinutes;
+    }
+
+    public int getAutosaveIntervalSeconds() {
+        return autosaveIntervalSeconds;
+    }
+
+    public void setAutosaveIntervalSeconds(int autosaveIntervalSeconds) {
+        this.autosaveIntervalSeconds = autosaveIntervalSeconds;
+    }
+
+    public String getScenario() {
+        return scenario;
+    }
+
+    public void setScenario(String scenario) {
+        this.scenario = scenario;
+    }
+
+    /**
+     * @return true if the students run a scenario instead of the built-in flow
+     */
+    public boolean hasScenario() {
+        return scenario != null && !scenario.isBlank();
+    }
+
+    public String getPersonas() {
+        return personas;
+    }
+
+    public void setPersonas(String personas) {
+        this.personas = personas;
+    }
+
+    /**
+     * @return true if the students are split over personas
+     */
+    public boolean hasPersonas() {
+        return personas != null && !personas.isBlank();
+    }
+
     public Set<SimulationSchedule> getSchedules() {
         return schedules;
     }
@@ -309,6 +655,46 @@ public class Simulation {
         EXISTING_COURSE_CREATE_EXAM,
     }
 
+    public enum ArrivalMode {
+        /**
+         * All students go through each phase together, and the next phase starts once the slowest student finished.
+         * A slow server slows down its own load, so this measures how much work gets done rather than how the server
+         * copes with a given load.
+         */
+        CLOSED_LOOP,
+
+        /**
+         * Students start their sessions evenly spaced at {@code arrivalRate} per second, however long the server takes.
+         */
+        CONSTANT_RATE,
+
+        /**
+         * Students start their sessions as a Poisson process with a mean of {@code arrivalRate} per second.
+         */
+        POISSON,
+
+        /**
+         * Students start their sessions following the time-varying rate described by {@code arrivalRateCurve}.
+         */
+        RATE_CURVE,
+    }
+
+    public enum ConnectionPool {
+        /**
+         * Every student opens connections of its own, at most as many as a browser opens to one server, and reuses
+         * them for all of its requests. The server sees as many clients, connections and TLS handshakes as in a real
+         * exam.
+         */
+        PER_STUDENT,
+
+        /**
+         * All students take their connections from one pool on the tool's host, which keeps few connections open and
+         * hands them to whichever student sends a request next. Fewer connections and handshakes than real clients
+         * cause, in exchange for far less load on the tool's host.
+         */
+        SHARED,
+    }
+
     public enum IDEType {
         /**
          * Programming exercises will be solved using the Artemis Online IDE.
@@ -25,7 +25,7 @@ public class SimulationResultForSummary {
             run
                 .getStats()
                 .stream()
-                .filter((SimulationStats stats) -> stats.getRequestType().equals(RequestType.TOTAL))
+                .filter((SimulationStats stats) -> stats.getRequestType().equals(RequestType.TOTAL) && stats.getPersona() == null)
                 .findFirst()
                 .orElseThrow()
                 .getAvgResponseTime()
@@ -38,6 +38,34 @@ public class SimulationRun {
     @OneToOne(cascade = CascadeType.REMOVE, mappedBy = "simulationRun", fetch = FetchType.EAGER)
     private CiStatus ciStatus;
 
+    @OneToMany(cascade = CascadeType.REMOVE, mappedBy = "simulationRun", fetch = FetchType.EAGER)
+    @OrderBy("stageIndex")
+    private Set<LoadStage> loadStages;
+
+    /**
+     * Deleted along with the run by the database's foreign key, rather than loaded and removed one by one: a long run has
+     * a rollup per second and request type.
+     */
+    @OneToMany(mappedBy = "simulationRun")
+    @JsonIgnore
+    private Set<StatsRollup> statsRollups;
+
+    @OneToMany(cascade = CascadeType.REMOVE, mappedBy = "simulationRun")
+    @JsonIgnore
+    private Set<EndpointStats> endpointStats;
+
+    /**
+     * The highest concurrency that held the SLO for a whole evaluation interval, for runs with adaptive concurrency.
+     */
+    @Column(name = "sustained_concurrency")
+    private Integer sustainedConcurrency;
+
+    /**
+     * The requests per second completed at {@link #sustainedConcurrency}.
+     */
+    @Column(name = "sustained_throughput")
+    private Double sustainedThroughput;
+
     @Transient
     private ArtemisAccountDTO adminAccount;
 
@@ -124,6 +152,46 @@ public class SimulationRun {
         this.ciStatus = ciStatus;
     }
 
+    public Integer getSustainedConcurrency() {
+        return sustainedConcurrency;
+    }
+
+    public void setSustainedConcurrency(Integer sustainedConcurrency) {
+        this.sustainedConcurrency = sustainedConcurrency;
+    }
+
+    public Double getSustainedThroughput() {
+        return sustainedThroughput;
+    }
+
+    public void setSustainedThroughput(Double sustainedThroughput) {
+        this.sustainedThroughput = sustainedThroughput;
+    }
+
+    public Set<LoadStage> getLoadStages() {
+        return loadStages;
+    }
+
+    public void setLoadStages(Set<LoadStage> loadStages) {
+        this.loadStages = loadStages;
+    }
+
+    public Set<StatsRollup> getStatsRollups() {
+        return statsRollups;
+    }
+
+    public void setStatsRollups(Set<StatsRollup> statsRollups) {
+        this.statsRollups = statsRollups;
+    }
+
+    public Set<EndpointStats> getEndpointStats() {
+        return endpointStats;
+    }
+
+    public void setEndpointStats(Set<EndpointStats> endpointStats) {
+        this.endpointStats = endpointStats;
+    }
+
     public enum Status {
         QUEUED,
         RUNNING,
@@ -1,35 +1,61 @@
 package de.tum.cit.aet.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import de.tum.cit.aet.util.HttpStatusCounts;
 import de.tum.cit.aet.util.TimeLogUtil;
 import jakarta.persistence.*;
+import java.util.Map;
 import java.util.Set;
+import java.util.SortedMap;
 
 @Entity
 public class SimulationStats {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "simulation_stats_seq")
+    @SequenceGenerator(name = "simulation_stats_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "number_of_requests", nullable = false)
     private long numberOfRequests;
 
+    /**
+     * The number of requests that failed, which the number of requests and the response times leave out.
+     */
+    @Column(name = "number_of_failures", nullable = false)
+    private long numberOfFailures;
+
+    /**
+     * The number of requests with each HTTP status, see {@link HttpStatusCounts}, or {@code null} if none had one.
+     */
+    @Column(name = "status_codes")
+    private String statusCodes;
+
     @Column(name = "avg_response_time", nullable = false)
     private long avgResponseTime;
 
-    @OneToMany(cascade = CascadeType.REMOVE, fetch = FetchType.EAGER)
-    @JoinColumn(name = "simulation_stats_id")
+    @Embedded
+    private ResponseTimePercentiles percentiles;
+
+    @Embedded
+    private RequestTimingBreakdown timings;
+
+    @OneToMany(cascade = CascadeType.REMOVE, fetch = FetchType.EAGER, mappedBy = "simulationStats")
     private Set<StatsByMinute> statsByMinute;
 
-    @OneToMany(cascade = CascadeType.REMOVE, fetch = FetchType.EAGER)
-    @JoinColumn(name = "simulation_stats_id")
+    @OneToMany(cascade = CascadeType.REMOVE, fetch = FetchType.EAGER, mappedBy = "simulationStats")
     private Set<StatsBySecond> statsBySecond;
 
     @Enumerated(EnumType.STRING)
     @Column(name = "request_type", nullable = false)
     private RequestType requestType;
 
+    /**
+     * The persona whose requests these stats cover, or {@code null} for the stats of all students.
+     */
+    @Column(name = "persona")
+    private String persona;
+
     @ManyToOne
     @JoinColumn(name = "simulation_run_id", nullable = false)
     @JsonIgnore
@@ -51,6 +77,22 @@ public class SimulationStats {
         this.numberOfRequests = numberOfRequests;
     }
 
+    public long getNumberOfFailures() {
+        return numberOfFailures;
+    }
+
+    public void setNumberOfFailures(long numberOfFailures) {
+        this.numberOfFailures = numberOfFailures;
+    }
+
+    public SortedMap<Integer, Long> getStatusCodes() {
+        return HttpStatusCounts.decode(statusCodes);
+    }
+
+    public void setStatusCodes(Map<Integer, Long> statusCodes) {
+        this.statusCodes = HttpStatusCounts.encode(statusCodes);
+    }
+
     public long getAvgResponseTime() {
         return avgResponseTime;
     }
@@ -59,6 +101,22 @@ public class SimulationStats {
         this.avgResponseTime = avgResponseTime;
     }
 
+    public ResponseTimePercentiles getPercentiles() {
+        return percentiles;
+    }
+
+    public void setPercentiles(ResponseTimePercentiles percentiles) {
+        this.percentiles = percentiles;
+    }
+
+    public RequestTimingBreakdown getTimings() {
+        return timings;
+    }
+
+    public void setTimings(RequestTimingBreakdown timings) {
+        this.timings = timings;
+    }
+
     public Set<StatsByMinute> getStatsByMinute() {
         return statsByMinute;
     }
@@ -75,6 +133,14 @@ public class SimulationStats {
         this.requestType = requestType;
     }
 
+    public String getPersona() {
+        return persona;
+    }
+
+    public void setPersona(String persona) {
+        this.persona = persona;
+    }
+
     public SimulationRun getSimulationRun() {
         return simulationRun;
     }
@@ -93,6 +159,10 @@ public class SimulationStats {
 
     @Override
     public String toString() {
-        return "Number of Requests: " + numberOfRequests + "\nAverage Response Time: " + TimeLogUtil.formatDuration(avgResponseTime) + "\n";
+        String average = "Average Response Time: " + TimeLogUtil.formatDuration(avgResponseTime) + "\n";
+        String tail = percentiles == null
+            ? ""
+            : "99th Percentile Response Time: " + TimeLogUtil.formatDuration(percentiles.getP99()) + "\n";
+        return "Number of Requests: " + numberOfRequests + "\n" + average + tail;
     }
 }
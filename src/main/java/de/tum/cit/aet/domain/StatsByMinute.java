@@ -8,7 +8,8 @@ import java.time.ZonedDateTime;
 public class StatsByMinute {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stats_by_minute_seq")
+    @SequenceGenerator(name = "stats_by_minute_seq", allocationSize = 500)
     private Long id;
 
     @Column(name = "date_time", nullable = false)
@@ -17,9 +18,21 @@ public class StatsByMinute {
     @Column(name = "number_of_requests", nullable = false)
     private long numberOfRequests;
 
+    /**
+     * The number of requests that failed, which the number of requests and the response times leave out.
+     */
+    @Column(name = "number_of_failures", nullable = false)
+    private long numberOfFailures;
+
     @Column(name = "avg_response_time", nullable = false)
     private long avgResponseTime;
 
+    @Embedded
+    private ResponseTimePercentiles percentiles;
+
+    @Embedded
+    private RequestTimingBreakdown timings;
+
     @ManyToOne
     @JoinColumn(name = "simulation_stats_id", nullable = false)
     @JsonIgnore
@@ -49,6 +62,14 @@ public class StatsByMinute {
         this.numberOfRequests = numberOfRequests;
     }
 
+    public long getNumberOfFailures() {
+        return numberOfFailures;
+    }
+
+    public void setNumberOfFailures(long numberOfFailures) {
+        this.numberOfFailures = numberOfFailures;
+    }
+
     public long getAvgResponseTime() {
         return avgResponseTime;
     }
@@ -57,6 +78,22 @@ public class StatsByMinute {
         this.avgResponseTime = avgResponseTime;
     }
 
+    public ResponseTimePercentiles getPercentiles() {
+        return percentiles;
+    }
+
+    public void setPercentiles(ResponseTimePercentiles percentiles) {
+        this.percentiles = percentiles;
+    }
+
+    public RequestTimingBreakdown getTimings() {
+        return timings;
+    }
+
+    public void setTimings(RequestTimingBreakdown timings) {
+        this.timings = timings;
+    }
+
     public SimulationStats getSimulationStats() {
         return simulationStats;
     }
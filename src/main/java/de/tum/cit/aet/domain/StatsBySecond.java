@@ -8,7 +8,8 @@ import java.time.ZonedDateTime;
 public class StatsBySecond {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stats_by_second_seq")
+    @SequenceGenerator(name = "stats_by_second_seq", allocationSize = 500)
     private Long id;
 
     @Column(name = "date_time", nullable = false)
@@ -17,9 +18,18 @@ public class StatsBySecond {
     @Column(name = "number_of_requests", nullable = false)
     private long numberOfRequests;
 
+    /**
+     * The number of requests that failed, which the number of requests and the response times leave out.
+     */
+    @Column(name = "number_of_failures", nullable = false)
+    private long numberOfFailures;
+
     @Column(name = "avg_response_time", nullable = false)
     private long avgResponseTime;
 
+    @Embedded
+    private RequestTimingBreakdown timings;
+
     @ManyToOne
     @JoinColumn(name = "simulation_stats_id", nullable = false)
     @JsonIgnore
@@ -49,6 +59,14 @@ public class StatsBySecond {
         this.numberOfRequests = numberOfRequests;
     }
 
+    public long getNumberOfFailures() {
+        return numberOfFailures;
+    }
+
+    public void setNumberOfFailures(long numberOfFailures) {
+        this.numberOfFailures = numberOfFailures;
+    }
+
     public long getAvgResponseTime() {
         return avgResponseTime;
     }
@@ -57,6 +75,14 @@ public class StatsBySecond {
         this.avgResponseTime = avgResponseTime;
     }
 
+    public RequestTimingBreakdown getTimings() {
+        return timings;
+    }
+
+    public void setTimings(RequestTimingBreakdown timings) {
+        this.timings = timings;
+    }
+
     public SimulationStats getSimulationStats() {
         return simulationStats;
     }
@@ -0,0 +1,124 @@
+package de.tum.cit.aet.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import java.time.ZonedDateTime;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * The requests of one type that completed within one second of a run, written while the run is live.
+ * <p>
+ * Rollups are only ever appended: requests reported after their second was flushed go into another rollup for the same
+ * second, so the rollups of a second add up rather than replace each other. A run that never gets to calculate its
+ * result, because it failed or the tool stopped, still has its requests up to the last flush here.
+ */
+@Entity
+@Table(name = "stats_rollup")
+public class StatsRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stats_rollup_seq")
+    @SequenceGenerator(name = "stats_rollup_seq", allocationSize = 500)
+    private Long id;
+
+    @Column(name = "date_time", nullable = false)
+    private ZonedDateTime dateTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "request_type", nullable = false)
+    private RequestType requestType;
+
+    /**
+     * The persona of the students that made the requests, or {@code null} for the requests of all students. Rollups of a
+     * persona are of {@link RequestType#TOTAL}, except those written before the run's requests were rolled up per
+     * persona total, which are of the requests' own types.
+     */
+    @Column(name = "persona")
+    private String persona;
+
+    @Column(name = "number_of_requests", nullable = false)
+    private long numberOfRequests;
+
+    /**
+     * The number of requests that failed, which the number of requests and the total response time leave out.
+     */
+    @Column(name = "number_of_failures", nullable = false)
+    private long numberOfFailures;
+
+    /**
+     * The sum of the requests' durations in nanoseconds, so that rollups of the same second can be combined exactly.
+     */
+    @Column(name = "total_response_time", nullable = false)
+    private long totalResponseTime;
+
+    @ManyToOne
+    @JoinColumn(name = "simulation_run_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JsonIgnore
+    private SimulationRun simulationRun;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public ZonedDateTime getDateTime() {
+        return dateTime;
+    }
+
+    public void setDateTime(ZonedDateTime dateTime) {
+        this.dateTime = dateTime;
+    }
+
+    public RequestType getRequestType() {
+        return requestType;
+    }
+
+    public void setRequestType(RequestType requestType) {
+        this.requestType = requestType;
+    }
+
+    public String getPersona() {
+        return persona;
+    }
+
+    public void setPersona(String persona) {
+        this.persona = persona;
+    }
+
+    public long getNumberOfRequests() {
+        return numberOfRequests;
+    }
+
+    public void setNumberOfRequests(long numberOfRequests) {
+        this.numberOfRequests = numberOfRequests;
+    }
+
+    public long getNumberOfFailures() {
+        return numberOfFailures;
+    }
+
+    public void setNumberOfFailures(long numberOfFailures) {
+        this.numberOfFailures = numberOfFailures;
+    }
+
+    public long getTotalResponseTime() {
+        return totalResponseTime;
+    }
+
+    public void setTotalResponseTime(long totalResponseTime) {
+        this.totalResponseTime = totalResponseTime;
+    }
+
+    public SimulationRun getSimulationRun() {
+        return simulationRun;
+    }
+
+    public void setSimulationRun(SimulationRun simulationRun) {
+        this.simulationRun = simulationRun;
+    }
+}
@@ -0,0 +1,14 @@
+package de.tum.cit.aet.repository;
+
+import de.tum.cit.aet.domain.EndpointStats;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EndpointStatsRepository extends JpaRepository<EndpointStats, Long> {
+    @Query(value = "select stats from EndpointStats stats where stats.simulationRun.id = :#{#simulationRunId}")
+    List<EndpointStats> findAllBySimulationRunId(@Param("simulationRunId") long simulationRunId);
+}
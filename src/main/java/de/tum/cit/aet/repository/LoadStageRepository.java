@@ -0,0 +1,8 @@
+package de.tum.cit.aet.repository;
+
+import de.tum.cit.aet.domain.LoadStage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LoadStageRepository extends JpaRepository<LoadStage, Long> {}
@@ -0,0 +1,21 @@
+package de.tum.cit.aet.repository;
+
+import de.tum.cit.aet.domain.StatsRollup;
+import jakarta.transaction.Transactional;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StatsRollupRepository extends JpaRepository<StatsRollup, Long> {
+    @Query(value = "select rollup from StatsRollup rollup where rollup.simulationRun.id = :#{#simulationRunId}")
+    List<StatsRollup> findAllBySimulationRunId(@Param("simulationRunId") long simulationRunId);
+
+    @Modifying
+    @Transactional
+    @Query(value = "delete from StatsRollup rollup where rollup.simulationRun.id = :#{#simulationRunId}")
+    void deleteAllBySimulationRunId(@Param("simulationRunId") long simulationRunId);
+}
@@ -2,14 +2,19 @@ package de.tum.cit.aet.service.artemis;
 
 import de.tum.cit.aet.service.dto.ArtemisServerConfigurationDTO;
 import de.tum.cit.aet.util.ArtemisServer;
+import de.tum.cit.aet.util.RateLimiter;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class ArtemisConfiguration {
 
+    private final Map<ArtemisServer, RateLimiter> rateLimiters = new ConcurrentHashMap<>();
+
     @Value("${artemis.local.url}")
     private String localUrl;
 
@@ -28,6 +33,9 @@ public class ArtemisConfiguration {
     @Value("${artemis.local.is-local}")
     private boolean localIsLocal;
 
+    @Value("${artemis.local.max-requests-per-second:0}")
+    private double localMaxRequestsPerSecond;
+
     @Value("${artemis.ts1.url}")
     private String test1Url;
 
@@ -46,6 +54,9 @@ public class ArtemisConfiguration {
     @Value("${artemis.ts1.is-local}")
     private boolean test1IsLocal;
 
+    @Value("${artemis.ts1.max-requests-per-second:0}")
+    private double test1MaxRequestsPerSecond;
+
     @Value("${artemis.ts3.url}")
     private String test3Url;
 
@@ -64,6 +75,9 @@ public class ArtemisConfiguration {
     @Value("${artemis.ts3.is-local}")
     private boolean test3IsLocal;
 
+    @Value("${artemis.ts3.max-requests-per-second:0}")
+    private double test3MaxRequestsPerSecond;
+
     @Value("${artemis.ts7.url}")
     private String test7Url;
 
@@ -82,6 +96,9 @@ public class ArtemisConfiguration {
     @Value("${artemis.ts7.is-local}")
     private boolean test7IsLocal;
 
+    @Value("${artemis.ts7.max-requests-per-second:0}")
+    private double test7MaxRequestsPerSecond;
+
     @Value("${artemis.ts8.url}")
     private String test8Url;
 
@@ -100,6 +117,9 @@ public class ArtemisConfiguration {
     @Value("${artemis.ts8.is-local}")
     private boolean test8IsLocal;
 
+    @Value("${artemis.ts8.max-requests-per-second:0}")
+    private double test8MaxRequestsPerSecond;
+
     @Value("${artemis.staging.url}")
     private String stagingUrl;
 
@@ -118,6 +138,9 @@ public class ArtemisConfiguration {
     @Value("${artemis.staging.is-local}")
     private boolean stagingIsLocal;
 
+    @Value("${artemis.staging.max-requests-per-second:0}")
+    private double stagingMaxRequestsPerSecond;
+
     @Value("${artemis.staging2.url}")
     private String staging2Url;
 
@@ -136,6 +159,9 @@ public class ArtemisConfiguration {
     @Value("${artemis.staging2.is-local}")
     private boolean staging2IsLocal;
 
+    @Value("${artemis.staging2.max-requests-per-second:0}")
+    private double staging2MaxRequestsPerSecond;
+
     @Value("${artemis.devcluster.url}")
     private String devclusterUrl;
 
@@ -154,6 +180,9 @@ public class ArtemisConfiguration {
     @Value("${artemis.devcluster.is-local}")
     private boolean devclusterIsLocal;
 
+    @Value("${artemis.devcluster.max-requests-per-second:0}")
+    private double devclusterMaxRequestsPerSecond;
+
     @Value("${artemis.production.url}")
     private String productionUrl;
 
@@ -172,6 +201,9 @@ public class ArtemisConfiguration {
     @Value("${artemis.production.is-local}")
     private boolean productionIsLocal;
 
+    @Value("${artemis.production.max-requests-per-second:0}")
+    private double productionMaxRequestsPerSecond;
+
     /**
      * Get the URL of the Artemis server.
      *
@@ -292,6 +324,40 @@ public class ArtemisConfiguration {
         };
     }
 
+    /**
+     * Get the ceiling on the requests per second all simulated students together send to the Artemis server.
+     *
+     * @param server the Artemis server.
+     * @return the maximum requests per second, 0 for no limit.
+     */
+    public double getMaxRequestsPerSecond(ArtemisServer server) {
+        return switch (server) {
+            case LOCAL -> localMaxRequestsPerSecond;
+            case TS1 -> test1MaxRequestsPerSecond;
+            case TS3 -> test3MaxRequestsPerSecond;
+            case TS7 -> test7MaxRequestsPerSecond;
+            case TS8 -> test8MaxRequestsPerSecond;
+            case STAGING -> stagingMaxRequestsPerSecond;
+            case STAGING2 -> staging2MaxRequestsPerSecond;
+            case DEVCLUSTER -> devclusterMaxRequestsPerSecond;
+            case PRODUCTION -> productionMaxRequestsPerSecond;
+        };
+    }
+
+    /**
+     * Get the rate limiter shared by every simulated student of the Artemis server, across all runs against it.
+     *
+     * @param server the Artemis server.
+     * @return the rate limiter, or null if the server has no limit.
+     */
+    public RateLimiter getRateLimiter(ArtemisServer server) {
+        double maxRequestsPerSecond = getMaxRequestsPerSecond(server);
+        if (maxRequestsPerSecond <= 0) {
+            return null;
+        }
+        return rateLimiters.computeIfAbsent(server, key -> new RateLimiter(maxRequestsPerSecond));
+    }
+
     /**
      * Get the configuration of the given Artemis server.
      *
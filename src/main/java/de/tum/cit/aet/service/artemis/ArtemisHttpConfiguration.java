@@ -0,0 +1,81 @@
+package de.tum.cit.aet.service.artemis;
+
+import java.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * The connections and event loops the simulated users' requests to Artemis go through, see
+ * {@link de.tum.cit.aet.service.artemis.interaction.ArtemisHttpClients}.
+ * <p>
+ * Reactor Netty keeps a pool per remote host within a connection provider, so the connection limit applies to each
+ * Artemis server on its own. Requests beyond it wait for a connection to become free, and that wait counts towards
+ * their measured duration, so the limit must stay well above the number of requests a run has in flight.
+ */
+@Configuration
+public class ArtemisHttpConfiguration {
+
+    static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 1000;
+
+    static final int DEFAULT_PENDING_ACQUIRE_TIMEOUT_SECONDS = 60;
+
+    /**
+     * How long a connection may stay idle before it is closed, in the shared pool as well as in the students' own.
+     */
+    public static final int DEFAULT_MAX_IDLE_TIME_SECONDS = 30;
+
+    static final int DEFAULT_EVICTION_INTERVAL_SECONDS = 15;
+
+    private static final Logger log = LoggerFactory.getLogger(ArtemisHttpConfiguration.class);
+
+    @Value("${benchmarking.http.max-connections-per-host:" + DEFAULT_MAX_CONNECTIONS_PER_HOST + "}")
+    private int maxConnectionsPerHost;
+
+    @Value("${benchmarking.http.pending-acquire-timeout-seconds:" + DEFAULT_PENDING_ACQUIRE_TIMEOUT_SECONDS + "}")
+    private int pendingAcquireTimeoutSeconds;
+
+    @Value("${benchmarking.http.max-idle-time-seconds:" + DEFAULT_MAX_IDLE_TIME_SECONDS + "}")
+    private int maxIdleTimeSeconds;
+
+    @Value("${benchmarking.http.eviction-interval-seconds:" + DEFAULT_EVICTION_INTERVAL_SECONDS + "}")
+    private int evictionIntervalSeconds;
+
+    /**
+     * Not positive for Reactor Netty's default, one per core but at least four.
+     */
+    @Value("${benchmarking.http.event-loop-threads:0}")
+    private int eventLoopThreads;
+
+    /**
+     * Create the connection pool shared by every simulated user that does not keep connections of its own.
+     *
+     * @return the connection provider, disposed with the application context
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider artemisConnectionProvider() {
+        log.debug("Creating the shared Artemis connection pool with {} connections per host", maxConnectionsPerHost);
+        return ConnectionProvider.builder("artemis")
+            .maxConnections(maxConnectionsPerHost)
+            .pendingAcquireMaxCount(-1)
+            .pendingAcquireTimeout(Duration.ofSeconds(pendingAcquireTimeoutSeconds))
+            .maxIdleTime(Duration.ofSeconds(maxIdleTimeSeconds))
+            .evictInBackground(Duration.ofSeconds(evictionIntervalSeconds))
+            .build();
+    }
+
+    /**
+     * Create the event loops every simulated user's connections run on, whether shared or its own.
+     *
+     * @return the loop resources, disposed with the application context
+     */
+    @Bean(destroyMethod = "dispose")
+    public LoopResources artemisLoopResources() {
+        int threads = eventLoopThreads > 0 ? eventLoopThreads : LoopResources.DEFAULT_IO_WORKER_COUNT;
+        return LoopResources.create("artemis-http", threads, true);
+    }
+}
@@ -0,0 +1,36 @@
+package de.tum.cit.aet.service.artemis.interaction;
+
+import de.tum.cit.aet.domain.RequestType;
+
+/**
+ * The kinds of action a simulated student takes, each with its own think time.
+ * <p>
+ * The pause before a push is a student writing code, the pause before the next page is a student reading, and the two
+ * differ by orders of magnitude, so a single think time for everything would fit neither.
+ */
+public enum ActionCategory {
+    /**
+     * A REST call, i.e. a page or part of a page the student looks at or a form they submit.
+     */
+    REST,
+    /**
+     * A git clone or push.
+     */
+    GIT,
+    /**
+     * Opening the exam websocket.
+     */
+    WEBSOCKET;
+
+    /**
+     * @param type the type of a request
+     * @return the category of the action the request belongs to
+     */
+    public static ActionCategory of(RequestType type) {
+        return switch (type) {
+            case CLONE, CLONE_SSH, CLONE_TOKEN, CLONE_PASSWORD, PUSH, PUSH_SSH, PUSH_TOKEN, PUSH_PASSWORD -> GIT;
+            case WEBSOCKET -> WEBSOCKET;
+            default -> REST;
+        };
+    }
+}
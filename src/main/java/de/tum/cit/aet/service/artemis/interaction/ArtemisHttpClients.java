@@ -0,0 +1,104 @@
+package de.tum.cit.aet.service.artemis.interaction;
+
+import de.tum.cit.aet.service.artemis.ArtemisHttpConfiguration;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.SSLException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+import reactor.netty.tcp.TcpSslContextSpec;
+
+/**
+ * Builds the HTTP clients simulated users send their requests with, on the event loops and, unless a user keeps
+ * connections of its own, the connection pool of {@link ArtemisHttpConfiguration}. Every client shares one TLS context.
+ * <p>
+ * Without it, each web client of a user came with a pool, event loops and TLS context of its own, a few per student
+ * for the login alone, which on a large run left thousands of pools and idle sockets on the tool's host.
+ */
+@Component
+public class ArtemisHttpClients {
+
+    private final LoopResources loopResources;
+    private final SslContext sslContext;
+    private final HttpClient shared;
+
+    @Value("${benchmarking.http.max-idle-time-seconds:" + ArtemisHttpConfiguration.DEFAULT_MAX_IDLE_TIME_SECONDS + "}")
+    private int maxIdleTimeSeconds;
+
+    public ArtemisHttpClients(ConnectionProvider artemisConnectionProvider, LoopResources artemisLoopResources) {
+        this.loopResources = artemisLoopResources;
+        this.sslContext = createSslContext();
+        this.shared = create(artemisConnectionProvider);
+    }
+
+    /**
+     * @return the client on the pool shared by all users
+     */
+    public HttpClient shared() {
+        return shared;
+    }
+
+    /**
+     * Create a pool for a single user, with at most as many connections to a server as a browser opens to one origin.
+     * Its idle connections are closed when next acquired rather than in the background, so it schedules nothing and
+     * must be disposed once the user is done.
+     *
+     * @param name the name of the pool, e.g. the user's name
+     * @return the pool
+     */
+    public ConnectionProvider newConnectionPool(String name) {
+        return ConnectionProvider.builder("student-" + name)
+            .maxConnections(SimulatedArtemisUser.MAX_PARALLEL_REQUESTS_PER_ORIGIN)
+            .pendingAcquireMaxCount(-1)
+            .maxIdleTime(Duration.ofSeconds(maxIdleTimeSeconds))
+            .build();
+    }
+
+    /**
+     * Create a client on the given pool.
+     *
+     * @param connectionProvider the pool to take connections from
+     * @return the client
+     */
+    public HttpClient create(ConnectionProvider connectionProvider) {
+        return configure(HttpClient.create(connectionProvider).runOn(loopResources), sslContext);
+    }
+
+    /**
+     * Apply the timeouts, TLS settings and request timing every client of a simulated user has.
+     *
+     * @param client     the client to configure
+     * @param sslContext the TLS context to use
+     * @return the configured client
+     */
+    static HttpClient configure(HttpClient client, SslContext sslContext) {
+        return RequestTimer.instrument(client)
+            .doOnConnected(conn ->
+                conn.addHandlerFirst(new ReadTimeoutHandler(20, TimeUnit.MINUTES)).addHandlerFirst(new WriteTimeoutHandler(30))
+            )
+            .responseTimeout(Duration.ofMinutes(20))
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 30 * 1000)
+            .secure(spec ->
+                spec
+                    .sslContext(sslContext)
+                    .handshakeTimeout(Duration.ofSeconds(30))
+                    .closeNotifyFlushTimeout(Duration.ofSeconds(30))
+                    .closeNotifyReadTimeout(Duration.ofSeconds(30))
+            );
+    }
+
+    static SslContext createSslContext() {
+        try {
+            return TcpSslContextSpec.forClient().sslContext();
+        } catch (SSLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package de.tum.cit.aet.service.artemis.interaction;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Names the endpoint a request goes to, as its HTTP method and URI template, e.g.
+ * {@code POST api/exam/courses/{courseId}/exams/{examId}/student-exams/submit}.
+ * <p>
+ * The template is the one the request was built from, which {@link WebClient} keeps as an attribute of the request.
+ * Requests built without one, or from a template that has IDs concatenated into it, fall back to their path, with every
+ * segment that looks like an ID replaced by {@code {id}}. The query is left out either way, so that the endpoints of a
+ * run are a few dozen however many courses, exams and participations it has.
+ * <p>
+ * The names are interned, so the stats of millions of requests share a handful of strings, and remembered for each
+ * template, so that naming the endpoint of a request is a lookup rather than a split and a regex per segment.
+ */
+final class Endpoints {
+
+    /**
+     * The attribute {@link WebClient} stores the URI template of a request under, if it was built from one.
+     */
+    static final String URI_TEMPLATE_ATTRIBUTE = WebClient.class.getName() + ".uriTemplate";
+
+    private static final Pattern ID = Pattern.compile("\\d+|[0-9a-fA-F-]{16,}");
+
+    private static final Map<String, String> NAMES = new ConcurrentHashMap<>();
+
+    /**
+     * How many URIs of each HTTP method to remember the endpoint of, well above the templates of a run, so that paths
+     * that differ in their query cannot grow the cache without bound.
+     */
+    private static final int MAX_CACHED_URIS = 4096;
+
+    /**
+     * The endpoint of each URI a request was made with, by HTTP method, so that the URI of the same template is only
+     * split and matched against {@link #ID} once.
+     */
+    private static final Map<String, Map<String, String>> BY_METHOD_AND_URI = new ConcurrentHashMap<>();
+
+    private Endpoints() {}
+
+    /**
+     * @param request the request
+     * @return the endpoint of the request
+     */
+    static String of(ClientRequest request) {
+        String uri = request.attribute(URI_TEMPLATE_ATTRIBUTE).map(Object::toString).orElse(null);
+        if (uri == null || uri.contains("://")) {
+            uri = request.url().getRawPath();
+        }
+        return of(request.method().name(), uri);
+    }
+
+    /**
+     * @param method the HTTP method
+     * @param uri    the URI template or path of the request, relative to the server
+     * @return the endpoint of the request
+     */
+    static String of(String method, String uri) {
+        Map<String, String> byUri = BY_METHOD_AND_URI.computeIfAbsent(method, m -> new ConcurrentHashMap<>());
+        String cached = byUri.get(uri);
+        if (cached != null) {
+            return cached;
+        }
+        int end = uri.length();
+        for (int i = 0; i < uri.length(); i++) {
+            char c = uri.charAt(i);
+            if (c == '?' || c == '#') {
+                end = i;
+                break;
+            }
+        }
+        int start = uri.startsWith("/") ? 1 : 0;
+        StringBuilder name = new StringBuilder(method.length() + end - start + 8).append(method).append(' ');
+        String[] segments = uri.substring(start, end).split("/", -1);
+        boolean hasIds = false;
+        for (int i = 0; i < segments.length; i++) {
+            if (i > 0) {
+                name.append('/');
+            }
+            if (ID.matcher(segments[i]).matches()) {
+                name.append("{id}");
+                hasIds = true;
+            } else {
+                name.append(segments[i]);
+            }
+        }
+        String endpoint = name.toString();
+        String interned = NAMES.get(endpoint);
+        if (interned == null) {
+            interned = Objects.requireNonNullElse(NAMES.putIfAbsent(endpoint, endpoint), endpoint);
+        }
+        // A path with IDs is one of many for the same endpoint, so only templates are worth remembering.
+        if (!hasIds && byUri.size() < MAX_CACHED_URIS) {
+            byUri.put(uri, interned);
+        }
+        return interned;
+    }
+}
@@ -0,0 +1,34 @@
+package de.tum.cit.aet.service.artemis.interaction;
+
+import de.tum.cit.aet.domain.RequestType;
+
+/**
+ * Receives every request a simulated user makes through its web client, one by one even if an action makes several,
+ * and every action that makes none, like a git operation, as a request of its own. Failed requests come too, flagged.
+ * <p>
+ * Called on the user's thread, which for reactive students is a Netty event loop, once the action the request belongs
+ * to completed, so implementations must be quick and thread-safe, and must not take a lock every student contends for.
+ */
+@FunctionalInterface
+public interface RequestJournal {
+    /**
+     * @param type             the type of the action the request belongs to
+     * @param startEpochNanos  when the request was made, before any wait for the rate limiter, in nanoseconds since the epoch
+     * @param durationNanos    how long the request took, not counting the wait, in nanoseconds
+     * @param limiterWaitNanos how long the rate limiter held the request back, in nanoseconds
+     * @param student          the student who made the request
+     * @param endpoint         the request's endpoint, see {@link Endpoints}, or {@code null} if unknown
+     * @param status           the HTTP status of the response, 0 if none arrived
+     * @param failed           whether the request failed
+     */
+    void record(
+        RequestType type,
+        long startEpochNanos,
+        long durationNanos,
+        long limiterWaitNanos,
+        int student,
+        String endpoint,
+        int status,
+        boolean failed
+    );
+}
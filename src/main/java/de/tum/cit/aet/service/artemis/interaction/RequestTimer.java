@@ -0,0 +1,322 @@
+package de.tum.cit.aet.service.artemis.interaction;
+
+import de.tum.cit.aet.domain.RequestTimings;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.ssl.SslHandshakeCompletionEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.netty.Connection;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * Times the phases of the requests of one user action, see {@link RequestTimings}, and notes the endpoint of the first,
+ * the status of the last response and how the first failed request failed. Each request is also kept on its own, see
+ * {@link Request}, for the {@link RequestJournal}.
+ * <p>
+ * A timer travels with its requests in the Reactor context under {@link #CONTEXT_KEY}, from where the hooks that
+ * {@link #instrument(HttpClient)} installs on the HTTP client pick it up. The requests of one timer follow each other,
+ * so it keeps the start of the current request's phases in plain fields. The hooks run on the event loop and the timer
+ * is read once the action completed, so the fields are only accessed under its lock.
+ */
+final class RequestTimer {
+
+    /**
+     * Key of the Reactor context entry that holds the timer of a request.
+     */
+    static final String CONTEXT_KEY = RequestTimer.class.getName();
+
+    private static final String HANDLER_NAME = "benchmarking.connectionTimer";
+
+    private final long created = System.nanoTime();
+
+    private long resolve;
+    private long connect;
+    private long tlsHandshake;
+    private long firstByte;
+    private long transfer;
+    private long requests;
+
+    private long requestSent;
+    private long responseReceived;
+
+    private long requestMade;
+    private long requestHeldBack;
+    private String requestEndpoint;
+    private List<Request> requests;
+
+    private String endpoint;
+    private int status;
+    private int currentStatus;
+    private String error;
+    private long failedAt;
+
+    /**
+     * @return when the timer was created, in {@link System#nanoTime()} terms
+     */
+    long created() {
+        return created;
+    }
+
+    /**
+     * @return the phases timed so far
+     */
+    synchronized RequestTimings timings() {
+        return new RequestTimings(resolve, connect, tlsHandshake, firstByte, transfer, requests);
+    }
+
+    /**
+     * Called once the action completed or failed. A request that is neither noted as failed nor as completed, because
+     * the client has no hooks for the end of a response, is taken to have completed now.
+     *
+     * @return the requests of the action, in the order they completed or failed
+     */
+    synchronized List<Request> requests() {
+        requestDone(false);
+        return requests == null ? List.of() : List.copyOf(requests);
+    }
+
+    /**
+     * @return the endpoint of the first request, see {@link Endpoints}, or {@code null} if none was sent
+     */
+    synchronized String endpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @return the HTTP status of the failed request if one failed, otherwise of the last response, or 0 if none arrived
+     */
+    synchronized int status() {
+        return status;
+    }
+
+    /**
+     * @return the simple name of the exception the first failed request failed with, or {@code null} if none failed
+     */
+    synchronized String error() {
+        return error;
+    }
+
+    /**
+     * @return when the first failed request failed, in {@link System#nanoTime()} terms, or 0 if none failed
+     */
+    synchronized long failedAt() {
+        return failedAt;
+    }
+
+    /**
+     * Note a request the timer times, before it is sent.
+     *
+     * @param endpoint the endpoint of the request
+     */
+    synchronized void requested(String endpoint) {
+        if (this.endpoint == null) {
+            this.endpoint = endpoint;
+        }
+        // Requests of one timer follow each other, so one still open is done by now.
+        requestDone(false);
+        currentStatus = 0;
+        requestMade = System.nanoTime();
+        requestHeldBack = 0;
+        requestEndpoint = endpoint;
+    }
+
+    /**
+     * Note that the rate limiter held the current request back.
+     *
+     * @param nanos how long it was held back
+     */
+    synchronized void heldBack(long nanos) {
+        requestHeldBack += nanos;
+    }
+
+    /**
+     * Note the status of a response, before it is checked for an error.
+     *
+     * @param status the HTTP status
+     */
+    synchronized void responded(int status) {
+        currentStatus = status;
+        if (error == null) {
+            this.status = status;
+        }
+    }
+
+    /**
+     * Note that a request failed, with an error status or without a response. A request that failed because the run
+     * was cancelled is not the server's failure and is left out.
+     *
+     * @param exception what the request failed with
+     */
+    synchronized void failed(Throwable exception) {
+        if (exception instanceof CancellationException) {
+            return;
+        }
+        requestDone(true);
+        if (error != null) {
+            return;
+        }
+        // A timeout or closed connection comes wrapped, and its cause is what tells failures apart.
+        Throwable cause = exception instanceof WebClientRequestException && exception.getCause() != null ? exception.getCause() : exception;
+        error = cause.getClass().getSimpleName();
+        status = currentStatus;
+        failedAt = System.nanoTime();
+    }
+
+    private synchronized void addResolve(long nanos) {
+        resolve += nanos;
+    }
+
+    private synchronized void addConnect(long nanos) {
+        connect += nanos;
+    }
+
+    private synchronized void addTlsHandshake(long nanos) {
+        tlsHandshake += nanos;
+    }
+
+    private synchronized void requestSent() {
+        requestSent = System.nanoTime();
+        requests++;
+    }
+
+    private synchronized void responseReceived() {
+        responseReceived = System.nanoTime();
+        if (requestSent != 0) {
+            firstByte += responseReceived - requestSent;
+        }
+    }
+
+    private synchronized void responseCompleted() {
+        if (responseReceived != 0) {
+            transfer += System.nanoTime() - responseReceived;
+        }
+        requestSent = 0;
+        responseReceived = 0;
+        // An error status fails the request right after, see SimulatedArtemisUser#logErrorResponses.
+        requestDone(currentStatus >= 400);
+    }
+
+    private void requestDone(boolean failed) {
+        if (requestMade == 0) {
+            return;
+        }
+        long duration = System.nanoTime() - requestMade;
+        long heldBack = Math.min(duration, requestHeldBack);
+        if (requests == null) {
+            requests = new ArrayList<>(1);
+        }
+        requests.add(new Request(requestMade, duration - heldBack, heldBack, requestEndpoint, currentStatus, failed));
+        requestMade = 0;
+    }
+
+    /**
+     * Install the hooks that time the phases of every request with a timer in its context. A new connection is timed
+     * for the request that opens it, until its TLS handshake completed.
+     *
+     * @param client the client to instrument
+     * @return the instrumented client
+     */
+    static HttpClient instrument(HttpClient client) {
+        return client
+            .doOnChannelInit((observer, channel, remoteAddress) -> {
+                RequestTimer timer = observer.currentContext().getOrDefault(CONTEXT_KEY, null);
+                if (timer != null) {
+                    channel.pipeline().addLast(HANDLER_NAME, new ConnectionTimer(timer));
+                }
+            })
+            .doOnResolve(connection -> {
+                ConnectionTimer connectionTimer = connectionTimer(connection);
+                if (connectionTimer != null) {
+                    connectionTimer.resolveStarted();
+                }
+            })
+            .doAfterResolve((connection, address) -> {
+                ConnectionTimer connectionTimer = connectionTimer(connection);
+                if (connectionTimer != null) {
+                    connectionTimer.resolved();
+                }
+            })
+            .doOnRequest((request, connection) -> {
+                RequestTimer timer = request.currentContextView().getOrDefault(CONTEXT_KEY, null);
+                if (timer != null) {
+                    timer.requestSent();
+                }
+            })
+            .doOnResponse((response, connection) -> {
+                RequestTimer timer = response.currentContextView().getOrDefault(CONTEXT_KEY, null);
+                if (timer != null) {
+                    timer.responseReceived();
+                }
+            })
+            .doAfterResponseSuccess((response, connection) -> {
+                RequestTimer timer = response.currentContextView().getOrDefault(CONTEXT_KEY, null);
+                if (timer != null) {
+                    timer.responseCompleted();
+                }
+            });
+    }
+
+    /**
+     * One request of the timer's action.
+     *
+     * @param made        when the request was made, before the rate limiter held it back, in {@link System#nanoTime()} terms
+     * @param duration    how long it took, not counting the wait for the rate limiter, in nanoseconds
+     * @param limiterWait how long the rate limiter held it back, in nanoseconds
+     * @param endpoint    its endpoint, see {@link Endpoints}
+     * @param status      the HTTP status of its response, or 0 if none arrived
+     * @param failed      whether it failed
+     */
+    record Request(long made, long duration, long limiterWait, String endpoint, int status, boolean failed) {}
+
+    private static ConnectionTimer connectionTimer(Connection connection) {
+        return (ConnectionTimer) connection.channel().pipeline().get(HANDLER_NAME);
+    }
+
+    /**
+     * Times the resolve, connect and TLS handshake of a new connection for the timer of the request that opens it,
+     * then leaves the pipeline.
+     */
+    private static final class ConnectionTimer extends ChannelInboundHandlerAdapter {
+
+        private final RequestTimer timer;
+        private long phaseStarted = System.nanoTime();
+
+        private ConnectionTimer(RequestTimer timer) {
+            this.timer = timer;
+        }
+
+        private void resolveStarted() {
+            phaseStarted = System.nanoTime();
+        }
+
+        private void resolved() {
+            long now = System.nanoTime();
+            timer.addResolve(now - phaseStarted);
+            phaseStarted = now;
+        }
+
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) throws Exception {
+            long now = System.nanoTime();
+            timer.addConnect(now - phaseStarted);
+            phaseStarted = now;
+            if (ctx.pipeline().get(SslHandler.class) == null) {
+                ctx.pipeline().remove(this);
+            }
+            super.channelActive(ctx);
+        }
+
+        @Override
+        public void userEventTriggered(ChannelHandlerContext ctx, Object event) throws Exception {
+            if (event instanceof SslHandshakeCompletionEvent) {
+                timer.addTlsHandshake(System.nanoTime() - phaseStarted);
+                ctx.pipeline().remove(this);
+            }
+            super.userEventTriggered(ctx, event);
+        }
+    }
+}
@@ -3,13 +3,13 @@ package de.tum.cit.aet.service.artemis.interaction;
 import static de.tum.cit.aet.domain.RequestType.*;
 import static de.tum.cit.aet.util.TimeLogUtil.formatDurationFrom;
 import static java.lang.Thread.sleep;
-import static java.time.ZonedDateTime.now;
 
 import com.thedeanda.lorem.LoremIpsum;
 import de.tum.cit.aet.artemisModel.*;
 import de.tum.cit.aet.domain.ArtemisUser;
 import de.tum.cit.aet.domain.OnlineIdeFileSubmission;
 import de.tum.cit.aet.domain.RequestStat;
+import de.tum.cit.aet.domain.RequestType;
 import de.tum.cit.aet.service.artemis.ArtemisUserService;
 import de.tum.cit.aet.service.artemis.util.ArtemisServerInfo;
 import de.tum.cit.aet.service.artemis.util.CourseAvailableTabsDTO;
@@ -18,6 +18,7 @@ import de.tum.cit.aet.service.artemis.util.CourseForOverviewDTO;
 import de.tum.cit.aet.service.artemis.util.ScienceEventDTO;
 import de.tum.cit.aet.service.artemis.util.UserSshPublicKeyDTO;
 import de.tum.cit.aet.util.FileGeneratorUtil;
+import de.tum.cit.aet.util.Persona;
 import de.tum.cit.aet.util.UMLClassDiagrams;
 import jakarta.annotation.Nullable;
 import java.io.*;
@@ -27,6 +28,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.*;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
 import org.apache.commons.io.FileUtils;
 import org.bouncycastle.openssl.PEMKeyPair;
 import org.bouncycastle.openssl.PEMParser;
@@ -41,10 +44,14 @@ import org.eclipse.jgit.transport.sshd.SshdSessionFactoryBuilder;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.reactive.function.BodyInserters;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 /**
  * A simulated Artemis student that can be used to interact with the Artemis server.
@@ -60,12 +67,21 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
     private StudentExam studentExam;
     private String participationVcsAccessToken;
     private Long latestResultId;
-    private SimulatedArtemisWebsocket websocket;
+    private volatile SimulatedArtemisWebsocket websocket;
     private final ArtemisAuthMechanism authenticationMechanism;
 
     private final int numberOfCommitsAndPushesFrom;
     private final int numberOfCommitsAndPushesTo;
 
+    private Persona.ExerciseOrder exerciseOrder = Persona.ExerciseOrder.GIVEN;
+    private double examReloadsPerExercise;
+
+    /**
+     * Where the student's clone lives. Namespaced by server, since runs against different servers execute in parallel
+     * and test user names repeat from one server to the next.
+     */
+    private final Path localRepositoryPath;
+
     private boolean isScienceFeatureEnabled = false;
     private boolean isIrisEnabled = false;
 
@@ -82,6 +98,9 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
         this.numberOfCommitsAndPushesFrom = numberOfCommitsAndPushesFrom;
         this.numberOfCommitsAndPushesTo = numberOfCommitsAndPushesTo;
         this.authenticationMechanism = authMechanism;
+        this.localRepositoryPath = artemisUser.getServer() != null
+            ? Path.of("repos", artemisUser.getServer().name().toLowerCase(Locale.ROOT), username)
+            : Path.of("repos", username);
         // for old users in the DB which might never gotten a key pair generated
         if (artemisUser.getPublicKey() == null || artemisUser.getPrivateKey() == null) {
             var savedUser = artemisUserService.generateKeyPair(artemisUser);
@@ -93,31 +112,66 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
         }
     }
 
+    /**
+     * Set the order this student works on the exercises of the exam in.
+     *
+     * @param exerciseOrder the order
+     */
+    public void setExerciseOrder(Persona.ExerciseOrder exerciseOrder) {
+        this.exerciseOrder = exerciseOrder;
+    }
+
+    /**
+     * Set how often this student reloads the exam page after finishing an exercise, on average.
+     *
+     * @param examReloadsPerExercise the average number of reloads, 0 for none
+     */
+    public void setExamReloadsPerExercise(double examReloadsPerExercise) {
+        this.examReloadsPerExercise = examReloadsPerExercise;
+    }
+
     @Override
     protected void checkAccess() {
         var response = webClient.get().uri("api/core/public/account").retrieve().bodyToMono(User.class).block();
         this.authenticated = response != null && response.getAuthorities().contains("ROLE_USER");
     }
 
+    @Override
+    protected Mono<Boolean> checkAccessLater() {
+        return Mono.defer(() ->
+            webClient
+                .get()
+                .uri("api/core/public/account")
+                .retrieve()
+                .bodyToMono(User.class)
+                .map(user -> user.getAuthorities().contains("ROLE_USER"))
+                .defaultIfEmpty(false)
+                .doOnNext(access -> this.authenticated = access)
+        );
+    }
+
     /**
      * Perform miscellaneous calls to Artemis, e.g. to get the user info, system notifications, account, notification settings, and courses.
+     * Sent in parallel, as the client does when the dashboard loads.
      *
-     * @return the list of request stats
+     * @return the list of request stats, ending with the stat of the page load
      */
     public List<RequestStat> performInitialCalls() {
         if (!authenticated) {
             throw new IllegalStateException("User " + username + " is not logged in or not a student.");
         }
 
-        return List.of(
-            getInfo(),
-            getServerTime(),
-            getSystemNotifications(),
-            getAccount(),
-            getGlobalNotificationSettings(),
-            getCourses(),
-            getCalendarSubscriptionToken(),
-            configureSSH()
+        return loadPage(
+            List.of(
+                () -> blocking(MISC, this::fetchInfo),
+                this::getServerTime,
+                () -> blocking(MISC, () -> get("api/notification/public/system-notifications/active")),
+                () -> blocking(MISC, () -> get("api/core/public/account")),
+                () -> blocking(MISC, () -> get("api/notification/global-notification-settings")),
+                () -> blocking(MISC, () -> get("api/course/courses/for-dashboard")),
+                () -> blocking(MISC, this::fetchCalendarSubscriptionToken),
+                () -> blocking(SETUP_SSH_KEYS, this::configureSSH)
+            )
         );
     }
 
@@ -143,12 +197,75 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
             return requestStats;
         }
         requestStats.add(getServerTime());
-        requestStats.add(fetchLiveEvents());
+        requestStats.add(blocking(MISC, this::fetchLiveEvents));
         requestStats.addAll(handleExercises());
 
         return requestStats;
     }
 
+    /**
+     * Autosave the exam once, the way the exam client does periodically while a student works: re-submit the current
+     * answers to every text, modeling and quiz exercise and, if asked to, commit and push another change to every
+     * programming exercise. Only useful after {@link #participateInExam(long, long)}, which loaded the student exam.
+     *
+     * @param push whether to also push to the programming exercises
+     * @return the list of request stats
+     */
+    public List<RequestStat> autosaveExam(boolean push) {
+        if (!authenticated) {
+            throw new IllegalStateException("User " + username + " is not logged in or not a student.");
+        }
+
+        List<RequestStat> requestStats = new ArrayList<>();
+        if (studentExam == null || studentExam.getExercises() == null) {
+            return requestStats;
+        }
+        for (var exercise : studentExam.getExercises()) {
+            RequestStat stat = null;
+            if (exercise instanceof ModelingExercise modelingExercise) {
+                stat = solveAndSubmitModelingExercise(modelingExercise);
+            } else if (exercise instanceof TextExercise textExercise) {
+                stat = solveAndSubmitTextExercise(textExercise);
+            } else if (exercise instanceof QuizExercise quizExercise) {
+                stat = solveAndSubmitQuizExercise(quizExercise);
+            } else if (push && exercise instanceof ProgrammingExercise programmingExercise) {
+                pushAnotherChange(programmingExercise, requestStats);
+            }
+            if (stat != null) {
+                requestStats.add(stat);
+            }
+        }
+        return requestStats;
+    }
+
+    /**
+     * Make a single request to Artemis as this student, for the steps of a scenario that the flows above do not cover.
+     * The response is read and discarded.
+     *
+     * @param method the HTTP method
+     * @param path   the path relative to the Artemis URL, with any query string, e.g. {@code api/core/courses}
+     * @param body   the JSON body to send, or {@code null} to send none
+     * @param type   the type to record the request under
+     * @return the request stat
+     */
+    public RequestStat performRequest(HttpMethod method, String path, @Nullable String body, RequestType type) {
+        if (!authenticated) {
+            throw new IllegalStateException("User " + username + " is not logged in or not a student.");
+        }
+        long start = System.nanoTime();
+        var request = webClient.method(method).uri(path);
+        var spec = body == null ? request : request.contentType(MediaType.APPLICATION_JSON).bodyValue(body);
+        spec.retrieve().toBodilessEntity().block();
+        return completed(System.nanoTime() - start, type);
+    }
+
+    /**
+     * @return the ID of the student exam once the student navigated into the exam, {@code null} before
+     */
+    public Long getStudentExamId() {
+        return studentExamId;
+    }
+
     /**
      * Start participating in an exam, i.e. navigate into the exam and start the exam.
      *
@@ -158,33 +275,70 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
      * @return the list of request stats
      */
     public List<RequestStat> startExamParticipation(long courseId, long examId, long courseProgrammingExerciseId) {
+        List<RequestStat> requestStats = new ArrayList<>(openExamCourse(courseId, examId, courseProgrammingExerciseId));
+        requestStats.addAll(enterExam(examId));
+        return requestStats;
+    }
+
+    /**
+     * The first part of {@link #startExamParticipation(long, long, long)}: open the course the exam is in, up to the
+     * moment the student presses the button that takes them into the exam.
+     *
+     * @param courseId the ID of the course
+     * @param examId   the ID of the exam
+     * @param courseProgrammingExerciseId the ID of the course programming exercise
+     * @return the list of request stats
+     */
+    public List<RequestStat> openExamCourse(long courseId, long examId, long courseProgrammingExerciseId) {
         if (!authenticated) {
             throw new IllegalStateException("User " + username + " is not logged in or not a student.");
         }
         this.courseIdString = String.valueOf(courseId);
         this.examIdString = String.valueOf(examId);
 
-        List<RequestStat> requestStats = new ArrayList<>();
-
-        requestStats.add(getCourseOverview(courseProgrammingExerciseId));
-        requestStats.add(getServerTime());
-        requestStats.add(getCoursesDropdown());
-        requestStats.add(getScienceSettings());
-        requestStats.add(getNotificationSettings());
-        requestStats.add(getNotificationInfo());
+        // The course page fires all of these at once.
+        List<Callable<RequestStat>> page = new ArrayList<>();
+        page.add(() -> blocking(MISC, () -> fetchCourseOverview(courseProgrammingExerciseId)));
+        page.add(this::getServerTime);
+        page.add(() -> blocking(MISC, () -> get("api/course/courses/for-dropdown")));
+        page.add(() -> blocking(MISC, () -> get("api/atlas/science-settings")));
+        page.add(this::getNotificationSettings);
+        page.add(this::getNotificationInfo);
         if (courseProgrammingExerciseId > 0) {
             if (isScienceFeatureEnabled) {
-                requestStats.add(putScienceEvent(courseProgrammingExerciseId));
+                page.add(() -> blocking(MISC, () -> sendScienceEvent(courseProgrammingExerciseId)));
             }
-            requestStats.add(getExerciseDetails(courseProgrammingExerciseId));
-            requestStats.add(getExerciseContributions(courseProgrammingExerciseId));
+            page.add(() -> blocking(MISC, () -> get("api/exercise/exercises/{exerciseId}/details", courseProgrammingExerciseId)));
+            page.add(() -> blocking(MISC, () -> fetchExerciseContributions(courseProgrammingExerciseId)));
         }
         if (isIrisEnabled) {
-            requestStats.addAll(List.of(getIrisStatus(courseId), getIrisChatHistory(courseId)));
+            page.add(() -> blocking(MISC, () -> get("api/iris/courses/{courseId}/status", courseId)));
+            page.add(() -> blocking(MISC, () -> get("api/iris/chat/courses/{courseId}/sessions/overview", courseId)));
+        }
+        return loadPage(page);
+    }
+
+    /**
+     * The second part of {@link #startExamParticipation(long, long, long)}: navigate into the exam, start it and open
+     * the exam websocket. These are the requests every student of a real exam makes within the same few seconds.
+     * Requires {@link #openExamCourse(long, long, long)} first.
+     *
+     * @param examId the ID of the exam
+     * @return the list of request stats
+     */
+    public List<RequestStat> enterExam(long examId) {
+        if (!authenticated) {
+            throw new IllegalStateException("User " + username + " is not logged in or not a student.");
         }
-        requestStats.add(navigateIntoExam());
-        requestStats.add(getTestExams());
-        requestStats.add(getExamSideBarData());
+
+        // The exam overview loads in parallel; starting the exam needs the student exam it returns.
+        List<RequestStat> requestStats = loadPage(
+            List.of(
+                this::navigateIntoExam,
+                () -> blocking(MISC, () -> get("api/exam/courses/{courseId}/test-exams-per-user", courseIdString)),
+                () -> blocking(MISC, () -> get("api/exam/courses/{courseId}/real-exams-sidebar-data", courseIdString))
+            )
+        );
         requestStats.add(startExam());
 
         if (studentExam == null) {
@@ -233,67 +387,30 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
         return requestStats;
     }
 
-    private RequestStat getInfo() {
-        long start = System.nanoTime();
-        ArtemisServerInfo response = webClient.get().uri("management/info").retrieve().bodyToMono(ArtemisServerInfo.class).block();
-        if (response != null) {
-            isScienceFeatureEnabled = response.features().contains("Science");
-            isIrisEnabled = response.activeProfiles().contains("iris");
-        }
-        return new RequestStat(now(), System.nanoTime() - start, MISC);
-    }
-
-    private RequestStat getSystemNotifications() {
-        long start = System.nanoTime();
-        webClient.get().uri("api/notification/public/system-notifications/active").retrieve().toBodilessEntity().block();
-        return new RequestStat(now(), System.nanoTime() - start, MISC);
-    }
-
-    private RequestStat getAccount() {
-        long start = System.nanoTime();
-        webClient.get().uri("api/core/public/account").retrieve().toBodilessEntity().block();
-        return new RequestStat(now(), System.nanoTime() - start, MISC);
-    }
-
-    private RequestStat getGlobalNotificationSettings() {
-        long start = System.nanoTime();
-        webClient.get().uri("api/notification/global-notification-settings").retrieve().toBodilessEntity().block();
-        return new RequestStat(now(), System.nanoTime() - start, MISC);
-    }
-
-    private RequestStat configureSSH() {
-        long start = System.nanoTime();
-        List<UserSshPublicKeyDTO> keys = webClient
-            .get()
-            .uri(uriBuilder -> uriBuilder.path("api/programming/ssh-settings/public-keys").build())
-            .retrieve()
-            .bodyToFlux(UserSshPublicKeyDTO.class)
-            .collectList()
-            .block();
-
-        var hasArtemisKeyStoredAlready = keys.stream().anyMatch(key -> key.publicKey().equals(publicKeyString));
-
-        if (!hasArtemisKeyStoredAlready) {
-            try {
-                webClient
-                    .post()
-                    .uri("api/programming/ssh-settings/public-key")
-                    .bodyValue(UserSshPublicKeyDTO.of(publicKeyString))
-                    .retrieve()
-                    .toBodilessEntity()
-                    .block();
-            } catch (Exception e) {
-                log.error("Error while adding SSH key for {{}}: {{}}", username, e.getMessage());
-            }
-        }
-
-        return new RequestStat(now(), System.nanoTime() - start, SETUP_SSH_KEYS);
-    }
-
-    private RequestStat getCourses() {
-        long start = System.nanoTime();
-        webClient.get().uri("api/course/courses/for-dashboard").retrieve().toBodilessEntity().block();
-        return new RequestStat(now(), System.nanoTime() - start, MISC);
+    /**
+     * Run the whole exam session of this student, from the login to the exam summary, as one reactive pipeline that
+     * blocks no thread: the requests of a page are in flight together, and the think times are delays rather than
+     * sleeps. Only programming exercises, whose git operations block, run on the given scheduler.
+     * <p>
+     * The session makes the REST requests of {@link #login()}, {@link #performInitialCalls()},
+     * {@link #startExamParticipation(long, long, long)}, {@link #participateInExam(long, long)} and
+     * {@link #submitAndEndExam(long, long)}, but opens no exam websocket, which needs a thread of its own per student.
+     *
+     * @param courseId                    the ID of the course
+     * @param examId                      the ID of the exam
+     * @param courseProgrammingExerciseId the ID of the course programming exercise
+     * @param blocking                    the scheduler to run the git operations of programming exercises on
+     * @return the request stats of each step of the session, as it completes
+     */
+    public Flux<List<RequestStat>> examSession(long courseId, long examId, long courseProgrammingExerciseId, Scheduler blocking) {
+        return Flux.concat(
+            loginLater(),
+            Mono.defer(this::loadDashboardLater),
+            Mono.defer(() -> openExamCourseLater(courseId, examId, courseProgrammingExerciseId)),
+            Mono.defer(this::enterExamLater),
+            Mono.defer(() -> participateInExamLater(blocking).collectList()),
+            Mono.defer(() -> submitAndEndExamLater().collectList())
+        );
     }
 
     /**
@@ -303,45 +420,7 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
      * @return the request stat
      */
     private RequestStat getServerTime() {
-        long start = System.nanoTime();
-        try {
-            webClient.get().uri("api/public/time").retrieve().toBodilessEntity().block();
-        } catch (Exception e) {
-            log.debug("Could not fetch server time for {}: {}", username, e.getMessage());
-        }
-        return new RequestStat(now(), System.nanoTime() - start, SERVER_TIME);
-    }
-
-    private RequestStat getCalendarSubscriptionToken() {
-        long start = System.nanoTime();
-        try {
-            // This endpoint returns a raw token as text/plain, so we must not request application/json (-> 406).
-            webClient
-                .get()
-                .uri(uriBuilder -> uriBuilder.pathSegment("api", "calendar", "subscription-token").build())
-                .accept(MediaType.TEXT_PLAIN)
-                .retrieve()
-                .toBodilessEntity()
-                .block();
-        } catch (Exception e) {
-            log.debug("Could not fetch calendar subscription token for {}: {}", username, e.getMessage());
-        }
-        return new RequestStat(now(), System.nanoTime() - start, MISC);
-    }
-
-    private RequestStat getExerciseContributions(long exerciseId) {
-        long start = System.nanoTime();
-        try {
-            webClient
-                .get()
-                .uri(uriBuilder -> uriBuilder.pathSegment("api", "atlas", "exercises", String.valueOf(exerciseId), "contributions").build())
-                .retrieve()
-                .toBodilessEntity()
-                .block();
-        } catch (Exception e) {
-            log.debug("Could not fetch exercise contributions for {}: {}", username, e.getMessage());
-        }
-        return new RequestStat(now(), System.nanoTime() - start, MISC);
+        return blocking(SERVER_TIME, this::fetchServerTime);
     }
 
     /**
@@ -352,6 +431,7 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
      * @return the request stat for the websocket connect
      */
     private RequestStat connectAndSubscribeExamWebsocket(long examId) {
+        getCancellationToken().throwIfCancelled();
         long start = System.nanoTime();
         try {
             this.websocket = new SimulatedArtemisWebsocket(artemisUrl, authToken != null ? authToken.jwtToken() : null);
@@ -366,7 +446,11 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
         } catch (Exception e) {
             log.warn("Could not establish exam websocket for {}: {}", username, e.getMessage());
         }
-        return new RequestStat(now(), System.nanoTime() - start, WEBSOCKET);
+        if (getCancellationToken().isCancelled()) {
+            // Cancelled while connecting, after the websocket was closed for the cancellation.
+            disconnectWebsocket();
+        }
+        return completed(System.nanoTime() - start, WEBSOCKET);
     }
 
     /**
@@ -383,87 +467,17 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
     }
 
     private void disconnectWebsocket() {
-        if (websocket != null) {
-            websocket.disconnect();
+        SimulatedArtemisWebsocket current = websocket;
+        if (current != null) {
+            current.disconnect();
             websocket = null;
         }
     }
 
-    /**
-     * Simulate a student entering the course overview.
-     *
-     * <p>Mirrors what the Artemis web client does since PR #12999 ("Load course overview content per tab instead of all
-     * at once"): the shell, the available tabs and the exercises tab are fetched separately, rather than pulling the
-     * whole course from {@code courses/&#123;courseId&#125;/for-dashboard}. That endpoint is deprecated and is kept only
-     * for the native clients, and it costs 16 database queries and ~37 KB against ~6 queries for this split, so a
-     * simulation that still called it would be measuring a load pattern no web user produces.
-     *
-     * @param exerciseId the programming exercise whose channel the student would open
-     * @return the request stat covering the whole course-entry interaction
-     */
-    private RequestStat getCourseOverview(long exerciseId) {
-        long start = System.nanoTime();
-
-        CourseAvailableTabsDTO availableTabs = webClient
-            .get()
-            .uri(uriBuilder -> uriBuilder.pathSegment("api", "course", "courses", courseIdString, "available-tabs").build())
-            .retrieve()
-            .bodyToMono(CourseAvailableTabsDTO.class)
-            .block();
-
-        CourseForOverviewDTO course = webClient
-            .get()
-            .uri(uriBuilder -> uriBuilder.pathSegment("api", "course", "courses", courseIdString, "for-overview").build())
-            .retrieve()
-            .bodyToMono(CourseForOverviewDTO.class)
-            .block();
-
-        // The student lands on the exercises tab, which is also what carries the participation results.
-        CourseExercisesForOverviewDTO exercises = webClient
-            .get()
-            .uri(uriBuilder -> uriBuilder.pathSegment("api", "course", "courses", courseIdString, "exercises-for-overview").build())
-            .retrieve()
-            .bodyToMono(CourseExercisesForOverviewDTO.class)
-            .block();
-
-        if (course == null && exercises == null) {
-            return new RequestStat(now(), System.nanoTime() - start, MISC);
-        }
-
-        try {
-            // available-tabs is the single source of truth for tab visibility; fall back to the course's own
-            // configuration when an older Artemis version does not serve it yet.
-            boolean communicationEnabled =
-                availableTabs != null
-                    ? availableTabs.communication()
-                    : course != null &&
-                      course.courseInformationSharingConfiguration() != null &&
-                      !"DISABLED".equals(course.courseInformationSharingConfiguration());
-
-            if (communicationEnabled) {
-                getUnreadMessages();
-                getExerciseChannelAndMessages(exerciseId);
-            }
-
-            if (exercises != null && exercises.participationResults() != null) {
-                for (CourseExercisesForOverviewDTO.ParticipationResultDTO result : exercises.participationResults()) {
-                    getLatestResult(result.participationId());
-                }
-            }
-        } catch (Exception e) {
-            log.error("Error while getting course overview for {{}}: {{}}", username, e.getMessage());
-        }
-
-        return new RequestStat(now(), System.nanoTime() - start, MISC);
-    }
-
-    private void getUnreadMessages() {
-        webClient
-            .get()
-            .uri(uriBuilder -> uriBuilder.pathSegment("api", "communication", "courses", courseIdString, "unread-messages").build())
-            .retrieve()
-            .toBodilessEntity()
-            .block();
+    @Override
+    protected void onCancelled() {
+        // A cancelled student never hands in, so the exam websocket would otherwise stay open.
+        disconnectWebsocket();
     }
 
     /**
@@ -471,14 +485,7 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
      * @return the request stat
      */
     public RequestStat getNotificationSettings() {
-        long start = System.nanoTime();
-        webClient
-            .get()
-            .uri(uriBuilder -> uriBuilder.pathSegment("api", "notification", "courses", courseIdString, "settings").build())
-            .retrieve()
-            .toBodilessEntity()
-            .block();
-        return new RequestStat(now(), System.nanoTime() - start, MISC);
+        return blocking(MISC, () -> get("api/notification/courses/{courseId}/settings", courseIdString));
     }
 
     /**
@@ -486,190 +493,15 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
      * @return the request stat
      */
     public RequestStat getNotificationInfo() {
-        long start = System.nanoTime();
-        webClient
-            .get()
-            .uri(uriBuilder -> uriBuilder.pathSegment("api", "notification", "courses", "info").build())
-            .retrieve()
-            .toBodilessEntity()
-            .block();
-        return new RequestStat(now(), System.nanoTime() - start, MISC);
-    }
-
-    private void getExerciseChannelAndMessages(long exerciseId) {
-        Map<String, Object> channelResponse = webClient
-            .get()
-            .uri(uriBuilder ->
-                uriBuilder
-                    .pathSegment("api", "communication", "courses", courseIdString, "exercises", String.valueOf(exerciseId), "channel")
-                    .build()
-            )
-            .retrieve()
-            .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
-            .block();
-        final long channelId;
-        if (channelResponse != null) {
-            channelId = ((Number) channelResponse.get("id")).longValue();
-            if (channelId == 0) {
-                return;
-            }
-
-            webClient
-                .get()
-                .uri(uriBuilder ->
-                    uriBuilder
-                        .pathSegment("api", "communication", "courses", courseIdString, "messages")
-                        .queryParam("courseId", courseIdString)
-                        .queryParam("conversationIds", channelId)
-                        .queryParam("postSortCriterion", "CREATION_DATE")
-                        .queryParam("sortingOrder", "DESCENDING")
-                        .queryParam("page", 0)
-                        .queryParam("size", 50)
-                        .build()
-                )
-                .retrieve()
-                .toBodilessEntity()
-                .block();
-        }
-    }
-
-    private void getLatestResult(long participationId) {
-        webClient
-            .get()
-            .uri(uriBuilder ->
-                uriBuilder
-                    .pathSegment(
-                        "api",
-                        "programming",
-                        "programming-exercise-participations",
-                        String.valueOf(participationId),
-                        "latest-pending-submission"
-                    )
-                    .build()
-            )
-            .retrieve()
-            .toBodilessEntity()
-            .block();
-    }
-
-    private RequestStat getCoursesDropdown() {
-        long start = System.nanoTime();
-        webClient.get().uri("api/course/courses/for-dropdown").retrieve().toBodilessEntity().block();
-        return new RequestStat(now(), System.nanoTime() - start, MISC);
-    }
-
-    private RequestStat getScienceSettings() {
-        long start = System.nanoTime();
-        webClient.get().uri("api/atlas/science-settings").retrieve().toBodilessEntity().block();
-        return new RequestStat(now(), System.nanoTime() - start, MISC);
-    }
-
-    private RequestStat putScienceEvent(long exerciseId) {
-        long start = System.nanoTime();
-        try {
-            webClient
-                .put()
-                .uri("api/atlas/science")
-                .bodyValue(new ScienceEventDTO(ScienceEventDTO.ScienceEventType.EXERCISE__OPEN, exerciseId))
-                .retrieve()
-                .toBodilessEntity()
-                .block();
-        } catch (Exception e) {
-            log.error("Error while putting science event for {{}}: {{}}", username, e.getMessage());
-        }
-        return new RequestStat(now(), System.nanoTime() - start, MISC);
-    }
-
-    private RequestStat getExerciseDetails(long exerciseId) {
-        long start = System.nanoTime();
-        webClient
-            .get()
-            .uri(uriBuilder -> uriBuilder.pathSegment("api", "exercise", "exercises", String.valueOf(exerciseId), "details").build())
-            .retrieve()
-            .toBodilessEntity()
-            .block();
-
-        return new RequestStat(now(), System.nanoTime() - start, MISC);
+        return blocking(MISC, () -> get("api/notification/courses/info"));
     }
 
     private RequestStat navigateIntoExam() {
-        long start = System.nanoTime();
-        StudentExam studentExam = webClient
-            .get()
-            .uri(uriBuilder ->
-                uriBuilder.pathSegment("api", "exam", "courses", courseIdString, "exams", examIdString, "own-student-exam").build()
-            )
-            .retrieve()
-            .bodyToMono(StudentExam.class)
-            .block();
-        var duration = System.nanoTime() - start;
-
-        if (studentExam != null) {
-            studentExamId = studentExam.getId();
-        }
-        return new RequestStat(now(), duration, GET_STUDENT_EXAM);
+        return blocking(GET_STUDENT_EXAM, this::fetchOwnStudentExam);
     }
-
-    private RequestStat getTestExams() {
-        long start = System.nanoTime();
-        webClient
-            .get()
-            .uri(uriBuilder -> uriBuilder.pathSegment("api", "exam", "courses", courseIdString, "test-exams-per-user").build())
-            .retrieve()
-            .toBodilessEntity()
-            .block();
-        return new RequestStat(now(), System.nanoTime() - start, MISC);
-    }
-
-    private RequestStat getExamSideBarData() {
-        long start = System.nanoTime();
-        webClient
-            .get()
-            .uri(uriBuilder -> uriBuilder.pathSegment("api", "exam", "courses", courseIdString, "real-exams-sidebar-data").build())
-            .retrieve()
-            .toBodilessEntity()
-            .block();
-        return new RequestStat(now(), System.nanoTime() - start, MISC);
-    }
-
-    private RequestStat startExam() {
-        long start = System.nanoTime();
-        studentExam = webClient
-            .get()
-            .uri(uriBuilder ->
-                uriBuilder
-                    .pathSegment(
-                        "api",
-                        "exam",
-                        "courses",
-                        courseIdString,
-                        "exams",
-                        examIdString,
-                        "student-exams",
-                        studentExamId.toString(),
-                        "conduction"
-                    )
-                    .build()
-            )
-            .retrieve()
-            .bodyToMono(StudentExam.class)
-            .block();
-        return new RequestStat(now(), System.nanoTime() - start, START_STUDENT_EXAM);
-    }
-
-    private RequestStat fetchLiveEvents() {
-        long start = System.nanoTime();
-        webClient
-            .get()
-            .uri(uriBuilder ->
-                uriBuilder
-                    .pathSegment("api", "exam", "courses", courseIdString, "exams", examIdString, "student-exams", "live-events")
-                    .build()
-            )
-            .retrieve()
-            .toBodilessEntity()
-            .block();
-        return new RequestStat(now(), System.nanoTime() - start, MISC);
+
+    private RequestStat startExam() {
+        return blocking(START_STUDENT_EXAM, this::fetchStudentExamForConduction);
     }
 
     private List<RequestStat> handleExercises() {
@@ -678,7 +510,7 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
             log.warn("No exercises available for {} to handle.", username);
             return requestStats;
         }
-        for (var exercise : studentExam.getExercises()) {
+        for (var exercise : exerciseOrder.apply(studentExam.getExercises(), ThreadLocalRandom.current())) {
             if (exercise instanceof ModelingExercise) {
                 requestStats.add(solveAndSubmitModelingExercise((ModelingExercise) exercise));
             } else if (exercise instanceof TextExercise) {
@@ -690,76 +522,115 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
             } else if (exercise instanceof FileUploadExercise) {
                 requestStats.addAll(solveAndSubmitFileUploadExercise((FileUploadExercise) exercise));
             }
+            requestStats.addAll(reloadExam());
+        }
+        return requestStats;
+    }
+
+    /**
+     * Reload the exam page as often as this student tends to after an exercise: the whole part of the average every
+     * time, and once more with the chance of its fraction.
+     *
+     * @return the list of request stats
+     */
+    private List<RequestStat> reloadExam() {
+        List<RequestStat> requestStats = new ArrayList<>();
+        int reloads = sampleExamReloads();
+        for (int i = 0; i < reloads; i++) {
+            // What the exam page loads when it is opened again: the student exam, the server time and the live events.
+            requestStats.add(startExam());
+            requestStats.add(getServerTime());
+            requestStats.add(blocking(MISC, this::fetchLiveEvents));
         }
         return requestStats;
     }
 
+    /**
+     * @return how often to reload the exam page after an exercise: the whole part of the average every time, and once
+     *         more with the chance of its fraction
+     */
+    private int sampleExamReloads() {
+        int reloads = (int) examReloadsPerExercise;
+        if (ThreadLocalRandom.current().nextDouble() < examReloadsPerExercise - reloads) {
+            reloads++;
+        }
+        return reloads;
+    }
+
     private RequestStat solveAndSubmitModelingExercise(ModelingExercise modelingExercise) {
-        var modelingSubmission = getModelingSubmission(modelingExercise);
-        if (modelingSubmission != null) {
-            if (new Random().nextBoolean()) {
-                modelingSubmission.setModel(UMLClassDiagrams.CLASS_MODEL_1);
-                modelingSubmission.setExplanationText("The model describes ...");
-            } else {
-                modelingSubmission.setModel(UMLClassDiagrams.CLASS_MODEL_2);
-                modelingSubmission.setExplanationText("Random explanation text ...");
-            }
+        Mono<?> submission = solveModelingExercise(modelingExercise);
+        return submission != null ? blocking(SUBMIT_EXERCISE, () -> submission) : null;
+    }
 
-            long start = System.nanoTime();
-            webClient
-                .put()
-                .uri(uriBuilder ->
-                    uriBuilder
-                        .pathSegment("api", "modeling", "exercises", modelingExercise.getId().toString(), "modeling-submissions")
-                        .build()
-                )
-                .bodyValue(modelingSubmission)
-                .retrieve()
-                .toBodilessEntity()
-                .block();
-            return new RequestStat(now(), System.nanoTime() - start, SUBMIT_EXERCISE);
+    /**
+     * @return the request that submits a solution of the modeling exercise, {@code null} if there is nothing to submit
+     */
+    @Nullable
+    private Mono<?> solveModelingExercise(ModelingExercise modelingExercise) {
+        var modelingSubmission = getModelingSubmission(modelingExercise);
+        if (modelingSubmission == null) {
+            return null;
         }
-        return null;
+        if (new Random().nextBoolean()) {
+            modelingSubmission.setModel(UMLClassDiagrams.CLASS_MODEL_1);
+            modelingSubmission.setExplanationText("The model describes ...");
+        } else {
+            modelingSubmission.setModel(UMLClassDiagrams.CLASS_MODEL_2);
+            modelingSubmission.setExplanationText("Random explanation text ...");
+        }
+        return webClient
+            .put()
+            .uri("api/modeling/exercises/{exerciseId}/modeling-submissions", modelingExercise.getId())
+            .bodyValue(modelingSubmission)
+            .retrieve()
+            .toBodilessEntity();
     }
 
     private RequestStat solveAndSubmitTextExercise(TextExercise textExercise) {
-        var textSubmission = getTextSubmission(textExercise);
-        if (textSubmission != null) {
-            textSubmission.setText(LoremIpsum.getInstance().getParagraphs(2, 4));
-            textSubmission.setLanguage(Language.ENGLISH);
+        Mono<?> submission = solveTextExercise(textExercise);
+        return submission != null ? blocking(SUBMIT_EXERCISE, () -> submission) : null;
+    }
 
-            long start = System.nanoTime();
-            webClient
-                .put()
-                .uri(uriBuilder ->
-                    uriBuilder.pathSegment("api", "text", "exercises", textExercise.getId().toString(), "text-submissions").build()
-                )
-                .bodyValue(textSubmission)
-                .retrieve()
-                .toBodilessEntity()
-                .block();
-            return new RequestStat(now(), System.nanoTime() - start, SUBMIT_EXERCISE);
+    /**
+     * @return the request that submits a solution of the text exercise, {@code null} if there is nothing to submit
+     */
+    @Nullable
+    private Mono<?> solveTextExercise(TextExercise textExercise) {
+        var textSubmission = getTextSubmission(textExercise);
+        if (textSubmission == null) {
+            return null;
         }
-        return null;
+        textSubmission.setText(LoremIpsum.getInstance().getParagraphs(2, 4));
+        textSubmission.setLanguage(Language.ENGLISH);
+        return webClient
+            .put()
+            .uri("api/text/exercises/{exerciseId}/text-submissions", textExercise.getId())
+            .bodyValue(textSubmission)
+            .retrieve()
+            .toBodilessEntity();
     }
 
     private RequestStat solveAndSubmitQuizExercise(QuizExercise quizExercise) {
+        Mono<?> submission = solveQuizExercise(quizExercise);
+        return submission != null ? blocking(SUBMIT_EXERCISE, () -> submission) : null;
+    }
+
+    /**
+     * @return the request that submits a solution of the quiz exercise, {@code null} if there is nothing to submit
+     */
+    @Nullable
+    private Mono<?> solveQuizExercise(QuizExercise quizExercise) {
         var quizSubmission = getQuizSubmission(quizExercise);
         // TODO: change something in the quiz submission
-        if (quizSubmission != null) {
-            long start = System.nanoTime();
-            webClient
-                .put()
-                .uri(uriBuilder ->
-                    uriBuilder.pathSegment("api", "quiz", "exercises", quizExercise.getId().toString(), "submissions", "exam").build()
-                )
-                .bodyValue(quizSubmission)
-                .retrieve()
-                .toBodilessEntity()
-                .block();
-            return new RequestStat(now(), System.nanoTime() - start, SUBMIT_EXERCISE);
+        if (quizSubmission == null) {
+            return null;
         }
-        return null;
+        return webClient
+            .put()
+            .uri("api/quiz/exercises/{exerciseId}/submissions/exam", quizExercise.getId())
+            .bodyValue(quizSubmission)
+            .retrieve()
+            .toBodilessEntity();
     }
 
     private void commitAndPush(
@@ -801,7 +672,6 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
             int n = new Random().nextInt(numberOfCommitsAndPushesFrom, numberOfCommitsAndPushesTo); // we do a random number of commits and pushes to make some noise
             log.info("Commit and push {}x for {}", n, username);
             for (int j = 0; j < n; j++) {
-                sleep(100);
                 var makeInvalidChange = new Random().nextBoolean();
                 var writeToFile = !this.authenticationMechanism.equals(ArtemisAuthMechanism.ONLINE_IDE);
                 var changedFileContent = changeFiles(makeInvalidChange, writeToFile);
@@ -815,45 +685,46 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
         return requestStats;
     }
 
+    private void pushAnotherChange(ProgrammingExercise programmingExercise, List<RequestStat> requestStats) {
+        var participationId = programmingExercise.getStudentParticipations().iterator().next().getId();
+        try {
+            var writeToFile = !this.authenticationMechanism.equals(ArtemisAuthMechanism.ONLINE_IDE);
+            var changedFileContent = changeFiles(new Random().nextBoolean(), writeToFile);
+            commitAndPush(requestStats, this.authenticationMechanism, participationId, changedFileContent);
+        } catch (Exception e) {
+            log.error("Error while pushing to programming exercise for {{}}: {{}}", username, e.getMessage());
+        }
+    }
+
     private List<RequestStat> solveAndSubmitFileUploadExercise(FileUploadExercise fileUploadExercise) {
-        List<RequestStat> requestStats = new ArrayList<>();
-        long start = System.nanoTime();
+        RequestStat open = blocking(MISC, () -> openFileUploadEditor(fileUploadExercise));
+        // TODO maybe this should get a own RequestType to not skew the other submissions? File upload is likely inherently slower
+        return List.of(open, blocking(SUBMIT_EXERCISE, () -> submitFileUploadExercise(fileUploadExercise)));
+    }
+
+    private Mono<?> openFileUploadEditor(FileUploadExercise fileUploadExercise) {
         var participation = fileUploadExercise.getStudentParticipations().iterator().next();
-        webClient
+        return webClient
             .get()
-            .uri(uriBuilder ->
-                uriBuilder
-                    .pathSegment("api", "fileupload", "participations", participation.getId().toString(), "file-upload-editor")
-                    .build()
-            )
+            .uri("api/fileupload/participations/{participationId}/file-upload-editor", participation.getId())
             .retrieve()
-            .toBodilessEntity()
-            .block();
-        requestStats.add(new RequestStat(now(), System.nanoTime() - start, MISC));
+            .toBodilessEntity();
+    }
 
+    private Mono<?> submitFileUploadExercise(FileUploadExercise fileUploadExercise) {
         int fileSizeInBytes = 1024 * 1024; // 1 MB file size for file upload exercise
         ByteArrayResource file = FileGeneratorUtil.getDummyFile(fileSizeInBytes, "test-file.txt");
         MultiValueMap<String, Object> multipartBody = new LinkedMultiValueMap<>();
         multipartBody.add("file", file);
         multipartBody.add("submission", new FileUploadSubmission());
 
-        start = System.nanoTime();
-        webClient
+        return webClient
             .post()
-            .uri(uriBuilder ->
-                uriBuilder
-                    .pathSegment("api", "fileupload", "exercises", fileUploadExercise.getId().toString(), "file-upload-submissions")
-                    .build()
-            )
+            .uri("api/fileupload/exercises/{exerciseId}/file-upload-submissions", fileUploadExercise.getId())
             .contentType(MediaType.MULTIPART_FORM_DATA)
             .body(BodyInserters.fromMultipartData(multipartBody))
             .retrieve()
-            .toBodilessEntity()
-            .block();
-        // TODO maybe this should get a own RequestType to not skew the other submissions? File upload is likely inherently slower
-        requestStats.add(new RequestStat(now(), System.nanoTime() - start, SUBMIT_EXERCISE));
-
-        return requestStats;
+            .toBodilessEntity();
     }
 
     private RequestStat fetchParticipationVcsAccessToken(Long participationId) {
@@ -869,18 +740,18 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
             .retrieve()
             .bodyToMono(String.class)
             .block();
-        return new RequestStat(now(), System.nanoTime() - start, FETCH_PARTICIPATION_VCS_ACCESS_TOKEN);
+        return completed(System.nanoTime() - start, FETCH_PARTICIPATION_VCS_ACCESS_TOKEN);
     }
 
     private RequestStat fetchProgrammingIdeSettings() {
         long start = System.nanoTime();
         webClient
             .get()
-            .uri(uriBuilder -> uriBuilder.pathSegment("api", "programming", "ide-settings").build())
+            .uri("api/programming/ide-settings")
             .retrieve()
             .bodyToMono(String.class)
             .block();
-        return new RequestStat(now(), System.nanoTime() - start, MISC);
+        return completed(System.nanoTime() - start, MISC);
     }
 
     private RequestStat submitStudentExam() {
@@ -888,17 +759,7 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
             log.warn("Cannot submit exam for {}: student exam missing.", username);
             return null;
         }
-        long start = System.nanoTime();
-        webClient
-            .post()
-            .uri(uriBuilder ->
-                uriBuilder.pathSegment("api", "exam", "courses", courseIdString, "exams", examIdString, "student-exams", "submit").build()
-            )
-            .bodyValue(studentExam)
-            .retrieve()
-            .toBodilessEntity()
-            .block();
-        return new RequestStat(now(), System.nanoTime() - start, SUBMIT_STUDENT_EXAM);
+        return blocking(SUBMIT_STUDENT_EXAM, this::sendStudentExam);
     }
 
     private List<RequestStat> ensureStudentExamLoaded() {
@@ -922,28 +783,7 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
     }
 
     private RequestStat loadExamSummary() {
-        long start = System.nanoTime();
-        webClient
-            .get()
-            .uri(uriBuilder ->
-                uriBuilder
-                    .pathSegment(
-                        "api",
-                        "exam",
-                        "courses",
-                        courseIdString,
-                        "exams",
-                        examIdString,
-                        "student-exams",
-                        studentExamId.toString(),
-                        "summary"
-                    )
-                    .build()
-            )
-            .retrieve()
-            .toBodilessEntity()
-            .block();
-        return new RequestStat(now(), System.nanoTime() - start, MISC);
+        return blocking(MISC, this::fetchExamSummary);
     }
 
     @Nullable
@@ -976,7 +816,7 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
     }
 
     private RequestStat commitAndPushRepo() throws IOException, GitAPIException {
-        var localPath = Path.of("repos", username);
+        var localPath = localRepositoryPath;
         log.debug("Commit and push to {}", localPath);
 
         var git = Git.open(localPath.toFile());
@@ -985,6 +825,7 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
 
         var keyPair = loadKeys(privateKeyString);
         long start = System.nanoTime();
+        awaitRateLimit();
 
         switch (this.authenticationMechanism) {
             case ONLINE_IDE -> throw new IllegalStateException("Cannot push to Online IDE via jgit");
@@ -1003,10 +844,10 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
         git.close();
 
         return switch (this.authenticationMechanism) {
-            case PASSWORD -> new RequestStat(now(), duration, PUSH_PASSWORD);
-            case PARTICIPATION_TOKEN -> new RequestStat(now(), duration, PUSH_TOKEN);
-            case SSH -> new RequestStat(now(), duration, PUSH_SSH);
-            default -> new RequestStat(now(), duration, PUSH);
+            case PASSWORD -> completed(duration, PUSH_PASSWORD);
+            case PARTICIPATION_TOKEN -> completed(duration, PUSH_TOKEN);
+            case SSH -> completed(duration, PUSH_SSH);
+            default -> completed(duration, PUSH);
         };
     }
 
@@ -1014,7 +855,7 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
         // TODO: produce larger and more realistic commits
         // Must match the exam programming exercise's packageName (see SimulatedArtemisAdmin#createExamExercises
         // and the online-IDE path below); the template repo places sources under src/progforbenchtemp.
-        var bubbleSort = Path.of("repos", username, "src", "progforbenchtemp", "BubbleSort.java");
+        var bubbleSort = localRepositoryPath.resolve(Path.of("src", "progforbenchtemp", "BubbleSort.java"));
         log.debug("Change file  {}", bubbleSort);
         var newContent = """
         package progforbenchtemp;
@@ -1074,13 +915,13 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
         long start = System.nanoTime();
         webClient
             .put()
-            .uri("api/programming/participations/" + participationId + "/repository/files?commit=yes")
+            .uri("api/programming/participations/{participationId}/repository/files?commit=yes", participationId)
             .bodyValue(List.of(new OnlineIdeFileSubmission(fileName, changedFileContent)))
             .retrieve()
             .toBodilessEntity()
             .block();
         long duration = System.nanoTime() - start;
-        requestStats.add(new RequestStat(now(), duration, PUSH));
+        requestStats.add(completed(duration, PUSH));
     }
 
     private RequestStat getLatestResultWithFeedback(Long participationId) {
@@ -1090,9 +931,9 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
             Map<String, Object> result = webClient
                 .get()
                 .uri(
-                    "api/programming/programming-exercise-participations/" +
-                        participationId +
-                        "/latest-result-with-feedbacks?withSubmission=true"
+                    "api/programming/programming-exercise-participations/{participationId}/latest-result-with-feedbacks" +
+                        "?withSubmission=true",
+                    participationId
                 )
                 .retrieve()
                 .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
@@ -1103,7 +944,7 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
         } catch (Exception e) {
             log.debug("Could not fetch latest result with feedback for {}: {}", username, e.getMessage());
         }
-        return new RequestStat(now(), System.nanoTime() - start, PROGRAMMING_EXERCISE_RESULT);
+        return completed(System.nanoTime() - start, PROGRAMMING_EXERCISE_RESULT);
     }
 
     private RequestStat getResultDetails(long participationId, long resultId) {
@@ -1111,60 +952,48 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
         try {
             webClient
                 .get()
-                .uri(uriBuilder ->
-                    uriBuilder
-                        .pathSegment(
-                            "api",
-                            "assessment",
-                            "participations",
-                            String.valueOf(participationId),
-                            "results",
-                            String.valueOf(resultId),
-                            "details"
-                        )
-                        .build()
-                )
+                .uri("api/assessment/participations/{participationId}/results/{resultId}/details", participationId, resultId)
                 .retrieve()
                 .toBodilessEntity()
                 .block();
         } catch (Exception e) {
             log.debug("Could not fetch result details for {}: {}", username, e.getMessage());
         }
-        return new RequestStat(now(), System.nanoTime() - start, PROGRAMMING_EXERCISE_RESULT);
+        return completed(System.nanoTime() - start, PROGRAMMING_EXERCISE_RESULT);
     }
 
     private RequestStat fetchRepository(Long participationId) {
         long start = System.nanoTime();
         webClient
             .get()
-            .uri("api/programming/participations/" + participationId + "/repository")
+            .uri("api/programming/participations/{participationId}/repository", participationId)
             .retrieve()
             .toBodilessEntity()
             .block();
-        return new RequestStat(now(), System.nanoTime() - start, REPOSITORY_INFO);
+        return completed(System.nanoTime() - start, REPOSITORY_INFO);
     }
 
     private RequestStat fetchFile(Long participationId, String fileName) {
         long start = System.nanoTime();
         webClient
             .get()
-            .uri("api/programming/participations/" + participationId + "/repository/file?file=" + fileName)
+            .uri("api/programming/participations/{participationId}/repository/file?file=" + fileName, participationId)
             .accept(MediaType.APPLICATION_OCTET_STREAM)
             .retrieve()
             .toBodilessEntity()
             .block();
-        return new RequestStat(now(), System.nanoTime() - start, REPOSITORY_FILES);
+        return completed(System.nanoTime() - start, REPOSITORY_FILES);
     }
 
     private RequestStat fetchFiles(Long participationId) {
         long start = System.nanoTime();
         webClient
             .get()
-            .uri("api/programming/participations/" + participationId + "/repository/files")
+            .uri("api/programming/participations/{participationId}/repository/files", participationId)
             .retrieve()
             .toBodilessEntity()
             .block();
-        return new RequestStat(now(), System.nanoTime() - start, REPOSITORY_FILES);
+        return completed(System.nanoTime() - start, REPOSITORY_FILES);
     }
 
     private RequestStat fetchPlantUml() {
@@ -1177,13 +1006,13 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
             .retrieve()
             .toBodilessEntity()
             .block();
-        return new RequestStat(now(), System.nanoTime() - start, MISC);
+        return completed(System.nanoTime() - start, MISC);
     }
 
     private RequestStat cloneRepo(String repositoryUrl) throws IOException {
         log.debug("Clone {}", repositoryUrl);
 
-        var localPath = Path.of("repos", username);
+        var localPath = localRepositoryPath;
         FileUtils.deleteDirectory(localPath.toFile());
 
         int attempt = 0;
@@ -1191,6 +1020,7 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
         while (attempt < MAX_RETRIES) {
             try {
                 long start = System.nanoTime();
+                awaitRateLimit();
                 UsernamePasswordCredentialsProvider credentialsProvider;
                 switch (authenticationMechanism) {
                     case ONLINE_IDE -> throw new IOException("Cannot pull from Online IDE");
@@ -1209,9 +1039,9 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
                 git.close();
                 log.debug("Done {}", repositoryUrl);
                 return switch (authenticationMechanism) {
-                    case PASSWORD -> new RequestStat(now(), duration, CLONE_PASSWORD);
-                    case PARTICIPATION_TOKEN -> new RequestStat(now(), duration, CLONE_TOKEN);
-                    default -> new RequestStat(now(), duration, CLONE);
+                    case PASSWORD -> completed(duration, CLONE_PASSWORD);
+                    case PARTICIPATION_TOKEN -> completed(duration, CLONE_TOKEN);
+                    default -> completed(duration, CLONE);
                 };
             } catch (Exception e) {
                 log.warn("Error while cloning repository for {{}}: {{}}", username, e.getMessage());
@@ -1237,7 +1067,7 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
     public RequestStat cloneRepoOverSSH(String repositoryUrl) throws IOException {
         log.debug("Clone {}", repositoryUrl);
 
-        var localPath = Path.of("repos", username);
+        var localPath = localRepositoryPath;
         FileUtils.deleteDirectory(localPath.toFile());
 
         var sshRepositoryUrl = getSshCloneUrl(repositoryUrl);
@@ -1248,6 +1078,7 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
         while (attempt < MAX_RETRIES) {
             try {
                 long start = System.nanoTime();
+                awaitRateLimit();
 
                 Git git = Git.cloneRepository()
                     .setURI(sshRepositoryUrl)
@@ -1262,7 +1093,7 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
 
                 git.close();
 
-                return new RequestStat(now(), duration, CLONE_SSH);
+                return completed(duration, CLONE_SSH);
             } catch (Exception e) {
                 log.warn("Error while cloning repository for {{}}: {{}}", username, e.getMessage());
                 attempt++;
@@ -1352,11 +1183,11 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
         long start = System.nanoTime();
         webClient
             .post()
-            .uri(uriBuilder -> uriBuilder.pathSegment("api", "exercise", "exercises", String.valueOf(exerciseId), "participations").build())
+            .uri("api/exercise/exercises/{exerciseId}/participations", exerciseId)
             .retrieve()
             .bodyToMono(Participation.class)
             .block();
-        return new RequestStat(now(), System.nanoTime() - start, MISC);
+        return completed(System.nanoTime() - start, MISC);
     }
 
     private String getSshCloneUrl(String cloneUrl) {
@@ -1367,28 +1198,403 @@ public class SimulatedArtemisStudent extends SimulatedArtemisUser {
         return "ssh://git@" + artemisServerHostname + ":7921" + cloneUrl.substring(cloneUrl.indexOf("/git/"));
     }
 
-    private RequestStat getIrisStatus(long courseId) {
-        long start = System.nanoTime();
-        webClient
+    // Non-blocking counterparts of the steps above, for examSession(). Both make their requests with the builders below.
+
+    private Mono<List<RequestStat>> loadDashboardLater() {
+        if (!authenticated) {
+            return Mono.error(new IllegalStateException("User " + username + " is not logged in or not a student."));
+        }
+        return loadPageLater(
+            List.of(
+                timed(MISC, this::fetchInfo),
+                timed(SERVER_TIME, this::fetchServerTime),
+                timed(MISC, () -> get("api/notification/public/system-notifications/active")),
+                timed(MISC, () -> get("api/core/public/account")),
+                timed(MISC, () -> get("api/notification/global-notification-settings")),
+                timed(MISC, () -> get("api/course/courses/for-dashboard")),
+                timed(MISC, this::fetchCalendarSubscriptionToken),
+                timed(SETUP_SSH_KEYS, this::configureSSH)
+            )
+        );
+    }
+
+    private Mono<List<RequestStat>> openExamCourseLater(long courseId, long examId, long courseProgrammingExerciseId) {
+        this.courseIdString = String.valueOf(courseId);
+        this.examIdString = String.valueOf(examId);
+
+        List<Mono<RequestStat>> page = new ArrayList<>();
+        page.add(timed(MISC, () -> fetchCourseOverview(courseProgrammingExerciseId)));
+        page.add(timed(SERVER_TIME, this::fetchServerTime));
+        page.add(timed(MISC, () -> get("api/course/courses/for-dropdown")));
+        page.add(timed(MISC, () -> get("api/atlas/science-settings")));
+        page.add(timed(MISC, () -> get("api/notification/courses/{courseId}/settings", courseIdString)));
+        page.add(timed(MISC, () -> get("api/notification/courses/info")));
+        if (courseProgrammingExerciseId > 0) {
+            if (isScienceFeatureEnabled) {
+                page.add(timed(MISC, () -> sendScienceEvent(courseProgrammingExerciseId)));
+            }
+            page.add(timed(MISC, () -> get("api/exercise/exercises/{exerciseId}/details", courseProgrammingExerciseId)));
+            page.add(timed(MISC, () -> fetchExerciseContributions(courseProgrammingExerciseId)));
+        }
+        if (isIrisEnabled) {
+            page.add(timed(MISC, () -> get("api/iris/courses/{courseId}/status", courseId)));
+            page.add(timed(MISC, () -> get("api/iris/chat/courses/{courseId}/sessions/overview", courseId)));
+        }
+        return loadPageLater(page);
+    }
+
+    private Mono<List<RequestStat>> enterExamLater() {
+        return loadPageLater(
+            List.of(
+                timed(GET_STUDENT_EXAM, this::fetchOwnStudentExam),
+                timed(MISC, () -> get("api/exam/courses/{courseId}/test-exams-per-user", courseIdString)),
+                timed(MISC, () -> get("api/exam/courses/{courseId}/real-exams-sidebar-data", courseIdString))
+            )
+        ).flatMap(requestStats -> {
+            if (studentExamId == null) {
+                log.warn("Student exam id missing for {} after navigating into the exam", username);
+                return Mono.just(requestStats);
+            }
+            return act(START_STUDENT_EXAM, this::fetchStudentExamForConduction).map(stat -> {
+                if (studentExam == null) {
+                    log.warn("Student exam not available after start for {}", username);
+                }
+                List<RequestStat> allStats = new ArrayList<>(requestStats);
+                allStats.add(stat);
+                return allStats;
+            });
+        });
+    }
+
+    private Flux<RequestStat> participateInExamLater(Scheduler blocking) {
+        return ensureStudentExamLoadedLater().concatWith(
+            Flux.defer(() -> {
+                if (studentExam == null) {
+                    log.warn("Skipping exam participation for {}: student exam not available.", username);
+                    return Flux.empty();
+                }
+                if (studentExam.getExercises() == null || studentExam.getExercises().isEmpty()) {
+                    log.warn("No exercises available for {} to handle.", username);
+                    return Flux.concat(act(SERVER_TIME, this::fetchServerTime), act(MISC, this::fetchLiveEvents));
+                }
+                var exercises = exerciseOrder.apply(studentExam.getExercises(), ThreadLocalRandom.current());
+                return Flux.concat(
+                    act(SERVER_TIME, this::fetchServerTime),
+                    act(MISC, this::fetchLiveEvents),
+                    Flux.fromIterable(exercises).concatMap(exercise ->
+                        handleExerciseLater(exercise, blocking).concatWith(reloadExamLater())
+                    )
+                );
+            })
+        );
+    }
+
+    private Flux<RequestStat> handleExerciseLater(Exercise exercise, Scheduler blocking) {
+        Mono<?> submission = null;
+        if (exercise instanceof ModelingExercise modelingExercise) {
+            submission = solveModelingExercise(modelingExercise);
+        } else if (exercise instanceof TextExercise textExercise) {
+            submission = solveTextExercise(textExercise);
+        } else if (exercise instanceof QuizExercise quizExercise) {
+            submission = solveQuizExercise(quizExercise);
+        } else if (exercise instanceof ProgrammingExercise programmingExercise) {
+            // Git blocks, so the whole exercise runs on the blocking scheduler, with the blocking steps of the session.
+            return Mono.fromCallable(() -> solveAndSubmitProgrammingExercise(programmingExercise))
+                .subscribeOn(blocking)
+                .flatMapIterable(requestStats -> requestStats);
+        } else if (exercise instanceof FileUploadExercise fileUploadExercise) {
+            return Flux.concat(
+                act(MISC, () -> openFileUploadEditor(fileUploadExercise)),
+                act(SUBMIT_EXERCISE, () -> submitFileUploadExercise(fileUploadExercise))
+            );
+        }
+        Mono<?> request = submission;
+        return request != null ? act(SUBMIT_EXERCISE, () -> request).flux() : Flux.empty();
+    }
+
+    private Flux<RequestStat> reloadExamLater() {
+        return Flux.range(0, sampleExamReloads()).concatMap(reload ->
+            Flux.concat(
+                act(START_STUDENT_EXAM, this::fetchStudentExamForConduction),
+                act(SERVER_TIME, this::fetchServerTime),
+                act(MISC, this::fetchLiveEvents)
+            )
+        );
+    }
+
+    private Flux<RequestStat> submitAndEndExamLater() {
+        return ensureStudentExamLoadedLater().concatWith(
+            Flux.defer(() -> {
+                if (studentExam == null) {
+                    log.warn("Skipping exam submission for {}: student exam not available.", username);
+                    return Flux.empty();
+                }
+                return Flux.concat(
+                    act(SERVER_TIME, this::fetchServerTime),
+                    act(SUBMIT_STUDENT_EXAM, this::sendStudentExam),
+                    act(MISC, this::fetchExamSummary)
+                );
+            })
+        );
+    }
+
+    private Flux<RequestStat> ensureStudentExamLoadedLater() {
+        return Flux.defer(() -> {
+            if (studentExam != null) {
+                return Flux.empty();
+            }
+            Flux<RequestStat> navigate = studentExamId == null ? act(GET_STUDENT_EXAM, this::fetchOwnStudentExam).flux() : Flux.empty();
+            return navigate.concatWith(
+                Flux.defer(() -> {
+                    if (studentExamId == null) {
+                        log.warn("Student exam id still missing for {}", username);
+                        return Flux.empty();
+                    }
+                    return act(START_STUDENT_EXAM, this::fetchStudentExamForConduction);
+                })
+            );
+        });
+    }
+
+    private Mono<?> get(String uriTemplate, Object... uriVariables) {
+        return webClient.get().uri(uriTemplate, uriVariables).retrieve().toBodilessEntity();
+    }
+
+    private Mono<?> fetchInfo() {
+        return webClient
+            .get()
+            .uri("management/info")
+            .retrieve()
+            .bodyToMono(ArtemisServerInfo.class)
+            .doOnNext(response -> {
+                isScienceFeatureEnabled = response.features().contains("Science");
+                isIrisEnabled = response.activeProfiles().contains("iris");
+            });
+    }
+
+    private Mono<?> fetchServerTime() {
+        return get("api/public/time").onErrorResume(e -> {
+            log.debug("Could not fetch server time for {}: {}", username, e.getMessage());
+            return Mono.empty();
+        });
+    }
+
+    private Mono<?> fetchCalendarSubscriptionToken() {
+        // This endpoint returns a raw token as text/plain, so we must not request application/json (-> 406).
+        return webClient
             .get()
-            .uri(uriBuilder -> uriBuilder.pathSegment("api", "iris", "courses", String.valueOf(courseId), "status").build())
+            .uri("api/calendar/subscription-token")
+            .accept(MediaType.TEXT_PLAIN)
             .retrieve()
             .toBodilessEntity()
-            .block();
-        return new RequestStat(now(), System.nanoTime() - start, MISC);
+            .onErrorResume(e -> {
+                log.debug("Could not fetch calendar subscription token for {}: {}", username, e.getMessage());
+                return Mono.empty();
+            });
     }
 
-    private RequestStat getIrisChatHistory(long courseId) {
-        long start = System.nanoTime();
-        webClient
+    private Mono<?> configureSSH() {
+        return webClient
             .get()
-            .uri(uriBuilder ->
-                uriBuilder.pathSegment("api", "iris", "chat", "courses", String.valueOf(courseId), "sessions", "overview").build()
+            .uri("api/programming/ssh-settings/public-keys")
+            .retrieve()
+            .bodyToFlux(UserSshPublicKeyDTO.class)
+            .any(key -> key.publicKey().equals(publicKeyString))
+            .flatMap(hasArtemisKeyStoredAlready -> {
+                if (hasArtemisKeyStoredAlready) {
+                    return Mono.empty();
+                }
+                return webClient
+                    .post()
+                    .uri("api/programming/ssh-settings/public-key")
+                    .bodyValue(UserSshPublicKeyDTO.of(publicKeyString))
+                    .retrieve()
+                    .toBodilessEntity()
+                    .onErrorResume(e -> {
+                        log.error("Error while adding SSH key for {{}}: {{}}", username, e.getMessage());
+                        return Mono.empty();
+                    });
+            });
+    }
+
+    /**
+     * Simulate a student entering the course overview: the shell, the available tabs and the exercises tab one after
+     * the other, then the follow-up requests those call for.
+     *
+     * <p>Mirrors what the Artemis web client does since PR #12999 ("Load course overview content per tab instead of all
+     * at once"): the shell, the available tabs and the exercises tab are fetched separately, rather than pulling the
+     * whole course from {@code courses/&#123;courseId&#125;/for-dashboard}. That endpoint is deprecated and is kept only
+     * for the native clients, and it costs 16 database queries and ~37 KB against ~6 queries for this split, so a
+     * simulation that still called it would be measuring a load pattern no web user produces.
+     *
+     * @param exerciseId the programming exercise whose channel the student would open
+     * @return the requests of the whole course-entry interaction
+     */
+    private Mono<?> fetchCourseOverview(long exerciseId) {
+        Mono<Optional<CourseAvailableTabsDTO>> availableTabs = optional(
+            webClient
+                .get()
+                .uri("api/course/courses/{courseId}/available-tabs", courseIdString)
+                .retrieve()
+                .bodyToMono(CourseAvailableTabsDTO.class)
+        );
+        Mono<Optional<CourseForOverviewDTO>> course = optional(
+            webClient
+                .get()
+                .uri("api/course/courses/{courseId}/for-overview", courseIdString)
+                .retrieve()
+                .bodyToMono(CourseForOverviewDTO.class)
+        );
+        Mono<Optional<CourseExercisesForOverviewDTO>> exercises = optional(
+            webClient
+                .get()
+                .uri("api/course/courses/{courseId}/exercises-for-overview", courseIdString)
+                .retrieve()
+                .bodyToMono(CourseExercisesForOverviewDTO.class)
+        );
+        return availableTabs.flatMap(tabs ->
+            course.flatMap(courseOverview ->
+                exercises.flatMap(exercisesOverview -> fetchCourseOverviewDetails(tabs, courseOverview, exercisesOverview, exerciseId))
             )
+        );
+    }
+
+    private Mono<?> fetchCourseOverviewDetails(
+        Optional<CourseAvailableTabsDTO> availableTabs,
+        Optional<CourseForOverviewDTO> course,
+        Optional<CourseExercisesForOverviewDTO> exercises,
+        long exerciseId
+    ) {
+        if (course.isEmpty() && exercises.isEmpty()) {
+            return Mono.empty();
+        }
+        boolean communicationEnabled = availableTabs
+            .map(CourseAvailableTabsDTO::communication)
+            .orElseGet(() ->
+                course
+                    .map(CourseForOverviewDTO::courseInformationSharingConfiguration)
+                    .filter(configuration -> !"DISABLED".equals(configuration))
+                    .isPresent()
+            );
+        List<Mono<?>> requests = new ArrayList<>();
+        if (communicationEnabled) {
+            requests.add(get("api/communication/courses/{courseId}/unread-messages", courseIdString));
+            requests.add(fetchExerciseChannelAndMessages(exerciseId));
+        }
+        exercises
+            .map(CourseExercisesForOverviewDTO::participationResults)
+            .ifPresent(results ->
+                results.forEach(result ->
+                    requests.add(
+                        get(
+                            "api/programming/programming-exercise-participations/{participationId}/latest-pending-submission",
+                            result.participationId()
+                        )
+                    )
+                )
+            );
+        return Flux.concat(requests)
+            .then()
+            .onErrorResume(e -> {
+                log.error("Error while getting course overview for {{}}: {{}}", username, e.getMessage());
+                return Mono.empty();
+            });
+    }
+
+    private Mono<?> fetchExerciseChannelAndMessages(long exerciseId) {
+        return webClient
+            .get()
+            .uri("api/communication/courses/{courseId}/exercises/{exerciseId}/channel", courseIdString, exerciseId)
+            .retrieve()
+            .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
+            .map(channel -> ((Number) channel.get("id")).longValue())
+            .filter(channelId -> channelId != 0)
+            .flatMap(channelId ->
+                webClient
+                    .get()
+                    .uri(uriBuilder ->
+                        uriBuilder
+                            .pathSegment("api", "communication", "courses", courseIdString, "messages")
+                            .queryParam("courseId", courseIdString)
+                            .queryParam("conversationIds", channelId)
+                            .queryParam("postSortCriterion", "CREATION_DATE")
+                            .queryParam("sortingOrder", "DESCENDING")
+                            .queryParam("page", 0)
+                            .queryParam("size", 50)
+                            .build()
+                    )
+                    .retrieve()
+                    .toBodilessEntity()
+            );
+    }
+
+    private Mono<?> sendScienceEvent(long exerciseId) {
+        return webClient
+            .put()
+            .uri("api/atlas/science")
+            .bodyValue(new ScienceEventDTO(ScienceEventDTO.ScienceEventType.EXERCISE__OPEN, exerciseId))
             .retrieve()
             .toBodilessEntity()
-            .block();
-        return new RequestStat(now(), System.nanoTime() - start, MISC);
+            .onErrorResume(e -> {
+                log.error("Error while putting science event for {{}}: {{}}", username, e.getMessage());
+                return Mono.empty();
+            });
+    }
+
+    private Mono<?> fetchExerciseContributions(long exerciseId) {
+        return get("api/atlas/exercises/{exerciseId}/contributions", exerciseId).onErrorResume(e -> {
+            log.debug("Could not fetch exercise contributions for {}: {}", username, e.getMessage());
+            return Mono.empty();
+        });
+    }
+
+    private Mono<?> fetchOwnStudentExam() {
+        return webClient
+            .get()
+            .uri("api/exam/courses/{courseId}/exams/{examId}/own-student-exam", courseIdString, examIdString)
+            .retrieve()
+            .bodyToMono(StudentExam.class)
+            .doOnNext(ownStudentExam -> studentExamId = ownStudentExam.getId());
+    }
+
+    private Mono<?> fetchStudentExamForConduction() {
+        return webClient
+            .get()
+            .uri(
+                "api/exam/courses/{courseId}/exams/{examId}/student-exams/{studentExamId}/conduction",
+                courseIdString,
+                examIdString,
+                studentExamId
+            )
+            .retrieve()
+            .bodyToMono(StudentExam.class)
+            .doOnNext(conductedStudentExam -> studentExam = conductedStudentExam);
+    }
+
+    private Mono<?> fetchLiveEvents() {
+        return get("api/exam/courses/{courseId}/exams/{examId}/student-exams/live-events", courseIdString, examIdString);
+    }
+
+    private Mono<?> sendStudentExam() {
+        return webClient
+            .post()
+            .uri("api/exam/courses/{courseId}/exams/{examId}/student-exams/submit", courseIdString, examIdString)
+            .bodyValue(studentExam)
+            .retrieve()
+            .toBodilessEntity();
+    }
+
+    private Mono<?> fetchExamSummary() {
+        return get(
+            "api/exam/courses/{courseId}/exams/{examId}/student-exams/{studentExamId}/summary",
+            courseIdString,
+            examIdString,
+            studentExamId
+        );
+    }
+
+    private static <T> Mono<Optional<T>> optional(Mono<T> mono) {
+        return mono.map(Optional::of).defaultIfEmpty(Optional.empty());
     }
 
     private UsernamePasswordCredentialsProvider getCredentialsProvider() {
@@ -6,27 +6,48 @@ import static java.time.ZonedDateTime.now;
 import de.tum.cit.aet.artemisModel.ArtemisAuthMechanism;
 import de.tum.cit.aet.domain.ArtemisUser;
 import de.tum.cit.aet.domain.RequestStat;
+import de.tum.cit.aet.domain.RequestTimings;
+import de.tum.cit.aet.domain.RequestType;
 import de.tum.cit.aet.service.artemis.ArtemisUserService;
 import de.tum.cit.aet.service.artemis.passkey.ArtemisPasskeyService;
 import de.tum.cit.aet.service.artemis.util.AuthToken;
-import io.netty.channel.ChannelOption;
-import io.netty.handler.timeout.ReadTimeoutHandler;
-import io.netty.handler.timeout.WriteTimeoutHandler;
+import de.tum.cit.aet.util.CancellationToken;
+import de.tum.cit.aet.util.RateLimiter;
+import de.tum.cit.aet.util.ThinkTime;
 import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Supplier;
-import javax.net.ssl.SSLException;
 import org.slf4j.Logger;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
 import reactor.netty.http.client.HttpClient;
-import reactor.netty.tcp.TcpSslContextSpec;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.util.context.Context;
 
 /**
  * A simulated Artemis user that can be used to interact with the Artemis server.
@@ -35,6 +56,39 @@ import reactor.netty.tcp.TcpSslContextSpec;
  */
 public abstract class SimulatedArtemisUser {
 
+    /**
+     * How many requests of a page load are in flight at once, the limit browsers keep per origin over HTTP/1.1.
+     */
+    static final int MAX_PARALLEL_REQUESTS_PER_ORIGIN = 6;
+
+    /**
+     * Set on the threads that send the requests of a page load, whose think time comes once after the whole page.
+     */
+    private static final ThreadLocal<Boolean> IN_PAGE_LOAD = ThreadLocal.withInitial(() -> false);
+
+    /**
+     * The zone request stats are stamped in, looked up once: looking it up for every request copies the default time zone.
+     */
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    /**
+     * The epoch time at {@link System#nanoTime()} 0, in nanoseconds, to place journaled requests in time without
+     * reading the clock for each.
+     */
+    private static final long EPOCH_NANOS_AT_NANO_TIME_ZERO = epochNanosAtNanoTimeZero();
+
+    /**
+     * Key of the Reactor context entry a non-blocking request adds its waits on the rate limiter to, see
+     * {@link #timed(RequestType, Supplier)}. Such a request moves between event loop threads, so the per-thread record
+     * of the waits does not work for it.
+     */
+    private static final String LIMITER_WAITS = SimulatedArtemisUser.class.getName() + ".limiterWaits";
+
+    /**
+     * How many timers of requests {@link #requestTimers} keeps per thread before it drops the oldest.
+     */
+    private static final int MAX_PENDING_TIMERS = 64;
+
     protected Logger log;
 
     protected final String username;
@@ -56,6 +110,77 @@ public abstract class SimulatedArtemisUser {
     private ArtemisPasskeyService passkeyService;
     private final Supplier<WebClient.Builder> webClientBuilderSupplier;
 
+    /**
+     * How long to pause after each category of action. Empty for users that act as fast as they can, like the admin.
+     */
+    private final Map<ActionCategory, ThinkTime> thinkTimes = new EnumMap<>(ActionCategory.class);
+
+    /**
+     * The name of the persona this user acts as, recorded with every stat; {@code null} outside of personas.
+     */
+    private String persona;
+
+    /**
+     * The server-wide ID of this user, recorded with every stat so a run can be sliced by student afterwards; 0 if the
+     * user has no {@link ArtemisUser}.
+     */
+    private final int student;
+
+    /**
+     * The limiter shared by every student of the server, or {@code null} if the server has no limit.
+     */
+    private volatile RateLimiter rateLimiter;
+
+    /**
+     * Waits on the rate limiter that no completed action accounted for yet, each as when the wait ended and how long
+     * it was, in {@link System#nanoTime()} terms. Per thread, since the requests of a page load run in parallel and
+     * each accounts for its own wait.
+     */
+    private final ThreadLocal<ArrayDeque<long[]>> limiterWaits = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * The timers of the requests this user sent on each thread since the last action was recorded, see
+     * {@link #takeRequestTimers(long)}. Like {@link #limiterWaits}, but for the phases and endpoints of the requests.
+     */
+    private final ThreadLocal<ArrayDeque<RequestTimer>> requestTimers = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Where this user's requests are journaled one by one, or {@code null} if they are not.
+     */
+    private volatile RequestJournal requestJournal;
+
+    /**
+     * Failed requests of this user that no recorded action returned, waiting for {@link #takeFailedRequests()}.
+     */
+    private final Queue<RequestStat> failedRequests = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The token of the run this user takes part in. Once it is cancelled, the user sends no further requests.
+     */
+    private volatile CancellationToken cancellation = new CancellationToken();
+
+    /**
+     * Completes once the run this user takes part in is cancelled, to cut non-blocking think times short.
+     */
+    private volatile Mono<Void> cancelled = Mono.never();
+
+    /**
+     * Where this user's web clients get their connections, or {@code null} for a client and pool of their own each.
+     */
+    private ArtemisHttpClients httpClients;
+    private boolean ownConnectionPool;
+
+    /**
+     * The client all of this user's web clients share, created with the first of them.
+     */
+    private HttpClient httpClient;
+
+    /**
+     * The pool of this user alone, if it keeps one, created with the first web client and disposed by
+     * {@link #releaseConnections()}.
+     */
+    private ConnectionProvider connectionPool;
+
     /**
      * Create a new SimulatedArtemisUser.
      * The artemisUser and artemisUserService parameters are used to cache the JWT token.
@@ -94,6 +219,7 @@ public abstract class SimulatedArtemisUser {
         this.privateKeyString = artemisUser.getPrivateKey();
         this.publicKeyString = artemisUser.getPublicKey();
         this.webClientBuilderSupplier = webClientBuilderSupplier;
+        this.student = artemisUser.getServerWideId();
     }
 
     protected SimulatedArtemisUser(
@@ -106,6 +232,502 @@ public abstract class SimulatedArtemisUser {
         this.password = password;
         this.artemisUrl = artemisUrl;
         this.webClientBuilderSupplier = webClientBuilderSupplier;
+        this.student = 0;
+    }
+
+    /**
+     * Set how long this user pauses after actions of the given category.
+     *
+     * @param category  the category of action
+     * @param thinkTime the pause, {@link ThinkTime#NONE} for none
+     */
+    public void setThinkTime(ActionCategory category, ThinkTime thinkTime) {
+        thinkTimes.put(category, thinkTime);
+    }
+
+    /**
+     * Set the persona this user acts as, so that its stats can be told apart from those of other personas.
+     *
+     * @param persona the name of the persona, or {@code null} for none
+     */
+    public void setPersona(String persona) {
+        this.persona = persona;
+    }
+
+    /**
+     * Set the limiter that paces this user's requests, shared with every other student of the same server. Every
+     * request through the user's web client and every git operation takes a token from it first.
+     *
+     * @param rateLimiter the limiter, or {@code null} for none
+     */
+    public void setRateLimiter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Set where this user's requests are journaled one by one as the actions they belong to complete.
+     *
+     * @param requestJournal the journal, or {@code null} for none
+     */
+    public void setRequestJournal(RequestJournal requestJournal) {
+        this.requestJournal = requestJournal;
+    }
+
+    /**
+     * Set where this user's requests get their connections from. A user with a pool of its own opens at most
+     * {@value #MAX_PARALLEL_REQUESTS_PER_ORIGIN} connections to the server and reuses them for all of its requests, as
+     * a browser does, and closes them in {@link #releaseConnections()}. Otherwise it takes connections from the pool
+     * every such user shares.
+     *
+     * @param httpClients       the source of the user's HTTP clients
+     * @param ownConnectionPool whether the user keeps a pool of its own
+     */
+    public synchronized void setHttpClients(ArtemisHttpClients httpClients, boolean ownConnectionPool) {
+        this.httpClients = httpClients;
+        this.ownConnectionPool = ownConnectionPool;
+        this.httpClient = null;
+    }
+
+    /**
+     * Close the connections of this user's own pool, once it sends no further requests. Does nothing for users without
+     * one.
+     */
+    public synchronized void releaseConnections() {
+        if (connectionPool != null) {
+            connectionPool.disposeLater().subscribe();
+            connectionPool = null;
+            httpClient = null;
+        }
+    }
+
+    /**
+     * Set the token of the run this user takes part in. Once it is cancelled, every further request of this user fails
+     * with a {@link CancellationException} before it is sent, think times are cut short and {@link #onCancelled()}
+     * runs, while requests already in flight complete as usual.
+     *
+     * @param cancellation the token of the run
+     */
+    public void setCancellationToken(CancellationToken cancellation) {
+        this.cancellation = cancellation;
+        Sinks.Empty<Void> cancelledSink = Sinks.empty();
+        this.cancelled = cancelledSink.asMono();
+        cancellation.onCancel(cancelledSink::tryEmitEmpty);
+        cancellation.onCancel(this::onCancelled);
+    }
+
+    /**
+     * @return the token of the run this user takes part in
+     */
+    public CancellationToken getCancellationToken() {
+        return cancellation;
+    }
+
+    /**
+     * Called on the cancelling thread once the run this user takes part in is cancelled, to release whatever the user
+     * keeps open between requests. Must not block.
+     */
+    protected void onCancelled() {}
+
+    /**
+     * Wait for a token of the rate limiter, if there is one. For requests that do not go through the web client, like
+     * git operations; call it after taking the start time, so that the wait is accounted to the action. Fails right
+     * away instead if the run was cancelled.
+     *
+     * @throws CancellationException if the run was cancelled
+     */
+    protected void awaitRateLimit() {
+        cancellation.throwIfCancelled();
+        RateLimiter limiter = rateLimiter;
+        if (limiter == null) {
+            return;
+        }
+        long wait = limiter.reserve();
+        if (wait > 0) {
+            recordLimiterWait(wait);
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void recordLimiterWait(long waitNanos) {
+        limiterWaits.get().add(new long[] { System.nanoTime() + waitNanos, waitNanos });
+    }
+
+    /**
+     * Take the waits on the rate limiter that belong to an action. Requests on the same thread never overlap, so a
+     * wait belongs to the action if it ended after the action started; waits of requests outside any measured action
+     * ended earlier and are dropped.
+     *
+     * @param actionStart when the action started, in {@link System#nanoTime()} terms
+     * @return the total wait of the action, in nanoseconds
+     */
+    private long takeLimiterWait(long actionStart) {
+        ArrayDeque<long[]> waits = limiterWaits.get();
+        long total = 0;
+        for (long[] wait : waits) {
+            if (wait[0] > actionStart) {
+                total += wait[1];
+            }
+        }
+        waits.clear();
+        return total;
+    }
+
+    /**
+     * Take the timers of the requests that belong to an action, the same way as {@link #takeLimiterWait(long)}: a
+     * request belongs to the action if it was sent after the action started. Failed requests from before are queued
+     * for {@link #takeFailedRequests()} rather than dropped.
+     *
+     * @param actionStart when the action started, in {@link System#nanoTime()} terms
+     * @return the timers of the action's requests, in the order they were sent
+     */
+    private List<RequestTimer> takeRequestTimers(long actionStart) {
+        ArrayDeque<RequestTimer> timers = requestTimers.get();
+        List<RequestTimer> taken = new ArrayList<>(timers.size());
+        for (RequestTimer timer : timers) {
+            if (timer.created() > actionStart) {
+                taken.add(timer);
+            } else if (timer.error() != null) {
+                queueFailedRequest(timer);
+            }
+        }
+        timers.clear();
+        return taken;
+    }
+
+    /**
+     * Record a completed action, then pause for the think time of its category before returning. The pause comes after
+     * the duration was taken, so it never counts towards the measured latency, and it separates this action from
+     * whatever the user does next.
+     *
+     * @param durationNanos how long the action took
+     * @param type          the type of the action
+     * @return the request stat of the action
+     */
+    protected RequestStat completed(long durationNanos, RequestType type) {
+        // Time spent waiting for the rate limiter is the tool's doing, not the server's, so it is kept apart.
+        long actionStart = System.nanoTime() - durationNanos;
+        long limiterWait = Math.min(durationNanos, takeLimiterWait(actionStart));
+        List<RequestTimer> timers = takeRequestTimers(actionStart);
+        RequestTimings timings = timers.stream().map(RequestTimer::timings).reduce(RequestTimings.NONE, RequestTimings::plus);
+        String endpoint = timers.isEmpty() ? null : timers.getFirst().endpoint();
+        // An action whose failed request was caught failed all the same, with the status of that request.
+        RequestTimer outcome = timers
+            .stream()
+            .filter(timer -> timer.error() != null)
+            .findFirst()
+            .orElse(timers.isEmpty() ? null : timers.getLast());
+        RequestStat stat = new RequestStat(
+            now(ZONE),
+            durationNanos - limiterWait,
+            type,
+            persona,
+            limiterWait,
+            student,
+            timings,
+            endpoint,
+            outcome != null ? outcome.status() : 0,
+            outcome != null ? outcome.error() : null
+        );
+        journal(type, timers, actionStart, stat);
+        if (!IN_PAGE_LOAD.get()) {
+            think(ActionCategory.of(type));
+        }
+        return stat;
+    }
+
+    /**
+     * Pass the requests of an action to the journal, if there is one: each request its timers timed, or the action as a
+     * whole if it made none through the web client, like a git operation.
+     *
+     * @param type        the type of the action
+     * @param timers      the timers of the action's requests
+     * @param actionStart when the action started, in {@link System#nanoTime()} terms
+     * @param stat        the stat of the action
+     */
+    private void journal(RequestType type, List<RequestTimer> timers, long actionStart, RequestStat stat) {
+        RequestJournal journal = requestJournal;
+        if (journal == null) {
+            return;
+        }
+        boolean journaled = false;
+        for (RequestTimer timer : timers) {
+            for (RequestTimer.Request request : timer.requests()) {
+                journal.record(
+                    type,
+                    EPOCH_NANOS_AT_NANO_TIME_ZERO + request.made(),
+                    request.duration(),
+                    request.limiterWait(),
+                    student,
+                    request.endpoint(),
+                    request.status(),
+                    request.failed()
+                );
+                journaled = true;
+            }
+        }
+        if (!journaled) {
+            journal.record(
+                type,
+                EPOCH_NANOS_AT_NANO_TIME_ZERO + actionStart,
+                stat.duration(),
+                stat.limiterWait(),
+                student,
+                stat.endpoint(),
+                stat.status(),
+                stat.failed()
+            );
+        }
+    }
+
+    private static long epochNanosAtNanoTimeZero() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano() - System.nanoTime();
+    }
+
+    private void think(ActionCategory category) {
+        ThinkTime thinkTime = thinkTimes.get(category);
+        if (thinkTime != null && !thinkTime.isNone()) {
+            try {
+                cancellation.sleep(thinkTime.sample(ThreadLocalRandom.current()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Take the failed requests of this user that no recorded action returned: those of non-blocking requests, which
+     * fail with their stat queued here, and those of a blocking action on the calling thread that failed before it was
+     * recorded. The type of a blocking action is only known once it completed, so its failed requests are recorded
+     * under {@link RequestType#MISC}.
+     *
+     * @return the failed requests, in the order they failed on each thread
+     */
+    public List<RequestStat> takeFailedRequests() {
+        queueFailedRequestTimers();
+        List<RequestStat> taken = new ArrayList<>();
+        for (RequestStat stat = failedRequests.poll(); stat != null; stat = failedRequests.poll()) {
+            taken.add(stat);
+        }
+        return taken;
+    }
+
+    /**
+     * Queue the failed requests among the timers of the calling thread, and drop the timers: the action they belong to
+     * failed, so no {@link #completed} takes them.
+     */
+    private void queueFailedRequestTimers() {
+        ArrayDeque<RequestTimer> timers = requestTimers.get();
+        for (RequestTimer timer : timers) {
+            if (timer.error() != null) {
+                queueFailedRequest(timer);
+            }
+        }
+        timers.clear();
+    }
+
+    private void queueFailedRequest(RequestTimer timer) {
+        long duration = timer.failedAt() - timer.created();
+        long limiterWait = Math.min(duration, takeLimiterWait(timer.created()));
+        RequestStat stat = new RequestStat(
+            now(ZONE).minusNanos(System.nanoTime() - timer.failedAt()),
+            duration - limiterWait,
+            RequestType.MISC,
+            persona,
+            limiterWait,
+            student,
+            timer.timings(),
+            timer.endpoint(),
+            timer.status(),
+            timer.error()
+        );
+        journal(RequestType.MISC, List.of(timer), timer.created(), stat);
+        failedRequests.add(stat);
+    }
+
+    /**
+     * Time a request without blocking, for the non-blocking engine of {@link SimulatedArtemisStudent#examSession}.
+     * The stat is the same {@link #completed} records, but the think time is left to the caller, see
+     * {@link #act(RequestType, Supplier)}. If the request fails, its stat is queued for {@link #takeFailedRequests()}
+     * before the error is passed on.
+     *
+     * @param type    the type of the request
+     * @param request creates the request, once per subscription
+     * @return the stat of the request, once it completed
+     */
+    protected Mono<RequestStat> timed(RequestType type, Supplier<Mono<?>> request) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            LongAdder limiterWaits = new LongAdder();
+            RequestTimer timer = new RequestTimer();
+            return request
+                .get()
+                .then(Mono.fromSupplier(() -> toStat(type, start, limiterWaits, timer)))
+                .doOnError(exception -> {
+                    timer.failed(exception);
+                    if (timer.error() != null) {
+                        failedRequests.add(toStat(type, start, limiterWaits, timer));
+                    }
+                })
+                .contextWrite(Context.of(LIMITER_WAITS, limiterWaits, RequestTimer.CONTEXT_KEY, timer));
+        });
+    }
+
+    private RequestStat toStat(RequestType type, long start, LongAdder limiterWaits, RequestTimer timer) {
+        long duration = System.nanoTime() - start;
+        long limiterWait = Math.min(duration, limiterWaits.sum());
+        RequestStat stat = new RequestStat(
+            now(ZONE),
+            duration - limiterWait,
+            type,
+            persona,
+            limiterWait,
+            student,
+            timer.timings(),
+            timer.endpoint(),
+            timer.status(),
+            timer.error()
+        );
+        journal(type, List.of(timer), start, stat);
+        return stat;
+    }
+
+    /**
+     * Make a request without blocking and pause for the think time of its category afterwards, the non-blocking
+     * counterpart of a request recorded with {@link #completed}.
+     *
+     * @param type    the type of the request
+     * @param request creates the request, once per subscription
+     * @return the stat of the request, once the think time after it passed
+     */
+    protected Mono<RequestStat> act(RequestType type, Supplier<Mono<?>> request) {
+        return timed(type, request).delayUntil(stat -> thinkLater(ActionCategory.of(type)));
+    }
+
+    /**
+     * Make a request built for the non-blocking engine from a blocking step and wait for it, so that both engines share
+     * one implementation of each request. Like {@link #completed}, it pauses for the think time of the request's
+     * category afterwards, unless the request is part of a {@link #loadPage(List) page}.
+     *
+     * @param type    the type of the request
+     * @param request creates the request
+     * @return the stat of the request
+     */
+    protected RequestStat blocking(RequestType type, Supplier<Mono<?>> request) {
+        RequestStat stat = timed(type, request).block();
+        if (!IN_PAGE_LOAD.get()) {
+            think(ActionCategory.of(type));
+        }
+        return stat;
+    }
+
+    /**
+     * Pause for the think time of a category without blocking a thread, cut short once the run is cancelled.
+     *
+     * @param category the category of the action before the pause
+     * @return completes once the pause is over
+     */
+    protected Mono<Void> thinkLater(ActionCategory category) {
+        ThinkTime thinkTime = thinkTimes.get(category);
+        if (thinkTime == null || thinkTime.isNone()) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> Mono.delay(thinkTime.sample(ThreadLocalRandom.current())).then()).or(cancelled);
+    }
+
+    /**
+     * Load a page like {@link #loadPage(List)}, without blocking a thread: at most
+     * {@value #MAX_PARALLEL_REQUESTS_PER_ORIGIN} of its requests are in flight at once, the others wait for a slot
+     * without holding a thread, and the think time comes once after the page.
+     *
+     * @param requests the requests of the page, each made with {@link #timed(RequestType, Supplier)}
+     * @return the stats of the requests, in the given order, followed by the stat of the page
+     */
+    protected Mono<List<RequestStat>> loadPageLater(List<Mono<RequestStat>> requests) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return Flux.fromIterable(requests)
+                .flatMapSequentialDelayError(request -> request, MAX_PARALLEL_REQUESTS_PER_ORIGIN, 1)
+                .collectList()
+                .map(stats -> {
+                    long duration = System.nanoTime() - start;
+                    long limiterWait = Math.min(duration, stats.stream().mapToLong(RequestStat::limiterWait).max().orElse(0));
+                    List<RequestStat> requestStats = new ArrayList<>(stats);
+                    requestStats.add(
+                        RequestStat.of(now(ZONE), duration - limiterWait, RequestType.PAGE_LOAD, persona, limiterWait, student)
+                    );
+                    return requestStats;
+                });
+        }).delayUntil(stats -> thinkLater(ActionCategory.REST));
+    }
+
+    /**
+     * Load a page the way a browser does: send its requests in parallel, at most
+     * {@value #MAX_PARALLEL_REQUESTS_PER_ORIGIN} at a time, and wait for all of them. Each request is recorded on its
+     * own as usual, and the page as a whole under {@link RequestType#PAGE_LOAD}, from the first request going out to
+     * the last one completing. The think time comes once, after the page, rather than after every request.
+     * <p>
+     * The requests must not depend on each other. If any of them fails, the others still complete, and the first
+     * failure is thrown afterwards.
+     *
+     * @param requests the requests of the page, each returning its stat
+     * @return the stats of the requests, in the given order, followed by the stat of the page
+     */
+    protected List<RequestStat> loadPage(List<Callable<RequestStat>> requests) {
+        long start = System.nanoTime();
+        List<Future<RequestStat>> results = new ArrayList<>(requests.size());
+        Semaphore connections = new Semaphore(MAX_PARALLEL_REQUESTS_PER_ORIGIN);
+        // Closing waits for every request; an interrupt while waiting cancels the ones still running.
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Callable<RequestStat> request : requests) {
+                results.add(
+                    executor.submit(() -> {
+                        connections.acquire();
+                        try {
+                            IN_PAGE_LOAD.set(true);
+                            return request.call();
+                        } catch (Exception e) {
+                            // The thread ends with the request, and its timers with it.
+                            queueFailedRequestTimers();
+                            throw e;
+                        } finally {
+                            connections.release();
+                        }
+                    })
+                );
+            }
+        }
+        long duration = System.nanoTime() - start;
+
+        List<RequestStat> requestStats = new ArrayList<>(requests.size() + 1);
+        RuntimeException failure = null;
+        for (Future<RequestStat> result : results) {
+            Throwable exception = switch (result.state()) {
+                case SUCCESS -> null;
+                case FAILED -> result.exceptionNow();
+                default -> new CancellationException("Page load of " + username + " was cancelled");
+            };
+            if (exception == null) {
+                requestStats.add(result.resultNow());
+            } else if (failure == null) {
+                failure = exception instanceof RuntimeException runtimeException ? runtimeException : new IllegalStateException(exception);
+            } else {
+                failure.addSuppressed(exception);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+
+        // The requests waited on the rate limiter in parallel, so the page was held back by the longest of the waits.
+        long limiterWait = Math.min(duration, requestStats.stream().mapToLong(RequestStat::limiterWait).max().orElse(0));
+        requestStats.add(RequestStat.of(now(ZONE), duration - limiterWait, RequestType.PAGE_LOAD, persona, limiterWait, student));
+        think(ActionCategory.REST);
+        return requestStats;
     }
 
     /**
@@ -152,7 +774,7 @@ public abstract class SimulatedArtemisUser {
         var payload = Map.of("username", username, "password", password, "rememberMe", true);
         var response = webClient.post().uri("api/core/public/authenticate").bodyValue(payload).retrieve().toBodilessEntity().block();
 
-        requestStats.add(new RequestStat(now(), System.nanoTime() - start, AUTHENTICATION));
+        requestStats.add(completed(System.nanoTime() - start, AUTHENTICATION));
 
         if (response == null) {
             throw new RuntimeException("Login failed - No response received");
@@ -182,6 +804,71 @@ public abstract class SimulatedArtemisUser {
         return requestStats;
     }
 
+    /**
+     * Log in like {@link #login()}, without blocking a thread. A token cached in the user's {@link ArtemisUser} is used
+     * while it is valid, but a new one is not cached, which would take a blocking database update per user. A login
+     * with a passkey, which has to persist its signature counter, runs the blocking {@link #login()} on another thread.
+     *
+     * @return the request stats for the login request (empty if a cached token was used)
+     */
+    public Mono<List<RequestStat>> loginLater() {
+        return Mono.defer(() -> {
+            if (artemisUser != null && artemisUser.getJwtToken() != null && artemisUser.getTokenExpirationDate().isAfter(now())) {
+                authToken = new AuthToken(artemisUser.getJwtToken(), null, null, artemisUser.getTokenExpirationDate());
+                webClient = createAuthenticatedWebClient();
+                return checkAccessLater().flatMap(access -> access ? Mono.just(List.<RequestStat>of()) : loginWithPasswordLater());
+            }
+            return loginWithPasswordLater();
+        });
+    }
+
+    private Mono<List<RequestStat>> loginWithPasswordLater() {
+        if (shouldAuthenticateWithPasskey()) {
+            return Mono.fromCallable(this::loginWithPasskey).subscribeOn(Schedulers.boundedElastic());
+        }
+        WebClient anonymousClient = createWebClientBuilder()
+            .baseUrl(artemisUrl)
+            .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+            .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .build();
+        var payload = Map.of("username", username, "password", password, "rememberMe", true);
+        return timed(AUTHENTICATION, () ->
+            anonymousClient
+                .post()
+                .uri("api/core/public/authenticate")
+                .bodyValue(payload)
+                .retrieve()
+                .toBodilessEntity()
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Login failed - No response received")))
+                .doOnNext(response -> {
+                    var header = response.getHeaders().get("Set-Cookie");
+                    if (header == null) {
+                        throw new RuntimeException("Login failed - No cookie received");
+                    }
+                    authToken = AuthToken.fromResponseHeaderString(header.getFirst());
+                })
+        )
+            .delayUntil(stat -> thinkLater(ActionCategory.of(AUTHENTICATION)))
+            .flatMap(stat -> {
+                webClient = createAuthenticatedWebClient();
+                return checkAccessLater().map(access -> {
+                    if (!access) {
+                        log.warn("User {} failed access check after login.", username);
+                    }
+                    return List.of(stat);
+                });
+            });
+    }
+
+    private WebClient createAuthenticatedWebClient() {
+        return createWebClientBuilder()
+            .baseUrl(artemisUrl)
+            .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+            .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .defaultHeader("Cookie", authToken.jwtToken())
+            .build();
+    }
+
     /**
      * @return true if this user has a registered passkey and a service to use it with
      */
@@ -210,7 +897,7 @@ public abstract class SimulatedArtemisUser {
 
         long start = System.nanoTime();
         authToken = passkeyService.authenticateWithPasskey(anonymousClient, artemisUser, artemisUrl);
-        requestStats.add(new RequestStat(now(), System.nanoTime() - start, AUTHENTICATION));
+        requestStats.add(completed(System.nanoTime() - start, AUTHENTICATION));
 
         artemisUser.setJwtToken(authToken.jwtToken());
         artemisUser.setTokenExpirationDate(authToken.expireDate());
@@ -240,19 +927,130 @@ public abstract class SimulatedArtemisUser {
 
     protected abstract void checkAccess();
 
+    /**
+     * {@link #checkAccess()} without blocking the caller. Users that log in with {@link #loginLater()} should override
+     * it with a non-blocking check; by default the blocking one runs on another thread.
+     *
+     * @return whether the user has access, once checked
+     */
+    protected Mono<Boolean> checkAccessLater() {
+        return Mono.fromCallable(() -> {
+            checkAccess();
+            return authenticated;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
     protected WebClient.Builder createWebClientBuilder() {
         WebClient.Builder builder =
             webClientBuilderSupplier != null
                 ? webClientBuilderSupplier.get()
-                : WebClient.builder().clientConnector(new ReactorClientHttpConnector(createHttpClient()));
-        return builder.filter(logErrorResponses());
+                : WebClient.builder().clientConnector(new ReactorClientHttpConnector(httpClient()));
+        return builder
+            .filter(timeRequests())
+            .filter(stopWhenCancelled())
+            .filter(limitRate())
+            .filter(logErrorResponses())
+            .filter(recordStatus());
+    }
+
+    /**
+     * Gives each request a timer for its phases, unless it already carries the timer of its action, see
+     * {@link #timed(RequestType, Supplier)}, and notes the request's endpoint on the timer, and whether it failed. The
+     * timer of a blocking request is kept for {@link #completed}, on the thread the request is made from.
+     */
+    private ExchangeFilterFunction timeRequests() {
+        return (request, next) ->
+            Mono.deferContextual(context -> {
+                String endpoint = Endpoints.of(request);
+                if (context.hasKey(RequestTimer.CONTEXT_KEY)) {
+                    RequestTimer timer = context.get(RequestTimer.CONTEXT_KEY);
+                    timer.requested(endpoint);
+                    return next.exchange(request).doOnError(timer::failed);
+                }
+                RequestTimer timer = new RequestTimer();
+                timer.requested(endpoint);
+                ArrayDeque<RequestTimer> timers = requestTimers.get();
+                if (timers.size() == MAX_PENDING_TIMERS) {
+                    // Requests outside any recorded action, e.g. an admin's, would otherwise pile up.
+                    timers.removeFirst();
+                }
+                timers.add(timer);
+                return next.exchange(request).doOnError(timer::failed).contextWrite(Context.of(RequestTimer.CONTEXT_KEY, timer));
+            });
+    }
+
+    private synchronized HttpClient httpClient() {
+        if (httpClients == null) {
+            return createHttpClient();
+        }
+        if (httpClient == null) {
+            if (ownConnectionPool) {
+                connectionPool = httpClients.newConnectionPool(username);
+                httpClient = httpClients.create(connectionPool);
+            } else {
+                httpClient = httpClients.shared();
+            }
+        }
+        return httpClient;
+    }
+
+    /**
+     * Fails each request before it is sent once the run was cancelled, which ends the user's current action at its next
+     * request. Requests that were sent before keep going until they complete or time out.
+     */
+    private ExchangeFilterFunction stopWhenCancelled() {
+        return (request, next) ->
+            cancellation.isCancelled()
+                ? Mono.error(new CancellationException("The simulation run was cancelled"))
+                : next.exchange(request);
+    }
+
+    /**
+     * Holds each request back until the rate limiter hands out a token for it. The wait is a delay on the reactive
+     * chain rather than a sleep, so it blocks no thread, and it is recorded so {@link #completed} can take it out of
+     * the measured duration.
+     */
+    private ExchangeFilterFunction limitRate() {
+        return (request, next) -> {
+            RateLimiter limiter = rateLimiter;
+            long wait = limiter != null ? limiter.reserve() : 0;
+            if (wait == 0) {
+                return next.exchange(request);
+            }
+            return Mono.deferContextual(context -> {
+                LongAdder limiterWaits = context.getOrDefault(LIMITER_WAITS, null);
+                if (limiterWaits != null) {
+                    limiterWaits.add(wait);
+                } else {
+                    recordLimiterWait(wait);
+                }
+                RequestTimer timer = context.getOrDefault(RequestTimer.CONTEXT_KEY, null);
+                if (timer != null) {
+                    timer.heldBack(wait);
+                }
+                return Mono.delay(Duration.ofNanos(wait)).then(Mono.defer(() -> next.exchange(request)));
+            });
+        };
+    }
+
+    /**
+     * Notes the status of each response on the timer of its request, before {@link #logErrorResponses()} turns an error
+     * status into an exception.
+     */
+    private ExchangeFilterFunction recordStatus() {
+        return (request, next) ->
+            Mono.deferContextual(context -> {
+                RequestTimer timer = context.getOrDefault(RequestTimer.CONTEXT_KEY, null);
+                Mono<ClientResponse> response = next.exchange(request);
+                return timer == null ? response : response.doOnNext(received -> timer.responded(received.statusCode().value()));
+            });
     }
 
     private ExchangeFilterFunction logErrorResponses() {
         return (request, next) ->
             next.exchange(request).flatMap(response -> {
                 if (!response.statusCode().isError()) {
-                    return reactor.core.publisher.Mono.just(response);
+                    return Mono.just(response);
                 }
                 return response
                     .bodyToMono(String.class)
@@ -266,7 +1064,7 @@ public abstract class SimulatedArtemisUser {
                             response.statusCode(),
                             body
                         );
-                        return reactor.core.publisher.Mono.error(
+                        return Mono.error(
                             new IllegalStateException(
                                 "Artemis request failed: " +
                                     request.method() +
@@ -282,6 +1080,13 @@ public abstract class SimulatedArtemisUser {
             });
     }
 
+    /**
+     * @return the username this user logs in with
+     */
+    public String getUsername() {
+        return username;
+    }
+
     /**
      * Get the JWT token for this user.
      * @return the JWT token for this user
@@ -348,21 +1153,6 @@ public abstract class SimulatedArtemisUser {
     }
 
     private static HttpClient createHttpClient() {
-        return HttpClient.create()
-            .doOnConnected(conn ->
-                conn.addHandlerFirst(new ReadTimeoutHandler(20, TimeUnit.MINUTES)).addHandlerFirst(new WriteTimeoutHandler(30))
-            )
-            .responseTimeout(Duration.ofMinutes(20))
-            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 30 * 1000)
-            .secure(spec -> {
-                try {
-                    spec.sslContext(TcpSslContextSpec.forClient().sslContext())
-                        .handshakeTimeout(Duration.ofSeconds(30))
-                        .closeNotifyFlushTimeout(Duration.ofSeconds(30))
-                        .closeNotifyReadTimeout(Duration.ofSeconds(30));
-                } catch (SSLException e) {
-                    throw new RuntimeException(e);
-                }
-            });
+        return ArtemisHttpClients.configure(HttpClient.create(), ArtemisHttpClients.createSslContext());
     }
 }
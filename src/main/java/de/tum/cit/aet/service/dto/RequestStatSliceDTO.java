@@ -0,0 +1,45 @@
+package de.tum.cit.aet.service.dto;
+
+import de.tum.cit.aet.domain.RequestType;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The requests a worker's students made since the coordinator last asked, summed up rather than one by one.
+ * <p>
+ * The sums of a second or of an endpoint are laid out as in the result's aggregate: the count, the summed duration, the
+ * summed phases resolve, connect, TLS handshake, first byte and transfer, the number of failed requests, and last the
+ * number of requests the phases were timed for, all durations in nanoseconds. Histograms are encoded with {@code LatencyHistograms.encode}.
+ *
+ * @param series    the requests of each request type and persona, including the time held back by the rate limiter
+ *                  under {@link RequestType#RATE_LIMIT_WAIT}
+ * @param endpoints the requests to each endpoint
+ */
+public record RequestStatSliceDTO(List<Series> series, List<Endpoint> endpoints) {
+    /**
+     * The requests of one request type and persona.
+     *
+     * @param type     the request type
+     * @param persona  the persona, or {@code null} for students without one
+     * @param seconds  the sums of each second with requests, by epoch second
+     * @param minutes  the durations of the successful requests of each minute, by epoch minute
+     * @param statuses the number of requests with each HTTP status
+     */
+    public record Series(
+        RequestType type,
+        String persona,
+        Map<Long, long[]> seconds,
+        Map<Long, String> minutes,
+        Map<Integer, Long> statuses
+    ) {}
+
+    /**
+     * The requests to one endpoint.
+     *
+     * @param endpoint  the endpoint, as HTTP method and URI template
+     * @param sums      the sums of its requests
+     * @param histogram the durations of its successful requests
+     * @param statuses  the number of requests with each HTTP status
+     */
+    public record Endpoint(String endpoint, long[] sums, String histogram, Map<Integer, Long> statuses) {}
+}
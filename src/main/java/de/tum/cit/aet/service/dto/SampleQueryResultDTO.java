@@ -0,0 +1,38 @@
+package de.tum.cit.aet.service.dto;
+
+import de.tum.cit.aet.domain.ResponseTimePercentiles;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * The requests of a run's sample journal that matched a query. Failed requests are counted on their own and left out
+ * of the response times, like in the result of a run.
+ *
+ * @param numberOfRequests the number of matching requests that succeeded
+ * @param numberOfFailures the number of matching requests that failed
+ * @param percentiles      the percentiles of the response times of the successful ones, or {@code null} if none matched
+ * @param timeline         the matching requests per interval, by when they were made, leaving out intervals without any
+ */
+public record SampleQueryResultDTO(
+    long numberOfRequests,
+    long numberOfFailures,
+    ResponseTimePercentiles percentiles,
+    List<Interval> timeline
+) {
+    /**
+     * The matching requests made in one interval.
+     *
+     * @param dateTime         the start of the interval
+     * @param numberOfRequests the number of requests that succeeded
+     * @param numberOfFailures the number of requests that failed
+     * @param avgResponseTime  the average response time of the successful ones, in nanoseconds, 0 if there are none
+     * @param maxResponseTime  the longest response time of the successful ones, in nanoseconds
+     */
+    public record Interval(
+        ZonedDateTime dateTime,
+        long numberOfRequests,
+        long numberOfFailures,
+        double avgResponseTime,
+        long maxResponseTime
+    ) {}
+}
@@ -0,0 +1,51 @@
+package de.tum.cit.aet.service.dto;
+
+import de.tum.cit.aet.domain.Simulation;
+import de.tum.cit.aet.util.ArtemisServer;
+
+/**
+ * The share of a distributed simulation a worker instance simulates: which students, against which exam, and how.
+ * <p>
+ * The students are named by their server-wide IDs, so the worker looks them up in its own user management. Workers
+ * therefore need the same test users as the coordinator, which is easiest to achieve by pointing them at the same
+ * database.
+ *
+ * @param id                           the ID the coordinator refers to this assignment by
+ * @param server                       the Artemis server to simulate against
+ * @param userRange                    the server-wide IDs of the students, e.g. {@code 1-250,260}
+ * @param courseId                     the ID of the course the exam is in
+ * @param examId                       the ID of the exam
+ * @param programmingExerciseId        the ID of the course programming exercise, or 0 if there is none
+ * @param numberOfCommitsAndPushesFrom the lower bound of commits and pushes per student
+ * @param numberOfCommitsAndPushesTo   the upper bound of commits and pushes per student
+ * @param onlineIdePercentage          the share of students using the online IDE, in percent
+ * @param passwordPercentage           the share of students cloning with their password, in percent
+ * @param tokenPercentage              the share of students cloning with a participation token, in percent
+ * @param sshPercentage                the share of students cloning via SSH, in percent
+ * @param thinkTimeRest                how long students pause after a REST call
+ * @param thinkTimeGit                 how long students pause after a git clone or push
+ * @param thinkTimeWebsocket           how long students pause after opening the exam websocket
+ * @param personas                     the kinds of student to split the students over, or {@code null} for none
+ * @param maxRequestsPerSecond         this worker's share of the server's request rate limit, 0 for no limit
+ * @param connectionPool               how the students hold their connections to the server
+ */
+public record WorkerAssignmentDTO(
+    String id,
+    ArtemisServer server,
+    String userRange,
+    long courseId,
+    long examId,
+    long programmingExerciseId,
+    int numberOfCommitsAndPushesFrom,
+    int numberOfCommitsAndPushesTo,
+    double onlineIdePercentage,
+    double passwordPercentage,
+    double tokenPercentage,
+    double sshPercentage,
+    String thinkTimeRest,
+    String thinkTimeGit,
+    String thinkTimeWebsocket,
+    String personas,
+    double maxRequestsPerSecond,
+    Simulation.ConnectionPool connectionPool
+) {}
@@ -0,0 +1,12 @@
+package de.tum.cit.aet.service.dto;
+
+import de.tum.cit.aet.service.simulation.ExamPhase;
+import java.time.Instant;
+
+/**
+ * Tells a worker to start a phase of its assignment at a given moment.
+ *
+ * @param phase   the phase to start
+ * @param startAt the wall-clock time at which every worker starts the phase
+ */
+public record WorkerPhaseDTO(ExamPhase phase, Instant startAt) {}
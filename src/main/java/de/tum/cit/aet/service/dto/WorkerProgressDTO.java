@@ -0,0 +1,13 @@
+package de.tum.cit.aet.service.dto;
+
+import de.tum.cit.aet.service.simulation.ExamPhase;
+
+/**
+ * What a worker did since the coordinator last asked.
+ *
+ * @param completedPhase the last phase every student of the assignment is done with, or {@code null} if none yet
+ * @param requestStats   the requests made since the last poll, summed up
+ * @param failures       the number of student actions that failed since the last poll
+ * @param error          why the assignment cannot continue, or {@code null} if it is fine
+ */
+public record WorkerProgressDTO(ExamPhase completedPhase, RequestStatSliceDTO requestStats, int failures, String error) {}
@@ -0,0 +1,331 @@
+package de.tum.cit.aet.service.simulation;
+
+import de.tum.cit.aet.domain.ArtemisUser;
+import de.tum.cit.aet.domain.Simulation;
+import de.tum.cit.aet.domain.SimulationRun;
+import de.tum.cit.aet.service.artemis.ArtemisConfiguration;
+import de.tum.cit.aet.service.dto.WorkerAssignmentDTO;
+import de.tum.cit.aet.service.dto.WorkerPhaseDTO;
+import de.tum.cit.aet.service.dto.WorkerProgressDTO;
+import de.tum.cit.aet.util.CancellationToken;
+import de.tum.cit.aet.util.NumberRangeParser;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * The coordinator side of a distributed simulation: splits the students of a run over the configured workers and
+ * drives them through the phases of the exam together.
+ * <p>
+ * One tool host runs out of disk long before it runs out of students to simulate, since every student clones and
+ * pushes a repository. Spreading the students over several hosts multiplies that budget. Each worker is another
+ * instance of this application, listed by its base URL in {@code benchmarking.distributed.workers} and sharing the
+ * secret in {@code benchmarking.distributed.secret}; see {@link SimulationWorkerService} for the other side.
+ * <p>
+ * A phase starts on every worker at the same wall-clock moment, a short lead time after it was announced, and the next
+ * phase is only announced once every worker reported the previous one complete. That keeps the phase boundaries of a
+ * single-host run, provided the hosts' clocks are synchronised, which NTP does far more precisely than a phase needs.
+ */
+@Service
+public class DistributedSimulationService {
+
+    /**
+     * Time between announcing a phase and starting it, long enough for the announcement to reach every worker.
+     */
+    static final Duration PHASE_START_LEAD = Duration.ofSeconds(3);
+
+    /**
+     * How often each worker is asked for its progress while a phase is running.
+     */
+    static final Duration POLL_INTERVAL = Duration.ofSeconds(1);
+
+    /**
+     * How many polls in a row a worker may miss before it is given up on, failing the run.
+     */
+    static final int MAX_MISSED_POLLS = 30;
+
+    /**
+     * The header the shared secret travels in.
+     */
+    public static final String SECRET_HEADER = "X-Benchmarking-Worker-Secret";
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final Logger log = LoggerFactory.getLogger(DistributedSimulationService.class);
+
+    @Value("${benchmarking.distributed.workers:}")
+    private String[] workerUrls;
+
+    @Value("${benchmarking.distributed.secret:}")
+    private String secret;
+
+    private final ArtemisConfiguration artemisConfiguration;
+
+    public DistributedSimulationService(ArtemisConfiguration artemisConfiguration) {
+        this.artemisConfiguration = artemisConfiguration;
+    }
+
+    /**
+     * @return the base URLs of the configured workers
+     */
+    public List<String> getWorkerUrls() {
+        return workerUrls == null ? List.of() : Arrays.stream(workerUrls).map(String::trim).filter(url -> !url.isEmpty()).toList();
+    }
+
+    /**
+     * Hand the given users to the workers, split into contiguous shards of nearly equal size.
+     *
+     * @param simulationRun         the run the users belong to
+     * @param users                 the users to simulate
+     * @param courseId              the ID of the course the exam is in
+     * @param examId                the ID of the exam
+     * @param programmingExerciseId the ID of the course programming exercise, or 0 if there is none
+     * @param requestStats          the collector to add the workers' stats to as they arrive
+     * @return the session to drive the workers with, to be closed once the run is over
+     * @throws IllegalStateException if no workers are configured or a worker rejects its assignment
+     */
+    public WorkerSession assign(
+        SimulationRun simulationRun,
+        List<ArtemisUser> users,
+        long courseId,
+        long examId,
+        long programmingExerciseId,
+        RequestStatCollector requestStats
+    ) {
+        List<String> urls = getWorkerUrls();
+        if (urls.isEmpty()) {
+            throw new IllegalStateException("No workers configured in benchmarking.distributed.workers");
+        }
+        Simulation simulation = simulationRun.getSimulation();
+        List<List<ArtemisUser>> shards = shard(users, urls.size());
+        // The rate limit bounds the whole run, so the workers that get students split it evenly.
+        double maxRequestsPerSecond = artemisConfiguration.getMaxRequestsPerSecond(simulation.getServer());
+        long busyWorkers = shards.stream().filter(shard -> !shard.isEmpty()).count();
+        double maxRequestsPerSecondPerWorker = maxRequestsPerSecond > 0 ? maxRequestsPerSecond / busyWorkers : 0;
+        WorkerSession session = new WorkerSession(requestStats);
+        try {
+            for (int i = 0; i < shards.size(); i++) {
+                if (shards.get(i).isEmpty()) {
+                    continue;
+                }
+                List<Integer> ids = shards.get(i).stream().map(ArtemisUser::getServerWideId).sorted().toList();
+                var dto = new WorkerAssignmentDTO(
+                    "run-" + simulationRun.getId() + "-" + i,
+                    simulation.getServer(),
+                    NumberRangeParser.formatNumberRange(ids),
+                    courseId,
+                    examId,
+                    programmingExerciseId,
+                    simulation.getNumberOfCommitsAndPushesFrom(),
+                    simulation.getNumberOfCommitsAndPushesTo(),
+                    simulation.getOnlineIdePercentage(),
+                    simulation.getPasswordPercentage(),
+                    simulation.getTokenPercentage(),
+                    simulation.getSshPercentage(),
+                    simulation.getThinkTimeRest(),
+                    simulation.getThinkTimeGit(),
+                    simulation.getThinkTimeWebsocket(),
+                    simulation.getPersonas(),
+                    maxRequestsPerSecondPerWorker,
+                    simulation.getConnectionPool()
+                );
+                session.add(new Worker(urls.get(i), dto.id(), createWebClient(urls.get(i))), dto, ids.size());
+            }
+        } catch (RuntimeException e) {
+            session.close();
+            throw e;
+        }
+        return session;
+    }
+
+    /**
+     * Split a list into the given number of contiguous parts whose sizes differ by at most one.
+     *
+     * @param items the list to split
+     * @param parts the number of parts
+     * @param <T>   the type of the items
+     * @return the parts, in order; some are empty if there are fewer items than parts
+     */
+    static <T> List<List<T>> shard(List<T> items, int parts) {
+        List<List<T>> shards = new ArrayList<>(parts);
+        int base = items.size() / parts;
+        int remainder = items.size() % parts;
+        int from = 0;
+        for (int i = 0; i < parts; i++) {
+            int to = from + base + (i < remainder ? 1 : 0);
+            shards.add(items.subList(from, to));
+            from = to;
+        }
+        return shards;
+    }
+
+    private WebClient createWebClient(String baseUrl) {
+        return WebClient.builder()
+            .clientConnector(new ReactorClientHttpConnector())
+            .baseUrl(baseUrl)
+            .defaultHeader(SECRET_HEADER, secret)
+            .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+            .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            // A poll carries the requests of a few seconds summed up per type, persona and endpoint, but the histograms of
+            // many personas and endpoints can outgrow the default of 256 KB.
+            .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(4 * 1024 * 1024))
+            .build();
+    }
+
+    /**
+     * A worker taking part in a session.
+     */
+    private record Worker(String url, String assignmentId, WebClient webClient) {}
+
+    /**
+     * The workers of one distributed run.
+     */
+    public final class WorkerSession implements AutoCloseable {
+
+        private final RequestStatCollector requestStats;
+        private final List<Worker> workers = new ArrayList<>();
+        private int numberOfUsers;
+
+        private WorkerSession(RequestStatCollector requestStats) {
+            this.requestStats = requestStats;
+        }
+
+        private void add(Worker worker, WorkerAssignmentDTO dto, int shardSize) {
+            Integer accepted = worker
+                .webClient()
+                .post()
+                .uri("/api/public/worker/assignments")
+                .bodyValue(dto)
+                .retrieve()
+                .bodyToMono(Integer.class)
+                .block(REQUEST_TIMEOUT);
+            workers.add(worker);
+            if (accepted == null || accepted != shardSize) {
+                log.warn("Worker {} only found {} of the {} users assigned to it", worker.url(), accepted, shardSize);
+            }
+            numberOfUsers += accepted == null ? 0 : accepted;
+        }
+
+        /**
+         * @return the number of workers taking part
+         */
+        public int getNumberOfWorkers() {
+            return workers.size();
+        }
+
+        /**
+         * @return the number of students the workers simulate together
+         */
+        public int getNumberOfUsers() {
+            return numberOfUsers;
+        }
+
+        /**
+         * Run a phase on every worker, starting at the same moment everywhere, and return once all of them are done.
+         * The workers' stats are added to the collector while the phase is running.
+         * <p>
+         * If the token is cancelled meanwhile, every worker is polled once more for the stats it has collected so far
+         * and the method returns without waiting for the phase to finish. Closing the assignment stops the workers.
+         *
+         * @param phase        the phase to run
+         * @param cancellation the token that stops waiting for the phase
+         * @throws InterruptedException  if interrupted while waiting for the workers
+         * @throws IllegalStateException if a worker fails or stops responding
+         */
+        public void runPhase(ExamPhase phase, CancellationToken cancellation) throws InterruptedException {
+            var start = new WorkerPhaseDTO(phase, Instant.now().plus(PHASE_START_LEAD));
+            for (Worker worker : workers) {
+                worker
+                    .webClient()
+                    .post()
+                    .uri("/api/public/worker/assignments/{id}/phases", worker.assignmentId())
+                    .bodyValue(start)
+                    .retrieve()
+                    .toBodilessEntity()
+                    .block(REQUEST_TIMEOUT);
+            }
+
+            List<Worker> pending = new ArrayList<>(workers);
+            int[] missedPolls = new int[workers.size()];
+            boolean cancelled = false;
+            while (!pending.isEmpty() && !cancelled) {
+                // Checked before polling, so that one more round after a cancellation picks up what the workers collected.
+                cancelled = !cancellation.sleep(POLL_INTERVAL);
+                for (int i = 0; i < workers.size(); i++) {
+                    Worker worker = workers.get(i);
+                    if (!pending.contains(worker)) {
+                        continue;
+                    }
+                    WorkerProgressDTO progress;
+                    try {
+                        progress = poll(worker);
+                        missedPolls[i] = 0;
+                    } catch (RuntimeException e) {
+                        if (++missedPolls[i] >= MAX_MISSED_POLLS) {
+                            throw new IllegalStateException("Worker " + worker.url() + " stopped responding: " + e.getMessage(), e);
+                        }
+                        log.warn("Could not poll worker {}: {}", worker.url(), e.getMessage());
+                        continue;
+                    }
+                    if (progress.error() != null) {
+                        throw new IllegalStateException("Worker " + worker.url() + " failed: " + progress.error());
+                    }
+                    if (progress.completedPhase() == phase) {
+                        pending.remove(worker);
+                    }
+                }
+            }
+        }
+
+        private WorkerProgressDTO poll(Worker worker) {
+            WorkerProgressDTO progress = worker
+                .webClient()
+                .get()
+                .uri("/api/public/worker/assignments/{id}", worker.assignmentId())
+                .retrieve()
+                .bodyToMono(WorkerProgressDTO.class)
+                .block(REQUEST_TIMEOUT);
+            if (progress == null) {
+                throw new IllegalStateException("Empty response");
+            }
+            if (progress.requestStats() != null) {
+                requestStats.addSlice(progress.requestStats());
+            }
+            for (int i = 0; i < progress.failures(); i++) {
+                requestStats.recordFailure();
+            }
+            return progress;
+        }
+
+        /**
+         * Remove the assignments from every worker, interrupting whatever they are still doing. Failures are logged
+         * rather than thrown, since a worker that cannot be reached has nothing left to clean up for this run.
+         */
+        @Override
+        public void close() {
+            for (Worker worker : workers) {
+                try {
+                    worker
+                        .webClient()
+                        .delete()
+                        .uri("/api/public/worker/assignments/{id}", worker.assignmentId())
+                        .retrieve()
+                        .toBodilessEntity()
+                        .block(REQUEST_TIMEOUT);
+                } catch (RuntimeException e) {
+                    log.warn("Could not remove assignment {} from worker {}: {}", worker.assignmentId(), worker.url(), e.getMessage());
+                }
+            }
+        }
+    }
+}
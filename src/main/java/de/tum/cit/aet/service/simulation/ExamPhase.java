@@ -0,0 +1,38 @@
+package de.tum.cit.aet.service.simulation;
+
+import de.tum.cit.aet.domain.RequestStat;
+import de.tum.cit.aet.service.artemis.interaction.SimulatedArtemisStudent;
+import java.util.List;
+
+/**
+ * The phases of a phased exam simulation, in the order every student goes through them.
+ * <p>
+ * A phased run starts a phase only once every student has finished the previous one. A distributed run does the same
+ * across hosts, which is why the phases need names the coordinator and its workers can agree on.
+ */
+public enum ExamPhase {
+    LOGIN,
+    INITIAL_CALLS,
+    START_EXAM,
+    PARTICIPATE,
+    SUBMIT;
+
+    /**
+     * Perform this phase for one student.
+     *
+     * @param student               the student to perform the phase for
+     * @param courseId              the ID of the course the exam is in
+     * @param examId                the ID of the exam
+     * @param programmingExerciseId the ID of the course programming exercise, or 0 if there is none
+     * @return the request stats of the phase
+     */
+    public List<RequestStat> perform(SimulatedArtemisStudent student, long courseId, long examId, long programmingExerciseId) {
+        return switch (this) {
+            case LOGIN -> student.login();
+            case INITIAL_CALLS -> student.performInitialCalls();
+            case START_EXAM -> student.startExamParticipation(courseId, examId, programmingExerciseId);
+            case PARTICIPATE -> student.participateInExam(courseId, examId);
+            case SUBMIT -> student.submitAndEndExam(courseId, examId);
+        };
+    }
+}
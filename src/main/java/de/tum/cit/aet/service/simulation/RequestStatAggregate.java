@@ -0,0 +1,623 @@
+package de.tum.cit.aet.service.simulation;
+
+import de.tum.cit.aet.domain.RequestStat;
+import de.tum.cit.aet.domain.RequestTimings;
+import de.tum.cit.aet.domain.RequestType;
+import de.tum.cit.aet.service.dto.RequestStatSliceDTO;
+import de.tum.cit.aet.util.LatencyHistograms;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * The request stats of a run, summed up per request type and second as they are recorded instead of kept one by one.
+ * <p>
+ * A run of a few thousand students makes millions of requests. Keeping a record of each in one synchronized list put
+ * a lock every student contends for on the path of every request, and left the whole list to be filtered once per
+ * request type at the end of the run, while the run sat there with its result pending. Here, recording a request adds
+ * it to the sums of its second and the histogram of its minute in each series it counts towards, so memory grows with
+ * the length of the run rather than with its number of requests, and the result is ready as soon as the last student
+ * is. Recording takes no lock: students add to atomic sums and to recorders built for writers that do not wait for
+ * each other, see {@link Series}.
+ * <p>
+ * Besides its own type, every request counts towards {@link RequestType#TOTAL}, and towards the total of its persona if
+ * it has one. The exam start spike and page loads are the exception: their requests are already counted under their
+ * own types. Time held back by the rate limiter is recorded as {@link RequestType#RATE_LIMIT_WAIT}.
+ * <p>
+ * Next to its duration, the phases of every request are summed up, see {@link RequestTimings}. Requests whose endpoint
+ * is known are also summed up per endpoint, though for the whole run only: a run has a few dozen endpoints, and a
+ * series per second and minute for each would cost more than all request types together.
+ * <p>
+ * Failed requests are counted per second next to the others, but left out of the durations: a server that fails fast
+ * must not look faster for it. The HTTP statuses of the requests are counted for the whole run.
+ */
+public final class RequestStatAggregate {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final Map<Key, Series> series = new ConcurrentHashMap<>();
+    private final Set<String> personas = ConcurrentHashMap.newKeySet();
+    private final Map<String, EndpointSeries> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * @param requestStats the stats to aggregate
+     * @return an aggregate of the given stats
+     */
+    public static RequestStatAggregate of(Collection<RequestStat> requestStats) {
+        RequestStatAggregate aggregate = new RequestStatAggregate();
+        aggregate.recordAll(requestStats);
+        return aggregate;
+    }
+
+    /**
+     * Record the stats of one student action. Safe to call from all student threads at once.
+     *
+     * @param requestStats the stats to record
+     */
+    public void recordAll(Collection<RequestStat> requestStats) {
+        for (RequestStat stat : requestStats) {
+            record(stat);
+        }
+    }
+
+    /**
+     * Record the stats of one request. Safe to call from all student threads at once.
+     *
+     * @param stat the stats to record
+     */
+    public void record(RequestStat stat) {
+        long epochSecond = stat.dateTime().toEpochSecond();
+        long duration = Math.max(0, stat.duration());
+        // Stats from workers that predate the timings have none.
+        RequestTimings timings = Objects.requireNonNullElse(stat.timings(), RequestTimings.NONE);
+        seriesFor(stat.type(), null).record(epochSecond, duration, timings, stat);
+        if (stat.type() == RequestType.EXAM_START_SPIKE || stat.type() == RequestType.PAGE_LOAD) {
+            return;
+        }
+        seriesFor(RequestType.TOTAL, null).record(epochSecond, duration, timings, stat);
+        if (stat.persona() != null) {
+            personas.add(stat.persona());
+            seriesFor(RequestType.TOTAL, stat.persona()).record(epochSecond, duration, timings, stat);
+        }
+        if (stat.endpoint() != null) {
+            EndpointSeries endpoint = endpoints.get(stat.endpoint());
+            if (endpoint == null) {
+                endpoint = endpoints.computeIfAbsent(stat.endpoint(), e -> new EndpointSeries());
+            }
+            endpoint.record(duration, timings, stat);
+        }
+        if (stat.limiterWait() > 0) {
+            // Only requests that were held back count, so the average is how long a held back request waited.
+            seriesFor(RequestType.RATE_LIMIT_WAIT, null).record(epochSecond, stat.limiterWait(), RequestTimings.NONE, null);
+        }
+    }
+
+    /**
+     * Record a request of the exam start spike, which was recorded under its own type already, under
+     * {@link RequestType#EXAM_START_SPIKE} as well. Its phases are not counted again, nor the wait for the rate limiter.
+     * Safe to call from all student threads at once.
+     *
+     * @param stat the request made after the release
+     */
+    public void recordExamStartSpike(RequestStat stat) {
+        seriesFor(RequestType.EXAM_START_SPIKE, null).record(
+            stat.dateTime().toEpochSecond(),
+            Math.max(0, stat.duration()),
+            RequestTimings.NONE,
+            stat
+        );
+    }
+
+    /**
+     * Add the requests a worker summed up, counting each series towards the same totals as {@link #record(RequestStat)}
+     * counts its requests. Safe to call while other threads record.
+     *
+     * @param slice the requests of the worker
+     * @throws IllegalArgumentException if a histogram of the slice cannot be decoded
+     */
+    public void merge(RequestStatSliceDTO slice) {
+        for (RequestStatSliceDTO.Series sliceSeries : slice.series()) {
+            Map<Long, Histogram> minutes = new HashMap<>();
+            sliceSeries.minutes().forEach((epochMinute, histogram) -> minutes.put(epochMinute, LatencyHistograms.decode(histogram)));
+            RequestType type = sliceSeries.type();
+            seriesFor(type, null).add(sliceSeries.seconds(), minutes, sliceSeries.statuses());
+            if (type == RequestType.EXAM_START_SPIKE || type == RequestType.PAGE_LOAD || type == RequestType.RATE_LIMIT_WAIT) {
+                continue;
+            }
+            seriesFor(RequestType.TOTAL, null).add(sliceSeries.seconds(), minutes, sliceSeries.statuses());
+            if (sliceSeries.persona() != null) {
+                personas.add(sliceSeries.persona());
+                seriesFor(RequestType.TOTAL, sliceSeries.persona()).add(sliceSeries.seconds(), minutes, sliceSeries.statuses());
+            }
+        }
+        for (RequestStatSliceDTO.Endpoint sliceEndpoint : slice.endpoints()) {
+            endpoints
+                .computeIfAbsent(sliceEndpoint.endpoint(), e -> new EndpointSeries())
+                .add(sliceEndpoint.sums(), LatencyHistograms.decode(sliceEndpoint.histogram()), sliceEndpoint.statuses());
+        }
+    }
+
+    /**
+     * @return the number of successful requests recorded, not counting the exam start spike and page loads twice
+     */
+    public long getNumberOfRequests() {
+        return get(RequestType.TOTAL, null).count();
+    }
+
+    /**
+     * @return the personas of the recorded requests
+     */
+    Set<String> personas() {
+        return Set.copyOf(personas);
+    }
+
+    /**
+     * @param type    the request type
+     * @param persona the persona, or {@code null} for the requests of all students
+     * @return the requests of the given type and persona, empty if there were none
+     */
+    Series get(RequestType type, String persona) {
+        return Objects.requireNonNullElseGet(series.get(new Key(type, persona)), Series::new);
+    }
+
+    /**
+     * @return the requests to each endpoint, by endpoint in alphabetical order
+     */
+    SortedMap<String, EndpointSeries> endpoints() {
+        return new TreeMap<>(endpoints);
+    }
+
+    private Series seriesFor(RequestType type, String persona) {
+        // Look up first: computeIfAbsent may lock the bin even if the series exists, which it almost always does.
+        Key key = new Key(type, persona);
+        Series existing = series.get(key);
+        return existing != null ? existing : series.computeIfAbsent(key, k -> new Series());
+    }
+
+    private record Key(RequestType type, String persona) {}
+
+    /**
+     * The requests of one type and persona: their count, summed duration, summed phases and failures per second, their
+     * histogram per minute and their statuses.
+     * <p>
+     * The sums of a second or minute come as an array: the count, the summed duration, then the summed phases, the
+     * number of failed requests, which {@link #failuresOf(long[])} reads, and last the number of requests the phases were
+     * timed for, which {@link #timingsOf(long[])} reads along with the phases. A second may have failures only.
+     * <p>
+     * Recording takes no lock. The sums are kept in chunks of {@value #CHUNK_SECONDS} seconds, each one
+     * {@link AtomicLongArray} that every student adds to, and the durations of each minute go to a {@link Recorder} of
+     * their own, which is built for writers that do not wait for each other. A request that completes late simply adds to
+     * the chunk and recorder of its own second and minute. Only reading a minute's histogram locks, that minute.
+     */
+    static final class Series {
+
+        static final int SUMS = 9;
+
+        private static final int CHUNK_SECONDS = 64;
+
+        private final ConcurrentSkipListMap<Long, AtomicLongArray> chunks = new ConcurrentSkipListMap<>();
+        private final Map<Long, Durations> minutes = new ConcurrentHashMap<>();
+        private final StatusCounts statuses = new StatusCounts();
+        // Nearly every request goes to the same chunk and minute as the one before it, so they are looked up once.
+        private volatile Chunk latestChunk;
+        private volatile Minute latestMinute;
+
+        /**
+         * Record one request. Safe to call from all student threads at once.
+         *
+         * @param epochSecond when the request completed
+         * @param duration    how long it took, in nanoseconds
+         * @param timings     its phases
+         * @param stat        the request, or {@code null} for a wait on the rate limiter
+         */
+        void record(long epochSecond, long duration, RequestTimings timings, RequestStat stat) {
+            AtomicLongArray chunk = chunkOf(epochSecond);
+            int offset = offsetOf(epochSecond);
+            // A wait on the rate limiter comes without a request of its own.
+            if (stat != null) {
+                statuses.record(stat);
+                if (stat.failed()) {
+                    chunk.incrementAndGet(offset + 7);
+                    return;
+                }
+            }
+            chunk.incrementAndGet(offset);
+            chunk.addAndGet(offset + 1, duration);
+            if (timings.requests() > 0) {
+                chunk.addAndGet(offset + 2, timings.resolve());
+                chunk.addAndGet(offset + 3, timings.connect());
+                chunk.addAndGet(offset + 4, timings.tlsHandshake());
+                chunk.addAndGet(offset + 5, timings.firstByte());
+                chunk.addAndGet(offset + 6, timings.transfer());
+                chunk.addAndGet(offset + 8, timings.requests());
+            }
+            minuteOf(Math.floorDiv(epochSecond, 60)).record(duration);
+        }
+
+        /**
+         * Add requests summed up elsewhere. Safe to call while other threads record.
+         *
+         * @param seconds  the sums of each second, by epoch second
+         * @param minutes  the durations of each minute, by epoch minute
+         * @param statuses the number of requests with each HTTP status
+         */
+        void add(Map<Long, long[]> seconds, Map<Long, Histogram> minutes, Map<Integer, Long> statuses) {
+            seconds.forEach((epochSecond, sums) -> {
+                AtomicLongArray chunk = chunkOf(epochSecond);
+                int offset = offsetOf(epochSecond);
+                for (int i = 0; i < SUMS; i++) {
+                    if (sums[i] != 0) {
+                        chunk.addAndGet(offset + i, sums[i]);
+                    }
+                }
+            });
+            minutes.forEach((epochMinute, histogram) -> minuteOf(epochMinute).add(histogram));
+            statuses.forEach(this.statuses::add);
+        }
+
+        private AtomicLongArray chunkOf(long epochSecond) {
+            long index = Math.floorDiv(epochSecond, CHUNK_SECONDS);
+            Chunk latest = latestChunk;
+            if (latest != null && latest.index() == index) {
+                return latest.sums();
+            }
+            AtomicLongArray sums = chunks.get(index);
+            if (sums == null) {
+                sums = chunks.computeIfAbsent(index, i -> new AtomicLongArray(CHUNK_SECONDS * SUMS));
+            }
+            latestChunk = new Chunk(index, sums);
+            return sums;
+        }
+
+        private static int offsetOf(long epochSecond) {
+            return Math.floorMod(epochSecond, CHUNK_SECONDS) * SUMS;
+        }
+
+        private Durations minuteOf(long epochMinute) {
+            Minute latest = latestMinute;
+            if (latest != null && latest.epochMinute() == epochMinute) {
+                return latest.durations();
+            }
+            Durations durations = minutes.get(epochMinute);
+            if (durations == null) {
+                durations = minutes.computeIfAbsent(epochMinute, m -> new Durations());
+            }
+            latestMinute = new Minute(epochMinute, durations);
+            return durations;
+        }
+
+        /**
+         * @return the number of requests
+         */
+        long count() {
+            return sumOf(0);
+        }
+
+        /**
+         * @return the summed duration of the requests in nanoseconds
+         */
+        long totalDuration() {
+            return sumOf(1);
+        }
+
+        /**
+         * @return the summed phases of the requests
+         */
+        RequestTimings totalTimings() {
+            return new RequestTimings(sumOf(2), sumOf(3), sumOf(4), sumOf(5), sumOf(6), sumOf(8));
+        }
+
+        /**
+         * @return the number of failed requests
+         */
+        long failures() {
+            return sumOf(7);
+        }
+
+        private long sumOf(int index) {
+            long sum = 0;
+            for (AtomicLongArray chunk : chunks.values()) {
+                for (int offset = index; offset < chunk.length(); offset += SUMS) {
+                    sum += chunk.get(offset);
+                }
+            }
+            return sum;
+        }
+
+        /**
+         * @return the number of requests with each HTTP status, see {@link StatusCounts}
+         */
+        SortedMap<Integer, Long> statuses() {
+            return statuses.get();
+        }
+
+        /**
+         * @return the durations of all requests
+         */
+        Histogram histogram() {
+            Histogram histogram = LatencyHistograms.create();
+            minutes.values().forEach(minute -> minute.addTo(histogram));
+            return histogram;
+        }
+
+        /**
+         * @return the sums of each second with requests, in order
+         */
+        SortedMap<ZonedDateTime, long[]> bySecond() {
+            SortedMap<ZonedDateTime, long[]> bySecond = new TreeMap<>();
+            forEachSecondFrom(Long.MIN_VALUE, (epochSecond, sums) -> bySecond.put(toDateTime(epochSecond), sums));
+            return bySecond;
+        }
+
+        /**
+         * @return the sums of each minute with requests, in order
+         */
+        SortedMap<ZonedDateTime, long[]> byMinute() {
+            SortedMap<ZonedDateTime, long[]> byMinute = new TreeMap<>();
+            forEachSecondFrom(Long.MIN_VALUE, (epochSecond, sums) -> {
+                long[] minute = byMinute.computeIfAbsent(toDateTime(Math.floorDiv(epochSecond, 60) * 60), m -> new long[SUMS]);
+                for (int i = 0; i < SUMS; i++) {
+                    minute[i] += sums[i];
+                }
+            });
+            return byMinute;
+        }
+
+        /**
+         * Read the sums of each second with requests from the given one on, in order. Safe to call while other threads
+         * record, though the sums of a second being recorded to may be a request apart from each other.
+         *
+         * @param epochSecond the first second to read
+         * @param consumer    receives the epoch second and a copy of its sums
+         */
+        void forEachSecondFrom(long epochSecond, SecondConsumer consumer) {
+            long firstChunk = epochSecond == Long.MIN_VALUE ? Long.MIN_VALUE : Math.floorDiv(epochSecond, CHUNK_SECONDS);
+            chunks
+                .tailMap(firstChunk)
+                .forEach((index, chunk) -> {
+                    for (int second = 0; second < CHUNK_SECONDS; second++) {
+                        long chunkSecond = index * CHUNK_SECONDS + second;
+                        int offset = second * SUMS;
+                        if (chunkSecond < epochSecond || (chunk.get(offset) == 0 && chunk.get(offset + 7) == 0)) {
+                            continue;
+                        }
+                        long[] sums = new long[SUMS];
+                        for (int i = 0; i < SUMS; i++) {
+                            sums[i] = chunk.get(offset + i);
+                        }
+                        consumer.accept(chunkSecond, sums);
+                    }
+                });
+        }
+
+        /**
+         * @param sums the sums of a second or minute
+         * @return the summed phases among them, with the number of requests they were timed for
+         */
+        static RequestTimings timingsOf(long[] sums) {
+            return new RequestTimings(sums[2], sums[3], sums[4], sums[5], sums[6], sums[8]);
+        }
+
+        /**
+         * @param sums the sums of a second or minute
+         * @return the number of failed requests among them
+         */
+        static long failuresOf(long[] sums) {
+            return sums[7];
+        }
+
+        /**
+         * @return the durations of the requests of each minute with successful requests, by epoch minute
+         */
+        SortedMap<Long, Histogram> histogramsByMinute() {
+            SortedMap<Long, Histogram> byMinute = new TreeMap<>();
+            minutes.forEach((epochMinute, minute) -> {
+                Histogram histogram = LatencyHistograms.create();
+                minute.addTo(histogram);
+                if (histogram.getTotalCount() > 0) {
+                    byMinute.put(epochMinute, histogram);
+                }
+            });
+            return byMinute;
+        }
+
+        /**
+         * @param minute the start of the minute
+         * @return the durations of the requests of the minute
+         */
+        Histogram histogramOfMinute(ZonedDateTime minute) {
+            Histogram histogram = LatencyHistograms.create();
+            Durations durations = minutes.get(Math.floorDiv(minute.toEpochSecond(), 60));
+            if (durations != null) {
+                durations.addTo(histogram);
+            }
+            return histogram;
+        }
+
+        private static ZonedDateTime toDateTime(long epochSecond) {
+            return ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZONE);
+        }
+
+        @FunctionalInterface
+        interface SecondConsumer {
+            void accept(long epochSecond, long[] sums);
+        }
+
+        private record Chunk(long index, AtomicLongArray sums) {}
+
+        private record Minute(long epochMinute, Durations durations) {}
+    }
+
+    /**
+     * The requests to one endpoint: their count, summed duration, summed phases and failures, their histogram and their
+     * statuses, with the sums laid out like those of a second of a {@link Series}. Recording takes no lock, like in a
+     * series.
+     */
+    static final class EndpointSeries {
+
+        private final AtomicLongArray sums = new AtomicLongArray(Series.SUMS);
+        private final Durations durations = new Durations();
+        private final StatusCounts statuses = new StatusCounts();
+
+        void record(long duration, RequestTimings timings, RequestStat stat) {
+            statuses.record(stat);
+            if (stat.failed()) {
+                sums.incrementAndGet(7);
+                return;
+            }
+            sums.incrementAndGet(0);
+            sums.addAndGet(1, duration);
+            if (timings.requests() > 0) {
+                sums.addAndGet(2, timings.resolve());
+                sums.addAndGet(3, timings.connect());
+                sums.addAndGet(4, timings.tlsHandshake());
+                sums.addAndGet(5, timings.firstByte());
+                sums.addAndGet(6, timings.transfer());
+                sums.addAndGet(8, timings.requests());
+            }
+            durations.record(duration);
+        }
+
+        /**
+         * Add requests summed up elsewhere.
+         *
+         * @param sums      the sums of the requests
+         * @param histogram the durations of the successful ones
+         * @param statuses  the number of requests with each HTTP status
+         */
+        void add(long[] sums, Histogram histogram, Map<Integer, Long> statuses) {
+            for (int i = 0; i < Series.SUMS; i++) {
+                this.sums.addAndGet(i, sums[i]);
+            }
+            durations.add(histogram);
+            statuses.forEach(this.statuses::add);
+        }
+
+        /**
+         * @return the sums of the requests, laid out like those of a second of a {@link Series}
+         */
+        long[] sums() {
+            long[] copy = new long[Series.SUMS];
+            for (int i = 0; i < Series.SUMS; i++) {
+                copy[i] = sums.get(i);
+            }
+            return copy;
+        }
+
+        /**
+         * @return the number of requests
+         */
+        long count() {
+            return sums.get(0);
+        }
+
+        /**
+         * @return the summed duration of the requests in nanoseconds
+         */
+        long totalDuration() {
+            return sums.get(1);
+        }
+
+        /**
+         * @return the summed phases of the requests
+         */
+        RequestTimings totalTimings() {
+            return Series.timingsOf(sums());
+        }
+
+        /**
+         * @return the number of failed requests
+         */
+        long failures() {
+            return sums.get(7);
+        }
+
+        /**
+         * @return the number of requests with each HTTP status, see {@link StatusCounts}
+         */
+        SortedMap<Integer, Long> statuses() {
+            return statuses.get();
+        }
+
+        /**
+         * @return the durations of the requests
+         */
+        Histogram histogram() {
+            Histogram histogram = LatencyHistograms.create();
+            durations.addTo(histogram);
+            return histogram;
+        }
+    }
+
+    /**
+     * Durations recorded by any number of threads at once, without a lock between them, to a {@link Recorder}. Reading
+     * moves what the recorder took since the last read to a histogram of everything recorded, under the lock of these
+     * durations, which only readers and workers' histograms take.
+     */
+    private static final class Durations {
+
+        private final Recorder recorder = LatencyHistograms.createRecorder();
+        private Histogram recorded = LatencyHistograms.create();
+        private Histogram spare;
+
+        private void record(long duration) {
+            recorder.recordValue(duration);
+        }
+
+        private synchronized void add(Histogram histogram) {
+            recorded.add(histogram);
+        }
+
+        /**
+         * @param histogram the histogram to add all durations recorded so far to
+         */
+        private synchronized void addTo(Histogram histogram) {
+            spare = recorder.getIntervalHistogram(spare);
+            recorded.add(spare);
+            histogram.add(recorded);
+        }
+    }
+
+    /**
+     * How many requests got each HTTP status. Requests without a status, like git operations, are left out, except
+     * for failed ones, which count under 0 if they got no response.
+     */
+    private static final class StatusCounts {
+
+        private final Map<Integer, LongAdder> counts = new ConcurrentHashMap<>();
+
+        private void record(RequestStat stat) {
+            if (stat.status() == 0 && !stat.failed()) {
+                return;
+            }
+            LongAdder count = counts.get(stat.status());
+            if (count == null) {
+                count = counts.computeIfAbsent(stat.status(), status -> new LongAdder());
+            }
+            count.increment();
+        }
+
+        private void add(int status, long count) {
+            counts.computeIfAbsent(status, s -> new LongAdder()).add(count);
+        }
+
+        private SortedMap<Integer, Long> get() {
+            SortedMap<Integer, Long> statuses = new TreeMap<>();
+            counts.forEach((status, count) -> statuses.put(status, count.sum()));
+            return statuses;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package de.tum.cit.aet.service.simulation;
+
+import de.tum.cit.aet.domain.RequestStat;
+import de.tum.cit.aet.service.dto.RequestStatSliceDTO;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Collects the request stats of a running simulation as the students produce them.
+ * <p>
+ * Besides adding the stats to the run's {@link RequestStatAggregate} for the result, the collector passes each batch on
+ * to its listeners the moment it arrives, so that something steering the run, such as the adaptive concurrency
+ * controller, sees the server's latency while the run is still going rather than only once every student is done.
+ * Safe to use from all student threads at once: the aggregate takes no lock, and neither may the listeners.
+ */
+public class RequestStatCollector {
+
+    private final RequestStatAggregate aggregate = new RequestStatAggregate();
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Add the stats of one student action.
+     *
+     * @param stats the stats to add
+     */
+    public void addAll(List<RequestStat> stats) {
+        aggregate.recordAll(stats);
+        for (Listener listener : listeners) {
+            listener.onRequestStats(stats);
+        }
+    }
+
+    /**
+     * Count the stats of the exam start spike, which were added already, towards the spike as well. Only the aggregate
+     * counts them, under {@link de.tum.cit.aet.domain.RequestType#EXAM_START_SPIKE}; the listeners saw them once.
+     *
+     * @param stats the stats of the requests made after the release
+     */
+    public void addExamStartSpike(List<RequestStat> stats) {
+        for (RequestStat stat : stats) {
+            aggregate.recordExamStartSpike(stat);
+        }
+    }
+
+    /**
+     * Add the requests a worker summed up.
+     *
+     * @param slice the requests of the worker
+     */
+    public void addSlice(RequestStatSliceDTO slice) {
+        aggregate.merge(slice);
+        for (Listener listener : listeners) {
+            listener.onRequestSlice(slice);
+        }
+    }
+
+    /**
+     * Record that a student action failed.
+     */
+    public void recordFailure() {
+        for (Listener listener : listeners) {
+            listener.onFailure();
+        }
+    }
+
+    /**
+     * @param listener the listener to notify of every batch of stats and every failure from now on
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @return the aggregate of all stats collected so far, which keeps growing as more are collected
+     */
+    public RequestStatAggregate getAggregate() {
+        return aggregate;
+    }
+
+    /**
+     * Notified of stats as they are collected. Called on the student's thread, which for reactive students is a Netty
+     * event loop, so implementations must be quick and thread-safe, and must not take a lock every student contends for.
+     */
+    public interface Listener {
+        /**
+         * @param stats the stats of one student action
+         */
+        void onRequestStats(List<RequestStat> stats);
+
+        /**
+         * Called for the requests of a worker, which arrive summed up rather than one by one. Listeners that need
+         * single requests leave this out, and so miss the requests of distributed runs.
+         *
+         * @param slice the requests of the worker
+         */
+        default void onRequestSlice(RequestStatSliceDTO slice) {}
+
+        /**
+         * Called when a student action failed.
+         */
+        default void onFailure() {}
+    }
+}
@@ -0,0 +1,123 @@
+package de.tum.cit.aet.service.simulation;
+
+import de.tum.cit.aet.domain.RequestStat;
+import de.tum.cit.aet.domain.RequestTimings;
+import de.tum.cit.aet.domain.RequestType;
+import de.tum.cit.aet.service.dto.RequestStatSliceDTO;
+import de.tum.cit.aet.util.LatencyHistograms;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import org.HdrHistogram.WriterReaderPhaser;
+
+/**
+ * The requests of a worker since the coordinator last polled it, summed up per second and request type, persona and
+ * endpoint like in a {@link RequestStatAggregate}, so that a poll carries sums and histograms rather than every request.
+ * <p>
+ * Unlike the aggregate, the slice keeps each combination of type and persona apart and leaves out the totals: the
+ * coordinator adds a slice to its aggregate with {@link RequestStatAggregate#merge(RequestStatSliceDTO)}, which counts
+ * each series towards the totals itself, and rolls it up per type and persona like single requests.
+ */
+public final class RequestStatSlice {
+
+    // Students record into the current maps without a lock; draining swaps them and waits for those still recording.
+    private final WriterReaderPhaser phaser = new WriterReaderPhaser();
+    private volatile Map<Key, RequestStatAggregate.Series> series = new ConcurrentHashMap<>();
+    private volatile Map<String, RequestStatAggregate.EndpointSeries> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * Record the stats of one student action. Safe to call from all student threads at once, without a lock between
+     * them.
+     *
+     * @param requestStats the stats to record
+     */
+    public void recordAll(Collection<RequestStat> requestStats) {
+        long criticalValue = phaser.writerCriticalSectionEnter();
+        try {
+            Map<Key, RequestStatAggregate.Series> currentSeries = series;
+            Map<String, RequestStatAggregate.EndpointSeries> currentEndpoints = endpoints;
+            for (RequestStat stat : requestStats) {
+                long epochSecond = stat.dateTime().toEpochSecond();
+                long duration = Math.max(0, stat.duration());
+                RequestTimings timings = Objects.requireNonNullElse(stat.timings(), RequestTimings.NONE);
+                seriesFor(currentSeries, stat.type(), stat.persona()).record(epochSecond, duration, timings, stat);
+                // Like in the aggregate, the requests of the exam start spike and page loads are already counted on their own.
+                if (stat.type() == RequestType.EXAM_START_SPIKE || stat.type() == RequestType.PAGE_LOAD) {
+                    continue;
+                }
+                if (stat.endpoint() != null) {
+                    RequestStatAggregate.EndpointSeries endpoint = currentEndpoints.get(stat.endpoint());
+                    if (endpoint == null) {
+                        endpoint = currentEndpoints.computeIfAbsent(stat.endpoint(), e -> new RequestStatAggregate.EndpointSeries());
+                    }
+                    endpoint.record(duration, timings, stat);
+                }
+                if (stat.limiterWait() > 0) {
+                    seriesFor(currentSeries, RequestType.RATE_LIMIT_WAIT, stat.persona()).record(
+                        epochSecond,
+                        stat.limiterWait(),
+                        RequestTimings.NONE,
+                        null
+                    );
+                }
+            }
+        } finally {
+            phaser.writerCriticalSectionExit(criticalValue);
+        }
+    }
+
+    /**
+     * Take the requests recorded so far, leaving none behind.
+     *
+     * @return the requests, summed up
+     */
+    public RequestStatSliceDTO drain() {
+        Map<Key, RequestStatAggregate.Series> drainedSeries;
+        Map<String, RequestStatAggregate.EndpointSeries> drainedEndpoints;
+        phaser.readerLock();
+        try {
+            drainedSeries = series;
+            drainedEndpoints = endpoints;
+            series = new ConcurrentHashMap<>();
+            endpoints = new ConcurrentHashMap<>();
+            // Returns once every student that may still have been recording into the drained maps is done.
+            phaser.flipPhase();
+        } finally {
+            phaser.readerUnlock();
+        }
+        List<RequestStatSliceDTO.Series> slices = new ArrayList<>(drainedSeries.size());
+        drainedSeries.forEach((key, keySeries) -> {
+            Map<Long, long[]> seconds = new LinkedHashMap<>();
+            keySeries.bySecond().forEach((second, sums) -> seconds.put(second.toEpochSecond(), sums));
+            Map<Long, String> minutes = new LinkedHashMap<>();
+            keySeries
+                .histogramsByMinute()
+                .forEach((epochMinute, histogram) -> minutes.put(epochMinute, LatencyHistograms.encode(histogram)));
+            slices.add(new RequestStatSliceDTO.Series(key.type(), key.persona(), seconds, minutes, keySeries.statuses()));
+        });
+        List<RequestStatSliceDTO.Endpoint> endpointSlices = new ArrayList<>(drainedEndpoints.size());
+        drainedEndpoints.forEach((endpoint, endpointSeries) ->
+            endpointSlices.add(
+                new RequestStatSliceDTO.Endpoint(
+                    endpoint,
+                    endpointSeries.sums(),
+                    LatencyHistograms.encode(endpointSeries.histogram()),
+                    endpointSeries.statuses()
+                )
+            )
+        );
+        return new RequestStatSliceDTO(slices, endpointSlices);
+    }
+
+    private static RequestStatAggregate.Series seriesFor(Map<Key, RequestStatAggregate.Series> series, RequestType type, String persona) {
+        Key key = new Key(type, persona);
+        RequestStatAggregate.Series existing = series.get(key);
+        return existing != null ? existing : series.computeIfAbsent(key, k -> new RequestStatAggregate.Series());
+    }
+
+    private record Key(RequestType type, String persona) {}
+}
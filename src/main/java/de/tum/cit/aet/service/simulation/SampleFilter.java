@@ -0,0 +1,80 @@
+package de.tum.cit.aet.service.simulation;
+
+import de.tum.cit.aet.domain.RequestType;
+import java.time.ZonedDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Which requests of a run's sample journal to look at. Every criterion left {@code null} lets all requests through.
+ *
+ * @param types       the request types to include, or {@code null} for every request except page loads, whose
+ *                    requests are in the journal on their own as well
+ * @param studentFrom the lowest server-wide ID of the students to include
+ * @param studentTo   the highest server-wide ID of the students to include
+ * @param from        the earliest time to include requests made at
+ * @param to          the time to include requests made before
+ * @param endpoints   the endpoints to include, as HTTP method and URI template, e.g. {@code GET api/core/public/account}
+ */
+public record SampleFilter(
+    Set<RequestType> types,
+    Integer studentFrom,
+    Integer studentTo,
+    ZonedDateTime from,
+    ZonedDateTime to,
+    Set<String> endpoints
+) {
+    private static final RequestType[] TYPES = RequestType.values();
+
+    /**
+     * Decides on the raw fields of a journal record, so that filtering allocates nothing per request.
+     *
+     * @param endpointNames the endpoints of the journal, the one with code {@code n} at index {@code n - 1}
+     * @return a matcher for this filter
+     */
+    Matcher matcher(List<String> endpointNames) {
+        Set<RequestType> included = types != null && !types.isEmpty()
+            ? EnumSet.copyOf(types)
+            : EnumSet.complementOf(EnumSet.of(RequestType.PAGE_LOAD));
+        boolean[] typeIncluded = new boolean[TYPES.length];
+        included.forEach(type -> typeIncluded[type.ordinal()] = true);
+        int lowestStudent = studentFrom != null ? studentFrom : Integer.MIN_VALUE;
+        int highestStudent = studentTo != null ? studentTo : Integer.MAX_VALUE;
+        long earliest = from != null ? toEpochNanos(from) : Long.MIN_VALUE;
+        long latest = to != null ? toEpochNanos(to) : Long.MAX_VALUE;
+        boolean[] endpointIncluded = null;
+        if (endpoints != null && !endpoints.isEmpty()) {
+            endpointIncluded = new boolean[endpointNames.size() + 1];
+            for (int i = 0; i < endpointNames.size(); i++) {
+                endpointIncluded[i + 1] = endpoints.contains(endpointNames.get(i));
+            }
+        }
+        boolean[] includedEndpoints = endpointIncluded;
+        return (startEpochNanos, student, endpoint, type) ->
+            (includedEndpoints == null || (endpoint < includedEndpoints.length && includedEndpoints[endpoint])) &&
+            type >= 0 &&
+            type < typeIncluded.length &&
+            typeIncluded[type] &&
+            student >= lowestStudent &&
+            student <= highestStudent &&
+            startEpochNanos >= earliest &&
+            startEpochNanos < latest;
+    }
+
+    private static long toEpochNanos(ZonedDateTime dateTime) {
+        return dateTime.toEpochSecond() * 1_000_000_000L + dateTime.getNano();
+    }
+
+    @FunctionalInterface
+    interface Matcher {
+        /**
+         * @param startEpochNanos when the request was made, before any wait for the rate limiter
+         * @param student         the server-wide ID of the student
+         * @param endpoint        the code of the endpoint, 0 if unknown
+         * @param type            the ordinal of the request type
+         * @return whether the request matches
+         */
+        boolean matches(long startEpochNanos, int student, int endpoint, byte type);
+    }
+}
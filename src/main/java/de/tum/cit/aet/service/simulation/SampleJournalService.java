@@ -0,0 +1,181 @@
+package de.tum.cit.aet.service.simulation;
+
+import de.tum.cit.aet.domain.ResponseTimePercentiles;
+import de.tum.cit.aet.domain.SimulationRun;
+import de.tum.cit.aet.service.artemis.interaction.SimulatedArtemisUser;
+import de.tum.cit.aet.service.dto.SampleQueryResultDTO;
+import de.tum.cit.aet.util.LatencyHistograms;
+import de.tum.cit.aet.util.SampleJournal;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps a {@link SampleJournal} of every request of each run on the tool's host, and answers ad-hoc queries on it that
+ * the buckets of a run's result cannot: only some request types, only some students, only a few seconds of the run.
+ * <p>
+ * Journals are written to {@code benchmarking.simulation.sample-journal-directory}, one file per run plus the list of
+ * its endpoints, and deleted with their run. An empty directory turns journals off. Queries scan the whole journal
+ * through a memory mapping, which takes a fraction of a second per million requests and keeps nothing of the journal
+ * on the heap. Runs on workers have no journal, as the workers send their requests summed up.
+ */
+@Service
+public class SampleJournalService {
+
+    /**
+     * Where journals go when nothing else is configured, relative to the working directory like the students' clones.
+     */
+    static final String DEFAULT_DIRECTORY = "sample-journals";
+
+    private final Logger log = LoggerFactory.getLogger(SampleJournalService.class);
+
+    @Value("${benchmarking.simulation.sample-journal-directory:" + DEFAULT_DIRECTORY + "}")
+    private String directory;
+
+    /**
+     * Start writing every request of a run to a new journal.
+     *
+     * @param simulationRun the simulation run to journal
+     * @param students      the students of the run, whose requests to journal
+     * @return the writer, to be closed once the students are done, or {@code null} if journals are turned off or the
+     *     journal cannot be created, or if the run was never saved and so could not be queried anyway
+     */
+    SampleJournalWriter start(SimulationRun simulationRun, SimulatedArtemisUser[] students) {
+        if (directory == null || directory.isBlank() || simulationRun.getId() == null) {
+            return null;
+        }
+        try {
+            Files.createDirectories(Path.of(directory));
+            BufferedWriter endpointFile = Files.newBufferedWriter(endpointsPathOf(simulationRun.getId()), StandardCharsets.UTF_8);
+            SampleJournal.Writer journal;
+            try {
+                journal = SampleJournal.Writer.create(pathOf(simulationRun.getId()));
+            } catch (IOException | UncheckedIOException e) {
+                endpointFile.close();
+                throw e;
+            }
+            var writer = new SampleJournalWriter(simulationRun.getId(), journal, endpointFile);
+            for (SimulatedArtemisUser student : students) {
+                student.setRequestJournal(writer);
+            }
+            return writer;
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Could not create the sample journal of run {}, running without one: {}", simulationRun.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Compute the response times of the requests of a run that match a filter, overall and over time. Failed requests
+     * are only counted, as their response times say how long it took to fail rather than how fast the server was.
+     *
+     * @param simulationRunId the ID of the simulation run
+     * @param filter          which requests to include
+     * @param intervalSeconds the length of an interval of the timeline, in seconds
+     * @return the matching requests
+     * @throws NoSuchElementException   if the run has no journal
+     * @throws IllegalArgumentException if the interval is not positive
+     * @throws UncheckedIOException     if the journal cannot be read
+     */
+    public SampleQueryResultDTO query(long simulationRunId, SampleFilter filter, int intervalSeconds) {
+        if (intervalSeconds <= 0) {
+            throw new IllegalArgumentException("The interval must be at least one second");
+        }
+        Path path = pathOf(simulationRunId);
+        if (directory == null || directory.isBlank() || !Files.isRegularFile(path)) {
+            throw new NoSuchElementException("Simulation run " + simulationRunId + " has no sample journal");
+        }
+        SampleFilter.Matcher matcher = filter.matcher(filter.endpoints() != null ? readEndpoints(simulationRunId) : List.of());
+        long intervalNanos = intervalSeconds * 1_000_000_000L;
+        Histogram histogram = LatencyHistograms.create();
+        // Per interval: number of successful requests, their summed and longest response time, and number of failures.
+        Map<Long, long[]> intervals = new TreeMap<>();
+        long[] failures = new long[1];
+        try {
+            SampleJournal.scan(path, (startEpochNanos, durationNanos, limiterWaitNanos, student, endpoint, status, type, failed) -> {
+                if (!matcher.matches(startEpochNanos, student, Short.toUnsignedInt(endpoint), type)) {
+                    return;
+                }
+                long[] interval = intervals.computeIfAbsent(Math.floorDiv(startEpochNanos, intervalNanos), start -> new long[4]);
+                if (failed) {
+                    failures[0]++;
+                    interval[3]++;
+                    return;
+                }
+                histogram.recordValue(durationNanos);
+                interval[0]++;
+                interval[1] += durationNanos;
+                interval[2] = Math.max(interval[2], durationNanos);
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        List<SampleQueryResultDTO.Interval> timeline = new ArrayList<>(intervals.size());
+        intervals.forEach((index, interval) ->
+            timeline.add(
+                new SampleQueryResultDTO.Interval(
+                    ZonedDateTime.ofInstant(Instant.ofEpochSecond(index * intervalSeconds), ZoneId.systemDefault()),
+                    interval[0],
+                    interval[3],
+                    interval[0] > 0 ? (double) interval[1] / interval[0] : 0,
+                    interval[2]
+                )
+            )
+        );
+        return new SampleQueryResultDTO(histogram.getTotalCount(), failures[0], ResponseTimePercentiles.of(histogram), timeline);
+    }
+
+    /**
+     * Delete the journal of a run, if it has one.
+     *
+     * @param simulationRunId the ID of the simulation run
+     */
+    public void delete(long simulationRunId) {
+        if (directory == null || directory.isBlank()) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(pathOf(simulationRunId));
+            Files.deleteIfExists(endpointsPathOf(simulationRunId));
+        } catch (IOException e) {
+            log.warn("Could not delete the sample journal of run {}: {}", simulationRunId, e.getMessage());
+        }
+    }
+
+    private List<String> readEndpoints(long simulationRunId) {
+        Path path = endpointsPathOf(simulationRunId);
+        if (!Files.isRegularFile(path)) {
+            return List.of();
+        }
+        try {
+            return Files.readAllLines(path, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path pathOf(long simulationRunId) {
+        return Path.of(directory, "run-" + simulationRunId + ".samples");
+    }
+
+    private Path endpointsPathOf(long simulationRunId) {
+        return Path.of(directory, "run-" + simulationRunId + ".endpoints");
+    }
+}
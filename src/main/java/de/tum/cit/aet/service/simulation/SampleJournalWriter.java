@@ -0,0 +1,126 @@
+package de.tum.cit.aet.service.simulation;
+
+import de.tum.cit.aet.domain.RequestType;
+import de.tum.cit.aet.service.artemis.interaction.RequestJournal;
+import de.tum.cit.aet.util.SampleJournal;
+import de.tum.cit.aet.util.StringDictionary;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes every request of a run to its {@link SampleJournal} as the students make them, so the run can be sliced in
+ * ways its result does not cover once it is over. The requests of an action that makes several are journaled one by
+ * one, each with its own endpoint and timing, under the type of the action. Page loads and the exam start spike are
+ * not journaled: they span requests that are journaled under their own types already.
+ * <p>
+ * The journal stores the endpoint of a request as a code, starting at 1. The endpoints are written to a text file of
+ * their own as they come up, one per line in the order of their codes, so the file and the journal stay in step even
+ * if the run dies. Endpoints beyond the 65,535 that fit in a record's code are journaled as unknown. Failed requests
+ * are journaled with their status and flagged as failed; one that got no response has status 0.
+ * <p>
+ * A journal that cannot be written, say because the disk is full, is given up on with a warning; the run itself goes
+ * on, as its result does not depend on the journal.
+ */
+final class SampleJournalWriter implements RequestJournal, AutoCloseable {
+
+    private final Logger log = LoggerFactory.getLogger(SampleJournalWriter.class);
+
+    private static final int MAX_ENDPOINT_CODE = 0xFFFF;
+
+    private final long simulationRunId;
+    private final SampleJournal.Writer journal;
+    private final BufferedWriter endpointFile;
+    private final StringDictionary endpoints = new StringDictionary();
+    private volatile int endpointsWritten;
+    private volatile boolean failed;
+    private volatile boolean closed;
+
+    SampleJournalWriter(long simulationRunId, SampleJournal.Writer journal, BufferedWriter endpointFile) {
+        this.simulationRunId = simulationRunId;
+        this.journal = journal;
+        this.endpointFile = endpointFile;
+    }
+
+    @Override
+    public void record(
+        RequestType type,
+        long startEpochNanos,
+        long durationNanos,
+        long limiterWaitNanos,
+        int student,
+        String endpoint,
+        int status,
+        boolean failed
+    ) {
+        if (this.failed || closed || type == RequestType.PAGE_LOAD || type == RequestType.EXAM_START_SPIKE) {
+            return;
+        }
+        try {
+            journal.append(
+                startEpochNanos,
+                durationNanos,
+                limiterWaitNanos,
+                student,
+                endpointCode(endpoint),
+                (short) status,
+                (byte) type.ordinal(),
+                failed
+            );
+        } catch (UncheckedIOException | IllegalStateException e) {
+            if (closed) {
+                // A request that completed while the run was wrapping up.
+                return;
+            }
+            this.failed = true;
+            log.warn("Could not write the sample journal of run {}, it ends here: {}", simulationRunId, e.getMessage());
+        }
+    }
+
+    private short endpointCode(String endpoint) {
+        if (endpoint == null) {
+            return 0;
+        }
+        int code = endpoints.codeOf(endpoint) + 1;
+        if (code > MAX_ENDPOINT_CODE) {
+            return 0;
+        }
+        if (code > endpointsWritten) {
+            writeNewEndpoints();
+        }
+        return (short) code;
+    }
+
+    private synchronized void writeNewEndpoints() {
+        int written = endpointsWritten;
+        int known = Math.min(endpoints.size(), MAX_ENDPOINT_CODE);
+        if (written == known) {
+            return;
+        }
+        try {
+            for (; written < known; written++) {
+                endpointFile.write(endpoints.get(written));
+                endpointFile.newLine();
+            }
+            endpointFile.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        endpointsWritten = written;
+    }
+
+    /**
+     * Stop writing and cut the journal down to what was written.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try (endpointFile) {
+            journal.close();
+        } catch (IOException e) {
+            log.warn("Could not close the sample journal of run {}: {}", simulationRunId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,557 @@
+package de.tum.cit.aet.service.simulation;
+
+import de.tum.cit.aet.domain.RequestType;
+import de.tum.cit.aet.service.artemis.interaction.SimulatedArtemisStudent;
+import de.tum.cit.aet.util.ConcurrencyLimit;
+import de.tum.cit.aet.util.SyncPoint;
+import de.tum.cit.aet.util.ThinkTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.http.HttpMethod;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.error.YAMLException;
+
+/**
+ * A student's exam session described as data instead of code, so that following a new Artemis client release's request
+ * pattern is a change to the simulation rather than to {@link SimulatedArtemisStudent}.
+ * <p>
+ * A scenario is YAML, or JSON, which is valid YAML too, with a list of {@code steps}. A step is one of:
+ * <ul>
+ * <li>the name of a flow the student already knows: {@code login}, {@code initialCalls}, {@code startExam}, or its two
+ * halves {@code openExamCourse} and {@code enterExam}, {@code participate}, {@code autosave}, {@code autosaveAndPush}
+ * and {@code submit}</li>
+ * <li>{@code examStart}, where every student waits for all the others, like the exam start barrier; at most once, and
+ * not inside a loop or choice</li>
+ * <li>a request, {@code {get: <path>}} and likewise {@code post}, {@code put}, {@code patch} and {@code delete}, with
+ * an optional JSON {@code body} and the {@code type} to record it under, {@code MISC} by default. The path is relative
+ * to the Artemis URL and, like the body, may use {@code {courseId}}, {@code {examId}}, {@code {programmingExerciseId}},
+ * {@code {studentExamId}} and {@code {username}}</li>
+ * <li>{@code {wait: <think time>}}, a pause in the format of {@link ThinkTime}</li>
+ * <li>{@code {loop: {times: <n>, steps: [...]}}}, or with {@code seconds} instead of {@code times} to repeat the steps
+ * until that long has passed</li>
+ * <li>{@code {choose: [{weight: <w>, steps: [...]}, ...]}}, which takes one of the branches at random, in proportion to
+ * their weights</li>
+ * </ul>
+ * For example, the session of a student who autosaves every 30 seconds for an hour and occasionally checks the
+ * dashboard:
+ *
+ * <pre>
+ * steps:
+ *   - login
+ *   - initialCalls
+ *   - openExamCourse
+ *   - examStart
+ *   - enterExam
+ *   - participate
+ *   - loop:
+ *       seconds: 3600
+ *       steps:
+ *         - wait: fixed 30000
+ *         - autosave
+ *         - choose:
+ *             - weight: 1
+ *               steps: [{ get: "api/core/courses/{courseId}/for-dashboard" }]
+ *             - weight: 9
+ *               steps: []
+ *   - submit
+ * </pre>
+ * <p>
+ * The definition is parsed and checked once per run and compiled into an immutable graph of steps that every student
+ * walks: paths are split into their fixed parts and placeholders, think times are parsed and weights summed up front,
+ * so running a step costs no more than calling the corresponding Java flow directly.
+ */
+public final class Scenario {
+
+    /**
+     * How deeply loops and choices may nest, which keeps a scenario readable and its compilation bounded.
+     */
+    static final int MAX_DEPTH = 8;
+
+    private final Step[] steps;
+    private final boolean hasExamStart;
+
+    private Scenario(Step[] steps, boolean hasExamStart) {
+        this.steps = steps;
+        this.hasExamStart = hasExamStart;
+    }
+
+    /**
+     * Parse and compile a scenario.
+     *
+     * @param definition the scenario in YAML or JSON
+     * @return the compiled scenario
+     * @throws IllegalArgumentException if the scenario is malformed
+     */
+    public static Scenario compile(String definition) {
+        if (definition == null || definition.isBlank()) {
+            throw new IllegalArgumentException("The scenario is empty");
+        }
+        Object root;
+        try {
+            root = new Yaml(new SafeConstructor(new LoaderOptions())).load(definition);
+        } catch (YAMLException e) {
+            throw new IllegalArgumentException("The scenario is neither valid YAML nor JSON: " + e.getMessage(), e);
+        }
+        if (!(root instanceof Map<?, ?> map) || !map.containsKey("steps")) {
+            throw new IllegalArgumentException("A scenario needs a list of steps");
+        }
+        Compiler compiler = new Compiler();
+        Step[] steps = compiler.compileSteps(map.get("steps"), "steps", 0);
+        return new Scenario(steps, compiler.examStarts > 0);
+    }
+
+    /**
+     * @return whether the scenario has an {@code examStart} step, at which every student waits for all the others
+     */
+    public boolean hasExamStart() {
+        return hasExamStart;
+    }
+
+    /**
+     * Run the scenario for one student, adding the stats of each step as soon as the step is done so that a later
+     * failure does not discard them. A failing step ends the student's session.
+     *
+     * @param student      the student to run the scenario for
+     * @param context      the exam and synchronisation the student runs in
+     * @param requestStats the collector to add the stats to
+     * @throws InterruptedException if interrupted while waiting
+     * @throws CancellationException if the run was cancelled, checked before every pass of a loop
+     */
+    public void run(SimulatedArtemisStudent student, Context context, RequestStatCollector requestStats) throws InterruptedException {
+        Execution execution = new Execution(student, context, requestStats);
+        try {
+            runAll(steps, execution);
+        } finally {
+            if (context.examStart() != null && !execution.passedExamStart) {
+                context.examStart().leave();
+            }
+        }
+    }
+
+    private static void runAll(Step[] steps, Execution execution) throws InterruptedException {
+        for (Step step : steps) {
+            step.run(execution);
+        }
+    }
+
+    /**
+     * What a student runs a scenario in.
+     *
+     * @param courseId              the ID of the course the exam is in
+     * @param examId                the ID of the exam
+     * @param programmingExerciseId the ID of the course programming exercise, or 0 if there is none
+     * @param examStart             where the {@code examStart} step waits for the other students, or {@code null} if
+     *                              the scenario has none
+     * @param limit                 the concurrency slot the student holds and releases while waiting, or {@code null}
+     *                              if they hold none
+     */
+    public record Context(long courseId, long examId, long programmingExerciseId, SyncPoint examStart, ConcurrencyLimit limit) {}
+
+    /**
+     * The state of one student walking the scenario.
+     */
+    private static final class Execution {
+
+        private final SimulatedArtemisStudent student;
+        private final Context context;
+        private final RequestStatCollector requestStats;
+        private boolean passedExamStart;
+
+        private Execution(SimulatedArtemisStudent student, Context context, RequestStatCollector requestStats) {
+            this.student = student;
+            this.context = context;
+            this.requestStats = requestStats;
+        }
+    }
+
+    private interface Step {
+        void run(Execution execution) throws InterruptedException;
+    }
+
+    /**
+     * The flows {@link SimulatedArtemisStudent} implements in code.
+     */
+    private enum Flow implements Step {
+        LOGIN("login"),
+        INITIAL_CALLS("initialCalls"),
+        START_EXAM("startExam"),
+        OPEN_EXAM_COURSE("openExamCourse"),
+        ENTER_EXAM("enterExam"),
+        PARTICIPATE("participate"),
+        AUTOSAVE("autosave"),
+        AUTOSAVE_AND_PUSH("autosaveAndPush"),
+        SUBMIT("submit");
+
+        private final String stepName;
+
+        Flow(String stepName) {
+            this.stepName = stepName;
+        }
+
+        @Override
+        public void run(Execution execution) {
+            SimulatedArtemisStudent student = execution.student;
+            Context context = execution.context;
+            execution.requestStats.addAll(
+                switch (this) {
+                    case LOGIN -> student.login();
+                    case INITIAL_CALLS -> student.performInitialCalls();
+                    case START_EXAM -> student.startExamParticipation(
+                        context.courseId(),
+                        context.examId(),
+                        context.programmingExerciseId()
+                    );
+                    case OPEN_EXAM_COURSE -> student.openExamCourse(context.courseId(), context.examId(), context.programmingExerciseId());
+                    case ENTER_EXAM -> student.enterExam(context.examId());
+                    case PARTICIPATE -> student.participateInExam(context.courseId(), context.examId());
+                    case AUTOSAVE -> student.autosaveExam(false);
+                    case AUTOSAVE_AND_PUSH -> student.autosaveExam(true);
+                    case SUBMIT -> student.submitAndEndExam(context.courseId(), context.examId());
+                }
+            );
+        }
+    }
+
+    private static final class ExamStartStep implements Step {
+
+        @Override
+        public void run(Execution execution) throws InterruptedException {
+            SyncPoint examStart = execution.context.examStart();
+            // Marked before waiting: a student interrupted at the barrier has still arrived there and must not leave.
+            execution.passedExamStart = true;
+            if (examStart != null) {
+                examStart.await(execution.context.limit());
+            }
+        }
+    }
+
+    private record RequestStep(HttpMethod method, Template path, Template body, RequestType type) implements Step {
+        @Override
+        public void run(Execution execution) {
+            String renderedBody = body == null ? null : body.render(execution);
+            var stat = execution.student.performRequest(method, path.render(execution), renderedBody, type);
+            execution.requestStats.addAll(List.of(stat));
+        }
+    }
+
+    private record WaitStep(ThinkTime thinkTime) implements Step {
+        @Override
+        public void run(Execution execution) throws InterruptedException {
+            Duration pause = thinkTime.sample(ThreadLocalRandom.current());
+            SimulationExecutionService.sleepWithoutSlot(
+                pause.toNanos(),
+                execution.context.limit(),
+                execution.student.getCancellationToken()
+            );
+        }
+    }
+
+    private record RepeatStep(int times, Step[] steps) implements Step {
+        @Override
+        public void run(Execution execution) throws InterruptedException {
+            for (int i = 0; i < times; i++) {
+                // A cancelled wait returns at once, so a loop of waits would spin until interrupted.
+                execution.student.getCancellationToken().throwIfCancelled();
+                runAll(steps, execution);
+            }
+        }
+    }
+
+    private record RepeatForStep(long nanos, Step[] steps) implements Step {
+        @Override
+        public void run(Execution execution) throws InterruptedException {
+            long end = System.nanoTime() + nanos;
+            while (System.nanoTime() < end) {
+                execution.student.getCancellationToken().throwIfCancelled();
+                runAll(steps, execution);
+            }
+        }
+    }
+
+    /**
+     * @param cumulativeWeights the running sum of the branches' weights, so that picking a branch is a binary search
+     * @param branches          the steps of each branch
+     */
+    private record ChooseStep(double[] cumulativeWeights, Step[][] branches) implements Step {
+        @Override
+        public void run(Execution execution) throws InterruptedException {
+            double pick = ThreadLocalRandom.current().nextDouble(cumulativeWeights[cumulativeWeights.length - 1]);
+            int index = Arrays.binarySearch(cumulativeWeights, pick);
+            // Not found gives -(insertion point) - 1, and the insertion point is the branch whose range holds the pick.
+            runAll(branches[index < 0 ? -index - 1 : index + 1], execution);
+        }
+    }
+
+    /**
+     * A path or body with placeholders, split once into the fixed text and the variables between it.
+     *
+     * @param literals  the fixed text, one more than there are variables
+     * @param variables the variables between the fixed text
+     */
+    private record Template(String[] literals, Variable[] variables) {
+        /**
+         * @param text   the text to split
+         * @param where  where in the scenario the text is, for error messages
+         * @param strict whether every pair of braces has to be a placeholder, as in a path; a JSON body has its own
+         */
+        private static Template parse(String text, String where, boolean strict) {
+            List<String> literals = new ArrayList<>();
+            List<Variable> variables = new ArrayList<>();
+            int literalStart = 0;
+            int search = 0;
+            int open;
+            while ((open = text.indexOf('{', search)) >= 0) {
+                int close = text.indexOf('}', open);
+                if (close < 0) {
+                    break;
+                }
+                Variable variable = Variable.byName(text.substring(open + 1, close));
+                if (variable == null) {
+                    if (strict) {
+                        throw new IllegalArgumentException("Unknown placeholder " + text.substring(open, close + 1) + " at " + where);
+                    }
+                    search = open + 1;
+                    continue;
+                }
+                literals.add(text.substring(literalStart, open));
+                variables.add(variable);
+                literalStart = close + 1;
+                search = literalStart;
+            }
+            literals.add(text.substring(literalStart));
+            return new Template(literals.toArray(String[]::new), variables.toArray(Variable[]::new));
+        }
+
+        private String render(Execution execution) {
+            if (variables.length == 0) {
+                return literals[0];
+            }
+            StringBuilder result = new StringBuilder(literals[0]);
+            for (int i = 0; i < variables.length; i++) {
+                result.append(variables[i].valueFor(execution)).append(literals[i + 1]);
+            }
+            return result.toString();
+        }
+    }
+
+    private enum Variable {
+        COURSE_ID("courseId"),
+        EXAM_ID("examId"),
+        PROGRAMMING_EXERCISE_ID("programmingExerciseId"),
+        STUDENT_EXAM_ID("studentExamId"),
+        USERNAME("username");
+
+        private final String placeholder;
+
+        Variable(String placeholder) {
+            this.placeholder = placeholder;
+        }
+
+        private static Variable byName(String name) {
+            for (Variable variable : values()) {
+                if (variable.placeholder.equals(name)) {
+                    return variable;
+                }
+            }
+            return null;
+        }
+
+        private String valueFor(Execution execution) {
+            return switch (this) {
+                case COURSE_ID -> String.valueOf(execution.context.courseId());
+                case EXAM_ID -> String.valueOf(execution.context.examId());
+                case PROGRAMMING_EXERCISE_ID -> String.valueOf(execution.context.programmingExerciseId());
+                case STUDENT_EXAM_ID -> String.valueOf(execution.student.getStudentExamId());
+                case USERNAME -> execution.student.getUsername();
+            };
+        }
+    }
+
+    /**
+     * Turns the parsed YAML into steps, checking everything that can be checked before a student runs it.
+     */
+    private static final class Compiler {
+
+        private static final Map<String, HttpMethod> METHODS = Map.of(
+            "get",
+            HttpMethod.GET,
+            "post",
+            HttpMethod.POST,
+            "put",
+            HttpMethod.PUT,
+            "patch",
+            HttpMethod.PATCH,
+            "delete",
+            HttpMethod.DELETE
+        );
+
+        private int examStarts;
+
+        private Step[] compileSteps(Object node, String where, int depth) {
+            if (depth > MAX_DEPTH) {
+                throw new IllegalArgumentException("Loops and choices nest deeper than " + MAX_DEPTH + " levels at " + where);
+            }
+            if (node == null) {
+                return new Step[0];
+            }
+            if (!(node instanceof List<?> list)) {
+                throw new IllegalArgumentException("Expected a list of steps at " + where);
+            }
+            Step[] steps = new Step[list.size()];
+            for (int i = 0; i < list.size(); i++) {
+                steps[i] = compileStep(list.get(i), where + "[" + i + "]", depth);
+            }
+            return steps;
+        }
+
+        private Step compileStep(Object node, String where, int depth) {
+            if (node instanceof String name) {
+                if (name.equals("examStart")) {
+                    if (depth > 0) {
+                        throw new IllegalArgumentException("examStart cannot be inside a loop or choice, at " + where);
+                    }
+                    if (++examStarts > 1) {
+                        throw new IllegalArgumentException("A scenario can only have one examStart, the second is at " + where);
+                    }
+                    return new ExamStartStep();
+                }
+                for (Flow flow : Flow.values()) {
+                    if (flow.stepName.equals(name)) {
+                        return flow;
+                    }
+                }
+                throw new IllegalArgumentException("Unknown step '" + name + "' at " + where);
+            }
+            if (!(node instanceof Map<?, ?> map)) {
+                throw new IllegalArgumentException("Expected a step name or a map at " + where);
+            }
+            for (var method : METHODS.entrySet()) {
+                if (map.containsKey(method.getKey())) {
+                    return compileRequest(map, method.getKey(), method.getValue(), where);
+                }
+            }
+            if (map.containsKey("wait")) {
+                expectKeys(map, where, "wait");
+                try {
+                    return new WaitStep(ThinkTime.parse(string(map.get("wait"), where + ".wait")));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(e.getMessage() + " at " + where, e);
+                }
+            }
+            if (map.containsKey("loop")) {
+                expectKeys(map, where, "loop");
+                return compileLoop(map.get("loop"), where + ".loop", depth);
+            }
+            if (map.containsKey("choose")) {
+                expectKeys(map, where, "choose");
+                return compileChoice(map.get("choose"), where + ".choose", depth);
+            }
+            throw new IllegalArgumentException("Unknown step " + map.keySet() + " at " + where);
+        }
+
+        private Step compileRequest(Map<?, ?> map, String key, HttpMethod method, String where) {
+            expectKeys(map, where, key, "body", "type");
+            String path = string(map.get(key), where + "." + key);
+            // The web client resolves paths against the Artemis URL, so a leading slash would only be confusing.
+            while (path.startsWith("/")) {
+                path = path.substring(1);
+            }
+            Template body = null;
+            if (map.get("body") != null) {
+                body = Template.parse(string(map.get("body"), where + ".body"), where + ".body", false);
+            }
+            RequestType type = RequestType.MISC;
+            if (map.get("type") != null) {
+                try {
+                    type = RequestType.valueOf(string(map.get("type"), where + ".type").toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unknown request type '" + map.get("type") + "' at " + where, e);
+                }
+                if (
+                    type == RequestType.TOTAL ||
+                    type == RequestType.EXAM_START_SPIKE ||
+                    type == RequestType.RATE_LIMIT_WAIT ||
+                    type == RequestType.PAGE_LOAD
+                ) {
+                    throw new IllegalArgumentException("Requests cannot be recorded as " + type + ", at " + where);
+                }
+            }
+            return new RequestStep(method, Template.parse(path, where + "." + key, true), body, type);
+        }
+
+        private Step compileLoop(Object node, String where, int depth) {
+            if (!(node instanceof Map<?, ?> loop)) {
+                throw new IllegalArgumentException("Expected times or seconds and steps at " + where);
+            }
+            expectKeys(loop, where, "times", "seconds", "steps");
+            Step[] body = compileSteps(loop.get("steps"), where + ".steps", depth + 1);
+            if (loop.containsKey("times") == loop.containsKey("seconds")) {
+                throw new IllegalArgumentException("A loop needs either times or seconds at " + where);
+            }
+            if (loop.containsKey("times")) {
+                int times = (int) number(loop.get("times"), where + ".times");
+                return new RepeatStep(times, body);
+            }
+            if (body.length == 0) {
+                throw new IllegalArgumentException("A loop over time needs steps, otherwise it only spins, at " + where);
+            }
+            double seconds = number(loop.get("seconds"), where + ".seconds");
+            return new RepeatForStep((long) (seconds * 1_000_000_000L), body);
+        }
+
+        private Step compileChoice(Object node, String where, int depth) {
+            if (!(node instanceof List<?> branches) || branches.isEmpty()) {
+                throw new IllegalArgumentException("Expected a list of branches at " + where);
+            }
+            double[] cumulativeWeights = new double[branches.size()];
+            Step[][] compiled = new Step[branches.size()][];
+            double total = 0;
+            for (int i = 0; i < branches.size(); i++) {
+                String branchWhere = where + "[" + i + "]";
+                if (!(branches.get(i) instanceof Map<?, ?> branch)) {
+                    throw new IllegalArgumentException("Expected a weight and steps at " + branchWhere);
+                }
+                expectKeys(branch, branchWhere, "weight", "steps");
+                double weight = branch.containsKey("weight") ? number(branch.get("weight"), branchWhere + ".weight") : 1;
+                if (weight == 0) {
+                    throw new IllegalArgumentException("A branch needs a positive weight at " + branchWhere);
+                }
+                total += weight;
+                cumulativeWeights[i] = total;
+                compiled[i] = compileSteps(branch.get("steps"), branchWhere + ".steps", depth + 1);
+            }
+            return new ChooseStep(cumulativeWeights, compiled);
+        }
+
+        private static void expectKeys(Map<?, ?> map, String where, String... allowed) {
+            List<String> allowedKeys = List.of(allowed);
+            for (Object key : map.keySet()) {
+                if (!allowedKeys.contains(String.valueOf(key))) {
+                    throw new IllegalArgumentException("Unexpected '" + key + "' at " + where);
+                }
+            }
+        }
+
+        private static String string(Object value, String where) {
+            if (!(value instanceof String string) || string.isBlank()) {
+                throw new IllegalArgumentException("Expected text at " + where);
+            }
+            return string;
+        }
+
+        private static double number(Object value, String where) {
+            if (!(value instanceof Number number) || number.doubleValue() < 0 || !Double.isFinite(number.doubleValue())) {
+                throw new IllegalArgumentException("Expected a number that is not negative at " + where);
+            }
+            return number.doubleValue();
+        }
+    }
+}
@@ -2,7 +2,6 @@ package de.tum.cit.aet.service.simulation;
 
 import static de.tum.cit.aet.util.ArtemisServer.PRODUCTION;
 import static de.tum.cit.aet.util.NumberRangeParser.numberRangeRegex;
-import static java.lang.Thread.sleep;
 import static java.time.ZonedDateTime.now;
 
 import de.tum.cit.aet.domain.*;
@@ -10,9 +9,13 @@ import de.tum.cit.aet.repository.LogMessageRepository;
 import de.tum.cit.aet.repository.SimulationRepository;
 import de.tum.cit.aet.repository.SimulationRunRepository;
 import de.tum.cit.aet.service.artemis.ArtemisConfiguration;
+import de.tum.cit.aet.util.ArrivalSchedule;
 import de.tum.cit.aet.util.ArtemisAccountDTO;
 import de.tum.cit.aet.util.ArtemisServer;
+import de.tum.cit.aet.util.ConcurrencyProfile;
 import de.tum.cit.aet.util.NumberRangeParser;
+import de.tum.cit.aet.util.Persona;
+import de.tum.cit.aet.util.ThinkTime;
 import de.tum.cit.aet.web.websocket.SimulationWebsocketService;
 import java.util.*;
 import org.slf4j.Logger;
@@ -33,6 +36,7 @@ public class SimulationDataService {
     private final SimulationWebsocketService simulationWebsocketService;
     private final LogMessageRepository logMessageRepository;
     private final ArtemisConfiguration artemisConfiguration;
+    private final SampleJournalService sampleJournalService;
 
     public SimulationDataService(
         SimulationRepository simulationRepository,
@@ -40,7 +44,8 @@ public class SimulationDataService {
         SimulationQueueService simulationQueueService,
         SimulationWebsocketService simulationWebsocketService,
         LogMessageRepository logMessageRepository,
-        ArtemisConfiguration artemisConfiguration
+        ArtemisConfiguration artemisConfiguration,
+        SampleJournalService sampleJournalService
     ) {
         this.simulationRepository = simulationRepository;
         this.simulationRunRepository = simulationRunRepository;
@@ -48,6 +53,7 @@ public class SimulationDataService {
         this.simulationWebsocketService = simulationWebsocketService;
         this.logMessageRepository = logMessageRepository;
         this.artemisConfiguration = artemisConfiguration;
+        this.sampleJournalService = sampleJournalService;
     }
 
     /**
@@ -160,7 +166,9 @@ public class SimulationDataService {
         ) {
             throw new IllegalArgumentException("Cannot delete a simulation with a running simulation run!");
         }
+        List<Long> runIds = simulationRunRepository.findAllBySimulationId(id).stream().map(SimulationRun::getId).toList();
         simulationRepository.deleteById(id);
+        runIds.forEach(sampleJournalService::delete);
     }
 
     /**
@@ -179,6 +187,7 @@ public class SimulationDataService {
             simulationQueueService.removeSimulationRunFromQueue(run);
         }
         simulationRunRepository.deleteById(runId);
+        sampleJournalService.delete(runId);
     }
 
     /**
@@ -238,6 +247,16 @@ public class SimulationDataService {
 
         return (
             basicRequirements &&
+            validateArrivalSchedule(simulation) &&
+            validateConcurrencyProfile(simulation) &&
+            validateAdaptiveConcurrency(simulation) &&
+            validateDistributed(simulation) &&
+            validateReactiveSessions(simulation) &&
+            validateThinkTimes(simulation) &&
+            validateSoak(simulation) &&
+            validateExamStartSpike(simulation) &&
+            validateScenario(simulation) &&
+            validatePersonas(simulation) &&
             switch (simulation.getMode()) {
                 case CREATE_COURSE_AND_EXAM -> true;
                 case EXISTING_COURSE_UNPREPARED_EXAM, EXISTING_COURSE_PREPARED_EXAM -> simulation.getCourseId() > 0 &&
@@ -248,7 +267,222 @@ public class SimulationDataService {
     }
 
     /**
-     * Cancel the currently active simulation run.
+     * Check that an open-loop simulation describes a schedule every student can arrive on.
+     *
+     * @param simulation the simulation to validate
+     * @return true if the simulation is closed-loop or its arrival schedule is usable, false otherwise
+     */
+    private boolean validateArrivalSchedule(Simulation simulation) {
+        if (simulation.getArrivalMode() == null) {
+            return false;
+        }
+        return switch (simulation.getArrivalMode()) {
+            case CLOSED_LOOP -> true;
+            case CONSTANT_RATE, POISSON -> simulation.getArrivalRate() > 0 && Double.isFinite(simulation.getArrivalRate());
+            case RATE_CURVE -> {
+                try {
+                    ArrivalSchedule.parseRateCurve(simulation.getArrivalRateCurve());
+                    yield true;
+                } catch (IllegalArgumentException e) {
+                    log.debug("Invalid arrival rate curve '{}': {}", simulation.getArrivalRateCurve(), e.getMessage());
+                    yield false;
+                }
+            }
+        };
+    }
+
+    /**
+     * Check that a concurrency profile, if the simulation has one, can be followed.
+     *
+     * @param simulation the simulation to validate
+     * @return true if the simulation has no profile, or a well-formed one on a closed-loop run, false otherwise
+     */
+    private boolean validateConcurrencyProfile(Simulation simulation) {
+        String profile = simulation.getConcurrencyProfile();
+        if (profile == null || profile.isBlank()) {
+            return true;
+        }
+        // Open-loop runs have no ceiling to vary.
+        if (simulation.getArrivalMode() != Simulation.ArrivalMode.CLOSED_LOOP) {
+            return false;
+        }
+        try {
+            ConcurrencyProfile.parse(profile);
+            return true;
+        } catch (IllegalArgumentException e) {
+            log.debug("Invalid concurrency profile '{}': {}", profile, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Check that the adaptive concurrency search, if enabled, has an SLO to search against.
+     *
+     * @param simulation the simulation to validate
+     * @return true if the search is disabled, or enabled on a closed-loop run without a profile and with a usable SLO
+     */
+    private boolean validateAdaptiveConcurrency(Simulation simulation) {
+        if (!simulation.isAdaptiveConcurrency()) {
+            return true;
+        }
+        // The search owns the ceiling, so it cannot be combined with anything else that sets it.
+        boolean hasProfile = simulation.getConcurrencyProfile() != null && !simulation.getConcurrencyProfile().isBlank();
+        return (
+            simulation.getArrivalMode() == Simulation.ArrivalMode.CLOSED_LOOP &&
+            !hasProfile &&
+            simulation.getAdaptiveStep() > 0 &&
+            simulation.getSloLatencyMillis() > 0 &&
+            simulation.getSloErrorRate() >= 0 &&
+            simulation.getSloErrorRate() <= 1
+        );
+    }
+
+    /**
+     * Check that a distributed simulation only uses what the workers support.
+     *
+     * @param simulation the simulation to validate
+     * @return true if the simulation is not distributed, or a phased closed-loop run with a fixed ceiling
+     */
+    private boolean validateDistributed(Simulation simulation) {
+        if (!simulation.isDistributed()) {
+            return true;
+        }
+        // Workers are driven phase by phase, and each applies its own fixed ceiling.
+        boolean hasProfile = simulation.getConcurrencyProfile() != null && !simulation.getConcurrencyProfile().isBlank();
+        return (
+            simulation.getArrivalMode() == Simulation.ArrivalMode.CLOSED_LOOP &&
+            !simulation.isPipelinedSessions() &&
+            !hasProfile &&
+            !simulation.isAdaptiveConcurrency()
+        );
+    }
+
+    /**
+     * Check that a simulation with reactive sessions only uses what they support.
+     *
+     * @param simulation the simulation to validate
+     * @return true if the sessions are not reactive, or the simulation is a closed-loop run with a fixed ceiling
+     */
+    private boolean validateReactiveSessions(Simulation simulation) {
+        if (!simulation.isReactiveSessions()) {
+            return true;
+        }
+        // A reactive session runs from login to hand-in in one go, with nothing to hold it back at the exam start.
+        boolean hasProfile = simulation.getConcurrencyProfile() != null && !simulation.getConcurrencyProfile().isBlank();
+        return (
+            simulation.getArrivalMode() == Simulation.ArrivalMode.CLOSED_LOOP &&
+            !simulation.isDistributed() &&
+            !hasProfile &&
+            !simulation.isAdaptiveConcurrency() &&
+            !simulation.hasScenario() &&
+            !simulation.isExamStartBarrier() &&
+            !simulation.isExamStartSpike() &&
+            simulation.getSoakDurationMinutes() == 0
+        );
+    }
+
+    /**
+     * Check that a soak has a duration and an autosave cadence.
+     *
+     * @param simulation the simulation to validate
+     * @return true if the simulation does not soak or its soak settings are usable, false otherwise
+     */
+    private boolean validateSoak(Simulation simulation) {
+        if (simulation.getSoakDurationMinutes() < 0) {
+            return false;
+        }
+        if (simulation.getSoakDurationMinutes() == 0) {
+            return true;
+        }
+        // Workers run one phase at a time and have no soak phase to run.
+        return simulation.getAutosaveIntervalSeconds() > 0 && !simulation.isDistributed();
+    }
+
+    /**
+     * Check that an exam start spike has a usable jitter.
+     *
+     * @param simulation the simulation to validate
+     * @return true if the simulation has no spike or its jitter is usable, false otherwise
+     */
+    private boolean validateExamStartSpike(Simulation simulation) {
+        if (!simulation.isExamStartSpike()) {
+            return true;
+        }
+        // Workers start each phase at the same moment, but hold their students to their own ceiling within it.
+        return simulation.getExamStartJitterMillis() >= 0 && !simulation.isDistributed();
+    }
+
+    /**
+     * Check that a simulation's scenario compiles and that nothing else shapes the students' sessions.
+     *
+     * @param simulation the simulation to validate
+     * @return true if the simulation has no scenario or a usable one, false otherwise
+     */
+    private boolean validateScenario(Simulation simulation) {
+        if (!simulation.hasScenario()) {
+            return true;
+        }
+        try {
+            Scenario.compile(simulation.getScenario());
+        } catch (IllegalArgumentException e) {
+            log.debug("Invalid scenario: {}", e.getMessage());
+            return false;
+        }
+        // The scenario has its own examStart step, loops and waits in place of these.
+        return (
+            !simulation.isDistributed() &&
+            !simulation.isExamStartBarrier() &&
+            !simulation.isExamStartSpike() &&
+            simulation.getSoakDurationMinutes() == 0
+        );
+    }
+
+    /**
+     * Check that a simulation's personas parse.
+     *
+     * @param simulation the simulation to validate
+     * @return true if the simulation has no personas or well-formed ones, false otherwise
+     */
+    private boolean validatePersonas(Simulation simulation) {
+        if (!simulation.hasPersonas()) {
+            return true;
+        }
+        try {
+            Persona.parseAll(simulation.getPersonas());
+            return true;
+        } catch (IllegalArgumentException e) {
+            log.debug("Invalid personas: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Check that every think time of the simulation can be sampled from.
+     *
+     * @param simulation the simulation to validate
+     * @return true if every think time is empty or well-formed, false otherwise
+     */
+    private boolean validateThinkTimes(Simulation simulation) {
+        for (String thinkTime : List.of(
+            Objects.toString(simulation.getThinkTimeRest(), ""),
+            Objects.toString(simulation.getThinkTimeGit(), ""),
+            Objects.toString(simulation.getThinkTimeWebsocket(), "")
+        )) {
+            try {
+                ThinkTime.parse(thinkTime);
+            } catch (IllegalArgumentException e) {
+                log.debug("Invalid think time '{}': {}", thinkTime, e.getMessage());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Cancel an active simulation run. Returns right away: the run winds down in the background, saves the stats of
+     * the requests made so far as its result and marks itself as cancelled, while runs against other servers carry on.
+     * A run marked as running that is not executing, e.g. after a restart of this application, is marked as cancelled
+     * here.
      * @param runId the ID of the simulation run to cancel
      * @throws IllegalArgumentException if run with given ID is not active
      */
@@ -259,11 +493,8 @@ public class SimulationDataService {
         } else {
             log.info("Cancelling simulation run {}", runId);
 
-            simulationQueueService.abortSimulationExecution();
-            try {
-                sleep(1000);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+            if (simulationQueueService.cancelSimulationRun(run)) {
+                return;
             }
             run = simulationRunRepository.findByIdWithStatsAndLogMessages(runId).orElseThrow();
 
@@ -281,8 +512,6 @@ public class SimulationDataService {
             log.info("Simulation run {} cancelled", runId);
             simulationRunRepository.save(run);
             logMessageRepository.save(logMsg);
-
-            simulationQueueService.restartSimulationExecution();
         }
     }
 
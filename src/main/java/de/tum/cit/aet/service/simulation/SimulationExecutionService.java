@@ -7,28 +7,52 @@ import de.tum.cit.aet.artemisModel.Course;
 import de.tum.cit.aet.artemisModel.Exam;
 import de.tum.cit.aet.artemisModel.ProgrammingExercise;
 import de.tum.cit.aet.domain.*;
+import de.tum.cit.aet.repository.LoadStageRepository;
 import de.tum.cit.aet.repository.LogMessageRepository;
 import de.tum.cit.aet.repository.SimulationRunRepository;
+import de.tum.cit.aet.repository.StatsRollupRepository;
 import de.tum.cit.aet.service.CiStatusService;
 import de.tum.cit.aet.service.MailService;
 import de.tum.cit.aet.service.artemis.ArtemisConfiguration;
 import de.tum.cit.aet.service.artemis.ArtemisUserService;
+import de.tum.cit.aet.service.artemis.interaction.ActionCategory;
+import de.tum.cit.aet.service.artemis.interaction.ArtemisHttpClients;
 import de.tum.cit.aet.service.artemis.interaction.SimulatedArtemisAdmin;
 import de.tum.cit.aet.service.artemis.interaction.SimulatedArtemisStudent;
 import de.tum.cit.aet.service.artemis.interaction.SimulatedArtemisUser;
 import de.tum.cit.aet.service.artemis.passkey.ArtemisPasskeyService;
+import de.tum.cit.aet.util.AdaptiveConcurrencyController;
+import de.tum.cit.aet.util.ArrivalSchedule;
 import de.tum.cit.aet.util.ArtemisAccountDTO;
 import de.tum.cit.aet.util.ArtemisServer;
+import de.tum.cit.aet.util.CancellationToken;
+import de.tum.cit.aet.util.ConcurrencyController;
+import de.tum.cit.aet.util.ConcurrencyLimit;
+import de.tum.cit.aet.util.ConcurrencyProfile;
+import de.tum.cit.aet.util.ConcurrencyProfileDriver;
+import de.tum.cit.aet.util.Persona;
 import de.tum.cit.aet.util.SimulationConcurrency;
+import de.tum.cit.aet.util.SyncPoint;
+import de.tum.cit.aet.util.ThinkTime;
 import de.tum.cit.aet.web.websocket.SimulationWebsocketService;
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
+import org.HdrHistogram.Histogram;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * Service for executing simulations.
@@ -38,6 +62,14 @@ public class SimulationExecutionService {
 
     private final Logger log = LoggerFactory.getLogger(SimulationExecutionService.class);
 
+    /**
+     * How often a soaking student pushes another change to their programming exercises, the pace of a student who
+     * works on the code throughout the exam.
+     */
+    static final Duration SOAK_PUSH_INTERVAL = Duration.ofMinutes(5);
+
+    static final int DEFAULT_MAX_REACTIVE_CONCURRENCY = 10_000;
+
     /**
      * Ceiling on how many simulated students may be in flight at once, regardless of how many a run asks for.
      * <p>
@@ -48,6 +80,21 @@ public class SimulationExecutionService {
     @Value("${benchmarking.simulation.max-concurrency:" + SimulationConcurrency.DEFAULT_MAX_CONCURRENCY + "}")
     private int maxConcurrency;
 
+    /**
+     * Ceiling on how many students with reactive sessions may be in flight at once. Such a student holds no thread
+     * while it waits for the server or thinks, only its share of the connections and some memory, so the ceiling can
+     * be far higher than {@link #maxConcurrency}, which then only bounds the threads for the git operations.
+     */
+    @Value("${benchmarking.simulation.max-reactive-concurrency:" + DEFAULT_MAX_REACTIVE_CONCURRENCY + "}")
+    private int maxReactiveConcurrency;
+
+    /**
+     * Seconds between writes of a live run's per-second stats to the database, see {@link StatsRollupWriter}. Not
+     * positive to write them only with the result.
+     */
+    @Value("${benchmarking.simulation.stats-flush-interval-seconds:" + StatsRollupWriter.DEFAULT_FLUSH_INTERVAL_SECONDS + "}")
+    private int statsFlushIntervalSeconds;
+
     private final SimulationWebsocketService simulationWebsocketService;
     private final ArtemisUserService artemisUserService;
     private final ArtemisPasskeyService artemisPasskeyService;
@@ -57,6 +104,11 @@ public class SimulationExecutionService {
     private final LogMessageRepository logMessageRepository;
     private final MailService mailService;
     private final CiStatusService ciStatusService;
+    private final LoadStageRepository loadStageRepository;
+    private final DistributedSimulationService distributedSimulationService;
+    private final StatsRollupRepository statsRollupRepository;
+    private final SampleJournalService sampleJournalService;
+    private final ArtemisHttpClients httpClients;
     private boolean doNotSleep = false;
 
     public SimulationExecutionService(
@@ -68,7 +120,12 @@ public class SimulationExecutionService {
         LogMessageRepository logMessageRepository,
         MailService mailService,
         CiStatusService ciStatusService,
-        ArtemisPasskeyService artemisPasskeyService
+        ArtemisPasskeyService artemisPasskeyService,
+        LoadStageRepository loadStageRepository,
+        DistributedSimulationService distributedSimulationService,
+        StatsRollupRepository statsRollupRepository,
+        SampleJournalService sampleJournalService,
+        ArtemisHttpClients httpClients
     ) {
         this.simulationWebsocketService = simulationWebsocketService;
         this.artemisConfiguration = artemisConfiguration;
@@ -79,10 +136,16 @@ public class SimulationExecutionService {
         this.mailService = mailService;
         this.ciStatusService = ciStatusService;
         this.artemisPasskeyService = artemisPasskeyService;
+        this.loadStageRepository = loadStageRepository;
+        this.distributedSimulationService = distributedSimulationService;
+        this.statsRollupRepository = statsRollupRepository;
+        this.sampleJournalService = sampleJournalService;
+        this.httpClients = httpClients;
     }
 
     /**
-     * Executes the given simulation run. This method is synchronized to prevent multiple simulations from running at the same time.
+     * Executes the given simulation run. Runs against different servers may execute at the same time; the
+     * {@link SimulationQueueService} makes sure that runs against the same server never do.
      * <p>
      * The steps of the simulation depend on the simulation mode, see {@link Simulation.Mode}.
      * This method sends status updates, log messages and results to the client via websockets.
@@ -90,7 +153,39 @@ public class SimulationExecutionService {
      * @param simulationRun the simulation run to execute
      * @throws SimulationFailedException if an error occurs while executing the simulation
      */
-    public synchronized void simulateExam(SimulationRun simulationRun) {
+    public void simulateExam(SimulationRun simulationRun) {
+        simulateExam(simulationRun, new CancellationToken());
+    }
+
+    /**
+     * Executes the given simulation run like {@link #simulateExam(SimulationRun)}, until the token is cancelled.
+     * <p>
+     * Once it is, students make no further requests: the ones in flight complete or time out, the students' websockets
+     * are closed and the students that have not started yet never do. The requests made up to then are saved as the
+     * run's result, which is marked as cancelled. A run cancelled during preparation has no result and is only marked.
+     * An interrupt of the calling thread after the cancellation, as a last resort against a run that does not wind
+     * down, is cleared before returning.
+     *
+     * @param simulationRun the simulation run to execute
+     * @param cancellation  the token that cancels the run
+     * @throws SimulationFailedException if an error occurs while executing the simulation
+     */
+    public void simulateExam(SimulationRun simulationRun, CancellationToken cancellation) {
+        try {
+            executeSimulation(simulationRun, cancellation);
+        } finally {
+            if (cancellation.isCancelled()) {
+                // Any interrupt now was meant to stop this run, which is over.
+                Thread.interrupted();
+                simulationRunRepository
+                    .findByIdWithStatsAndLogMessages(simulationRun.getId())
+                    .filter(run -> run.getStatus() == SimulationRun.Status.RUNNING)
+                    .ifPresent(this::cancelSimulationRun);
+            }
+        }
+    }
+
+    private void executeSimulation(SimulationRun simulationRun, CancellationToken cancellation) {
         ArtemisAccountDTO accountDTO = simulationRun.getAdminAccount();
         SimulationSchedule schedule = simulationRun.getSchedule();
 
@@ -129,6 +224,9 @@ public class SimulationExecutionService {
         );
 
         students = initializeStudents(simulationRun);
+        for (SimulatedArtemisStudent student : students) {
+            student.setCancellationToken(cancellation);
+        }
 
         ProgrammingExercise courseProgrammingExercise = null;
 
@@ -150,7 +248,7 @@ public class SimulationExecutionService {
                     // Wait for synchronization of user groups
                     try {
                         logAndSend(false, simulationRun, "Waiting for synchronization of user groups (1 min)...");
-                        sleep(1_000 * 60);
+                        cancellation.sleep(Duration.ofMinutes(1));
                     } catch (InterruptedException e) {
                         Thread.currentThread().interrupt();
                     }
@@ -181,7 +279,7 @@ public class SimulationExecutionService {
                 try {
                     // Wait for a couple of seconds. Without this, students cannot access their repos.
                     // Not sure why this is necessary, trying to figure it out
-                    sleep(5_000);
+                    cancellation.sleep(Duration.ofSeconds(5));
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                 }
@@ -191,15 +289,43 @@ public class SimulationExecutionService {
             logAndSend(false, simulationRun, "Using existing course and exam. No admin required.");
         }
 
+        if (cancellation.isCancelled()) {
+            logAndSend(true, simulationRun, "Cancelled during preparation, no student has started yet.");
+            cleanupAsync(admin, simulationRun, courseId, examId);
+            return;
+        }
+
         // Perform simulation of exam participations
-        List<RequestStat> requestStats = simulateExamParticipations(
-            simulationRun,
-            students,
-            admin,
-            courseId,
-            examId,
-            courseProgrammingExercise != null ? courseProgrammingExercise.getId() : 0
-        );
+        RequestStatAggregate requestStats;
+        try {
+            requestStats = simulateExamParticipations(
+                simulationRun,
+                students,
+                admin,
+                courseId,
+                examId,
+                courseProgrammingExercise != null ? courseProgrammingExercise.getId() : 0,
+                cancellation
+            );
+        } finally {
+            for (SimulatedArtemisStudent student : students) {
+                student.releaseConnections();
+            }
+        }
+
+        if (cancellation.isCancelled()) {
+            logAndSend(
+                true,
+                simulationRun,
+                "Simulation cancelled, saving the %d requests made so far.",
+                requestStats.getNumberOfRequests()
+            );
+            cleanupAsync(admin, simulationRun, courseId, examId);
+            SimulationRun runWithResult = simulationResultService.calculateAndSaveResult(simulationRun, requestStats);
+            cancelSimulationRun(runWithResult);
+            sendRunResult(runWithResult);
+            return;
+        }
 
         logAndSend(false, simulationRun, "Simulation finished.");
 
@@ -264,7 +390,7 @@ public class SimulationExecutionService {
     /**
      * Performs the simulation of parallelized exam participations for the given students.
      * This includes logging in, performing initial calls and participating in the exam.
-     * The statistics of the performed requests are collected and returned as a list.
+     * The statistics of the performed requests are aggregated as they arrive and returned.
      * <p>
      * Fails the simulation run if an error occurs while performing the simulations.
      * Does not fail for exceptions occurring for individual students.
@@ -274,59 +400,905 @@ public class SimulationExecutionService {
      * @param admin         the admin to use for cleanup if necessary
      * @param courseId      the ID of the course the exam is in
      * @param examId        the ID of the exam to participate in
-     * @return a list of request stats for all performed actions
+     * @param cancellation  the token that cancels the run; once it is, the phases that are left start no student
+     * @return the aggregated request stats of all performed actions, up to the cancellation if the run was cancelled
      * @throws SimulationFailedException if an error occurs while performing the simulations
      */
-    private List<RequestStat> simulateExamParticipations(
+    private RequestStatAggregate simulateExamParticipations(
         SimulationRun simulationRun,
         SimulatedArtemisStudent[] students,
         SimulatedArtemisAdmin admin,
         long courseId,
         long examId,
-        long programmingExerciseId
+        long programmingExerciseId,
+        CancellationToken cancellation
     ) {
         logAndSend(false, simulationRun, "Starting simulation...");
         Simulation simulation = simulationRun.getSimulation();
 
-        int concurrency = SimulationConcurrency.concurrencyFor(simulation.getNumberOfUsers(), maxConcurrency);
-        logAndSend(false, simulationRun, "Simulating up to %d students at the same time.", concurrency);
+        if (simulation.isDistributed()) {
+            return simulateExamParticipationsOnWorkers(simulationRun, admin, courseId, examId, programmingExerciseId, cancellation);
+        }
+        if (simulation.isReactiveSessions()) {
+            return simulateReactiveExamSessions(simulationRun, students, admin, courseId, examId, programmingExerciseId, cancellation);
+        }
+        if (isOpenLoop(simulation) || simulation.isPipelinedSessions() || simulation.hasScenario()) {
+            return simulateExamSessions(simulationRun, students, admin, courseId, examId, programmingExerciseId, cancellation);
+        }
 
-        try {
+        ConcurrencyLimit limit = concurrencyLimitFor(simulationRun);
+        RequestStatCollector requestStats = new RequestStatCollector();
+        List<LoadStage> loadStages = new ArrayList<>();
+
+        try (
+            StatsRollupWriter rollups = startStatsRollups(simulationRun, requestStats);
+            SampleJournalWriter journal = sampleJournalService.start(simulationRun, students);
+            ConcurrencyController controller = startConcurrencyController(simulationRun, limit, requestStats, loadStages)
+        ) {
+            int numberOfUsers = simulation.getNumberOfUsers();
             logAndSend(false, simulationRun, "Logging in students...");
-            List<RequestStat> requestStats = new ArrayList<>(
-                performActionWithAll(concurrency, simulation.getNumberOfUsers(), i -> students[i].login())
-            );
+            performActionWithAll(limit, students, cancellation, requestStats, SimulatedArtemisStudent::login);
 
             logAndSend(false, simulationRun, "Performing initial calls...");
-            requestStats.addAll(performActionWithAll(concurrency, simulation.getNumberOfUsers(), i -> students[i].performInitialCalls()));
+            performActionWithAll(limit, students, cancellation, requestStats, SimulatedArtemisStudent::performInitialCalls);
 
             logAndSend(false, simulationRun, "Participating in exam...");
-            requestStats.addAll(
-                performActionWithAll(concurrency, simulation.getNumberOfUsers(), i ->
-                    students[i].startExamParticipation(courseId, examId, programmingExerciseId)
-                )
-            );
+            if (simulation.isExamStartSpike()) {
+                SyncPoint examStart = new SyncPoint(numberOfUsers);
+                cancellation.onCancel(examStart::open);
+                SimulationConcurrency.forEachIndex(limit, numberOfUsers, cancellation, i -> {
+                    try {
+                        startExamTogether(
+                            students[i],
+                            simulation,
+                            courseId,
+                            examId,
+                            programmingExerciseId,
+                            examStart,
+                            limit,
+                            requestStats
+                        );
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (CancellationException e) {
+                        // The run was cancelled, which is not the server's failure.
+                    } catch (Exception e) {
+                        requestStats.recordFailure();
+                        log.warn("Error while starting the exam for user {}: {}", i + 1, e.getMessage());
+                    } finally {
+                        addFailedRequests(students[i], requestStats);
+                    }
+                });
+                reportExamStartSpike(simulationRun, requestStats.getAggregate());
+            } else {
+                performActionWithAll(limit, students, cancellation, requestStats, student ->
+                    student.startExamParticipation(courseId, examId, programmingExerciseId)
+                );
+            }
 
             // create ci status here and start measuring the total duration of build jobs since Artemis starts to process the queue directly
             CiStatus status = ciStatusService.createCiStatus(simulationRun);
             simulationRun.setCiStatus(status);
 
-            requestStats.addAll(
-                performActionWithAll(concurrency, simulation.getNumberOfUsers(), i -> students[i].participateInExam(courseId, examId))
-            );
-            requestStats.addAll(
-                performActionWithAll(concurrency, simulation.getNumberOfUsers(), i -> students[i].submitAndEndExam(courseId, examId))
+            performActionWithAll(limit, students, cancellation, requestStats, student -> student.participateInExam(courseId, examId));
+            if (isSoak(simulation)) {
+                logAndSend(
+                    false,
+                    simulationRun,
+                    "Staying in the exam for %d minutes, autosaving every %d seconds...",
+                    simulation.getSoakDurationMinutes(),
+                    simulation.getAutosaveIntervalSeconds()
+                );
+                try (SoakReport report = startSoakReport(simulationRun, requestStats)) {
+                    SimulationConcurrency.forEachIndex(limit, numberOfUsers, cancellation, i -> {
+                        try {
+                            soak(students[i], simulation, limit, requestStats);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    });
+                }
+            }
+            performActionWithAll(limit, students, cancellation, requestStats, student -> student.submitAndEndExam(courseId, examId));
+
+            return requestStats.getAggregate();
+        } catch (Exception e) {
+            logAndSend(true, simulationRun, "Error while performing simulation: %s", e.getMessage());
+            cleanupAsync(admin, simulationRun, courseId, examId);
+            failSimulationRun(simulationRun);
+            throw new SimulationFailedException("Error while performing simulation", e);
+        } finally {
+            endLastLoadStage(loadStages);
+        }
+    }
+
+    /**
+     * Performs the exam participations on the configured workers instead of on this host, phase by phase, with every
+     * worker starting each phase at the same moment. See {@link DistributedSimulationService}.
+     * <p>
+     * The workers' stats arrive while the phases are running. Failures of individual students are counted, but only a
+     * worker that fails or stops responding fails the run.
+     *
+     * @param simulationRun         the simulation run to perform the exam participations for
+     * @param admin                 the admin to use for cleanup if necessary
+     * @param courseId              the ID of the course the exam is in
+     * @param examId                the ID of the exam to participate in
+     * @param programmingExerciseId the ID of the course programming exercise, or 0 if there is none
+     * @param cancellation          the token that cancels the run; once it is, the workers are polled a last time and
+     *                              their assignments removed
+     * @return the aggregated request stats of all performed actions
+     * @throws SimulationFailedException if an error occurs while performing the simulations
+     */
+    private RequestStatAggregate simulateExamParticipationsOnWorkers(
+        SimulationRun simulationRun,
+        SimulatedArtemisAdmin admin,
+        long courseId,
+        long examId,
+        long programmingExerciseId,
+        CancellationToken cancellation
+    ) {
+        RequestStatCollector requestStats = new RequestStatCollector();
+        List<ArtemisUser> users = getArtemisUsers(simulationRun.getSimulation());
+        // No sample journal: the workers send their requests summed up, so single requests never get here.
+        try (
+            StatsRollupWriter rollups = startStatsRollups(simulationRun, requestStats);
+            var workers = distributedSimulationService.assign(simulationRun, users, courseId, examId, programmingExerciseId, requestStats)
+        ) {
+            logAndSend(
+                false,
+                simulationRun,
+                "Simulating %d students on %d workers.",
+                workers.getNumberOfUsers(),
+                workers.getNumberOfWorkers()
             );
+            for (ExamPhase phase : ExamPhase.values()) {
+                if (cancellation.isCancelled()) {
+                    break;
+                }
+                logAndSend(false, simulationRun, "Running phase %s on all workers...", phase);
+                workers.runPhase(phase, cancellation);
+                if (phase == ExamPhase.START_EXAM) {
+                    // Same moment as in a local run: Artemis starts processing the build queue from here on.
+                    CiStatus status = ciStatusService.createCiStatus(simulationRun);
+                    simulationRun.setCiStatus(status);
+                }
+            }
+            return requestStats.getAggregate();
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            logAndSend(true, simulationRun, "Error while performing simulation: %s", e.getMessage());
+            cleanupAsync(admin, simulationRun, courseId, examId);
+            failSimulationRun(simulationRun);
+            throw new SimulationFailedException("Error while performing simulation", e);
+        }
+    }
+
+    /**
+     * Performs the exam participations as whole sessions: every student runs from login to submission as one task,
+     * without waiting for the other students between phases.
+     * <p>
+     * In a pipelined closed-loop run, the sessions share the usual concurrency ceiling and the next student starts as
+     * soon as a slot frees up, so a straggler holds one slot rather than idling all of them at a phase boundary. In an
+     * open-loop run, students start when the simulation's arrival schedule says, however long earlier students are
+     * still waiting for the server, and the ceiling does not apply, since holding a student back would let a slow
+     * server lower its own load.
+     * <p>
+     * If the simulation asks for it, students wait for each other once, right before the exam starts. A failing step
+     * ends that student's session, but the requests they already made are kept. A simulation with a {@link Scenario}
+     * always runs here, with the scenario in place of the built-in session.
+     *
+     * @param simulationRun         the simulation run to perform the exam participations for
+     * @param students              the students to perform the exam participations with
+     * @param admin                 the admin to use for cleanup if necessary
+     * @param courseId              the ID of the course the exam is in
+     * @param examId                the ID of the exam to participate in
+     * @param programmingExerciseId the ID of the course programming exercise, or 0 if there is none
+     * @param cancellation          the token that cancels the run; once it is, no further session starts
+     * @return the aggregated request stats of all performed actions, up to the cancellation if the run was cancelled
+     * @throws SimulationFailedException if an error occurs while performing the simulations
+     */
+    private RequestStatAggregate simulateExamSessions(
+        SimulationRun simulationRun,
+        SimulatedArtemisStudent[] students,
+        SimulatedArtemisAdmin admin,
+        long courseId,
+        long examId,
+        long programmingExerciseId,
+        CancellationToken cancellation
+    ) {
+        Simulation simulation = simulationRun.getSimulation();
+        int numberOfUsers = simulation.getNumberOfUsers();
+        List<LoadStage> loadStages = new ArrayList<>();
+        try {
+            ArrivalSchedule schedule = isOpenLoop(simulation) ? arrivalScheduleFor(simulation) : null;
+            ConcurrencyLimit limit = null;
+            if (schedule != null) {
+                logAndSend(
+                    false,
+                    simulationRun,
+                    "Students arrive open-loop (%s), the last one %d seconds after the start.",
+                    simulation.getArrivalMode(),
+                    schedule.duration().toSeconds()
+                );
+            } else {
+                String sessions = simulation.hasScenario() ? "the scenario's sessions" : "pipelined sessions";
+                logAndSend(false, simulationRun, "Simulating %s.", sessions);
+                limit = concurrencyLimitFor(simulationRun);
+            }
+            Scenario scenario = simulation.hasScenario() ? Scenario.compile(simulation.getScenario()) : null;
+            boolean synchronisedStart = scenario != null
+                ? scenario.hasExamStart()
+                : simulation.isExamStartBarrier() || simulation.isExamStartSpike();
+            SyncPoint examStart = synchronisedStart ? new SyncPoint(numberOfUsers) : null;
+            if (examStart != null) {
+                cancellation.onCancel(examStart::open);
+            }
+            boolean examStartSpike = simulation.isExamStartSpike();
 
-            return requestStats;
+            // Sessions overlap from the start, so build jobs can be queued as soon as the first student gets there.
+            CiStatus status = ciStatusService.createCiStatus(simulationRun);
+            simulationRun.setCiStatus(status);
+
+            RequestStatCollector requestStats = new RequestStatCollector();
+            ConcurrencyLimit sessionLimit = limit;
+            IntConsumer session = i -> {
+                try {
+                    if (scenario != null) {
+                        var context = new Scenario.Context(courseId, examId, programmingExerciseId, examStart, sessionLimit);
+                        scenario.run(students[i], context, requestStats);
+                        return;
+                    }
+                    runExamSession(
+                        students[i],
+                        simulation,
+                        courseId,
+                        examId,
+                        programmingExerciseId,
+                        examStart,
+                        sessionLimit,
+                        requestStats,
+                        examStartSpike
+                    );
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (CancellationException e) {
+                    // The run was cancelled, which is not the server's failure.
+                } catch (Exception e) {
+                    requestStats.recordFailure();
+                    log.warn("Error during exam session of user {}: {}", i + 1, e.getMessage());
+                } finally {
+                    addFailedRequests(students[i], requestStats);
+                }
+            };
+            try (
+                StatsRollupWriter rollups = startStatsRollups(simulationRun, requestStats);
+                SampleJournalWriter journal = sampleJournalService.start(simulationRun, students);
+                SoakReport report = isSoak(simulation) ? startSoakReport(simulationRun, requestStats) : null
+            ) {
+                if (schedule != null) {
+                    SimulationConcurrency.forEachIndexAt(schedule, cancellation, session);
+                } else {
+                    try (ConcurrencyController controller = startConcurrencyController(simulationRun, limit, requestStats, loadStages)) {
+                        SimulationConcurrency.forEachIndex(limit, numberOfUsers, cancellation, session);
+                    }
+                }
+            }
+            if (examStartSpike) {
+                reportExamStartSpike(simulationRun, requestStats.getAggregate());
+            }
+            return requestStats.getAggregate();
         } catch (Exception e) {
             logAndSend(true, simulationRun, "Error while performing simulation: %s", e.getMessage());
             cleanupAsync(admin, simulationRun, courseId, examId);
             failSimulationRun(simulationRun);
             throw new SimulationFailedException("Error while performing simulation", e);
+        } finally {
+            endLastLoadStage(loadStages);
         }
     }
 
+    /**
+     * Performs the exam participations as whole sessions like {@link #simulateExamSessions}, but with every session a
+     * non-blocking pipeline, see {@link SimulatedArtemisStudent#examSession}. The sessions run on the HTTP event loops
+     * rather than on a thread each, so the ceiling on concurrent students is the much higher
+     * {@code benchmarking.simulation.max-reactive-concurrency}. Only the git operations of programming exercises take a
+     * thread, from a pool bounded by the usual ceiling. The stats of each step are handed to a small pool of their own, so
+     * that neither the collector nor its listeners hold up an event loop.
+     *
+     * @param simulationRun         the simulation run to perform the exam participations for
+     * @param students              the students to perform the exam participations with
+     * @param admin                 the admin to use for cleanup if necessary
+     * @param courseId              the ID of the course the exam is in
+     * @param examId                the ID of the exam to participate in
+     * @param programmingExerciseId the ID of the course programming exercise, or 0 if there is none
+     * @param cancellation          the token that cancels the run; once it is, no further session starts
+     * @return the aggregated request stats of all performed actions, up to the cancellation if the run was cancelled
+     * @throws SimulationFailedException if an error occurs while performing the simulations
+     */
+    private RequestStatAggregate simulateReactiveExamSessions(
+        SimulationRun simulationRun,
+        SimulatedArtemisStudent[] students,
+        SimulatedArtemisAdmin admin,
+        long courseId,
+        long examId,
+        long programmingExerciseId,
+        CancellationToken cancellation
+    ) {
+        int numberOfUsers = simulationRun.getSimulation().getNumberOfUsers();
+        int concurrency = SimulationConcurrency.concurrencyFor(numberOfUsers, maxReactiveConcurrency);
+        logAndSend(false, simulationRun, "Simulating reactive sessions, up to %d students at the same time.", concurrency);
+        Scheduler git = Schedulers.newBoundedElastic(maxConcurrency, Integer.MAX_VALUE, "simulation-git-" + simulationRun.getId());
+        // The collector and its listeners, such as the soak report, run off the event loops, which only make requests.
+        Scheduler stats = Schedulers.newParallel("simulation-stats-" + simulationRun.getId(), Schedulers.DEFAULT_POOL_SIZE);
+        try {
+            // Sessions overlap from the start, so build jobs can be queued as soon as the first student gets there.
+            CiStatus status = ciStatusService.createCiStatus(simulationRun);
+            simulationRun.setCiStatus(status);
+
+            RequestStatCollector requestStats = new RequestStatCollector();
+            try (
+                StatsRollupWriter rollups = startStatsRollups(simulationRun, requestStats);
+                SampleJournalWriter journal = sampleJournalService.start(simulationRun, students)
+            ) {
+                Flux.range(0, numberOfUsers)
+                    .takeWhile(i -> !cancellation.isCancelled())
+                    .flatMap(
+                        i ->
+                            students[i]
+                                .examSession(courseId, examId, programmingExerciseId, git)
+                                .publishOn(stats)
+                                .doOnNext(stats -> {
+                                    requestStats.addAll(stats);
+                                    addFailedRequests(students[i], requestStats);
+                                })
+                                .then()
+                                .onErrorResume(e -> {
+                                    addFailedRequests(students[i], requestStats);
+                                    if (!cancellation.isCancelled()) {
+                                        requestStats.recordFailure();
+                                        log.warn("Error during exam session of user {}: {}", i + 1, e.getMessage());
+                                    }
+                                    return Mono.empty();
+                                }),
+                        concurrency
+                    )
+                    .blockLast();
+            }
+            return requestStats.getAggregate();
+        } catch (Exception e) {
+            logAndSend(true, simulationRun, "Error while performing simulation: %s", e.getMessage());
+            cleanupAsync(admin, simulationRun, courseId, examId);
+            failSimulationRun(simulationRun);
+            throw new SimulationFailedException("Error while performing simulation", e);
+        } finally {
+            git.dispose();
+            stats.dispose();
+        }
+    }
+
+    /**
+     * Creates the concurrency limit of a closed-loop run and announces it.
+     *
+     * @param simulationRun the simulation run to create the limit for
+     * @return the limit, at the fixed ceiling or, with a concurrency profile or adaptive concurrency, until the
+     *         controller takes over
+     */
+    private ConcurrencyLimit concurrencyLimitFor(SimulationRun simulationRun) {
+        Simulation simulation = simulationRun.getSimulation();
+        if (simulation.isAdaptiveConcurrency()) {
+            logAndSend(
+                false,
+                simulationRun,
+                "Searching for the highest sustainable concurrency: adding %d students every %d seconds while p95 stays within %d ms and errors within %.1f%%, never more than %d.",
+                simulation.getAdaptiveStep(),
+                AdaptiveConcurrencyController.EVALUATION_INTERVAL.toSeconds(),
+                simulation.getSloLatencyMillis(),
+                simulation.getSloErrorRate() * 100,
+                maxConcurrency
+            );
+            return new ConcurrencyLimit(1);
+        }
+        if (hasConcurrencyProfile(simulation)) {
+            logAndSend(
+                false,
+                simulationRun,
+                "Following concurrency profile '%s', never more than %d students at the same time.",
+                simulation.getConcurrencyProfile(),
+                maxConcurrency
+            );
+            return new ConcurrencyLimit(1);
+        }
+        int concurrency = SimulationConcurrency.concurrencyFor(simulation.getNumberOfUsers(), maxConcurrency);
+        logAndSend(false, simulationRun, "Simulating up to %d students at the same time.", concurrency);
+        return new ConcurrencyLimit(concurrency);
+    }
+
+    /**
+     * Starts whatever changes the limit of a closed-loop run while it is live: the adaptive search for the highest
+     * sustainable concurrency, or the simulation's concurrency profile.
+     *
+     * @param simulationRun the simulation run to control
+     * @param limit         the limit to resize
+     * @param requestStats  the collector the run's stats arrive at
+     * @param loadStages    the list to add recorded profile stages to; only touched by the controller until it is closed
+     * @return the running controller, or {@code null} if the limit stays fixed
+     */
+    private ConcurrencyController startConcurrencyController(
+        SimulationRun simulationRun,
+        ConcurrencyLimit limit,
+        RequestStatCollector requestStats,
+        List<LoadStage> loadStages
+    ) {
+        if (simulationRun.getSimulation().isAdaptiveConcurrency()) {
+            return startAdaptiveConcurrency(simulationRun, limit, requestStats);
+        }
+        return followConcurrencyProfile(simulationRun, limit, loadStages);
+    }
+
+    /**
+     * Starts the adaptive search for the highest sustainable concurrency, fed by the stats as they arrive. Closing the
+     * returned controller stops the search and reports its result on the run.
+     *
+     * @param simulationRun the simulation run to control
+     * @param limit         the limit to resize
+     * @param requestStats  the collector the run's stats arrive at
+     * @return the running controller
+     */
+    private ConcurrencyController startAdaptiveConcurrency(
+        SimulationRun simulationRun,
+        ConcurrencyLimit limit,
+        RequestStatCollector requestStats
+    ) {
+        Simulation simulation = simulationRun.getSimulation();
+        AdaptiveConcurrencyController controller = new AdaptiveConcurrencyController(
+            limit,
+            simulation.getAdaptiveStep(),
+            maxConcurrency,
+            Duration.ofMillis(simulation.getSloLatencyMillis()),
+            simulation.getSloErrorRate(),
+            evaluation ->
+                logAndSend(
+                    false,
+                    simulationRun,
+                    "%d students: p50 %d ms, p95 %d ms, p99 %d ms, %.1f%% errors, %.1f requests/s, %s; continuing with %d.",
+                    evaluation.previousLevel(),
+                    Duration.ofNanos(evaluation.p50Nanos()).toMillis(),
+                    Duration.ofNanos(evaluation.p95Nanos()).toMillis(),
+                    Duration.ofNanos(evaluation.p99Nanos()).toMillis(),
+                    evaluation.errorRate() * 100,
+                    evaluation.throughput(),
+                    evaluation.withinSlo() ? "within the SLO" : "SLO breached",
+                    evaluation.nextLevel()
+                )
+        );
+        requestStats.addListener(
+            new RequestStatCollector.Listener() {
+                @Override
+                public void onRequestStats(List<RequestStat> stats) {
+                    for (RequestStat stat : stats) {
+                        if (stat.failed()) {
+                            controller.recordFailure();
+                        } else {
+                            controller.record(stat.duration());
+                        }
+                    }
+                }
+
+                @Override
+                public void onFailure() {
+                    controller.recordFailure();
+                }
+            }
+        );
+        controller.start();
+        return () -> {
+            controller.close();
+            simulationRun.setSustainedConcurrency(controller.sustainedConcurrency());
+            simulationRun.setSustainedThroughput(controller.sustainedThroughput());
+            if (controller.sustainedConcurrency() == 0) {
+                logAndSend(false, simulationRun, "No concurrency level held the SLO for a whole evaluation interval.");
+            } else {
+                logAndSend(
+                    false,
+                    simulationRun,
+                    "Highest concurrency sustained within the SLO: %d students at %.1f requests/s.",
+                    controller.sustainedConcurrency(),
+                    controller.sustainedThroughput()
+                );
+            }
+        };
+    }
+
+    /**
+     * Starts moving the limit along the simulation's concurrency profile, recording each stage as the run enters it.
+     *
+     * @param simulationRun the simulation run whose profile to follow
+     * @param limit         the limit to resize
+     * @param loadStages    the list to add the recorded stages to; only touched by the driver until it is closed
+     * @return the running driver, or {@code null} if the simulation has no profile
+     */
+    private ConcurrencyProfileDriver followConcurrencyProfile(
+        SimulationRun simulationRun,
+        ConcurrencyLimit limit,
+        List<LoadStage> loadStages
+    ) {
+        Simulation simulation = simulationRun.getSimulation();
+        if (!hasConcurrencyProfile(simulation)) {
+            return null;
+        }
+        ConcurrencyProfile profile = ConcurrencyProfile.parse(simulation.getConcurrencyProfile());
+        return ConcurrencyProfileDriver.start(limit, profile, maxConcurrency, stage -> {
+            ZonedDateTime now = ZonedDateTime.now();
+            endLastLoadStage(loadStages, now);
+            LoadStage loadStage = new LoadStage();
+            loadStage.setSimulationRun(simulationRun);
+            loadStage.setStageIndex(stage.index());
+            loadStage.setDescription(stage.description());
+            loadStage.setFromConcurrency(Math.min(stage.fromLevel(), maxConcurrency));
+            loadStage.setToConcurrency(Math.min(stage.toLevel(), maxConcurrency));
+            loadStage.setStartDateTime(now);
+            loadStages.add(loadStageRepository.save(loadStage));
+            logAndSend(
+                false,
+                simulationRun,
+                "Load stage %d of %d: %s.",
+                stage.index() + 1,
+                profile.stages().size(),
+                stage.description()
+            );
+        });
+    }
+
+    private void endLastLoadStage(List<LoadStage> loadStages) {
+        endLastLoadStage(loadStages, ZonedDateTime.now());
+    }
+
+    private void endLastLoadStage(List<LoadStage> loadStages, ZonedDateTime end) {
+        if (loadStages.isEmpty() || loadStages.getLast().getEndDateTime() != null) {
+            return;
+        }
+        LoadStage last = loadStages.getLast();
+        last.setEndDateTime(end);
+        loadStages.set(loadStages.size() - 1, loadStageRepository.save(last));
+    }
+
+    private static boolean hasConcurrencyProfile(Simulation simulation) {
+        return simulation.getConcurrencyProfile() != null && !simulation.getConcurrencyProfile().isBlank();
+    }
+
+    /**
+     * Runs one student's whole exam session, adding the stats of each step as soon as the step is done so that a
+     * later failure does not discard them.
+     *
+     * @param student               the student to run the session for
+     * @param simulation            the simulation the session belongs to
+     * @param courseId              the ID of the course the exam is in
+     * @param examId                the ID of the exam to participate in
+     * @param programmingExerciseId the ID of the course programming exercise, or 0 if there is none
+     * @param examStart             where to wait for the other students before starting the exam, or {@code null}
+     * @param limit                 the concurrency slot the session holds, or {@code null} if it holds none
+     * @param requestStats          the collector to add the stats to
+     * @param examStartSpike        whether to start the exam together with the others in a spike, or rather after waiting
+     *                              at {@code examStart} like any other step
+     * @throws InterruptedException if interrupted while waiting for the other students or while soaking
+     */
+    private static void runExamSession(
+        SimulatedArtemisStudent student,
+        Simulation simulation,
+        long courseId,
+        long examId,
+        long programmingExerciseId,
+        SyncPoint examStart,
+        ConcurrencyLimit limit,
+        RequestStatCollector requestStats,
+        boolean examStartSpike
+    ) throws InterruptedException {
+        if (examStartSpike) {
+            try {
+                requestStats.addAll(student.login());
+                requestStats.addAll(student.performInitialCalls());
+            } catch (RuntimeException e) {
+                examStart.leave();
+                throw e;
+            }
+            startExamTogether(student, simulation, courseId, examId, programmingExerciseId, examStart, limit, requestStats);
+        } else {
+            boolean reachedExamStart = false;
+            try {
+                requestStats.addAll(student.login());
+                requestStats.addAll(student.performInitialCalls());
+                reachedExamStart = true;
+                if (examStart != null) {
+                    examStart.await(limit);
+                }
+            } finally {
+                if (!reachedExamStart && examStart != null) {
+                    examStart.leave();
+                }
+            }
+            requestStats.addAll(student.startExamParticipation(courseId, examId, programmingExerciseId));
+        }
+        requestStats.addAll(student.participateInExam(courseId, examId));
+        if (isSoak(simulation)) {
+            soak(student, simulation, limit, requestStats);
+        }
+        requestStats.addAll(student.submitAndEndExam(courseId, examId));
+    }
+
+    /**
+     * Starts the exam for one student together with all the others: opens the course, waits until every student got
+     * that far and then, after the simulation's jitter, navigates into and starts the exam.
+     * <p>
+     * The student hands their concurrency slot back at the barrier like at any {@link SyncPoint}, but only takes it
+     * back once they are in the exam. Everyone released from the barrier therefore makes their start requests at once,
+     * beyond the ceiling, which is the whole point: the ceiling would spread the spike the way a real exam does not.
+     *
+     * @param student               the student to start the exam for
+     * @param simulation            the simulation with the jitter
+     * @param courseId              the ID of the course the exam is in
+     * @param examId                the ID of the exam
+     * @param programmingExerciseId the ID of the course programming exercise, or 0 if there is none
+     * @param examStart             where to wait for the other students
+     * @param limit                 the concurrency slot the student holds, or {@code null} if they hold none
+     * @param requestStats          the collector to add the stats to, those of the requests made after the release also as
+     *                              the spike
+     * @throws InterruptedException if interrupted while waiting for the other students
+     */
+    private static void startExamTogether(
+        SimulatedArtemisStudent student,
+        Simulation simulation,
+        long courseId,
+        long examId,
+        long programmingExerciseId,
+        SyncPoint examStart,
+        ConcurrencyLimit limit,
+        RequestStatCollector requestStats
+    ) throws InterruptedException {
+        try {
+            requestStats.addAll(student.openExamCourse(courseId, examId, programmingExerciseId));
+        } catch (RuntimeException e) {
+            examStart.leave();
+            throw e;
+        }
+        List<RequestStat> entered;
+        if (limit != null) {
+            limit.release();
+        }
+        try {
+            examStart.await(null);
+            int jitter = simulation.getExamStartJitterMillis();
+            if (jitter > 0) {
+                student.getCancellationToken().sleep(Duration.ofMillis(ThreadLocalRandom.current().nextLong(jitter + 1L)));
+            }
+            entered = student.enterExam(examId);
+        } finally {
+            if (limit != null) {
+                limit.acquireUninterruptibly();
+            }
+        }
+        requestStats.addAll(entered);
+        requestStats.addExamStartSpike(entered);
+    }
+
+    /**
+     * Logs how the server coped with the exam start spike.
+     *
+     * @param simulationRun the simulation run to log for
+     * @param requestStats  the stats of the run, with the requests made after the release
+     */
+    private void reportExamStartSpike(SimulationRun simulationRun, RequestStatAggregate requestStats) {
+        RequestStatAggregate.Series spike = requestStats.get(RequestType.EXAM_START_SPIKE, null);
+        Histogram durations = spike.histogram();
+        // The histogram holds the successful requests only.
+        if (durations.getTotalCount() == 0) {
+            return;
+        }
+        logAndSend(
+            false,
+            simulationRun,
+            "Exam start spike: %d requests succeeded, %d failed, median %d ms, 95th percentile %d ms, slowest %d ms.",
+            durations.getTotalCount(),
+            spike.failures(),
+            durations.getValueAtPercentile(50) / 1_000_000,
+            durations.getValueAtPercentile(95) / 1_000_000,
+            durations.getMaxValue() / 1_000_000
+        );
+    }
+
+    private static boolean isSoak(Simulation simulation) {
+        return simulation.getSoakDurationMinutes() > 0;
+    }
+
+    /**
+     * Keeps a student in the exam for the simulation's soak duration, autosaving on the simulation's cadence and
+     * pushing another change every {@link #SOAK_PUSH_INTERVAL}, the way students of a real exam keep the server busy
+     * between starting and handing in.
+     * <p>
+     * The student hands their concurrency slot back while waiting for the next autosave, as at a {@link SyncPoint}, so
+     * a soak keeps every student in the exam rather than only as many as the ceiling allows. A failed autosave is
+     * counted and the student carries on, since failures piling up late in a soak are exactly what it is there to find.
+     * The soak ends early if the run is cancelled.
+     *
+     * @param student      the student to keep in the exam
+     * @param simulation   the simulation with the soak settings
+     * @param limit        the concurrency slot the student holds, or {@code null} if they hold none
+     * @param requestStats the collector to add the stats to
+     * @throws InterruptedException if interrupted while waiting for the next autosave
+     */
+    private static void soak(
+        SimulatedArtemisStudent student,
+        Simulation simulation,
+        ConcurrencyLimit limit,
+        RequestStatCollector requestStats
+    ) throws InterruptedException {
+        long interval = Duration.ofSeconds(Math.max(1, simulation.getAutosaveIntervalSeconds())).toNanos();
+        long now = System.nanoTime();
+        long end = now + Duration.ofMinutes(simulation.getSoakDurationMinutes()).toNanos();
+        // Students open the exam within moments of each other. Starting each cadence at a random point of the first
+        // interval spreads the autosaves the way a real exam's students are spread, rather than all in the same second.
+        long nextAutosave = now + (long) (ThreadLocalRandom.current().nextDouble() * interval);
+        long nextPush = now + SOAK_PUSH_INTERVAL.toNanos();
+        CancellationToken cancellation = student.getCancellationToken();
+        while (nextAutosave < end) {
+            sleepWithoutSlot(nextAutosave - System.nanoTime(), limit, cancellation);
+            if (cancellation.isCancelled()) {
+                return;
+            }
+            boolean push = System.nanoTime() >= nextPush;
+            if (push) {
+                nextPush += SOAK_PUSH_INTERVAL.toNanos();
+            }
+            try {
+                requestStats.addAll(student.autosaveExam(push));
+            } catch (CancellationException e) {
+                return;
+            } catch (RuntimeException e) {
+                requestStats.recordFailure();
+            } finally {
+                addFailedRequests(student, requestStats);
+            }
+            // Like the exam client, the next autosave is due an interval after this one was due, not after it returned,
+            // unless the server was so slow that it is overdue already.
+            nextAutosave = Math.max(nextAutosave + interval, System.nanoTime());
+        }
+    }
+
+    /**
+     * Sleeps with the concurrency slot handed back, so that a student who is only waiting does not keep another from
+     * making requests.
+     *
+     * @param nanos        how long to sleep, nothing if not positive
+     * @param limit        the slot the caller holds, or {@code null} if they hold none
+     * @param cancellation the token that cuts the sleep short when the run is cancelled
+     * @throws InterruptedException if interrupted while sleeping
+     */
+    static void sleepWithoutSlot(long nanos, ConcurrencyLimit limit, CancellationToken cancellation) throws InterruptedException {
+        if (nanos <= 0) {
+            return;
+        }
+        if (limit != null) {
+            limit.release();
+        }
+        try {
+            cancellation.sleep(Duration.ofNanos(nanos));
+        } finally {
+            if (limit != null) {
+                limit.acquireUninterruptibly();
+            }
+        }
+    }
+
+    /**
+     * Starts writing a run's stats to the database while it is live, so that a run that fails before it gets to its
+     * result, or a tool that is stopped during a run, leaves the requests made up to the last flush behind.
+     *
+     * @param simulationRun the simulation run to write the stats of
+     * @param requestStats  the collector the run's stats arrive at, whose aggregate the writer reads
+     * @return the writer, to be closed once no more stats arrive, or {@code null} if live writes are turned off
+     */
+    private StatsRollupWriter startStatsRollups(SimulationRun simulationRun, RequestStatCollector requestStats) {
+        if (statsFlushIntervalSeconds <= 0) {
+            return null;
+        }
+        return new StatsRollupWriter(simulationRun, requestStats.getAggregate(), statsRollupRepository).start(
+            Duration.ofSeconds(statsFlushIntervalSeconds)
+        );
+    }
+
+    /**
+     * Starts reporting a soak minute by minute in the run's log, so that degradation shows while the run is still going
+     * rather than only in the per-minute stats of the result.
+     *
+     * @param simulationRun the simulation run to report for
+     * @param requestStats  the collector the soaking students add their stats to
+     * @return the report, to be closed once the soak is over
+     */
+    private SoakReport startSoakReport(SimulationRun simulationRun, RequestStatCollector requestStats) {
+        SoakReport report = new SoakReport();
+        requestStats.addListener(report);
+        report.thread = Thread.ofVirtual()
+            .name("soak-report-" + simulationRun.getId())
+            .start(() -> {
+                int minute = 0;
+                try {
+                    while (true) {
+                        Thread.sleep(Duration.ofMinutes(1));
+                        minute++;
+                        long requests = report.requests.sumThenReset();
+                        long totalNanos = report.totalNanos.sumThenReset();
+                        logAndSend(
+                            false,
+                            simulationRun,
+                            "Minute %d: %d requests, %d ms on average, %d failures.",
+                            minute,
+                            requests,
+                            requests == 0 ? 0 : totalNanos / requests / 1_000_000,
+                            report.failures.sumThenReset()
+                        );
+                    }
+                } catch (InterruptedException e) {
+                    // The soak is over.
+                }
+            });
+        return report;
+    }
+
+    /**
+     * Counts a soak's requests and failures for the minute-by-minute report.
+     */
+    private static final class SoakReport implements RequestStatCollector.Listener, AutoCloseable {
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private Thread thread;
+
+        @Override
+        public void onRequestStats(List<RequestStat> stats) {
+            for (RequestStat stat : stats) {
+                if (stat.failed()) {
+                    failures.increment();
+                } else {
+                    requests.increment();
+                    totalNanos.add(stat.duration());
+                }
+            }
+        }
+
+        @Override
+        public void onFailure() {
+            failures.increment();
+        }
+
+        @Override
+        public void close() {
+            thread.interrupt();
+        }
+    }
+
+    private static boolean isOpenLoop(Simulation simulation) {
+        return simulation.getArrivalMode() != null && simulation.getArrivalMode() != Simulation.ArrivalMode.CLOSED_LOOP;
+    }
+
+    /**
+     * Builds the arrival schedule of an open-loop simulation.
+     *
+     * @param simulation the simulation to build the schedule for
+     * @return the schedule, covering every student of the simulation
+     * @throws IllegalArgumentException if the simulation's arrival settings do not describe a usable schedule
+     */
+    private static ArrivalSchedule arrivalScheduleFor(Simulation simulation) {
+        int numberOfUsers = simulation.getNumberOfUsers();
+        return switch (simulation.getArrivalMode()) {
+            case CONSTANT_RATE -> ArrivalSchedule.constantRate(numberOfUsers, simulation.getArrivalRate());
+            case POISSON -> ArrivalSchedule.poisson(numberOfUsers, simulation.getArrivalRate(), new Random());
+            case RATE_CURVE -> ArrivalSchedule.rateCurve(numberOfUsers, simulation.getArrivalRateCurve());
+            case CLOSED_LOOP -> throw new IllegalArgumentException("A closed-loop simulation has no arrival schedule");
+        };
+    }
+
     /**
      * Sets the doNotSleep flag.
      * If the flag is set to true, the simulation will not wait for user group synchronization.
@@ -612,22 +1584,19 @@ public class SimulationExecutionService {
      * @throws SimulationFailedException if an error occurs while initializing the students
      */
     private SimulatedArtemisStudent[] initializeStudents(SimulationRun simulationRun) {
-        List<ArtemisUser> artemisUsers;
         Simulation simulation = simulationRun.getSimulation();
 
         try {
-            if (simulation.isCustomizeUserRange()) {
-                artemisUsers = artemisUserService.getUsersFromRange(simulation.getServer(), simulation.getUserRange());
-            } else {
-                artemisUsers = artemisUserService.getUsersFromRange(simulation.getServer(), "1-" + simulation.getNumberOfUsers());
-            }
+            List<ArtemisUser> artemisUsers = getArtemisUsers(simulation);
 
             SimulatedArtemisStudent[] users = new SimulatedArtemisStudent[artemisUsers.size()];
+            List<Persona> personas = assignPersonas(simulation, artemisUsers.size());
             int onlineIde, password, token, ssh;
             onlineIde = password = token = ssh = 0;
 
             for (int i = 0; i < artemisUsers.size(); i++) {
-                var mechanism = getArtemisAuthMechanism(simulation);
+                Persona persona = personas.get(i);
+                var mechanism = getArtemisAuthMechanism(simulation, persona);
                 switch (mechanism) {
                     case ONLINE_IDE -> onlineIde++;
                     case PASSWORD -> password++;
@@ -635,12 +1604,13 @@ public class SimulationExecutionService {
                     case SSH -> ssh++;
                 }
 
-                users[i] = SimulatedArtemisUser.createArtemisStudent(
-                    artemisConfiguration.getUrl(simulation.getServer()),
+                users[i] = createStudent(
+                    artemisConfiguration,
                     artemisUsers.get(i),
                     artemisUserService,
-                    simulation.getNumberOfCommitsAndPushesFrom(),
-                    simulation.getNumberOfCommitsAndPushesTo(),
+                    httpClients,
+                    simulation,
+                    persona,
                     mechanism
                 );
             }
@@ -661,6 +1631,11 @@ public class SimulationExecutionService {
                 token,
                 ssh
             );
+            if (simulation.hasPersonas()) {
+                Map<String, Long> perPersona = new TreeMap<>();
+                personas.forEach(persona -> perPersona.merge(persona.name(), 1L, Long::sum));
+                logAndSend(false, simulationRun, "Personas: %s", perPersona);
+            }
 
             return users;
         } catch (Exception e) {
@@ -671,29 +1646,64 @@ public class SimulationExecutionService {
     }
 
     /**
-     * Performs the given action for all users in parallel with the given number of threads.
-     * Collects all request stats and returns them as a list.
+     * Looks up the accounts of the students a simulation uses.
+     *
+     * @param simulation the simulation to look the accounts up for
+     * @return the accounts, in the order of their server-wide IDs
+     */
+    private List<ArtemisUser> getArtemisUsers(Simulation simulation) {
+        if (simulation.isCustomizeUserRange()) {
+            return artemisUserService.getUsersFromRange(simulation.getServer(), simulation.getUserRange());
+        }
+        return artemisUserService.getUsersFromRange(simulation.getServer(), "1-" + simulation.getNumberOfUsers());
+    }
+
+    /**
+     * Performs the given action for all users in parallel, never more at once than the given limit allows.
+     * Adds the request stats of every action to the collector as soon as the action is done.
      * <p>
      * If an exception occurs while performing the action for a user, the exception is logged and the user is skipped.
      * Exceptions occurring for one user do not affect the execution of the action for other users and are not rethrown.
      *
-     * @param threadCount   the number of threads to use
-     * @param numberOfUsers the number of users to perform the action for
-     * @param action        the action to perform
-     * @return a list of request stats for all performed actions
+     * @param limit        the limit on how many users may be in flight at once
+     * @param students     the users to perform the action for
+     * @param cancellation the token that stops users from starting the action, and ends it for those that have
+     * @param requestStats the collector to add the request stats to, with the requests that failed along the way
+     * @param action       the action to perform
      */
-    private List<RequestStat> performActionWithAll(int concurrency, int numberOfUsers, Function<Integer, List<RequestStat>> action) {
-        List<RequestStat> requestStats = Collections.synchronizedList(new ArrayList<>());
-
-        SimulationConcurrency.forEachIndex(concurrency, numberOfUsers, i -> {
+    private void performActionWithAll(
+        ConcurrencyLimit limit,
+        SimulatedArtemisStudent[] students,
+        CancellationToken cancellation,
+        RequestStatCollector requestStats,
+        Function<SimulatedArtemisStudent, List<RequestStat>> action
+    ) {
+        SimulationConcurrency.forEachIndex(limit, students.length, cancellation, i -> {
             try {
-                requestStats.addAll(action.apply(i));
+                requestStats.addAll(action.apply(students[i]));
+            } catch (CancellationException e) {
+                // The run was cancelled, which is not the server's failure.
             } catch (Exception e) {
+                requestStats.recordFailure();
                 log.warn("Error while performing action for user {}: {}", i + 1, e.getMessage());
+            } finally {
+                addFailedRequests(students[i], requestStats);
             }
         });
+    }
 
-        return requestStats;
+    /**
+     * Add the failed requests a student did not return with the stats of an action, see
+     * {@link SimulatedArtemisUser#takeFailedRequests()}. Call it on the thread the student acted on.
+     *
+     * @param student      the student
+     * @param requestStats the collector to add the failed requests to
+     */
+    private static void addFailedRequests(SimulatedArtemisUser student, RequestStatCollector requestStats) {
+        List<RequestStat> failed = student.takeFailedRequests();
+        if (!failed.isEmpty()) {
+            requestStats.addAll(failed);
+        }
     }
 
     /**
@@ -795,9 +1805,29 @@ public class SimulationExecutionService {
         simulationWebsocketService.sendRunLogMessage(simulationRun, savedLogMessage);
     }
 
+    /**
+     * Finishes a run that was still marked as running when this application started, because the tool was stopped or
+     * crashed during it. The requests written while it was live are saved as its result, and the run is marked failed.
+     *
+     * @param simulationRun the simulation run to finish
+     */
+    public void recoverAbandonedRun(SimulationRun simulationRun) {
+        boolean hasResult = simulationResultService.saveResultFromRollups(simulationRun);
+        if (hasResult) {
+            logAndSend(true, simulationRun, "The tool stopped during this run, keeping the requests saved up to then as its result.");
+        } else {
+            logAndSend(true, simulationRun, "The tool stopped during this run, before any of its requests were saved.");
+        }
+        simulationRun.setStatus(SimulationRun.Status.FAILED);
+        simulationRun.setEndDateTime(ZonedDateTime.now());
+        simulationRunRepository.save(simulationRun);
+    }
+
     /**
      * Sets the simulation run status to failed and sends a notification to the client via websockets.
      * Also sends a failure mail if the simulation run is part of a schedule.
+     * <p>
+     * Whatever the run wrote while it was live is saved as its result, so a run that fails late keeps its measurement.
      *
      * @param simulationRun the simulation run to fail
      */
@@ -805,6 +1835,7 @@ public class SimulationExecutionService {
         if (Thread.currentThread().isInterrupted()) {
             return;
         }
+        boolean hasResult = simulationResultService.saveResultFromRollups(simulationRun);
         if (simulationRun.getSchedule() != null) {
             LogMessage errorLogMessage = logMessageRepository
                 .findBySimulationRunIdAndErrorIsTrue(simulationRun.getId())
@@ -817,6 +1848,9 @@ public class SimulationExecutionService {
         simulationRun.setEndDateTime(ZonedDateTime.now());
         SimulationRun savedSimulationRun = simulationRunRepository.save(simulationRun);
         simulationWebsocketService.sendRunStatusUpdate(savedSimulationRun);
+        if (hasResult) {
+            simulationWebsocketService.sendSimulationResult(simulationRun);
+        }
     }
 
     /**
@@ -831,6 +1865,19 @@ public class SimulationExecutionService {
         simulationWebsocketService.sendRunStatusUpdate(savedSimulationRun);
     }
 
+    /**
+     * Sets the simulation run status to cancelled and sends a notification to the client via websockets.
+     *
+     * @param simulationRun the simulation run to cancel
+     */
+    private void cancelSimulationRun(SimulationRun simulationRun) {
+        logAndSend(true, simulationRun, "Run cancelled");
+        simulationRun.setStatus(SimulationRun.Status.CANCELLED);
+        simulationRun.setEndDateTime(ZonedDateTime.now());
+        SimulationRun savedSimulationRun = simulationRunRepository.save(simulationRun);
+        simulationWebsocketService.sendRunStatusUpdate(savedSimulationRun);
+    }
+
     /**
      * Sends the result of the given simulation run to the client via websockets.
      * Also sends a mail with the result if the simulation run is part of a schedule.
@@ -844,7 +1891,124 @@ public class SimulationExecutionService {
         }
     }
 
-    private ArtemisAuthMechanism getArtemisAuthMechanism(Simulation simulation) {
+    /**
+     * Creates a student of a simulation, acting as the given persona where it deviates from the simulation.
+     *
+     * @param artemisConfiguration the configuration of the Artemis servers
+     * @param artemisUser          the account of the student
+     * @param artemisUserService   the service to cache the student's token with
+     * @param httpClients          the source of the student's HTTP clients
+     * @param simulation           the simulation the student takes part in
+     * @param persona              the persona the student acts as, or {@code null} for none
+     * @param mechanism            how the student authenticates for git
+     * @return the student
+     * @throws IllegalArgumentException if a think time is malformed
+     */
+    static SimulatedArtemisStudent createStudent(
+        ArtemisConfiguration artemisConfiguration,
+        ArtemisUser artemisUser,
+        ArtemisUserService artemisUserService,
+        ArtemisHttpClients httpClients,
+        Simulation simulation,
+        Persona persona,
+        ArtemisAuthMechanism mechanism
+    ) {
+        boolean ownCommits = persona != null && persona.commitsFrom() != null;
+        SimulatedArtemisStudent student = SimulatedArtemisUser.createArtemisStudent(
+            artemisConfiguration.getUrl(simulation.getServer()),
+            artemisUser,
+            artemisUserService,
+            ownCommits ? persona.commitsFrom() : simulation.getNumberOfCommitsAndPushesFrom(),
+            ownCommits ? persona.commitsTo() : simulation.getNumberOfCommitsAndPushesTo(),
+            mechanism
+        );
+        applyThinkTimes(student, simulation);
+        student.setRateLimiter(artemisConfiguration.getRateLimiter(simulation.getServer()));
+        student.setHttpClients(httpClients, simulation.getConnectionPool() != Simulation.ConnectionPool.SHARED);
+        if (persona != null) {
+            student.setPersona(persona.name());
+            student.setExerciseOrder(persona.exerciseOrder());
+            student.setExamReloadsPerExercise(persona.reloadsPerExercise());
+            if (persona.thinkTimeRest() != null) {
+                student.setThinkTime(ActionCategory.REST, ThinkTime.parse(persona.thinkTimeRest()));
+            }
+            if (persona.thinkTimeGit() != null) {
+                student.setThinkTime(ActionCategory.GIT, ThinkTime.parse(persona.thinkTimeGit()));
+            }
+            if (persona.thinkTimeWebsocket() != null) {
+                student.setThinkTime(ActionCategory.WEBSOCKET, ThinkTime.parse(persona.thinkTimeWebsocket()));
+            }
+        }
+        return student;
+    }
+
+    /**
+     * Decides which persona each of a simulation's students acts as.
+     *
+     * @param simulation    the simulation
+     * @param numberOfUsers the number of students
+     * @return the persona of each student, all {@code null} if the simulation has no personas
+     * @throws IllegalArgumentException if the personas are malformed
+     */
+    static List<Persona> assignPersonas(Simulation simulation, int numberOfUsers) {
+        if (!simulation.hasPersonas()) {
+            return Collections.nCopies(numberOfUsers, null);
+        }
+        return Persona.assign(Persona.parseAll(simulation.getPersonas()), numberOfUsers, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Sets the simulation's think times on a student.
+     *
+     * @param student    the student to set the think times on
+     * @param simulation the simulation whose think times to use
+     * @throws IllegalArgumentException if a think time is malformed
+     */
+    static void applyThinkTimes(SimulatedArtemisStudent student, Simulation simulation) {
+        student.setThinkTime(ActionCategory.REST, ThinkTime.parse(simulation.getThinkTimeRest()));
+        student.setThinkTime(ActionCategory.GIT, ThinkTime.parse(simulation.getThinkTimeGit()));
+        student.setThinkTime(ActionCategory.WEBSOCKET, ThinkTime.parse(simulation.getThinkTimeWebsocket()));
+    }
+
+    /**
+     * Picks the authentication mechanism of one student at random, weighted by the simulation's percentages.
+     *
+     * @param simulation the simulation whose percentages to use
+     * @return the mechanism the student uses
+     */
+    static ArtemisAuthMechanism getArtemisAuthMechanism(Simulation simulation) {
+        return getArtemisAuthMechanism(simulation, null);
+    }
+
+    /**
+     * Picks the authentication mechanism of one student at random. A persona with its own online IDE percentage uses
+     * that instead of the simulation's, and splits the remaining students over the other mechanisms in the
+     * proportions of the simulation. If the simulation allows no other mechanism, they use the online IDE as well.
+     *
+     * @param simulation the simulation whose percentages to use
+     * @param persona    the persona the student acts as, or {@code null} for none
+     * @return the mechanism the student uses
+     */
+    static ArtemisAuthMechanism getArtemisAuthMechanism(Simulation simulation, Persona persona) {
+        if (persona != null && persona.onlineIdePercentage() != null) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextDouble() * 100 < persona.onlineIdePercentage()) {
+                return ArtemisAuthMechanism.ONLINE_IDE;
+            }
+            double local = simulation.getPasswordPercentage() + simulation.getTokenPercentage() + simulation.getSshPercentage();
+            if (local <= 0) {
+                // The simulation allows no other mechanism to split the rest over.
+                return ArtemisAuthMechanism.ONLINE_IDE;
+            }
+            double randomValue = random.nextDouble() * local;
+            if (randomValue < simulation.getPasswordPercentage()) {
+                return ArtemisAuthMechanism.PASSWORD;
+            } else if (randomValue < simulation.getPasswordPercentage() + simulation.getTokenPercentage()) {
+                return ArtemisAuthMechanism.PARTICIPATION_TOKEN;
+            } else {
+                return ArtemisAuthMechanism.SSH;
+            }
+        }
         Random random = new Random();
         double randomValue = random.nextDouble() * 100;
 
@@ -2,68 +2,117 @@ package de.tum.cit.aet.service.simulation;
 
 import de.tum.cit.aet.domain.SimulationRun;
 import de.tum.cit.aet.repository.SimulationRunRepository;
+import de.tum.cit.aet.util.ArtemisServer;
+import de.tum.cit.aet.util.CancellationToken;
+import java.time.Duration;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 /**
- * Service to manage the queue of simulation runs.
+ * Service to manage the queues of simulation runs.
+ * <p>
+ * Every Artemis server has its own lane: a queue and a thread that executes the runs from it one after the other.
+ * Runs against the same server still never overlap, since they would measure each other, but a long run against one
+ * server no longer holds up runs against another, which shares nothing with it.
+ * <p>
+ * What the lanes do share is the tool host, so at most {@code benchmarking.simulation.max-parallel-runs} runs execute
+ * at once across all lanes. A lane whose next run would exceed that waits until another lane finishes its run.
  */
 @Service
 public class SimulationQueueService {
 
+    /**
+     * Runs executing at once when nothing else is configured. Each run may have up to
+     * {@code benchmarking.simulation.max-concurrency} students in flight, so this multiplies the load on the tool host's
+     * CPU, sockets and disk; raise it only once the host has been shown to cope.
+     */
+    public static final int DEFAULT_MAX_PARALLEL_RUNS = 2;
+
+    /**
+     * How long a cancelled run gets to wind down when nothing else is configured. Enough for the requests in flight to
+     * complete on a struggling server; a run still going after that is interrupted, and loses what it measured.
+     */
+    public static final int DEFAULT_CANCEL_GRACE_PERIOD_SECONDS = 60;
+
     private final Logger log = LoggerFactory.getLogger(SimulationQueueService.class);
 
-    private final BlockingQueue<SimulationRun> simulationRunQueue;
+    private final Map<ArtemisServer, Lane> lanes = new EnumMap<>(ArtemisServer.class);
+    private final Semaphore runPermits;
+    private final Duration cancelGracePeriod;
     private final SimulationExecutionService simulationExecutionService;
     private final SimulationRunRepository simulationRunRepository;
-    private Thread simulatorThread;
 
-    public SimulationQueueService(SimulationExecutionService simulationExecutionService, SimulationRunRepository simulationRunRepository) {
-        this.simulationRunQueue = new LinkedBlockingQueue<>();
+    public SimulationQueueService(
+        SimulationExecutionService simulationExecutionService,
+        SimulationRunRepository simulationRunRepository,
+        @Value("${benchmarking.simulation.max-parallel-runs:" + DEFAULT_MAX_PARALLEL_RUNS + "}") int maxParallelRuns,
+        @Value(
+            "${benchmarking.simulation.cancel-grace-period-seconds:" + DEFAULT_CANCEL_GRACE_PERIOD_SECONDS + "}"
+        ) int cancelGracePeriodSeconds
+    ) {
         this.simulationExecutionService = simulationExecutionService;
         this.simulationRunRepository = simulationRunRepository;
+        this.runPermits = new Semaphore(Math.max(1, maxParallelRuns));
+        this.cancelGracePeriod = Duration.ofSeconds(Math.max(0, cancelGracePeriodSeconds));
+        for (ArtemisServer server : ArtemisServer.values()) {
+            lanes.put(server, new Lane(server));
+        }
+        recoverAbandonedRuns();
         initializeSimulationRunQueue();
-        restartSimulationExecution();
+        for (ArtemisServer server : ArtemisServer.values()) {
+            restartSimulationExecution(server);
+        }
     }
 
     /**
-     * Add a simulation run to the end of the queue.
+     * Add a simulation run to the end of the queue of its server.
      * <p>
      * Note: The status of the simulation run will not be updated here.
      * Make sure to update the status before adding the simulation run to the queue.
      * @param simulationRun the simulation run to add to the queue
      */
     public void queueSimulationRun(SimulationRun simulationRun) {
-        simulationRunQueue.add(simulationRun);
+        laneFor(simulationRun).queue.add(simulationRun);
     }
 
     /**
-     * Abort the Thread that executes the simulation runs. That results in the current simulation run being aborted.
+     * Abort the Thread that executes the simulation runs of the given server. That results in the server's current
+     * simulation run being aborted, while runs against other servers carry on.
+     *
+     * @param server the server whose execution to abort
      */
-    public synchronized void abortSimulationExecution() {
-        if (simulatorThread == null) {
-            throw new IllegalStateException("Simulation execution is not running");
-        }
-        log.info("Aborting simulation execution");
-        simulatorThread.interrupt();
-        simulatorThread = null;
+    public void abortSimulationExecution(ArtemisServer server) {
+        lanes.get(server).abort();
     }
 
     /**
-     * Start a new Thread that executes the simulation runs.
+     * Start a new Thread that executes the simulation runs of the given server.
+     *
+     * @param server the server whose execution to restart
      */
-    public synchronized void restartSimulationExecution() {
-        if (simulatorThread != null) {
-            throw new IllegalStateException("Simulation execution is already running");
-        }
-        log.info("Starting simulation execution");
-        simulatorThread = new Thread(this::executeSimulationRun);
-        simulatorThread.start();
+    public void restartSimulationExecution(ArtemisServer server) {
+        lanes.get(server).restart();
+    }
+
+    /**
+     * Cancel a simulation run that is executing. The run stops its students at their next request and saves what they
+     * measured so far as its result, see {@link SimulationExecutionService#simulateExam(SimulationRun, CancellationToken)}.
+     * A run that has not wound down after {@code benchmarking.simulation.cancel-grace-period-seconds} is interrupted.
+     *
+     * @param simulationRun the simulation run to cancel
+     * @return whether the run was executing and is now being cancelled, {@code false} if it is not executing here
+     */
+    public boolean cancelSimulationRun(SimulationRun simulationRun) {
+        return laneFor(simulationRun).cancel(simulationRun.getId());
     }
 
     /**
@@ -71,7 +120,7 @@ public class SimulationQueueService {
      * @param simulationRun the simulation run to remove
      */
     public void removeSimulationRunFromQueue(SimulationRun simulationRun) {
-        var result = simulationRunQueue.removeIf(r -> Objects.equals(r.getId(), simulationRun.getId()));
+        var result = laneFor(simulationRun).queue.removeIf(r -> Objects.equals(r.getId(), simulationRun.getId()));
         if (!result) {
             log.warn("Could not remove simulation run {} from queue", simulationRun.getId());
         } else {
@@ -79,27 +128,12 @@ public class SimulationQueueService {
         }
     }
 
-    /**
-     * Infinite loop that takes simulation runs from the queue and executes them.
-     * When no simulation runs are available, the thread is blocked until a new simulation run is added to the queue.
-     */
-    private void executeSimulationRun() {
-        try {
-            while (true) {
-                var run = simulationRunQueue.take();
-                try {
-                    simulationExecutionService.simulateExam(run);
-                } catch (Exception e) {
-                    log.error("Error while executing simulation run", e);
-                }
-            }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+    private Lane laneFor(SimulationRun simulationRun) {
+        return lanes.get(simulationRun.getSimulation().getServer());
     }
 
     /**
-     * Add all queued simulation runs from the database to the queue in the correct order.
+     * Add all queued simulation runs from the database to the queues in the correct order.
      */
     private void initializeSimulationRunQueue() {
         simulationRunRepository
@@ -108,4 +142,137 @@ public class SimulationQueueService {
             .sorted(Comparator.comparing(SimulationRun::getStartDateTime))
             .forEach(this::queueSimulationRun);
     }
+
+    /**
+     * Finish the runs that were executing when this application stopped. Nothing executes them anymore, but whatever
+     * they measured up to their last flush is still there.
+     */
+    private void recoverAbandonedRuns() {
+        for (SimulationRun simulationRun : simulationRunRepository.findAllByStatus(SimulationRun.Status.RUNNING)) {
+            log.warn("Simulation run {} was still running when the application stopped", simulationRun.getId());
+            try {
+                simulationExecutionService.recoverAbandonedRun(simulationRun);
+            } catch (RuntimeException e) {
+                log.error("Could not recover simulation run {}", simulationRun.getId(), e);
+            }
+        }
+    }
+
+    private boolean isStillQueued(SimulationRun simulationRun) {
+        return simulationRunRepository
+            .findById(simulationRun.getId())
+            .map(r -> r.getStatus() == SimulationRun.Status.QUEUED)
+            .orElse(false);
+    }
+
+    /**
+     * The queue and executing thread of one server.
+     */
+    private final class Lane {
+
+        private final ArtemisServer server;
+        private final BlockingQueue<SimulationRun> queue = new LinkedBlockingQueue<>();
+        private Thread simulatorThread;
+        private Long currentRunId;
+        private CancellationToken currentCancellation;
+
+        private Lane(ArtemisServer server) {
+            this.server = server;
+        }
+
+        private synchronized void abort() {
+            if (simulatorThread == null) {
+                throw new IllegalStateException("Simulation execution for " + server + " is not running");
+            }
+            log.info("Aborting simulation execution for {}", server);
+            simulatorThread.interrupt();
+            simulatorThread = null;
+        }
+
+        private boolean cancel(long runId) {
+            CancellationToken cancellation;
+            Thread thread;
+            synchronized (this) {
+                if (currentCancellation == null || currentRunId != runId) {
+                    return false;
+                }
+                cancellation = currentCancellation;
+                thread = simulatorThread;
+            }
+            // Outside the lock: cancelling closes every student's websocket.
+            cancellation.cancel();
+            Thread.ofVirtual()
+                .name("cancel-" + server.name().toLowerCase())
+                .start(() -> {
+                    try {
+                        Thread.sleep(cancelGracePeriod);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    synchronized (this) {
+                        if (currentCancellation == cancellation && simulatorThread == thread) {
+                            log.warn("Simulation run {} did not wind down within {}, interrupting it", runId, cancelGracePeriod);
+                            thread.interrupt();
+                        }
+                    }
+                });
+            return true;
+        }
+
+        private synchronized void restart() {
+            if (simulatorThread != null) {
+                throw new IllegalStateException("Simulation execution for " + server + " is already running");
+            }
+            log.info("Starting simulation execution for {}", server);
+            simulatorThread = new Thread(this::executeSimulationRuns, "simulation-" + server.name().toLowerCase());
+            simulatorThread.start();
+        }
+
+        /**
+         * Infinite loop that takes simulation runs from the queue and executes them.
+         * When no simulation runs are available, the thread is blocked until a new simulation run is added to the queue.
+         */
+        private void executeSimulationRuns() {
+            try {
+                while (true) {
+                    var run = queue.take();
+                    runPermits.acquire();
+                    try {
+                        // The run may have been deleted or cancelled while this lane waited for a permit.
+                        if (!isStillQueued(run)) {
+                            log.info("Skipping simulation run {}, it is no longer queued", run.getId());
+                            continue;
+                        }
+                        execute(run);
+                    } catch (Exception e) {
+                        log.error("Error while executing simulation run", e);
+                    } finally {
+                        runPermits.release();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void execute(SimulationRun run) {
+            var cancellation = new CancellationToken();
+            synchronized (this) {
+                currentRunId = run.getId();
+                currentCancellation = cancellation;
+            }
+            try {
+                simulationExecutionService.simulateExam(run, cancellation);
+            } finally {
+                synchronized (this) {
+                    currentRunId = null;
+                    currentCancellation = null;
+                }
+                if (cancellation.isCancelled()) {
+                    // An interrupt after the grace period was meant for the run, not for the lane waiting for the next.
+                    Thread.interrupted();
+                }
+            }
+        }
+    }
 }
@@ -2,211 +2,314 @@ package de.tum.cit.aet.service.simulation;
 
 import de.tum.cit.aet.domain.*;
 import de.tum.cit.aet.domain.RequestType;
+import de.tum.cit.aet.repository.EndpointStatsRepository;
 import de.tum.cit.aet.repository.SimulationStatsRepository;
 import de.tum.cit.aet.repository.StatsByMinuteRepository;
 import de.tum.cit.aet.repository.StatsBySecondRepository;
+import de.tum.cit.aet.repository.StatsRollupRepository;
+import jakarta.persistence.EntityManager;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import org.hibernate.Session;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Calculates the result of a simulation run and saves it to the database.
+ * <p>
+ * A result has a row per request type and minute and per request type and second, tens of thousands for a run of an
+ * hour. The whole result is built first and then saved in one transaction, in JDBC batches of {@value #BATCH_SIZE}
+ * rows, with ids taken from sequences in blocks rather than from identity columns, which would make every row an
+ * insert of its own.
+ */
 @Service
 public class SimulationResultService {
 
+    /**
+     * Rows per JDBC batch when saving a result, in step with the allocation size of the per-minute and per-second ids.
+     */
+    static final int BATCH_SIZE = 500;
+
     private final SimulationStatsRepository simulationStatsRepository;
     private final StatsByMinuteRepository statsByMinuteRepository;
     private final StatsBySecondRepository statsBySecondRepository;
+    private final StatsRollupRepository statsRollupRepository;
+    private final EndpointStatsRepository endpointStatsRepository;
+    private final EntityManager entityManager;
 
     public SimulationResultService(
         SimulationStatsRepository simulationStatsRepository,
         StatsByMinuteRepository statsByMinuteRepository,
-        StatsBySecondRepository statsBySecondRepository
+        StatsBySecondRepository statsBySecondRepository,
+        StatsRollupRepository statsRollupRepository,
+        EndpointStatsRepository endpointStatsRepository,
+        EntityManager entityManager
     ) {
         this.simulationStatsRepository = simulationStatsRepository;
         this.statsByMinuteRepository = statsByMinuteRepository;
         this.statsBySecondRepository = statsBySecondRepository;
+        this.statsRollupRepository = statsRollupRepository;
+        this.endpointStatsRepository = endpointStatsRepository;
+        this.entityManager = entityManager;
     }
 
     /**
-     * Calculate the simulation result and save it to the database.
+     * Calculate the simulation result and save it to the database, dropping the run's rollups in its place.
      * @param simulationRun the simulation run to calculate the result for
-     * @param requestStats the list of request stats from the simulation run
+     * @param requestStats the aggregated request stats of the simulation run
      * @return the simulation run with the result
      */
-    public SimulationRun calculateAndSaveResult(SimulationRun simulationRun, List<RequestStat> requestStats) {
-        SimulationStats totalStats = new SimulationStats();
-        totalStats.setSimulationRun(simulationRun);
-        totalStats.setNumberOfRequests(requestStats.size());
-        totalStats.setAvgResponseTime(getAverage(requestStats));
-        totalStats.setRequestType(RequestType.TOTAL);
-        Set<StatsByMinute> totalStatsByMinute = calculateStatsByMinute(requestStats);
-        Set<StatsBySecond> totalStatsBySecond = calculateStatsBySecond(requestStats);
-        simulationStatsRepository.save(totalStats);
-        totalStats.setStatsByMinute(totalStatsByMinute);
-        totalStatsByMinute.forEach(statsByMinute -> {
-            statsByMinute.setSimulationStats(totalStats);
-            statsByMinuteRepository.save(statsByMinute);
-        });
-        totalStats.setStatsBySecond(totalStatsBySecond);
-        totalStatsBySecond.forEach(statsByTenSec -> {
-            statsByTenSec.setSimulationStats(totalStats);
-            statsBySecondRepository.save(statsByTenSec);
-        });
-
-        SimulationStats authStats = calculateStatsForRequestType(requestStats, RequestType.AUTHENTICATION, simulationRun);
-
-        SimulationStats getStudentExamsStats = calculateStatsForRequestType(requestStats, RequestType.GET_STUDENT_EXAM, simulationRun);
-
-        SimulationStats startStudentExamStats = calculateStatsForRequestType(requestStats, RequestType.START_STUDENT_EXAM, simulationRun);
-
-        SimulationStats submitExerciseStats = calculateStatsForRequestType(requestStats, RequestType.SUBMIT_EXERCISE, simulationRun);
-
-        SimulationStats submitStudentExamStats = calculateStatsForRequestType(requestStats, RequestType.SUBMIT_STUDENT_EXAM, simulationRun);
-
-        SimulationStats miscStats = calculateStatsForRequestType(requestStats, RequestType.MISC, simulationRun);
-
-        SimulationStats serverTimeStats = calculateStatsForRequestType(requestStats, RequestType.SERVER_TIME, simulationRun);
-
-        SimulationStats websocketStats = calculateStatsForRequestType(requestStats, RequestType.WEBSOCKET, simulationRun);
-
+    @Transactional
+    public SimulationRun calculateAndSaveResult(SimulationRun simulationRun, RequestStatAggregate requestStats) {
         Simulation simulation = simulationRun.getSimulation();
         Set<SimulationStats> stats = Stream.of(
-            totalStats,
-            authStats,
-            getStudentExamsStats,
-            startStudentExamStats,
-            submitExerciseStats,
-            submitStudentExamStats,
-            miscStats,
-            serverTimeStats,
-            websocketStats,
-            simulation.getOnlineIdePercentage() > 0
-                ? calculateStatsForRequestType(requestStats, RequestType.PROGRAMMING_EXERCISE_RESULT, simulationRun)
-                : null,
-            simulation.getOnlineIdePercentage() > 0
-                ? calculateStatsForRequestType(requestStats, RequestType.REPOSITORY_INFO, simulationRun)
-                : null,
-            simulation.getOnlineIdePercentage() > 0
-                ? calculateStatsForRequestType(requestStats, RequestType.REPOSITORY_FILES, simulationRun)
-                : null,
-            simulation.getSshPercentage() > 0 ? calculateStatsForRequestType(requestStats, RequestType.CLONE_SSH, simulationRun) : null,
-            simulation.getSshPercentage() > 0 ? calculateStatsForRequestType(requestStats, RequestType.PUSH_SSH, simulationRun) : null,
-            simulation.getTokenPercentage() > 0 ? calculateStatsForRequestType(requestStats, RequestType.CLONE_TOKEN, simulationRun) : null,
-            simulation.getTokenPercentage() > 0 ? calculateStatsForRequestType(requestStats, RequestType.PUSH_TOKEN, simulationRun) : null,
-            simulation.getPasswordPercentage() > 0
-                ? calculateStatsForRequestType(requestStats, RequestType.CLONE_PASSWORD, simulationRun)
-                : null,
-            simulation.getPasswordPercentage() > 0
-                ? calculateStatsForRequestType(requestStats, RequestType.PUSH_PASSWORD, simulationRun)
-                : null
+            RequestType.TOTAL,
+            RequestType.AUTHENTICATION,
+            RequestType.GET_STUDENT_EXAM,
+            RequestType.START_STUDENT_EXAM,
+            RequestType.SUBMIT_EXERCISE,
+            RequestType.SUBMIT_STUDENT_EXAM,
+            RequestType.MISC,
+            RequestType.SERVER_TIME,
+            RequestType.WEBSOCKET,
+            RequestType.PAGE_LOAD,
+            simulation.getOnlineIdePercentage() > 0 ? RequestType.PROGRAMMING_EXERCISE_RESULT : null,
+            simulation.getOnlineIdePercentage() > 0 ? RequestType.REPOSITORY_INFO : null,
+            simulation.getOnlineIdePercentage() > 0 ? RequestType.REPOSITORY_FILES : null,
+            simulation.getSshPercentage() > 0 ? RequestType.CLONE_SSH : null,
+            simulation.getSshPercentage() > 0 ? RequestType.PUSH_SSH : null,
+            simulation.getTokenPercentage() > 0 ? RequestType.CLONE_TOKEN : null,
+            simulation.getTokenPercentage() > 0 ? RequestType.PUSH_TOKEN : null,
+            simulation.getPasswordPercentage() > 0 ? RequestType.CLONE_PASSWORD : null,
+            simulation.getPasswordPercentage() > 0 ? RequestType.PUSH_PASSWORD : null,
+            simulation.isExamStartSpike() ? RequestType.EXAM_START_SPIKE : null,
+            requestStats.get(RequestType.RATE_LIMIT_WAIT, null).count() > 0 ? RequestType.RATE_LIMIT_WAIT : null
         )
             .filter(Objects::nonNull)
-            .collect(Collectors.toSet());
+            .map(type -> toStats(requestStats.get(type, null), type, null, simulationRun))
+            .collect(Collectors.toCollection(HashSet::new));
 
+        if (simulation.hasPersonas()) {
+            // One total per persona, to tell which behaviour drives the load.
+            for (String persona : requestStats.personas()) {
+                stats.add(toStats(requestStats.get(RequestType.TOTAL, persona), RequestType.TOTAL, persona, simulationRun));
+            }
+        }
+
+        Set<EndpointStats> endpointStats = new HashSet<>();
+        requestStats.endpoints().forEach((endpoint, series) -> endpointStats.add(toEndpointStats(endpoint, series, simulationRun)));
+
+        save(stats);
+        endpointStatsRepository.saveAll(endpointStats);
+        // The rollups only stand in for a result the run did not get to, and would otherwise pile up with every run.
+        statsRollupRepository.deleteAllBySimulationRunId(simulationRun.getId());
         simulationRun.setStats(stats);
+        simulationRun.setEndpointStats(endpointStats);
         return simulationRun;
     }
 
-    private SimulationStats calculateStatsForRequestType(List<RequestStat> requestStats, RequestType type, SimulationRun simulationRun) {
-        SimulationStats simulationStats = new SimulationStats();
-        List<RequestStat> filteredRequestStats = requestStats
+    /**
+     * @param simulationRunId the ID of the simulation run
+     * @return the stats of each endpoint the run's requests went to, ordered by URI template and HTTP method, empty if
+     *     the run has no result or its result was calculated before endpoints were recorded
+     */
+    public List<EndpointStats> getEndpointStats(long simulationRunId) {
+        return endpointStatsRepository
+            .findAllBySimulationRunId(simulationRunId)
+            .stream()
+            .sorted(Comparator.comparing(EndpointStats::getUriTemplate).thenComparing(EndpointStats::getHttpMethod))
+            .toList();
+    }
+
+    /**
+     * Calculate a result from the per-second rollups written while the run was live and save it to the database, for a
+     * run that did not get to {@link #calculateAndSaveResult(SimulationRun, RequestStatAggregate)}.
+     * <p>
+     * The result has the totals, the request types that occurred and the persona totals, per minute and per second,
+     * covering the requests up to the run's last flush.
+     *
+     * @param simulationRun the simulation run to calculate the result for
+     * @return whether the run had any rollups, {@code false} if there was nothing to save
+     */
+    @Transactional
+    public boolean saveResultFromRollups(SimulationRun simulationRun) {
+        List<StatsRollup> rollups = statsRollupRepository.findAllBySimulationRunId(simulationRun.getId());
+        if (rollups.isEmpty()) {
+            return false;
+        }
+        // Same as the total of a complete result: rate limiter waits are not requests, and page loads span requests.
+        // The persona totals come rolled up under the total already, or under their types if rolled up before they did.
+        Set<RequestType> notInTotal = EnumSet.of(RequestType.EXAM_START_SPIKE, RequestType.PAGE_LOAD, RequestType.RATE_LIMIT_WAIT);
+        List<StatsRollup> typeRollups = rollups
             .stream()
-            .filter(stat -> stat.type() == type)
+            .filter(rollup -> rollup.getRequestType() != RequestType.TOTAL)
             .toList();
-        simulationStats.setNumberOfRequests(filteredRequestStats.size());
-        simulationStats.setAvgResponseTime(getAverage(filteredRequestStats));
+        Set<SimulationStats> stats = new HashSet<>();
+        stats.add(
+            toRollupStats(
+                typeRollups
+                    .stream()
+                    .filter(rollup -> !notInTotal.contains(rollup.getRequestType()))
+                    .toList(),
+                RequestType.TOTAL,
+                null,
+                simulationRun
+            )
+        );
+        typeRollups
+            .stream()
+            .collect(Collectors.groupingBy(StatsRollup::getRequestType, () -> new EnumMap<>(RequestType.class), Collectors.toList()))
+            .forEach((type, rollupsOfType) -> stats.add(toRollupStats(rollupsOfType, type, null, simulationRun)));
+        rollups
+            .stream()
+            .filter(rollup -> rollup.getPersona() != null && !notInTotal.contains(rollup.getRequestType()))
+            .collect(Collectors.groupingBy(StatsRollup::getPersona, TreeMap::new, Collectors.toList()))
+            .forEach((persona, personaRollups) -> stats.add(toRollupStats(personaRollups, RequestType.TOTAL, persona, simulationRun)));
+        save(stats);
+        simulationRun.setStats(stats);
+        return true;
+    }
+
+    /**
+     * Save a result with its per-minute and per-second stats, each kind in as few batches as it takes.
+     */
+    private void save(Collection<SimulationStats> stats) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(BATCH_SIZE);
+        simulationStatsRepository.saveAll(stats);
+        statsByMinuteRepository.saveAll(stats.stream().flatMap(result -> result.getStatsByMinute().stream()).toList());
+        statsBySecondRepository.saveAll(stats.stream().flatMap(result -> result.getStatsBySecond().stream()).toList());
+    }
+
+    private SimulationStats toRollupStats(List<StatsRollup> rollups, RequestType type, String persona, SimulationRun simulationRun) {
+        SimulationStats simulationStats = new SimulationStats();
+        long[] total = sum(rollups);
+        simulationStats.setNumberOfRequests(total[0]);
+        simulationStats.setAvgResponseTime(total[0] == 0 ? 0 : total[1] / total[0]);
+        simulationStats.setNumberOfFailures(total[2]);
         simulationStats.setRequestType(type);
+        simulationStats.setPersona(persona);
         simulationStats.setSimulationRun(simulationRun);
-        simulationStatsRepository.save(simulationStats);
-        Set<StatsByMinute> statsByMinutes = calculateStatsByMinute(filteredRequestStats);
-        simulationStats.setStatsByMinute(statsByMinutes);
-        statsByMinutes.forEach(statsByMinute -> {
+
+        Set<StatsByMinute> statsByMinutes = new HashSet<>();
+        groupRollups(rollups, ChronoUnit.MINUTES).forEach((dateTime, sums) -> {
+            StatsByMinute statsByMinute = new StatsByMinute();
+            statsByMinute.setDateTime(dateTime);
+            statsByMinute.setNumberOfRequests(sums[0]);
+            statsByMinute.setAvgResponseTime(sums[0] == 0 ? 0 : sums[1] / sums[0]);
+            statsByMinute.setNumberOfFailures(sums[2]);
             statsByMinute.setSimulationStats(simulationStats);
-            statsByMinuteRepository.save(statsByMinute);
+            statsByMinutes.add(statsByMinute);
         });
-        Set<StatsBySecond> statsBySecond = calculateStatsBySecond(filteredRequestStats);
-        simulationStats.setStatsBySecond(statsBySecond);
-        statsBySecond.forEach(statsByTenSec -> {
-            statsByTenSec.setSimulationStats(simulationStats);
-            statsBySecondRepository.save(statsByTenSec);
+        simulationStats.setStatsByMinute(statsByMinutes);
+
+        Set<StatsBySecond> statsBySeconds = new HashSet<>();
+        groupRollups(rollups, ChronoUnit.SECONDS).forEach((dateTime, sums) -> {
+            StatsBySecond statsBySecond = new StatsBySecond();
+            statsBySecond.setDateTime(dateTime);
+            statsBySecond.setNumberOfRequests(sums[0]);
+            statsBySecond.setAvgResponseTime(sums[0] == 0 ? 0 : sums[1] / sums[0]);
+            statsBySecond.setNumberOfFailures(sums[2]);
+            statsBySecond.setSimulationStats(simulationStats);
+            statsBySeconds.add(statsBySecond);
         });
+        simulationStats.setStatsBySecond(statsBySeconds);
         return simulationStats;
     }
 
-    private static long getAverage(Collection<RequestStat> times) {
-        if (times.isEmpty()) {
-            return 0;
+    /**
+     * Adds up the rollups into the number of requests, their summed response time and the number of failures.
+     */
+    private static long[] sum(Collection<StatsRollup> rollups) {
+        long[] sums = new long[3];
+        for (StatsRollup rollup : rollups) {
+            sums[0] += rollup.getNumberOfRequests();
+            sums[1] += rollup.getTotalResponseTime();
+            sums[2] += rollup.getNumberOfFailures();
         }
-        return times.stream().map(RequestStat::duration).reduce(0L, Long::sum) / times.size();
-    }
-
-    private static Set<StatsByMinute> calculateStatsByMinute(Collection<RequestStat> requestStats) {
-        Map<ZonedDateTime, Long> requestsByMinute = calculateRequestsByMinute(requestStats);
-        Map<ZonedDateTime, Double> avgResponseTimeByMinute = calculateAvgResponseTimeByMinute(requestStats);
-
-        return requestsByMinute
-            .keySet()
-            .stream()
-            .map(dateTime -> {
-                StatsByMinute statsByMinute = new StatsByMinute();
-                statsByMinute.setDateTime(dateTime);
-                statsByMinute.setNumberOfRequests(requestsByMinute.get(dateTime));
-                statsByMinute.setAvgResponseTime(avgResponseTimeByMinute.get(dateTime).longValue());
-                return statsByMinute;
-            })
-            .collect(Collectors.toSet());
+        return sums;
     }
 
-    private static Set<StatsBySecond> calculateStatsBySecond(Collection<RequestStat> requestStats) {
-        Map<ZonedDateTime, Long> requestsBySecond = calculateRequestsBySecond(requestStats);
-        Map<ZonedDateTime, Double> avgResponseTimeBySecond = calculateAvgResponseTimeBySecond(requestStats);
-
-        return requestsBySecond
-            .keySet()
-            .stream()
-            .map(dateTime -> {
-                StatsBySecond statsBySecond = new StatsBySecond();
-                statsBySecond.setDateTime(dateTime);
-                statsBySecond.setNumberOfRequests(requestsBySecond.get(dateTime));
-                statsBySecond.setAvgResponseTime(avgResponseTimeBySecond.get(dateTime).longValue());
-                return statsBySecond;
-            })
-            .collect(Collectors.toSet());
+    /**
+     * Adds up the rollups of each minute or second, several of which may cover the same second, like {@link #sum(Collection)}.
+     */
+    private static Map<ZonedDateTime, long[]> groupRollups(Collection<StatsRollup> rollups, ChronoUnit unit) {
+        Map<ZonedDateTime, long[]> grouped = new HashMap<>();
+        for (StatsRollup rollup : rollups) {
+            if (rollup.getNumberOfRequests() == 0 && rollup.getNumberOfFailures() == 0) {
+                continue;
+            }
+            long[] sums = grouped.computeIfAbsent(rollup.getDateTime().truncatedTo(unit), dateTime -> new long[3]);
+            sums[0] += rollup.getNumberOfRequests();
+            sums[1] += rollup.getTotalResponseTime();
+            sums[2] += rollup.getNumberOfFailures();
+        }
+        return grouped;
     }
 
-    private static Map<ZonedDateTime, Long> calculateRequestsByMinute(Collection<RequestStat> requestStats) {
-        return requestStats
-            .stream()
-            .collect(Collectors.groupingBy(stat -> stat.dateTime().truncatedTo(ChronoUnit.MINUTES), Collectors.counting()));
+    private static EndpointStats toEndpointStats(String endpoint, RequestStatAggregate.EndpointSeries series, SimulationRun simulationRun) {
+        EndpointStats endpointStats = new EndpointStats();
+        // Endpoints are named "METHOD template", see the interaction package.
+        int separator = endpoint.indexOf(' ');
+        String uriTemplate = endpoint.substring(separator + 1);
+        endpointStats.setHttpMethod(endpoint.substring(0, Math.max(separator, 0)));
+        endpointStats.setUriTemplate(uriTemplate.substring(0, Math.min(uriTemplate.length(), EndpointStats.MAX_URI_TEMPLATE_LENGTH)));
+        long count = series.count();
+        endpointStats.setNumberOfRequests(count);
+        endpointStats.setAvgResponseTime(count == 0 ? 0 : series.totalDuration() / count);
+        endpointStats.setNumberOfFailures(series.failures());
+        endpointStats.setStatusCodes(series.statuses());
+        endpointStats.setPercentiles(ResponseTimePercentiles.of(series.histogram()));
+        endpointStats.setTimings(RequestTimingBreakdown.of(series.totalTimings()));
+        endpointStats.setSimulationRun(simulationRun);
+        return endpointStats;
     }
 
-    private static Map<ZonedDateTime, Double> calculateAvgResponseTimeByMinute(Collection<RequestStat> requestStats) {
-        return requestStats
-            .stream()
-            .collect(
-                Collectors.groupingBy(
-                    stat -> stat.dateTime().truncatedTo(ChronoUnit.MINUTES),
-                    Collectors.averagingLong(RequestStat::duration)
-                )
-            );
-    }
+    private SimulationStats toStats(RequestStatAggregate.Series series, RequestType type, String persona, SimulationRun simulationRun) {
+        SimulationStats simulationStats = new SimulationStats();
+        long count = series.count();
+        simulationStats.setNumberOfRequests(count);
+        simulationStats.setAvgResponseTime(count == 0 ? 0 : series.totalDuration() / count);
+        simulationStats.setNumberOfFailures(series.failures());
+        simulationStats.setStatusCodes(series.statuses());
+        simulationStats.setPercentiles(ResponseTimePercentiles.of(series.histogram()));
+        simulationStats.setTimings(RequestTimingBreakdown.of(series.totalTimings()));
+        simulationStats.setRequestType(type);
+        simulationStats.setPersona(persona);
+        simulationStats.setSimulationRun(simulationRun);
 
-    private static Map<ZonedDateTime, Long> calculateRequestsBySecond(Collection<RequestStat> requestStats) {
-        return requestStats
-            .stream()
-            .collect(Collectors.groupingBy(stat -> stat.dateTime().truncatedTo(ChronoUnit.SECONDS), Collectors.counting()));
-    }
+        Set<StatsByMinute> statsByMinutes = new HashSet<>();
+        series
+            .byMinute()
+            .forEach((dateTime, sums) -> {
+                StatsByMinute statsByMinute = new StatsByMinute();
+                statsByMinute.setDateTime(dateTime);
+                statsByMinute.setNumberOfRequests(sums[0]);
+                statsByMinute.setAvgResponseTime(sums[0] == 0 ? 0 : sums[1] / sums[0]);
+                statsByMinute.setNumberOfFailures(RequestStatAggregate.Series.failuresOf(sums));
+                statsByMinute.setPercentiles(ResponseTimePercentiles.of(series.histogramOfMinute(dateTime)));
+                statsByMinute.setTimings(RequestTimingBreakdown.of(RequestStatAggregate.Series.timingsOf(sums)));
+                statsByMinute.setSimulationStats(simulationStats);
+                statsByMinutes.add(statsByMinute);
+            });
+        simulationStats.setStatsByMinute(statsByMinutes);
 
-    private static Map<ZonedDateTime, Double> calculateAvgResponseTimeBySecond(Collection<RequestStat> requestStats) {
-        return requestStats
-            .stream()
-            .collect(
-                Collectors.groupingBy(
-                    stat -> stat.dateTime().truncatedTo(ChronoUnit.SECONDS),
-                    Collectors.averagingLong(RequestStat::duration)
-                )
-            );
+        Set<StatsBySecond> statsBySeconds = new HashSet<>();
+        series
+            .bySecond()
+            .forEach((dateTime, sums) -> {
+                StatsBySecond statsBySecond = new StatsBySecond();
+                statsBySecond.setDateTime(dateTime);
+                statsBySecond.setNumberOfRequests(sums[0]);
+                statsBySecond.setAvgResponseTime(sums[0] == 0 ? 0 : sums[1] / sums[0]);
+                statsBySecond.setNumberOfFailures(RequestStatAggregate.Series.failuresOf(sums));
+                statsBySecond.setTimings(RequestTimingBreakdown.of(RequestStatAggregate.Series.timingsOf(sums)));
+                statsBySecond.setSimulationStats(simulationStats);
+                statsBySeconds.add(statsBySecond);
+            });
+        simulationStats.setStatsBySecond(statsBySeconds);
+        return simulationStats;
     }
 }
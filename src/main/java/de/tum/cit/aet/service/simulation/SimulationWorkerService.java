@@ -0,0 +1,304 @@
+package de.tum.cit.aet.service.simulation;
+
+import de.tum.cit.aet.domain.ArtemisUser;
+import de.tum.cit.aet.domain.Simulation;
+import de.tum.cit.aet.service.artemis.ArtemisConfiguration;
+import de.tum.cit.aet.service.artemis.ArtemisUserService;
+import de.tum.cit.aet.service.artemis.interaction.ArtemisHttpClients;
+import de.tum.cit.aet.service.artemis.interaction.SimulatedArtemisStudent;
+import de.tum.cit.aet.service.dto.WorkerAssignmentDTO;
+import de.tum.cit.aet.service.dto.WorkerPhaseDTO;
+import de.tum.cit.aet.service.dto.WorkerProgressDTO;
+import de.tum.cit.aet.util.CancellationToken;
+import de.tum.cit.aet.util.ConcurrencyLimit;
+import de.tum.cit.aet.util.Persona;
+import de.tum.cit.aet.util.RateLimiter;
+import de.tum.cit.aet.util.SimulationConcurrency;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * The worker side of a distributed simulation: simulates the students a coordinator assigned to this instance.
+ * <p>
+ * The coordinator prepares the exam and then drives every worker through the phases of the exam, telling each of them
+ * to start a phase at the same wall-clock moment, so the hosts' clocks stand in for the barrier a single host has
+ * between phases. In between it polls each worker for what its students did, which is drained from here on every
+ * poll, so the stats of a long phase reach the coordinator while the phase is still running. The requests travel
+ * summed up per second, see {@link RequestStatSlice}, so a poll stays small however many students a worker has.
+ * <p>
+ * Only active when {@code benchmarking.distributed.secret} is set; the coordinator sends the same secret with every
+ * request. Any instance of this application can be a worker, including another process on the same machine.
+ */
+@Service
+public class SimulationWorkerService {
+
+    private final Logger log = LoggerFactory.getLogger(SimulationWorkerService.class);
+
+    @Value("${benchmarking.distributed.secret:}")
+    private String secret;
+
+    @Value("${benchmarking.simulation.max-concurrency:" + SimulationConcurrency.DEFAULT_MAX_CONCURRENCY + "}")
+    private int maxConcurrency;
+
+    @Value("${benchmarking.simulation.cancel-grace-period-seconds:" + SimulationQueueService.DEFAULT_CANCEL_GRACE_PERIOD_SECONDS + "}")
+    private int cancelGracePeriodSeconds;
+
+    private final ArtemisConfiguration artemisConfiguration;
+    private final ArtemisUserService artemisUserService;
+    private final ArtemisHttpClients httpClients;
+
+    private final Map<String, Assignment> assignments = new ConcurrentHashMap<>();
+
+    public SimulationWorkerService(
+        ArtemisConfiguration artemisConfiguration,
+        ArtemisUserService artemisUserService,
+        ArtemisHttpClients httpClients
+    ) {
+        this.artemisConfiguration = artemisConfiguration;
+        this.artemisUserService = artemisUserService;
+        this.httpClients = httpClients;
+    }
+
+    /**
+     * Check the secret a coordinator sent.
+     *
+     * @param candidate the secret the coordinator sent
+     * @return whether this instance accepts work and the secret matches
+     */
+    public boolean isAuthorized(String candidate) {
+        if (secret == null || secret.isBlank() || candidate == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(secret.getBytes(StandardCharsets.UTF_8), candidate.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Accept an assignment and prepare its students, without logging them in yet.
+     *
+     * @param dto the assignment
+     * @return the number of students this worker simulates
+     * @throws IllegalArgumentException if an assignment with the same ID already exists or none of its users exist here
+     */
+    public int accept(WorkerAssignmentDTO dto) {
+        List<ArtemisUser> users = artemisUserService.getUsersFromRange(dto.server(), dto.userRange());
+        if (users.isEmpty()) {
+            throw new IllegalArgumentException("None of the users " + dto.userRange() + " exist for " + dto.server() + " on this worker");
+        }
+
+        Simulation settings = new Simulation();
+        settings.setServer(dto.server());
+        settings.setOnlineIdePercentage(dto.onlineIdePercentage());
+        settings.setPasswordPercentage(dto.passwordPercentage());
+        settings.setTokenPercentage(dto.tokenPercentage());
+        settings.setSshPercentage(dto.sshPercentage());
+        settings.setThinkTimeRest(dto.thinkTimeRest());
+        settings.setThinkTimeGit(dto.thinkTimeGit());
+        settings.setThinkTimeWebsocket(dto.thinkTimeWebsocket());
+        settings.setNumberOfCommitsAndPushesFrom(dto.numberOfCommitsAndPushesFrom());
+        settings.setNumberOfCommitsAndPushesTo(dto.numberOfCommitsAndPushesTo());
+        settings.setPersonas(dto.personas());
+        if (dto.connectionPool() != null) {
+            settings.setConnectionPool(dto.connectionPool());
+        }
+
+        // Each worker splits its own shard over the personas, which keeps the proportions to within one student each.
+        List<Persona> personas = SimulationExecutionService.assignPersonas(settings, users.size());
+        SimulatedArtemisStudent[] students = new SimulatedArtemisStudent[users.size()];
+        for (int i = 0; i < users.size(); i++) {
+            students[i] = SimulationExecutionService.createStudent(
+                artemisConfiguration,
+                users.get(i),
+                artemisUserService,
+                httpClients,
+                settings,
+                personas.get(i),
+                SimulationExecutionService.getArtemisAuthMechanism(settings, personas.get(i))
+            );
+        }
+        if (dto.maxRequestsPerSecond() > 0) {
+            // The coordinator's share for this worker replaces whatever this instance has configured for the server.
+            var rateLimiter = new RateLimiter(dto.maxRequestsPerSecond());
+            for (SimulatedArtemisStudent student : students) {
+                student.setRateLimiter(rateLimiter);
+            }
+        }
+
+        var cancellation = new CancellationToken();
+        for (SimulatedArtemisStudent student : students) {
+            student.setCancellationToken(cancellation);
+        }
+
+        var limit = new ConcurrencyLimit(SimulationConcurrency.concurrencyFor(students.length, maxConcurrency));
+        Assignment assignment = new Assignment(dto, students, limit, cancellation);
+        if (assignments.putIfAbsent(dto.id(), assignment) != null) {
+            throw new IllegalArgumentException("Assignment " + dto.id() + " already exists");
+        }
+        log.info("Accepted assignment {} with {} students on {}", dto.id(), students.length, dto.server());
+        return students.length;
+    }
+
+    /**
+     * Schedule a phase of an assignment. Returns immediately; the phase starts at the given moment, or right away if
+     * that moment has already passed.
+     *
+     * @param assignmentId the ID of the assignment
+     * @param phase        the phase and when to start it
+     * @throws NoSuchElementException if there is no such assignment
+     * @throws IllegalStateException  if the assignment is still busy with a phase
+     */
+    public void startPhase(String assignmentId, WorkerPhaseDTO phase) {
+        getAssignment(assignmentId).startPhase(phase.phase(), phase.startAt());
+    }
+
+    /**
+     * Take what an assignment did since the last call.
+     *
+     * @param assignmentId the ID of the assignment
+     * @return the progress, including the request stats collected since the last call
+     * @throws NoSuchElementException if there is no such assignment
+     */
+    public WorkerProgressDTO drainProgress(String assignmentId) {
+        return getAssignment(assignmentId).drainProgress();
+    }
+
+    /**
+     * Stop an assignment and forget it. Its students stop before their next request, and whatever they have in flight
+     * completes or times out as usual, like on a cancelled run of the coordinator. A phase that has not wound down
+     * after {@code benchmarking.simulation.cancel-grace-period-seconds} is interrupted.
+     *
+     * @param assignmentId the ID of the assignment
+     */
+    public void cancel(String assignmentId) {
+        Assignment assignment = assignments.remove(assignmentId);
+        if (assignment != null) {
+            assignment.cancel();
+            log.info("Removed assignment {}", assignmentId);
+        }
+    }
+
+    private Assignment getAssignment(String assignmentId) {
+        Assignment assignment = assignments.get(assignmentId);
+        if (assignment == null) {
+            throw new NoSuchElementException("Assignment " + assignmentId + " does not exist");
+        }
+        return assignment;
+    }
+
+    /**
+     * One accepted assignment and the state of its current phase.
+     */
+    private final class Assignment {
+
+        private final WorkerAssignmentDTO dto;
+        private final SimulatedArtemisStudent[] students;
+        private final ConcurrencyLimit limit;
+        private final CancellationToken cancellation;
+        private final RequestStatSlice requestStats = new RequestStatSlice();
+        private final AtomicInteger failures = new AtomicInteger();
+        private volatile ExamPhase completedPhase;
+        private volatile String error;
+        private Thread phaseThread;
+
+        private Assignment(
+            WorkerAssignmentDTO dto,
+            SimulatedArtemisStudent[] students,
+            ConcurrencyLimit limit,
+            CancellationToken cancellation
+        ) {
+            this.dto = dto;
+            this.students = students;
+            this.limit = limit;
+            this.cancellation = cancellation;
+        }
+
+        private synchronized void startPhase(ExamPhase phase, Instant startAt) {
+            if (phaseThread != null && phaseThread.isAlive()) {
+                throw new IllegalStateException("Assignment " + dto.id() + " is still busy with a phase");
+            }
+            phaseThread = Thread.ofVirtual()
+                .name("worker-" + dto.id())
+                .start(() -> {
+                    try {
+                        Duration delay = Duration.between(Instant.now(), startAt);
+                        if (delay.isPositive()) {
+                            cancellation.sleep(delay);
+                        }
+                        SimulationConcurrency.forEachIndex(limit, students.length, cancellation, i -> {
+                            try {
+                                var stats = phase.perform(students[i], dto.courseId(), dto.examId(), dto.programmingExerciseId());
+                                requestStats.recordAll(stats);
+                            } catch (CancellationException e) {
+                                // The assignment was cancelled, which is not the server's failure.
+                            } catch (Exception e) {
+                                failures.incrementAndGet();
+                                log.warn(
+                                    "Error while performing {} for user {} of assignment {}: {}",
+                                    phase,
+                                    i + 1,
+                                    dto.id(),
+                                    e.getMessage()
+                                );
+                            } finally {
+                                requestStats.recordAll(students[i].takeFailedRequests());
+                            }
+                        });
+                        if (!cancellation.isCancelled() && !Thread.currentThread().isInterrupted()) {
+                            completedPhase = phase;
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (RuntimeException e) {
+                        error = e.getMessage();
+                        log.error("Assignment {} failed during {}", dto.id(), phase, e);
+                    }
+                });
+        }
+
+        private WorkerProgressDTO drainProgress() {
+            // Read before draining: a phase is marked complete only after all of its stats were queued, so whatever
+            // phase is reported here has all of its stats in this response or an earlier one.
+            ExamPhase completed = completedPhase;
+            String currentError = error;
+            return new WorkerProgressDTO(completed, requestStats.drain(), failures.getAndSet(0), currentError);
+        }
+
+        private void cancel() {
+            Thread thread;
+            synchronized (this) {
+                thread = phaseThread;
+            }
+            cancellation.cancel();
+            Duration gracePeriod = Duration.ofSeconds(Math.max(0, cancelGracePeriodSeconds));
+            Thread.ofVirtual()
+                .name("cancel-worker-" + dto.id())
+                .start(() -> {
+                    try {
+                        if (thread != null && !thread.join(gracePeriod)) {
+                            log.warn("Assignment {} did not wind down within {}, interrupting it", dto.id(), gracePeriod);
+                            thread.interrupt();
+                            thread.join();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        // Only once nothing is in flight any more, so the requests that were are not cut off.
+                        for (SimulatedArtemisStudent student : students) {
+                            student.releaseConnections();
+                        }
+                    }
+                });
+        }
+    }
+}
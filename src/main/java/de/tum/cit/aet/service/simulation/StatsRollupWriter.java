@@ -0,0 +1,179 @@
+package de.tum.cit.aet.service.simulation;
+
+import de.tum.cit.aet.domain.RequestType;
+import de.tum.cit.aet.domain.SimulationRun;
+import de.tum.cit.aet.domain.StatsRollup;
+import de.tum.cit.aet.repository.StatsRollupRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes a run's requests to the database as per-second {@link StatsRollup}s while the run is live, so that a run
+ * that fails or is killed before it calculates its result still has what it measured up to the last flush.
+ * <p>
+ * The writer reads the per-second sums the run's {@link RequestStatAggregate} keeps anyway, every flush interval and
+ * once more on closing, so the students that record requests never notice it. Each flush only appends the difference
+ * to what the previous flushes wrote: a second that receives more requests after it was flushed gets another rollup,
+ * which {@link SimulationResultService#saveResultFromRollups(SimulationRun)} adds to the first. To keep that difference
+ * cheap, each series remembers what was flushed of its last {@value #GRACE_SECONDS} seconds only; a request recorded
+ * for a second older than that is in the result, but not in the rollups. A flush that fails remembers nothing, so the
+ * next one writes its rollups too, and a database hiccup delays rollups rather than losing them.
+ * <p>
+ * Rollups are written per request type, and for the totals of each persona, as the aggregate sums them up. The time
+ * requests were held back by the rate limiter is rolled up under {@link RequestType#RATE_LIMIT_WAIT}, like in the
+ * result. The exam start spike is not: its requests are rolled up under their own types, but telling them apart from
+ * the rest of the run takes the whole run. Failed requests are counted next to the others and left out of their
+ * response time, like in the result.
+ */
+final class StatsRollupWriter implements AutoCloseable {
+
+    /**
+     * Seconds between flushes when nothing else is configured: at most this much of a killed run is lost, at the cost of
+     * one batch insert per interval.
+     */
+    static final int DEFAULT_FLUSH_INTERVAL_SECONDS = 10;
+
+    /**
+     * How far before the latest second of a series its requests may still be recorded and make it into the rollups: more
+     * than a request waits on the rate limiter and for its response together.
+     */
+    static final int GRACE_SECONDS = 300;
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final Logger log = LoggerFactory.getLogger(StatsRollupWriter.class);
+
+    private final SimulationRun simulationRun;
+    private final RequestStatAggregate aggregate;
+    private final StatsRollupRepository statsRollupRepository;
+    private final CountDownLatch closed = new CountDownLatch(1);
+    // Only touched while flushing, which one thread does at a time.
+    private final Map<Key, Flushed> flushed = new HashMap<>();
+
+    StatsRollupWriter(SimulationRun simulationRun, RequestStatAggregate aggregate, StatsRollupRepository statsRollupRepository) {
+        this.simulationRun = simulationRun;
+        this.aggregate = aggregate;
+        this.statsRollupRepository = statsRollupRepository;
+    }
+
+    /**
+     * Start flushing every interval, until closed.
+     *
+     * @param interval the time between flushes
+     * @return this writer
+     */
+    StatsRollupWriter start(Duration interval) {
+        Thread.ofVirtual()
+            .name("stats-rollup-" + simulationRun.getId())
+            .start(() -> {
+                try {
+                    while (!closed.await(interval.toNanos(), TimeUnit.NANOSECONDS)) {
+                        flush();
+                    }
+                } catch (InterruptedException e) {
+                    // Closing flushes whatever is left.
+                }
+            });
+        return this;
+    }
+
+    /**
+     * Append what the aggregate recorded since the last flush to the database.
+     */
+    synchronized void flush() {
+        Map<Key, Flushed> flushing = new HashMap<>();
+        List<StatsRollup> rollups = new ArrayList<>();
+        for (RequestType type : RequestType.values()) {
+            if (type != RequestType.TOTAL && type != RequestType.EXAM_START_SPIKE) {
+                collect(new Key(type, null), flushing, rollups);
+            }
+        }
+        for (String persona : aggregate.personas()) {
+            collect(new Key(RequestType.TOTAL, persona), flushing, rollups);
+        }
+        if (rollups.isEmpty()) {
+            return;
+        }
+        try {
+            statsRollupRepository.saveAll(rollups);
+        } catch (RuntimeException e) {
+            log.warn(
+                "Could not save {} stats rollups of run {}, retrying with the next flush: {}",
+                rollups.size(),
+                simulationRun.getId(),
+                e.getMessage()
+            );
+            return;
+        }
+        flushing.forEach((key, current) -> flushed.put(key, Flushed.advance(flushed.getOrDefault(key, Flushed.NONE), current)));
+    }
+
+    /**
+     * Add a rollup of each second of the series that changed since the last flush, and the sums it changed to.
+     */
+    private void collect(Key key, Map<Key, Flushed> flushing, List<StatsRollup> rollups) {
+        Flushed previous = flushed.getOrDefault(key, Flushed.NONE);
+        Flushed current = new Flushed(previous.from(), new HashMap<>());
+        aggregate
+            .get(key.type(), key.persona())
+            .forEachSecondFrom(previous.from(), (epochSecond, sums) -> {
+                long[] now = { sums[0], sums[1], RequestStatAggregate.Series.failuresOf(sums) };
+                long[] before = previous.seconds().getOrDefault(epochSecond, new long[3]);
+                current.seconds().put(epochSecond, now);
+                if (now[0] == before[0] && now[2] == before[2]) {
+                    return;
+                }
+                StatsRollup rollup = new StatsRollup();
+                rollup.setDateTime(ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZONE));
+                rollup.setRequestType(key.type());
+                rollup.setPersona(key.persona());
+                rollup.setNumberOfRequests(now[0] - before[0]);
+                rollup.setTotalResponseTime(now[1] - before[1]);
+                rollup.setNumberOfFailures(now[2] - before[2]);
+                rollup.setSimulationRun(simulationRun);
+                rollups.add(rollup);
+            });
+        if (!current.seconds().isEmpty()) {
+            flushing.put(key, current);
+        }
+    }
+
+    /**
+     * Stop flushing and flush whatever is left.
+     */
+    @Override
+    public void close() {
+        closed.countDown();
+        flush();
+    }
+
+    private record Key(RequestType type, String persona) {}
+
+    /**
+     * What was flushed of the seconds of a series from the given one on: the number of requests, their summed response
+     * time and the number of failures of each.
+     */
+    private record Flushed(long from, Map<Long, long[]> seconds) {
+        static final Flushed NONE = new Flushed(Long.MIN_VALUE, Map.of());
+
+        /**
+         * @return the sums flushed now, less the seconds that are too old to be recorded to anymore
+         */
+        static Flushed advance(Flushed previous, Flushed current) {
+            long latest = current.seconds().keySet().stream().mapToLong(Long::longValue).max().orElseThrow();
+            long from = Math.max(previous.from(), latest - GRACE_SECONDS);
+            current.seconds().keySet().removeIf(epochSecond -> epochSecond < from);
+            return new Flushed(from, current.seconds());
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package de.tum.cit.aet.util;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Searches for the knee of the server's latency curve during a single run.
+ * <p>
+ * Finding how many students a system can take used to mean a series of runs at hand-picked ceilings, each read
+ * afterwards. This controller does the search live instead. It starts low and, every evaluation interval, looks at
+ * the requests completed during that interval: while their 95th percentile latency and error rate stay within the
+ * service level objective it adds a fixed step to the limit, and as soon as either is breached it halves the limit.
+ * That is the additive increase, multiplicative decrease rule TCP uses to find a link's capacity, and it settles the
+ * same way, oscillating just below the point where the server starts to bend.
+ * <p>
+ * The highest limit and throughput that held the objective for a whole interval are kept as the run's result. An
+ * interval with too few requests to judge by is skipped rather than counted either way.
+ * <p>
+ * Every student thread records into the controller, so recording takes no lock: the durations go into a
+ * {@link Recorder}, whose interval histogram the evaluation takes, and the failures into a {@link LongAdder}.
+ */
+public final class AdaptiveConcurrencyController implements ConcurrencyController {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveConcurrencyController.class);
+
+    /**
+     * How long each level is observed before deciding on the next one. Long enough that a level has time to show its
+     * effect on the queues behind the server, short enough that the search finishes within a normal run.
+     */
+    public static final Duration EVALUATION_INTERVAL = Duration.ofSeconds(15);
+
+    /**
+     * Fewer requests than this in an interval say more about chance than about the server.
+     */
+    static final int MIN_SAMPLES = 20;
+
+    private static final double DECREASE_FACTOR = 0.5;
+
+    private final ConcurrencyLimit limit;
+    private final int step;
+    private final int maxConcurrency;
+    private final long latencySloNanos;
+    private final double errorRateSlo;
+    private final Consumer<Evaluation> onEvaluation;
+
+    private final Recorder durations = LatencyHistograms.createRecorder();
+    private final LongAdder failures = new LongAdder();
+    // The requests of the interval so far, carried over while there are too few to judge by. Only evaluate() uses them.
+    private final Histogram window = LatencyHistograms.create();
+    private long failed;
+
+    private int level;
+    private long intervalStart;
+    private int sustainedConcurrency;
+    private double sustainedThroughput;
+    private Thread thread;
+
+    /**
+     * @param limit          the limit to steer
+     * @param step           how many students to add after every interval within the objective
+     * @param maxConcurrency the ceiling the search never goes beyond
+     * @param latencySlo     the highest acceptable 95th percentile latency
+     * @param errorRateSlo   the highest acceptable share of failed requests, between 0 and 1
+     * @param onEvaluation   called, on the controller's thread, with the outcome of every interval
+     */
+    public AdaptiveConcurrencyController(
+        ConcurrencyLimit limit,
+        int step,
+        int maxConcurrency,
+        Duration latencySlo,
+        double errorRateSlo,
+        Consumer<Evaluation> onEvaluation
+    ) {
+        this.limit = limit;
+        this.step = Math.max(1, step);
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.latencySloNanos = latencySlo.toNanos();
+        this.errorRateSlo = errorRateSlo;
+        this.onEvaluation = onEvaluation;
+        this.level = Math.min(this.step, this.maxConcurrency);
+        this.intervalStart = System.nanoTime();
+        limit.resize(level);
+    }
+
+    /**
+     * Start evaluating in the background, once every {@link #EVALUATION_INTERVAL}.
+     *
+     * @return this controller, to be closed when the run is over
+     */
+    public AdaptiveConcurrencyController start() {
+        intervalStart = System.nanoTime();
+        thread = Thread.ofVirtual()
+            .name("adaptive-concurrency")
+            .start(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    try {
+                        Thread.sleep(EVALUATION_INTERVAL);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    try {
+                        evaluate();
+                    } catch (RuntimeException e) {
+                        log.warn("Could not evaluate the concurrency level: {}", e.getMessage());
+                    }
+                }
+            });
+        return this;
+    }
+
+    /**
+     * Record a completed request. Safe to call from all student threads at once.
+     *
+     * @param durationNanos how long the request took
+     */
+    public void record(long durationNanos) {
+        durations.recordValue(Math.max(0, durationNanos));
+    }
+
+    /**
+     * Record a request or action that failed. Safe to call from all student threads at once.
+     */
+    public void recordFailure() {
+        failures.increment();
+    }
+
+    /**
+     * Judge the requests since the last evaluation against the objective and move the limit accordingly.
+     *
+     * @return the outcome, or {@code null} if there were too few requests to judge by
+     */
+    public synchronized Evaluation evaluate() {
+        long now = System.nanoTime();
+        window.add(durations.getIntervalHistogram());
+        failed += failures.sumThenReset();
+        long samples = window.getTotalCount();
+        if (samples + failed < MIN_SAMPLES) {
+            return null;
+        }
+        double seconds = (now - intervalStart) / 1e9;
+        intervalStart = now;
+        double errorRate = (double) failed / (samples + failed);
+        double throughput = samples / seconds;
+        long p50 = percentile(0.5);
+        long p95 = percentile(0.95);
+        long p99 = percentile(0.99);
+        boolean withinSlo = samples > 0 && p95 <= latencySloNanos && errorRate <= errorRateSlo;
+        window.reset();
+        failed = 0;
+
+        int previous = level;
+        if (withinSlo) {
+            if (previous > sustainedConcurrency || (previous == sustainedConcurrency && throughput > sustainedThroughput)) {
+                sustainedConcurrency = previous;
+                sustainedThroughput = throughput;
+            }
+            level = Math.min(previous + step, maxConcurrency);
+        } else {
+            level = Math.max(1, (int) (previous * DECREASE_FACTOR));
+        }
+        limit.resize(level);
+
+        Evaluation evaluation = new Evaluation(
+            previous,
+            level,
+            p50,
+            p95,
+            p99,
+            errorRate,
+            throughput,
+            withinSlo
+        );
+        onEvaluation.accept(evaluation);
+        return evaluation;
+    }
+
+    /**
+     * @return the highest limit that held the objective for a whole interval, or 0 if none did
+     */
+    public int sustainedConcurrency() {
+        return sustainedConcurrency;
+    }
+
+    /**
+     * @return the completed requests per second during the interval that established {@link #sustainedConcurrency()}
+     */
+    public double sustainedThroughput() {
+        return sustainedThroughput;
+    }
+
+    @Override
+    public void close() {
+        if (thread == null) {
+            return;
+        }
+        thread.interrupt();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long percentile(double quantile) {
+        return window.getValueAtPercentile(quantile * 100);
+    }
+
+    /**
+     * The outcome of one evaluation interval.
+     *
+     * @param previousLevel the limit during the interval
+     * @param nextLevel     the limit from now on
+     * @param p50Nanos      the median latency during the interval
+     * @param p95Nanos      the 95th percentile latency during the interval
+     * @param p99Nanos      the 99th percentile latency during the interval
+     * @param errorRate     the share of failed requests during the interval
+     * @param throughput    the completed requests per second during the interval
+     * @param withinSlo     whether the interval held the objective
+     */
+    public record Evaluation(
+        int previousLevel,
+        int nextLevel,
+        long p50Nanos,
+        long p95Nanos,
+        long p99Nanos,
+        double errorRate,
+        double throughput,
+        boolean withinSlo
+    ) {}
+}
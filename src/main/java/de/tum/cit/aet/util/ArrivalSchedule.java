@@ -0,0 +1,203 @@
+package de.tum.cit.aet.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * When each student of an open-loop run starts their session, as an offset from the start of the run.
+ * <p>
+ * A closed-loop run only lets the next request go once the previous one has been answered, so a server that slows
+ * down automatically receives fewer requests and looks better than it is. An open-loop run fixes the offered load
+ * instead: students arrive on a schedule that does not depend on how fast Artemis answers, and a slow server shows up
+ * as requests piling up, the way they do when a real exam starts.
+ * <p>
+ * Offsets are computed once, up front, so dispatching a student costs nothing beyond waiting for their moment.
+ */
+public final class ArrivalSchedule {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final long[] offsetsNanos;
+
+    private ArrivalSchedule(long[] offsetsNanos) {
+        this.offsetsNanos = offsetsNanos;
+    }
+
+    /**
+     * Students arrive evenly spaced at a fixed rate.
+     *
+     * @param count             the number of students
+     * @param studentsPerSecond the arrival rate
+     * @return the schedule
+     * @throws IllegalArgumentException if the rate is not positive
+     */
+    public static ArrivalSchedule constantRate(int count, double studentsPerSecond) {
+        requirePositiveRate(studentsPerSecond);
+        long[] offsets = new long[count];
+        for (int i = 0; i < count; i++) {
+            offsets[i] = (long) (i * NANOS_PER_SECOND / studentsPerSecond);
+        }
+        return new ArrivalSchedule(offsets);
+    }
+
+    /**
+     * Students arrive as a Poisson process with the given mean rate, i.e. with exponentially distributed gaps.
+     * <p>
+     * This is closer to how independent people show up than an even spacing is: arrivals bunch up by chance, and
+     * those bunches are exactly what a constant rate never tests.
+     *
+     * @param count             the number of students
+     * @param studentsPerSecond the mean arrival rate
+     * @param random            the source of randomness
+     * @return the schedule
+     * @throws IllegalArgumentException if the rate is not positive
+     */
+    public static ArrivalSchedule poisson(int count, double studentsPerSecond, RandomGenerator random) {
+        requirePositiveRate(studentsPerSecond);
+        long[] offsets = new long[count];
+        double seconds = 0;
+        for (int i = 0; i < count; i++) {
+            offsets[i] = (long) (seconds * NANOS_PER_SECOND);
+            seconds += random.nextExponential() / studentsPerSecond;
+        }
+        return new ArrivalSchedule(offsets);
+    }
+
+    /**
+     * Students arrive following a rate that changes over time.
+     * <p>
+     * The curve is a comma separated list of {@code second:rate} points, e.g. {@code 0:0, 300:5, 600:5, 660:20}. The
+     * rate is interpolated linearly between points and held at the last point's value afterwards. The n-th student
+     * arrives at the moment the area under the curve reaches n, so a curve describes the shape of the arrival wave and
+     * the number of students decides how much of it is used.
+     *
+     * @param count the number of students
+     * @param curve the rate curve
+     * @return the schedule
+     * @throws IllegalArgumentException if the curve is malformed or ends at a rate of zero before every student arrived
+     */
+    public static ArrivalSchedule rateCurve(int count, String curve) {
+        List<RatePoint> points = parseRateCurve(curve);
+        long[] offsets = new long[count];
+
+        int segment = 0;
+        double arrivedBeforeSegment = 0;
+        for (int i = 0; i < count; i++) {
+            // The first student arrives once the curve has accumulated a tiny amount, i.e. as soon as the rate is
+            // positive, rather than waiting for a whole student's worth of area.
+            double target = i == 0 ? Math.ulp(1.0) : i;
+            while (true) {
+                RatePoint from = points.get(segment);
+                if (segment == points.size() - 1) {
+                    if (from.rate() <= 0) {
+                        throw new IllegalArgumentException("Rate curve ends at zero before all " + count + " students arrived");
+                    }
+                    double seconds = from.second() + (target - arrivedBeforeSegment) / from.rate();
+                    offsets[i] = (long) (seconds * NANOS_PER_SECOND);
+                    break;
+                }
+                RatePoint to = points.get(segment + 1);
+                double length = to.second() - from.second();
+                double area = (from.rate() + to.rate()) / 2 * length;
+                if (arrivedBeforeSegment + area >= target) {
+                    double slope = (to.rate() - from.rate()) / length;
+                    double seconds = from.second() + secondsToAccumulate(from.rate(), slope, target - arrivedBeforeSegment);
+                    offsets[i] = (long) (seconds * NANOS_PER_SECOND);
+                    break;
+                }
+                arrivedBeforeSegment += area;
+                segment++;
+            }
+        }
+        return new ArrivalSchedule(offsets);
+    }
+
+    /**
+     * Parse a rate curve as accepted by {@link #rateCurve(int, String)}.
+     *
+     * @param curve the rate curve
+     * @return the points of the curve, in order
+     * @throws IllegalArgumentException if the curve is empty, malformed, has negative values or is not in order
+     */
+    public static List<RatePoint> parseRateCurve(String curve) {
+        if (curve == null || curve.isBlank()) {
+            throw new IllegalArgumentException("Rate curve must not be empty");
+        }
+        List<RatePoint> points = new ArrayList<>();
+        for (String part : curve.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Rate curve point '" + part.trim() + "' is not of the form second:rate");
+            }
+            double second;
+            double rate;
+            try {
+                second = Double.parseDouble(pair[0].trim());
+                rate = Double.parseDouble(pair[1].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Rate curve point '" + part.trim() + "' is not numeric", e);
+            }
+            if (second < 0 || rate < 0 || !Double.isFinite(second) || !Double.isFinite(rate)) {
+                throw new IllegalArgumentException("Rate curve point '" + part.trim() + "' must not be negative");
+            }
+            if (!points.isEmpty() && second <= points.getLast().second()) {
+                throw new IllegalArgumentException("Rate curve points must be in strictly increasing order of time");
+            }
+            points.add(new RatePoint(second, rate));
+        }
+        if (points.getFirst().second() != 0) {
+            // Before the first point nobody arrives, which is the same as a leading point at rate zero.
+            points.addFirst(new RatePoint(0, 0));
+        }
+        return points;
+    }
+
+    /**
+     * @param index the index of a student
+     * @return how long after the start of the run the student arrives, in nanoseconds
+     */
+    public long offsetNanos(int index) {
+        return offsetsNanos[index];
+    }
+
+    /**
+     * @return the number of students in the schedule
+     */
+    public int size() {
+        return offsetsNanos.length;
+    }
+
+    /**
+     * @return the time from the start of the run until the last student arrives
+     */
+    public Duration duration() {
+        return offsetsNanos.length == 0 ? Duration.ZERO : Duration.ofNanos(offsetsNanos[offsetsNanos.length - 1]);
+    }
+
+    /**
+     * Solve {@code rate * t + slope * t^2 / 2 = amount} for the smallest non-negative t.
+     */
+    private static double secondsToAccumulate(double rate, double slope, double amount) {
+        if (slope == 0) {
+            return amount / rate;
+        }
+        // Rounding can push the discriminant a hair below zero at the very end of a falling segment.
+        return (-rate + Math.sqrt(Math.max(0, rate * rate + 2 * slope * amount))) / slope;
+    }
+
+    private static void requirePositiveRate(double studentsPerSecond) {
+        if (!(studentsPerSecond > 0) || !Double.isFinite(studentsPerSecond)) {
+            throw new IllegalArgumentException("Arrival rate must be positive, was " + studentsPerSecond);
+        }
+    }
+
+    /**
+     * One point of a rate curve.
+     *
+     * @param second the time since the start of the run, in seconds
+     * @param rate   the arrival rate at that time, in students per second
+     */
+    public record RatePoint(double second, double rate) {}
+}
@@ -0,0 +1,92 @@
+package de.tum.cit.aet.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tells everything working on a simulation run that the run was cancelled, so it can stop at the next sensible point
+ * rather than wherever an interrupt happens to hit it.
+ * <p>
+ * Interrupting the run's threads cuts requests off halfway and leaves nobody to save what was measured so far. With a
+ * token, students stop before their next request instead: whatever is in flight completes or times out as usual, the
+ * students that have not started yet never do, and the run returns with the stats collected up to that point, which
+ * for a large run that was cancelled late are most of a result.
+ * <p>
+ * A token is cancelled at most once and stays cancelled. Actions registered with {@link #onCancel(Runnable)} run on
+ * the thread that cancels, so they must be quick, like closing a connection.
+ */
+public final class CancellationToken {
+
+    private final CountDownLatch cancelled = new CountDownLatch(1);
+    private final List<Runnable> callbacks = new ArrayList<>();
+
+    /**
+     * Cancel, waking every {@link #sleep(Duration) sleep} and running the registered actions. Does nothing if already
+     * cancelled.
+     */
+    public void cancel() {
+        List<Runnable> toRun;
+        synchronized (callbacks) {
+            if (isCancelled()) {
+                return;
+            }
+            cancelled.countDown();
+            toRun = List.copyOf(callbacks);
+            callbacks.clear();
+        }
+        for (Runnable callback : toRun) {
+            callback.run();
+        }
+    }
+
+    /**
+     * @return whether this token was cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled.getCount() == 0;
+    }
+
+    /**
+     * Stop here if this token was cancelled.
+     *
+     * @throws CancellationException if this token was cancelled
+     */
+    public void throwIfCancelled() {
+        if (isCancelled()) {
+            throw new CancellationException("The simulation run was cancelled");
+        }
+    }
+
+    /**
+     * Run an action once this token is cancelled, or right away if it already is.
+     *
+     * @param callback the action, run on the cancelling thread
+     */
+    public void onCancel(Runnable callback) {
+        synchronized (callbacks) {
+            if (!isCancelled()) {
+                callbacks.add(callback);
+                return;
+            }
+        }
+        callback.run();
+    }
+
+    /**
+     * Sleep for the given time, or until this token is cancelled if that comes first.
+     *
+     * @param duration how long to sleep, nothing if not positive
+     * @return whether the full time passed without this token being cancelled
+     * @throws InterruptedException if interrupted while sleeping
+     */
+    public boolean sleep(Duration duration) throws InterruptedException {
+        if (!duration.isPositive()) {
+            return !isCancelled();
+        }
+        return !cancelled.await(duration.toNanos(), TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,12 @@
+package de.tum.cit.aet.util;
+
+/**
+ * Something that changes a run's {@link ConcurrencyLimit} while the run is live, and stops doing so when closed.
+ */
+public interface ConcurrencyController extends AutoCloseable {
+    /**
+     * Stop changing the limit, leaving it where it is.
+     */
+    @Override
+    void close();
+}
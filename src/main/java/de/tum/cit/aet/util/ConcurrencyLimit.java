@@ -0,0 +1,91 @@
+package de.tum.cit.aet.util;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * The permits that bound how many students of a run are in flight at once.
+ * <p>
+ * A thin wrapper around a {@link Semaphore}, kept as its own type so that code running inside
+ * {@link SimulationConcurrency#forEachIndex(ConcurrencyLimit, int, java.util.function.IntConsumer)} can hand its permit
+ * back while it is only waiting for other students, see {@link SyncPoint}, and so that the limit can change while the
+ * run is live, see {@link #resize(int)}.
+ */
+public final class ConcurrencyLimit {
+
+    private final ResizableSemaphore permits;
+
+    private int limit;
+
+    /**
+     * @param concurrency how many students may be in flight at once
+     */
+    public ConcurrencyLimit(int concurrency) {
+        this.permits = new ResizableSemaphore(concurrency);
+        this.limit = concurrency;
+    }
+
+    /**
+     * Wait for a free slot.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        permits.acquire();
+    }
+
+    /**
+     * Wait for a free slot, ignoring interrupts. Only for taking back a slot the caller handed back a moment ago,
+     * where giving up would leave the caller's later {@link #release()} unbalanced.
+     */
+    public void acquireUninterruptibly() {
+        permits.acquireUninterruptibly();
+    }
+
+    /**
+     * Give a slot back.
+     */
+    public void release() {
+        permits.release();
+    }
+
+    /**
+     * Change how many students may be in flight at once.
+     * <p>
+     * Growing takes effect immediately. Shrinking never interrupts a student who is already running: the slots simply
+     * are not handed out again until the number in flight has dropped below the new limit.
+     *
+     * @param concurrency the new limit, at least one
+     */
+    public synchronized void resize(int concurrency) {
+        int delta = concurrency - limit;
+        if (delta > 0) {
+            permits.release(delta);
+        } else if (delta < 0) {
+            permits.reducePermits(-delta);
+        }
+        limit = concurrency;
+    }
+
+    /**
+     * @return how many students may currently be in flight at once
+     */
+    public synchronized int limit() {
+        return limit;
+    }
+
+    /**
+     * Exposes {@link Semaphore#reducePermits(int)}, which, unlike acquiring, may drive the available permits negative
+     * and so shrinks the limit without waiting for running students to finish.
+     */
+    private static final class ResizableSemaphore extends Semaphore {
+
+        ResizableSemaphore(int permits) {
+            super(permits);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package de.tum.cit.aet.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * How many students may be in flight at each moment of a run, as a sequence of stages.
+ * <p>
+ * A fixed ceiling puts the whole load on the server at once, which is neither how an exam starts nor how it ends: in
+ * the minutes before the start students trickle in, at the start nearly all of them act at once, and at the end they
+ * leave one by one. A profile describes that shape, and because each stage is a known load level, the latency measured
+ * during it can be read as the server's answer to that level.
+ * <p>
+ * A profile is a comma separated list of stages, each a keyword followed by its arguments:
+ * <ul>
+ * <li>{@code start <level>} sets the level the run starts at, 1 if omitted; only allowed first</li>
+ * <li>{@code ramp <seconds> <level>} changes the level linearly to {@code level} over {@code seconds}</li>
+ * <li>{@code step <seconds> <level>} jumps to {@code level} and keeps it for {@code seconds}</li>
+ * <li>{@code hold <seconds>} keeps the current level for {@code seconds}, the plateau</li>
+ * <li>{@code spike <seconds> <level>} jumps to {@code level} for {@code seconds}, then back to where it was</li>
+ * </ul>
+ * For example {@code start 10, ramp 600 200, hold 900, spike 60 500, ramp 300 1}. After the last stage the level stays
+ * where it ended until every student is done.
+ */
+public final class ConcurrencyProfile {
+
+    private final List<Stage> stages;
+
+    private final int finalLevel;
+
+    private ConcurrencyProfile(List<Stage> stages, int finalLevel) {
+        this.stages = stages;
+        this.finalLevel = finalLevel;
+    }
+
+    /**
+     * Parse a profile in the format described in the class documentation.
+     *
+     * @param profile the profile
+     * @return the parsed profile
+     * @throws IllegalArgumentException if the profile is empty or malformed
+     */
+    public static ConcurrencyProfile parse(String profile) {
+        if (profile == null || profile.isBlank()) {
+            throw new IllegalArgumentException("Concurrency profile must not be empty");
+        }
+        String[] parts = profile.split(",");
+        int level = 1;
+        int first = 0;
+        String[] startTokens = parts[0].trim().split("\\s+");
+        if (startTokens[0].equalsIgnoreCase("start")) {
+            requireArguments(parts[0], startTokens, 1);
+            level = parseLevel(parts[0], startTokens[1]);
+            first = 1;
+        }
+
+        List<Stage> stages = new ArrayList<>();
+        double second = 0;
+        for (int i = first; i < parts.length; i++) {
+            String part = parts[i].trim();
+            String[] tokens = part.split("\\s+");
+            Kind kind;
+            try {
+                kind = Kind.valueOf(tokens[0].toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown concurrency profile stage '" + part + "'", e);
+            }
+            double seconds = parseSeconds(part, tokens, kind);
+            int target = kind == Kind.HOLD ? level : parseLevel(part, tokens[2]);
+            int from = kind == Kind.RAMP ? level : target;
+            stages.add(new Stage(stages.size(), kind, part, second, second + seconds, from, target));
+            second += seconds;
+            if (kind != Kind.SPIKE) {
+                level = target;
+            }
+        }
+        return new ConcurrencyProfile(List.copyOf(stages), level);
+    }
+
+    /**
+     * @param seconds the time since the start of the run
+     * @return how many students may be in flight at that time
+     */
+    public int levelAt(double seconds) {
+        Stage stage = stageAt(seconds);
+        if (stage == null) {
+            // The first stage starts at zero, so this is after the last one.
+            return finalLevel;
+        }
+        if (stage.kind() != Kind.RAMP) {
+            return stage.toLevel();
+        }
+        double progress = (seconds - stage.startSecond()) / (stage.endSecond() - stage.startSecond());
+        return (int) Math.round(stage.fromLevel() + progress * (stage.toLevel() - stage.fromLevel()));
+    }
+
+    /**
+     * @param seconds the time since the start of the run
+     * @return the stage the run is in at that time, or {@code null} before the first or after the last stage
+     */
+    public Stage stageAt(double seconds) {
+        for (Stage stage : stages) {
+            if (seconds >= stage.startSecond() && seconds < stage.endSecond()) {
+                return stage;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the stages, in order
+     */
+    public List<Stage> stages() {
+        return stages;
+    }
+
+    private static double parseSeconds(String part, String[] tokens, Kind kind) {
+        requireArguments(part, tokens, kind == Kind.HOLD ? 1 : 2);
+        double seconds;
+        try {
+            seconds = Double.parseDouble(tokens[1]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Concurrency profile stage '" + part + "' has a non-numeric duration", e);
+        }
+        if (!(seconds > 0) || !Double.isFinite(seconds)) {
+            throw new IllegalArgumentException("Concurrency profile stage '" + part + "' must last a positive number of seconds");
+        }
+        return seconds;
+    }
+
+    private static int parseLevel(String part, String token) {
+        int level;
+        try {
+            level = Integer.parseInt(token);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Concurrency profile stage '" + part.trim() + "' has a non-numeric level", e);
+        }
+        if (level < 1) {
+            throw new IllegalArgumentException("Concurrency profile stage '" + part.trim() + "' must have a level of at least 1");
+        }
+        return level;
+    }
+
+    private static void requireArguments(String part, String[] tokens, int arguments) {
+        if (tokens.length != arguments + 1) {
+            throw new IllegalArgumentException(
+                "Concurrency profile stage '" + part.trim() + "' needs " + arguments + (arguments == 1 ? " argument" : " arguments")
+            );
+        }
+    }
+
+    /**
+     * The kinds of stages a profile is made of.
+     */
+    public enum Kind {
+        RAMP,
+        STEP,
+        HOLD,
+        SPIKE,
+    }
+
+    /**
+     * One stage of a profile.
+     *
+     * @param index       the position of the stage in the profile, starting at zero
+     * @param kind        what the stage does
+     * @param description the stage as written in the profile
+     * @param startSecond when the stage starts, in seconds since the start of the run
+     * @param endSecond   when the stage ends, in seconds since the start of the run
+     * @param fromLevel   the level at the start of the stage
+     * @param toLevel     the level at the end of the stage
+     */
+    public record Stage(int index, Kind kind, String description, double startSecond, double endSecond, int fromLevel, int toLevel) {}
+}
@@ -0,0 +1,85 @@
+package de.tum.cit.aet.util;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Moves a {@link ConcurrencyLimit} along a {@link ConcurrencyProfile} while a run is live.
+ * <p>
+ * A background virtual thread re-reads the profile a few times a second and resizes the limit, so a ramp rises in
+ * small steps rather than in one jump per stage. Closing the driver stops it and leaves the limit where it was.
+ */
+public final class ConcurrencyProfileDriver implements ConcurrencyController {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyProfileDriver.class);
+
+    private static final Duration TICK = Duration.ofMillis(100);
+
+    private final Thread thread;
+
+    private ConcurrencyProfileDriver(Thread thread) {
+        this.thread = thread;
+    }
+
+    /**
+     * Set the limit to the start of the profile and keep it following the profile from now on.
+     *
+     * @param limit          the limit to resize
+     * @param profile        the profile to follow
+     * @param maxConcurrency the ceiling no stage may exceed, whatever the profile says
+     * @param onStageStart   called, on the driver's thread, whenever the run enters a new stage
+     * @return the running driver, to be closed when the run is over
+     */
+    public static ConcurrencyProfileDriver start(
+        ConcurrencyLimit limit,
+        ConcurrencyProfile profile,
+        int maxConcurrency,
+        Consumer<ConcurrencyProfile.Stage> onStageStart
+    ) {
+        long start = System.nanoTime();
+        limit.resize(clamp(profile.levelAt(0), maxConcurrency));
+        Thread thread = Thread.ofVirtual()
+            .name("concurrency-profile")
+            .start(() -> {
+                ConcurrencyProfile.Stage current = null;
+                while (!Thread.currentThread().isInterrupted()) {
+                    double seconds = (System.nanoTime() - start) / 1e9;
+                    ConcurrencyProfile.Stage stage = profile.stageAt(seconds);
+                    if (stage != null && stage != current) {
+                        try {
+                            onStageStart.accept(stage);
+                        } catch (RuntimeException e) {
+                            log.warn("Could not record the start of load stage {}: {}", stage.index() + 1, e.getMessage());
+                        }
+                    }
+                    current = stage;
+                    limit.resize(clamp(profile.levelAt(seconds), maxConcurrency));
+                    try {
+                        Thread.sleep(TICK);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            });
+        return new ConcurrencyProfileDriver(thread);
+    }
+
+    /**
+     * Stop following the profile and wait for the driver's thread to end.
+     */
+    @Override
+    public void close() {
+        thread.interrupt();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int clamp(int level, int maxConcurrency) {
+        return Math.max(1, Math.min(level, maxConcurrency));
+    }
+}
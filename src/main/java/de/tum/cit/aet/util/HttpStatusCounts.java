@@ -0,0 +1,57 @@
+package de.tum.cit.aet.util;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+
+/**
+ * (De)serializes how many requests got each HTTP status, for the text column results keep them in.
+ * <p>
+ * A result sees a handful of distinct statuses, so they are stored as {@code status=count} pairs separated by commas,
+ * e.g. {@code 200=18234,429=12,503=3}, rather than as a row each. Status 0 counts the failed requests that got no
+ * response at all, like timeouts.
+ */
+public final class HttpStatusCounts {
+
+    private HttpStatusCounts() {}
+
+    /**
+     * @param counts the number of requests with each status
+     * @return the serialized counts, or {@code null} if there are none
+     */
+    public static String encode(Map<Integer, Long> counts) {
+        if (counts == null || counts.isEmpty()) {
+            return null;
+        }
+        StringJoiner encoded = new StringJoiner(",");
+        new TreeMap<>(counts).forEach((status, count) -> encoded.add(status + "=" + count));
+        return encoded.toString();
+    }
+
+    /**
+     * Deserialize counts serialized with {@link #encode(Map)}.
+     *
+     * @param encoded the serialized counts, or {@code null} for none
+     * @return the number of requests with each status, by status
+     * @throws IllegalArgumentException if the text is not serialized counts
+     */
+    public static SortedMap<Integer, Long> decode(String encoded) {
+        SortedMap<Integer, Long> counts = new TreeMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return counts;
+        }
+        for (String pair : encoded.split(",")) {
+            int separator = pair.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Not serialized status counts: " + encoded);
+            }
+            try {
+                counts.put(Integer.parseInt(pair.substring(0, separator)), Long.parseLong(pair.substring(separator + 1)));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not serialized status counts: " + encoded, e);
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,70 @@
+package de.tum.cit.aet.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Creates and (de)serializes the histograms that simulation results keep of their response times.
+ * <p>
+ * An average hides the slow tail of requests that students actually notice, and percentiles cannot be combined once
+ * calculated: the 99th percentile of two minutes is not any function of their two 99th percentiles. A histogram can
+ * be, so results store the histogram they calculated their percentiles from, which lets the results of several runs or
+ * workers be merged into percentiles of the whole afterwards.
+ * <p>
+ * Histograms record nanoseconds to two significant digits, that is to within 1%, and grow to whatever range the
+ * recorded values need. A run keeps one histogram per request type and minute while it is live, and a third digit
+ * would make each of them about eight times the size for a precision no response time needs.
+ */
+public final class LatencyHistograms {
+
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private LatencyHistograms() {}
+
+    /**
+     * @return an empty histogram for response times in nanoseconds
+     */
+    public static Histogram create() {
+        return new Histogram(SIGNIFICANT_DIGITS);
+    }
+
+    /**
+     * @return a recorder for response times in nanoseconds, whose interval histograms are like those of
+     *         {@link #create()}
+     */
+    public static Recorder createRecorder() {
+        return new Recorder(SIGNIFICANT_DIGITS);
+    }
+
+    /**
+     * Serialize a histogram into compact text that can be stored in a text column.
+     *
+     * @param histogram the histogram to serialize
+     * @return the compressed histogram, Base64-encoded
+     */
+    public static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+
+    /**
+     * Deserialize a histogram serialized with {@link #encode(Histogram)}.
+     *
+     * @param encoded the serialized histogram
+     * @return the histogram
+     * @throws IllegalArgumentException if the text is not a serialized histogram
+     */
+    public static Histogram decode(String encoded) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Base64.getDecoder().decode(encoded));
+            return Histogram.decodeFromCompressedByteBuffer(buffer, 0);
+        } catch (DataFormatException | RuntimeException e) {
+            throw new IllegalArgumentException("Not a serialized histogram", e);
+        }
+    }
+}
@@ -49,4 +49,32 @@ public class NumberRangeParser {
         }
         return result.stream().distinct().sorted().toList();
     }
+
+    /**
+     * Formats a sorted list of distinct positive integers as a string of the form "1-3,5,7-9", the inverse of
+     * {@link #parseNumberRange(String)}. Consecutive numbers are collapsed into ranges.
+     *
+     * @param numbers the sorted list of distinct positive integers to format
+     * @return the range string
+     */
+    public static String formatNumberRange(List<Integer> numbers) {
+        StringBuilder result = new StringBuilder();
+        int index = 0;
+        while (index < numbers.size()) {
+            int from = numbers.get(index);
+            int to = from;
+            while (index + 1 < numbers.size() && numbers.get(index + 1) == to + 1) {
+                to = numbers.get(++index);
+            }
+            if (!result.isEmpty()) {
+                result.append(',');
+            }
+            result.append(from);
+            if (to != from) {
+                result.append('-').append(to);
+            }
+            index++;
+        }
+        return result.toString();
+    }
 }
@@ -0,0 +1,281 @@
+package de.tum.cit.aet.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.error.YAMLException;
+
+/**
+ * A kind of student, so that one simulation can mix behaviours the way a real exam does: some students push dozens of
+ * times, some never open the online IDE, some reload the exam page after every exercise.
+ * <p>
+ * Personas are given as a YAML, or JSON, list. Each entry has a {@code name} and a {@code weight}, and students are
+ * split over the personas in proportion to their weights. Everything else is optional and falls back to the
+ * simulation's setting:
+ * <ul>
+ * <li>{@code commits}, the number of commits and pushes per programming exercise, either a single number or a range
+ * {@code <from>-<to>} with {@code to} exclusive like the simulation's</li>
+ * <li>{@code onlineIdePercentage}, the chance in percent of working in the online IDE instead of a local clone; the
+ * remaining students split over password, token and SSH like the simulation's</li>
+ * <li>{@code reloadsPerExercise}, how often the student reloads the exam page after finishing an exercise on average,
+ * 0 by default; 0.5 reloads after every other exercise, 2 twice after each</li>
+ * <li>{@code exerciseOrder}, the order the exercises are worked on: {@code given}, the default, {@code reverse} or
+ * {@code random}</li>
+ * <li>{@code thinkTimeRest}, {@code thinkTimeGit} and {@code thinkTimeWebsocket}, in the format of
+ * {@link ThinkTime}</li>
+ * </ul>
+ * For example:
+ *
+ * <pre>
+ * - name: pusher
+ *   weight: 1
+ *   commits: 20-40
+ *   onlineIdePercentage: 0
+ * - name: reloader
+ *   weight: 3
+ *   commits: 1
+ *   reloadsPerExercise: 2
+ *   thinkTimeRest: exponential 5000
+ * </pre>
+ *
+ * @param name                the name, unique among the personas of a simulation
+ * @param weight              the share of students relative to the other personas
+ * @param commitsFrom         the lower bound of the commits and pushes per programming exercise, or {@code null}
+ * @param commitsTo           the exclusive upper bound of the commits and pushes, or {@code null}
+ * @param onlineIdePercentage the chance in percent of working in the online IDE, or {@code null}
+ * @param reloadsPerExercise  how often the exam page is reloaded after each exercise on average
+ * @param exerciseOrder       the order the exercises are worked on
+ * @param thinkTimeRest       the think time after REST calls, or {@code null}
+ * @param thinkTimeGit        the think time after Git operations, or {@code null}
+ * @param thinkTimeWebsocket  the think time after websocket actions, or {@code null}
+ */
+public record Persona(
+    String name,
+    double weight,
+    Integer commitsFrom,
+    Integer commitsTo,
+    Double onlineIdePercentage,
+    double reloadsPerExercise,
+    ExerciseOrder exerciseOrder,
+    String thinkTimeRest,
+    String thinkTimeGit,
+    String thinkTimeWebsocket
+) {
+    /**
+     * The order a student works on the exercises of the exam in.
+     */
+    public enum ExerciseOrder {
+        /**
+         * The order Artemis lists them in.
+         */
+        GIVEN,
+        /**
+         * Last exercise first.
+         */
+        REVERSE,
+        /**
+         * A different random order for every student.
+         */
+        RANDOM;
+
+        /**
+         * Put a list of exercises into this order.
+         *
+         * @param exercises the exercises in the order Artemis lists them in
+         * @param random    the source of randomness for {@link #RANDOM}
+         * @param <T>       the type of the exercises
+         * @return the exercises in this order, as a new list
+         */
+        public <T> List<T> apply(List<T> exercises, RandomGenerator random) {
+            List<T> ordered = new ArrayList<>(exercises);
+            switch (this) {
+                case GIVEN -> {}
+                case REVERSE -> Collections.reverse(ordered);
+                case RANDOM -> Collections.shuffle(ordered, random);
+            }
+            return ordered;
+        }
+    }
+
+    private static final Set<String> KEYS = Set.of(
+        "name",
+        "weight",
+        "commits",
+        "onlineIdePercentage",
+        "reloadsPerExercise",
+        "exerciseOrder",
+        "thinkTimeRest",
+        "thinkTimeGit",
+        "thinkTimeWebsocket"
+    );
+
+    /**
+     * Parse a list of personas in the format described in the class documentation.
+     *
+     * @param personas the personas in YAML or JSON
+     * @return the parsed personas, in the given order
+     * @throws IllegalArgumentException if the list is empty or malformed
+     */
+    public static List<Persona> parseAll(String personas) {
+        if (personas == null || personas.isBlank()) {
+            throw new IllegalArgumentException("The list of personas is empty");
+        }
+        Object root;
+        try {
+            root = new Yaml(new SafeConstructor(new LoaderOptions())).load(personas);
+        } catch (YAMLException e) {
+            throw new IllegalArgumentException("The personas are neither valid YAML nor JSON: " + e.getMessage(), e);
+        }
+        if (!(root instanceof List<?> entries) || entries.isEmpty()) {
+            throw new IllegalArgumentException("Personas must be a non-empty list");
+        }
+        List<Persona> parsed = new ArrayList<>(entries.size());
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < entries.size(); i++) {
+            Persona persona = parse(entries.get(i), "personas[" + i + "]");
+            if (!names.add(persona.name())) {
+                throw new IllegalArgumentException("Persona '" + persona.name() + "' is defined twice");
+            }
+            parsed.add(persona);
+        }
+        return List.copyOf(parsed);
+    }
+
+    /**
+     * Split a number of students over the personas in proportion to their weights and deal the result out in random
+     * order. Each persona gets its share rounded down, and the students left over go to the personas that lost the
+     * most to rounding, so that the counts differ from the exact shares by less than one.
+     *
+     * @param personas      the personas
+     * @param numberOfUsers the number of students
+     * @param random        the source of randomness for the order
+     * @return the persona of each student, {@code numberOfUsers} long
+     */
+    public static List<Persona> assign(List<Persona> personas, int numberOfUsers, RandomGenerator random) {
+        double totalWeight = personas.stream().mapToDouble(Persona::weight).sum();
+        int[] counts = new int[personas.size()];
+        double[] remainders = new double[personas.size()];
+        int assigned = 0;
+        for (int i = 0; i < personas.size(); i++) {
+            double share = numberOfUsers * personas.get(i).weight() / totalWeight;
+            counts[i] = (int) share;
+            remainders[i] = share - counts[i];
+            assigned += counts[i];
+        }
+        Integer[] byRemainder = new Integer[personas.size()];
+        Arrays.setAll(byRemainder, i -> i);
+        Arrays.sort(byRemainder, (a, b) -> Double.compare(remainders[b], remainders[a]));
+        for (int i = 0; assigned < numberOfUsers; i++, assigned++) {
+            counts[byRemainder[i % byRemainder.length]]++;
+        }
+
+        List<Persona> assignment = new ArrayList<>(numberOfUsers);
+        for (int i = 0; i < personas.size(); i++) {
+            for (int j = 0; j < counts[i]; j++) {
+                assignment.add(personas.get(i));
+            }
+        }
+        Collections.shuffle(assignment, random);
+        return assignment;
+    }
+
+    private static Persona parse(Object entry, String position) {
+        if (!(entry instanceof Map<?, ?> map)) {
+            throw new IllegalArgumentException("Expected a name, a weight and settings at " + position);
+        }
+        for (Object key : map.keySet()) {
+            if (!KEYS.contains(String.valueOf(key))) {
+                throw new IllegalArgumentException("Unexpected '" + key + "' at " + position);
+            }
+        }
+        if (!(map.get("name") instanceof String name) || name.isBlank()) {
+            throw new IllegalArgumentException("A persona needs a name at " + position);
+        }
+        String where = "persona '" + name.trim() + "'";
+        double weight = number(map.get("weight"), where + ".weight");
+        if (weight == 0) {
+            throw new IllegalArgumentException("A persona needs a positive weight at " + where);
+        }
+
+        Integer commitsFrom = null;
+        Integer commitsTo = null;
+        if (map.containsKey("commits")) {
+            int[] commits = parseCommits(String.valueOf(map.get("commits")), where + ".commits");
+            commitsFrom = commits[0];
+            commitsTo = commits[1];
+        }
+        Double onlineIdePercentage = null;
+        if (map.containsKey("onlineIdePercentage")) {
+            onlineIdePercentage = number(map.get("onlineIdePercentage"), where + ".onlineIdePercentage");
+            if (onlineIdePercentage > 100) {
+                throw new IllegalArgumentException("Expected a percentage of at most 100 at " + where + ".onlineIdePercentage");
+            }
+        }
+        double reloadsPerExercise = map.containsKey("reloadsPerExercise")
+            ? number(map.get("reloadsPerExercise"), where + ".reloadsPerExercise")
+            : 0;
+        ExerciseOrder exerciseOrder = ExerciseOrder.GIVEN;
+        if (map.containsKey("exerciseOrder")) {
+            try {
+                exerciseOrder = ExerciseOrder.valueOf(String.valueOf(map.get("exerciseOrder")).trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown exercise order '" + map.get("exerciseOrder") + "' at " + where, e);
+            }
+        }
+        return new Persona(
+            name.trim(),
+            weight,
+            commitsFrom,
+            commitsTo,
+            onlineIdePercentage,
+            reloadsPerExercise,
+            exerciseOrder,
+            thinkTime(map.get("thinkTimeRest"), where),
+            thinkTime(map.get("thinkTimeGit"), where),
+            thinkTime(map.get("thinkTimeWebsocket"), where)
+        );
+    }
+
+    private static int[] parseCommits(String commits, String where) {
+        String[] bounds = commits.trim().split("\\s*-\\s*", -1);
+        try {
+            int from = Integer.parseInt(bounds[0]);
+            int to = bounds.length == 1 ? from + 1 : Integer.parseInt(bounds[1]);
+            if (bounds.length > 2 || from < 0 || to <= from) {
+                throw new IllegalArgumentException("Expected a number of commits or a range <from>-<to> with from < to at " + where);
+            }
+            return new int[] { from, to };
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Expected a number of commits or a range <from>-<to> at " + where, e);
+        }
+    }
+
+    private static String thinkTime(Object value, String where) {
+        if (value == null) {
+            return null;
+        }
+        String thinkTime = String.valueOf(value);
+        try {
+            ThinkTime.parse(thinkTime);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(e.getMessage() + " at " + where, e);
+        }
+        return thinkTime;
+    }
+
+    private static double number(Object value, String where) {
+        if (!(value instanceof Number number) || number.doubleValue() < 0 || !Double.isFinite(number.doubleValue())) {
+            throw new IllegalArgumentException("Expected a number that is not negative at " + where);
+        }
+        return number.doubleValue();
+    }
+}
@@ -0,0 +1,73 @@
+package de.tum.cit.aet.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A token bucket bounding how many requests per second all students together send to one server.
+ * <p>
+ * The concurrency ceiling bounds how many students are in flight, but not how fast they go: against a server that
+ * answers in a few milliseconds, a hundred students send thousands of requests per second. When the server is a
+ * production system that has to stay usable while it is measured, the rate itself needs a ceiling.
+ * <p>
+ * The bucket holds up to one second's worth of tokens, so a short burst after a quiet moment passes unhindered, and
+ * refills at the configured rate. A request that finds the bucket empty reserves the next token anyway and is told how
+ * long to wait for it, which keeps the order of the waiting requests fair without a queue. The wait is reserved rather
+ * than slept here, so that reactive callers can delay without blocking a thread.
+ */
+public final class RateLimiter {
+
+    private final double permitsPerNano;
+    private final double maxPermits;
+    private final LongSupplier clock;
+
+    private double storedPermits;
+    private long lastRefill;
+
+    /**
+     * @param permitsPerSecond how many requests per second to let through, positive
+     * @throws IllegalArgumentException if the rate is not positive
+     */
+    public RateLimiter(double permitsPerSecond) {
+        this(permitsPerSecond, System::nanoTime);
+    }
+
+    RateLimiter(double permitsPerSecond, LongSupplier clock) {
+        if (!(permitsPerSecond > 0) || !Double.isFinite(permitsPerSecond)) {
+            throw new IllegalArgumentException("The rate limit must be positive, got " + permitsPerSecond);
+        }
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.maxPermits = Math.max(1, permitsPerSecond);
+        this.clock = clock;
+        this.lastRefill = clock.getAsLong();
+        this.storedPermits = maxPermits;
+    }
+
+    /**
+     * Take a token, reserving a future one if the bucket is empty.
+     *
+     * @return how long the caller has to wait before sending its request, in nanoseconds, 0 if it may send right away
+     */
+    public synchronized long reserve() {
+        long now = clock.getAsLong();
+        storedPermits = Math.min(maxPermits, storedPermits + (now - lastRefill) * permitsPerNano);
+        lastRefill = now;
+        storedPermits -= 1;
+        // A negative balance is owed by the callers that reserved ahead; this one waits until it is paid back.
+        return storedPermits >= 0 ? 0 : (long) Math.ceil(-storedPermits / permitsPerNano);
+    }
+
+    /**
+     * Take a token, waiting for it if the bucket is empty.
+     *
+     * @return how long the caller waited, in nanoseconds
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public long acquire() throws InterruptedException {
+        long wait = reserve();
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+        return wait;
+    }
+}
@@ -0,0 +1,299 @@
+package de.tum.cit.aet.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An append-only file of raw request samples, one fixed-size record per request, written and read through memory
+ * mappings so that neither side holds the samples on the heap.
+ * <p>
+ * The file starts with a 16 byte header: a magic number, the format version, the record size and the number of records
+ * written, which the writer publishes every {@value Writer#PUBLISH_INTERVAL} records and on closing. Each 32 byte record
+ * holds, in little-endian order:
+ * <ul>
+ * <li>when the request was made, before the rate limiter held it back, in nanoseconds since the epoch (8 bytes),</li>
+ * <li>its duration and the time it was held back by the rate limiter, in microseconds (4 bytes each),</li>
+ * <li>the student who made it (4 bytes),</li>
+ * <li>a code for its endpoint and its HTTP status (2 bytes each), 0 if unknown,</li>
+ * <li>a code for its type (1 byte),</li>
+ * <li>its flags (1 byte): {@link #FAILED} if the request failed, followed by 6 reserved bytes.</li>
+ * </ul>
+ * Durations are saturated at {@link Integer#MAX_VALUE} microseconds, about 35 minutes, which no request comes near.
+ * <p>
+ * Writers reserve their records without waiting for each other, so a record may be reserved before the one in front
+ * of it is written. The start of a record is written last, and a record without one is empty: reserved by a writer
+ * that never got to fill it, because the process died or the journal was closed under it. Readers skip empty records
+ * up to the published count, and read on past it until the first empty one, so a journal still being written, or left
+ * behind by a process that died mid-run, reads up to about its last complete record.
+ */
+public final class SampleJournal {
+
+    static final int MAGIC = 0x414A4E4C;
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 32;
+
+    /**
+     * The flag of a request that failed, whatever its status.
+     */
+    static final byte FAILED = 1;
+
+    /**
+     * The writer maps the file in regions of this size, 2 Mi records each, as it grows.
+     */
+    static final long REGION_SIZE = 64L << 20;
+
+    static final long RECORDS_PER_REGION = REGION_SIZE / RECORD_SIZE;
+
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfShort SHORT = ValueLayout.JAVA_SHORT.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private SampleJournal() {}
+
+    /**
+     * Pass every record of a journal to the consumer, in the order they were reserved. The file is mapped rather than
+     * read, so only the pages being looked at are in memory, and none of it on the heap.
+     *
+     * @param path     the journal
+     * @param consumer the consumer of the records
+     * @return the number of records, not counting empty ones
+     * @throws IOException              if the journal cannot be read
+     * @throws IllegalArgumentException if the file is not a journal
+     */
+    public static long scan(Path path, RecordConsumer consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ); Arena arena = Arena.ofConfined()) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IllegalArgumentException(path + " is not a sample journal");
+            }
+            MemorySegment file = channel.map(FileChannel.MapMode.READ_ONLY, 0, size, arena);
+            if (file.get(INT, 0) != MAGIC || file.get(SHORT, 4) != VERSION || file.get(SHORT, 6) != RECORD_SIZE) {
+                throw new IllegalArgumentException(path + " is not a sample journal of version " + VERSION);
+            }
+            long records = (size - HEADER_SIZE) / RECORD_SIZE;
+            long published = Math.min(file.get(LONG, 8), records);
+            long count = 0;
+            for (long i = 0; i < records; i++) {
+                long offset = HEADER_SIZE + i * RECORD_SIZE;
+                long start = file.get(LONG, offset);
+                if (start == 0) {
+                    if (i >= published) {
+                        break;
+                    }
+                    continue;
+                }
+                count++;
+                consumer.accept(
+                    start,
+                    file.get(INT, offset + 8) * 1_000L,
+                    file.get(INT, offset + 12) * 1_000L,
+                    file.get(INT, offset + 16),
+                    file.get(SHORT, offset + 20),
+                    file.get(SHORT, offset + 22),
+                    file.get(ValueLayout.JAVA_BYTE, offset + 24),
+                    (file.get(ValueLayout.JAVA_BYTE, offset + 25) & FAILED) != 0
+                );
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Receives the records of a journal, with durations back in nanoseconds.
+     */
+    @FunctionalInterface
+    public interface RecordConsumer {
+        /**
+         * @param startEpochNanos  when the request was made, before any wait for the rate limiter, in nanoseconds since the epoch
+         * @param durationNanos    how long the request took, in nanoseconds
+         * @param limiterWaitNanos how long the rate limiter held the request back, in nanoseconds
+         * @param student          the student who made the request
+         * @param endpoint         the code of the request's endpoint, 0 if unknown
+         * @param status           the HTTP status of the response, 0 if unknown
+         * @param type             the code of the request's type
+         * @param failed           whether the request failed
+         */
+        void accept(
+            long startEpochNanos,
+            long durationNanos,
+            long limiterWaitNanos,
+            int student,
+            short endpoint,
+            short status,
+            byte type,
+            boolean failed
+        );
+    }
+
+    /**
+     * Appends records to a new journal. Safe to use from all student threads at once: each append reserves its record
+     * with one atomic increment and writes it without a lock. Only mapping the next region of the file locks, once per
+     * {@link #RECORDS_PER_REGION} records, and the first record of a region maps the one after it ahead of time.
+     */
+    public static final class Writer implements Closeable {
+
+        /**
+         * Records between publications of the count in the header.
+         */
+        static final int PUBLISH_INTERVAL = 1024;
+
+        private static final VarHandle START = LONG.varHandle();
+
+        private final FileChannel channel;
+        private final Arena arena = Arena.ofShared();
+        private final MemorySegment header;
+        private final AtomicLong reserved = new AtomicLong();
+        // Only grows, under the writer's lock, and is read without it.
+        private volatile MemorySegment[] regions = new MemorySegment[0];
+        private volatile boolean closed;
+
+        private Writer(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE, arena);
+            header.set(INT, 0, MAGIC);
+            header.set(SHORT, 4, VERSION);
+            header.set(SHORT, 6, (short) RECORD_SIZE);
+            header.set(LONG, 8, 0);
+            regionOf(0);
+        }
+
+        /**
+         * Create a journal, replacing any file at the path.
+         *
+         * @param path where to create the journal
+         * @return a writer for the journal
+         * @throws IOException if the file cannot be created or mapped
+         */
+        public static Writer create(Path path) throws IOException {
+            FileChannel channel = FileChannel.open(
+                path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+            );
+            try {
+                return new Writer(channel);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Append a record.
+         *
+         * @param startEpochNanos  when the request was made, before any wait for the rate limiter, in nanoseconds since the epoch
+         * @param durationNanos    how long the request took, in nanoseconds
+         * @param limiterWaitNanos how long the rate limiter held the request back, in nanoseconds
+         * @param student          the student who made the request
+         * @param endpoint         the code of the request's endpoint, 0 if unknown
+         * @param status           the HTTP status of the response, 0 if unknown
+         * @param type             the code of the request's type
+         * @param failed           whether the request failed
+         * @throws IllegalStateException if the writer is closed
+         * @throws UncheckedIOException  if the file cannot be extended
+         */
+        public void append(
+            long startEpochNanos,
+            long durationNanos,
+            long limiterWaitNanos,
+            int student,
+            short endpoint,
+            short status,
+            byte type,
+            boolean failed
+        ) {
+            if (closed) {
+                throw new IllegalStateException("The sample journal is closed");
+            }
+            long index = reserved.getAndIncrement();
+            long region = index / RECORDS_PER_REGION;
+            long offset = (index % RECORDS_PER_REGION) * RECORD_SIZE;
+            MemorySegment records = regionOf(region);
+            if (offset == 0) {
+                regionOf(region + 1);
+            }
+            records.set(INT, offset + 8, toMicros(durationNanos));
+            records.set(INT, offset + 12, toMicros(limiterWaitNanos));
+            records.set(INT, offset + 16, student);
+            records.set(SHORT, offset + 20, endpoint);
+            records.set(SHORT, offset + 22, status);
+            records.set(ValueLayout.JAVA_BYTE, offset + 24, type);
+            records.set(ValueLayout.JAVA_BYTE, offset + 25, failed ? FAILED : 0);
+            // Last, as a record with a start is complete.
+            START.setRelease(records, offset, startEpochNanos);
+            if (index % PUBLISH_INTERVAL == 0) {
+                header.set(LONG, 8, index + 1);
+            }
+        }
+
+        private MemorySegment regionOf(long region) {
+            MemorySegment[] mapped = regions;
+            return region < mapped.length ? mapped[(int) region] : map(region);
+        }
+
+        private synchronized MemorySegment map(long region) {
+            MemorySegment[] mapped = regions;
+            if (region < mapped.length) {
+                return mapped[(int) region];
+            }
+            if (closed) {
+                throw new IllegalStateException("The sample journal is closed");
+            }
+            MemorySegment[] grown = Arrays.copyOf(mapped, (int) region + 1);
+            try {
+                for (int i = mapped.length; i < grown.length; i++) {
+                    grown[i] = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + i * REGION_SIZE, REGION_SIZE, arena);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            regions = grown;
+            return grown[(int) region];
+        }
+
+        /**
+         * @return the number of records written or being written
+         */
+        public long size() {
+            return reserved.get();
+        }
+
+        /**
+         * Publish the number of records, unmap the file and cut it down to the records written. A record still being
+         * written by another thread is left empty.
+         *
+         * @throws IOException if the file cannot be truncated
+         */
+        @Override
+        public synchronized void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            long count = reserved.get();
+            try (channel) {
+                header.set(LONG, 8, count);
+                arena.close();
+                channel.truncate(HEADER_SIZE + count * RECORD_SIZE);
+            }
+        }
+
+        private static int toMicros(long nanos) {
+            return Math.clamp(nanos / 1_000, 0, Integer.MAX_VALUE);
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package de.tum.cit.aet.util;
 
+import java.time.Duration;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Semaphore;
 import java.util.function.IntConsumer;
 
 /**
@@ -80,18 +80,45 @@ public final class SimulationConcurrency {
      * @param action      the work to perform for one index
      */
     public static void forEachIndex(int concurrency, int count, IntConsumer action) {
-        Semaphore permits = new Semaphore(concurrency);
+        forEachIndex(new ConcurrencyLimit(concurrency), count, action);
+    }
 
+    /**
+     * Like {@link #forEachIndex(int, int, IntConsumer)}, but with a limit the caller keeps hold of, so that an action
+     * can hand its slot back while it waits at a {@link SyncPoint}.
+     *
+     * @param permits the limit on how many actions may run at the same time
+     * @param count   the number of indices to cover
+     * @param action  the work to perform for one index
+     */
+    public static void forEachIndex(ConcurrencyLimit permits, int count, IntConsumer action) {
+        forEachIndex(permits, count, new CancellationToken(), action);
+    }
+
+    /**
+     * Like {@link #forEachIndex(ConcurrencyLimit, int, IntConsumer)}, but stops starting indices once the token is
+     * cancelled. Indices that are already running are left to notice the cancellation themselves and finish, so the
+     * method still returns only once none of them is running any more.
+     *
+     * @param permits      the limit on how many actions may run at the same time
+     * @param count        the number of indices to cover
+     * @param cancellation the token that stops further indices from starting
+     * @param action       the work to perform for one index
+     */
+    public static void forEachIndex(ConcurrencyLimit permits, int count, CancellationToken cancellation, IntConsumer action) {
         // close() waits for every submitted task to finish, so the method returns only once the whole batch is done.
         try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
-            for (int index = 0; index < count; index++) {
+            for (int index = 0; index < count && !cancellation.isCancelled(); index++) {
                 int currentIndex = index;
                 executor.submit(() -> {
                     // Acquired outside the try so that an interrupt while waiting does not release a permit we never
                     // took.
                     permits.acquire();
                     try {
-                        action.accept(currentIndex);
+                        // Indices queued behind the limit when the run was cancelled never start.
+                        if (!cancellation.isCancelled()) {
+                            action.accept(currentIndex);
+                        }
                     } finally {
                         permits.release();
                     }
@@ -100,4 +127,52 @@ public final class SimulationConcurrency {
             }
         }
     }
+
+    /**
+     * Start an action for every index of the schedule at the moment the schedule says, and return once all of them
+     * have finished.
+     * <p>
+     * This is the open-loop counterpart to {@link #forEachIndex(int, int, IntConsumer)}. There is deliberately no
+     * concurrency ceiling: an index starts on time even if every earlier one is still waiting for the server, because
+     * holding it back would let a slow server throttle its own load, which is exactly what an open-loop run exists to
+     * prevent. The schedule itself is what bounds the load, so choose its rate with the same care as a ceiling.
+     * <p>
+     * Failures are contained to their own index, as in {@link #forEachIndex(int, int, IntConsumer)}. An interrupt stops
+     * further indices from starting and interrupts the ones already running.
+     *
+     * @param schedule when each index should start
+     * @param action   the work to perform for one index
+     */
+    public static void forEachIndexAt(ArrivalSchedule schedule, IntConsumer action) {
+        forEachIndexAt(schedule, new CancellationToken(), action);
+    }
+
+    /**
+     * Like {@link #forEachIndexAt(ArrivalSchedule, IntConsumer)}, but stops starting indices once the token is
+     * cancelled, and returns once the indices that were already running have finished.
+     *
+     * @param schedule     when each index should start
+     * @param cancellation the token that stops further indices from starting
+     * @param action       the work to perform for one index
+     */
+    public static void forEachIndexAt(ArrivalSchedule schedule, CancellationToken cancellation, IntConsumer action) {
+        long start = System.nanoTime();
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int index = 0; index < schedule.size(); index++) {
+                long delay = start + schedule.offsetNanos(index) - System.nanoTime();
+                try {
+                    if (!cancellation.sleep(Duration.ofNanos(delay))) {
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    // Leave the flag set: close() sees it and stops the indices that are already running.
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                int currentIndex = index;
+                executor.submit(() -> action.accept(currentIndex));
+            }
+        }
+    }
 }
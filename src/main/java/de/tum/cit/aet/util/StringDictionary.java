@@ -0,0 +1,53 @@
+package de.tum.cit.aet.util;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Numbers distinct strings in the order they are first seen, so that records which repeat a few strings, like the
+ * persona or endpoint of each request, can store a small code instead. Codes start at 0 and never change, and the
+ * dictionary grows with every new string, without limit.
+ * <p>
+ * Safe to use from several threads. Looking up a string seen before takes no lock; only new strings are added under
+ * the dictionary's lock.
+ */
+public final class StringDictionary {
+
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private final List<String> strings = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param string the string to look up
+     * @return the code of the string, newly assigned if it was not seen before
+     */
+    public int codeOf(String string) {
+        Integer code = codes.get(string);
+        if (code != null) {
+            return code;
+        }
+        synchronized (strings) {
+            return codes.computeIfAbsent(string, s -> {
+                strings.add(s);
+                return strings.size() - 1;
+            });
+        }
+    }
+
+    /**
+     * @param code a code returned by {@link #codeOf(String)}
+     * @return the string of the code
+     * @throws IndexOutOfBoundsException if no string has the code
+     */
+    public String get(int code) {
+        return strings.get(code);
+    }
+
+    /**
+     * @return the number of strings seen
+     */
+    public int size() {
+        return strings.size();
+    }
+}
@@ -0,0 +1,57 @@
+package de.tum.cit.aet.util;
+
+import java.util.concurrent.Phaser;
+
+/**
+ * A point in the students' sessions that nobody passes until every student has reached it, such as the start of the
+ * exam.
+ * <p>
+ * Students who fail before they get there {@link #leave()} instead, so one broken login cannot hold the rest back
+ * forever. A student waiting here hands their concurrency slot back for the duration, since otherwise a run with more
+ * students than slots would fill every slot with waiting students and never let the rest reach the point at all.
+ */
+public final class SyncPoint {
+
+    private final Phaser phaser;
+
+    /**
+     * @param parties the number of students that either reach or leave this point
+     */
+    public SyncPoint(int parties) {
+        this.phaser = new Phaser(parties);
+    }
+
+    /**
+     * Wait until every student has reached or left this point.
+     *
+     * @param limit the slot the caller holds and releases while waiting, or {@code null} if the caller holds none
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void await(ConcurrencyLimit limit) throws InterruptedException {
+        if (limit != null) {
+            limit.release();
+        }
+        try {
+            phaser.awaitAdvanceInterruptibly(phaser.arrive());
+        } finally {
+            if (limit != null) {
+                limit.acquireUninterruptibly();
+            }
+        }
+    }
+
+    /**
+     * Give up on this point, so the others do not wait for a student who will never arrive.
+     */
+    public void leave() {
+        phaser.arriveAndDeregister();
+    }
+
+    /**
+     * Let everyone through from now on, whether or not the others got here, for when the run is cancelled and the
+     * students that never started would otherwise be waited for forever.
+     */
+    public void open() {
+        phaser.forceTermination();
+    }
+}
@@ -0,0 +1,142 @@
+package de.tum.cit.aet.util;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+
+/**
+ * How long a simulated student pauses after an action before starting the next one.
+ * <p>
+ * Real students read, type and think between clicks, so their requests are spread out. Simulated students without
+ * pauses fire their whole session back to back, and a few hundred of them produce bursts no exam ever sees, which
+ * inflates the peak request rate and the latency measured at it. A think time puts the pauses back.
+ * <p>
+ * A think time is a distribution keyword followed by its arguments, all in milliseconds:
+ * <ul>
+ * <li>{@code none} or an empty string for no pause at all</li>
+ * <li>{@code fixed <millis>} always pauses the same time</li>
+ * <li>{@code uniform <min> <max>} pauses anywhere between the two, equally likely</li>
+ * <li>{@code exponential <mean>} pauses memorylessly around the mean, mostly short with the occasional long one</li>
+ * <li>{@code lognormal <median> <p90>} pauses with the right-skewed shape measured think times usually have, fitted so
+ * that half the pauses are shorter than the median and nine in ten shorter than the 90th percentile; take both from
+ * the gaps between a real student's requests in the server's access log</li>
+ * </ul>
+ */
+public final class ThinkTime {
+
+    /**
+     * No pause at all.
+     */
+    public static final ThinkTime NONE = new ThinkTime(Kind.NONE, 0, 0);
+
+    /**
+     * The 90th percentile of the standard normal distribution.
+     */
+    private static final double Z_90 = 1.2815515655446004;
+
+    private final Kind kind;
+    private final double first;
+    private final double second;
+
+    private ThinkTime(Kind kind, double first, double second) {
+        this.kind = kind;
+        this.first = first;
+        this.second = second;
+    }
+
+    /**
+     * Parse a think time in the format described in the class documentation.
+     *
+     * @param thinkTime the think time, or {@code null}
+     * @return the parsed think time, {@link #NONE} for {@code null} or an empty string
+     * @throws IllegalArgumentException if the think time is malformed
+     */
+    public static ThinkTime parse(String thinkTime) {
+        if (thinkTime == null || thinkTime.isBlank()) {
+            return NONE;
+        }
+        String[] tokens = thinkTime.trim().split("\\s+");
+        Kind kind;
+        try {
+            kind = Kind.valueOf(tokens[0].toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown think time distribution '" + thinkTime.trim() + "'", e);
+        }
+        if (tokens.length != kind.arguments + 1) {
+            throw new IllegalArgumentException("Think time '" + thinkTime.trim() + "' needs " + kind.arguments + " argument(s)");
+        }
+        double first = kind.arguments > 0 ? parseMillis(thinkTime, tokens[1]) : 0;
+        double second = kind.arguments > 1 ? parseMillis(thinkTime, tokens[2]) : 0;
+        return switch (kind) {
+            case NONE -> NONE;
+            case FIXED, EXPONENTIAL -> new ThinkTime(kind, first, 0);
+            case UNIFORM -> {
+                if (second < first) {
+                    throw new IllegalArgumentException("Think time '" + thinkTime.trim() + "' has a maximum below its minimum");
+                }
+                yield new ThinkTime(kind, first, second);
+            }
+            case LOGNORMAL -> {
+                if (!(first > 0) || second <= first) {
+                    throw new IllegalArgumentException(
+                        "Think time '" + thinkTime.trim() + "' needs a positive median below its 90th percentile"
+                    );
+                }
+                // Parameters of the underlying normal distribution of the logarithm.
+                double mu = Math.log(first);
+                yield new ThinkTime(kind, mu, (Math.log(second) - mu) / Z_90);
+            }
+        };
+    }
+
+    /**
+     * Draw one pause.
+     *
+     * @param random the source of randomness
+     * @return the pause, never negative
+     */
+    public Duration sample(RandomGenerator random) {
+        double millis = switch (kind) {
+            case NONE -> 0;
+            case FIXED -> first;
+            case UNIFORM -> first == second ? first : random.nextDouble(first, second);
+            case EXPONENTIAL -> first == 0 ? 0 : random.nextExponential() * first;
+            case LOGNORMAL -> Math.exp(first + second * random.nextGaussian());
+        };
+        return Duration.ofNanos((long) (millis * 1_000_000));
+    }
+
+    /**
+     * @return whether this think time never pauses
+     */
+    public boolean isNone() {
+        return kind == Kind.NONE || (kind == Kind.FIXED && first == 0);
+    }
+
+    private static double parseMillis(String thinkTime, String token) {
+        double millis;
+        try {
+            millis = Double.parseDouble(token);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Think time '" + thinkTime.trim() + "' has a non-numeric argument", e);
+        }
+        if (millis < 0 || !Double.isFinite(millis)) {
+            throw new IllegalArgumentException("Think time '" + thinkTime.trim() + "' must not be negative");
+        }
+        return millis;
+    }
+
+    private enum Kind {
+        NONE(0),
+        FIXED(1),
+        UNIFORM(2),
+        EXPONENTIAL(1),
+        LOGNORMAL(2);
+
+        private final int arguments;
+
+        Kind(int arguments) {
+            this.arguments = arguments;
+        }
+    }
+}
@@ -1,15 +1,23 @@
 package de.tum.cit.aet.web.rest;
 
+import de.tum.cit.aet.domain.EndpointStats;
+import de.tum.cit.aet.domain.RequestType;
 import de.tum.cit.aet.domain.Simulation;
 import de.tum.cit.aet.domain.SimulationRun;
 import de.tum.cit.aet.domain.SimulationSchedule;
 import de.tum.cit.aet.security.AuthoritiesConstants;
+import de.tum.cit.aet.service.dto.SampleQueryResultDTO;
 import de.tum.cit.aet.service.dto.SimulationRunDTO;
+import de.tum.cit.aet.service.simulation.SampleFilter;
+import de.tum.cit.aet.service.simulation.SampleJournalService;
 import de.tum.cit.aet.service.simulation.SimulationDataService;
+import de.tum.cit.aet.service.simulation.SimulationResultService;
 import de.tum.cit.aet.service.simulation.SimulationScheduleService;
 import de.tum.cit.aet.util.ArtemisAccountDTO;
 import de.tum.cit.aet.util.ArtemisServer;
+import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -26,10 +34,19 @@ public class SimulationResource {
 
     private final SimulationDataService simulationDataService;
     private final SimulationScheduleService simulationScheduleService;
+    private final SampleJournalService sampleJournalService;
+    private final SimulationResultService simulationResultService;
 
-    public SimulationResource(SimulationDataService simulationService, SimulationScheduleService simulationScheduleService) {
+    public SimulationResource(
+        SimulationDataService simulationService,
+        SimulationScheduleService simulationScheduleService,
+        SampleJournalService sampleJournalService,
+        SimulationResultService simulationResultService
+    ) {
         this.simulationDataService = simulationService;
         this.simulationScheduleService = simulationScheduleService;
+        this.sampleJournalService = sampleJournalService;
+        this.simulationResultService = simulationResultService;
     }
 
     /**
@@ -110,6 +127,46 @@ public class SimulationResource {
         return new ResponseEntity<>(simulationDataService.getSimulationRunWithStatsAndLogs(runId), HttpStatus.OK);
     }
 
+    /**
+     * GET /api/simulations/runs/{runId}/samples : Get the response times of some of the requests of a simulation run,
+     * read from the run's sample journal. Every parameter left out includes all requests.
+     *
+     * @param runId       the ID of the run
+     * @param types       the request types to include
+     * @param studentFrom the lowest server-wide ID of the students to include
+     * @param studentTo   the highest server-wide ID of the students to include
+     * @param from        the earliest time to include requests sent at, ISO-8601
+     * @param to          the time to include requests sent before, ISO-8601
+     * @param endpoints   the endpoints to include, as HTTP method and URI template, e.g. {@code GET api/core/public/account}
+     * @param interval    the length of an interval of the timeline, in seconds
+     * @return the ResponseEntity with status 200 (OK) and with body the matching requests, or with status 404 (Not Found) if the run has no sample journal
+     */
+    @GetMapping("/runs/{runId}/samples")
+    public ResponseEntity<SampleQueryResultDTO> querySamples(
+        @PathVariable long runId,
+        @RequestParam(value = "type", required = false) Set<RequestType> types,
+        @RequestParam(required = false) Integer studentFrom,
+        @RequestParam(required = false) Integer studentTo,
+        @RequestParam(required = false) ZonedDateTime from,
+        @RequestParam(required = false) ZonedDateTime to,
+        @RequestParam(value = "endpoint", required = false) Set<String> endpoints,
+        @RequestParam(defaultValue = "60") int interval
+    ) {
+        var filter = new SampleFilter(types, studentFrom, studentTo, from, to, endpoints);
+        return new ResponseEntity<>(sampleJournalService.query(runId, filter, interval), HttpStatus.OK);
+    }
+
+    /**
+     * GET /api/simulations/runs/{runId}/endpoints : Get the response times of a finished simulation run per endpoint.
+     *
+     * @param runId the ID of the run
+     * @return the ResponseEntity with status 200 (OK) and with body the stats of each endpoint, empty if the run has no result yet
+     */
+    @GetMapping("/runs/{runId}/endpoints")
+    public ResponseEntity<List<EndpointStats>> getEndpointStats(@PathVariable long runId) {
+        return new ResponseEntity<>(simulationResultService.getEndpointStats(runId), HttpStatus.OK);
+    }
+
     /**
      * POST /api/simulations/{simulationId}/run : Create and queue a new run for the given simulation.
      *
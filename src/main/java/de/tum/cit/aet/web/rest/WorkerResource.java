@@ -0,0 +1,103 @@
+package de.tum.cit.aet.web.rest;
+
+import de.tum.cit.aet.service.dto.WorkerAssignmentDTO;
+import de.tum.cit.aet.service.dto.WorkerPhaseDTO;
+import de.tum.cit.aet.service.dto.WorkerProgressDTO;
+import de.tum.cit.aet.service.simulation.DistributedSimulationService;
+import de.tum.cit.aet.service.simulation.SimulationWorkerService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * The endpoints a coordinator drives this instance through as a worker of a distributed simulation.
+ * <p>
+ * Public as far as user accounts go, since the coordinator has none here, but every request has to carry the shared
+ * secret from {@code benchmarking.distributed.secret}. Without a configured secret this instance takes no work.
+ */
+@RestController
+@RequestMapping("/api/public/worker/assignments")
+public class WorkerResource {
+
+    private final SimulationWorkerService simulationWorkerService;
+
+    public WorkerResource(SimulationWorkerService simulationWorkerService) {
+        this.simulationWorkerService = simulationWorkerService;
+    }
+
+    /**
+     * POST /api/public/worker/assignments : Accept an assignment.
+     *
+     * @param secret     the shared secret
+     * @param assignment the assignment to accept
+     * @return the ResponseEntity with status 200 (OK) and with body the number of students this worker simulates, or with status 403 (Forbidden) if the secret does not match
+     */
+    @PostMapping
+    public ResponseEntity<Integer> acceptAssignment(
+        @RequestHeader(value = DistributedSimulationService.SECRET_HEADER, required = false) String secret,
+        @RequestBody WorkerAssignmentDTO assignment
+    ) {
+        if (!simulationWorkerService.isAuthorized(secret)) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        return new ResponseEntity<>(simulationWorkerService.accept(assignment), HttpStatus.OK);
+    }
+
+    /**
+     * POST /api/public/worker/assignments/{assignmentId}/phases : Schedule the next phase of an assignment.
+     *
+     * @param secret       the shared secret
+     * @param assignmentId the ID of the assignment
+     * @param phase        the phase and when to start it
+     * @return the ResponseEntity with status 200 (OK), or with status 403 (Forbidden) if the secret does not match
+     */
+    @PostMapping("/{assignmentId}/phases")
+    public ResponseEntity<Void> startPhase(
+        @RequestHeader(value = DistributedSimulationService.SECRET_HEADER, required = false) String secret,
+        @PathVariable String assignmentId,
+        @RequestBody WorkerPhaseDTO phase
+    ) {
+        if (!simulationWorkerService.isAuthorized(secret)) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        simulationWorkerService.startPhase(assignmentId, phase);
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+
+    /**
+     * GET /api/public/worker/assignments/{assignmentId} : Take the progress of an assignment since the last call.
+     *
+     * @param secret       the shared secret
+     * @param assignmentId the ID of the assignment
+     * @return the ResponseEntity with status 200 (OK) and with body the progress, or with status 403 (Forbidden) if the secret does not match
+     */
+    @GetMapping("/{assignmentId}")
+    public ResponseEntity<WorkerProgressDTO> getProgress(
+        @RequestHeader(value = DistributedSimulationService.SECRET_HEADER, required = false) String secret,
+        @PathVariable String assignmentId
+    ) {
+        if (!simulationWorkerService.isAuthorized(secret)) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        return new ResponseEntity<>(simulationWorkerService.drainProgress(assignmentId), HttpStatus.OK);
+    }
+
+    /**
+     * DELETE /api/public/worker/assignments/{assignmentId} : Stop and remove an assignment.
+     *
+     * @param secret       the shared secret
+     * @param assignmentId the ID of the assignment
+     * @return the ResponseEntity with status 200 (OK), or with status 403 (Forbidden) if the secret does not match
+     */
+    @DeleteMapping("/{assignmentId}")
+    public ResponseEntity<Void> cancelAssignment(
+        @RequestHeader(value = DistributedSimulationService.SECRET_HEADER, required = false) String secret,
+        @PathVariable String assignmentId
+    ) {
+        if (!simulationWorkerService.isAuthorized(secret)) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        simulationWorkerService.cancel(assignmentId);
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+}
@@ -0,0 +1,9 @@
+export class RequestTimingBreakdown {
+  constructor(
+    public avgResolveTime: number,
+    public avgConnectTime: number,
+    public avgTlsHandshakeTime: number,
+    public avgFirstByteTime: number,
+    public avgTransferTime: number,
+  ) {}
+}
@@ -19,4 +19,7 @@ export enum RequestType {
   PROGRAMMING_EXERCISE_RESULT = 'PROGRAMMING_EXERCISE_RESULT',
   REPOSITORY_INFO = 'REPOSITORY_INFO',
   REPOSITORY_FILES = 'REPOSITORY_FILES',
+  EXAM_START_SPIKE = 'EXAM_START_SPIKE',
+  RATE_LIMIT_WAIT = 'RATE_LIMIT_WAIT',
+  PAGE_LOAD = 'PAGE_LOAD',
 }
@@ -0,0 +1,10 @@
+export class ResponseTimePercentiles {
+  constructor(
+    public p50: number,
+    public p90: number,
+    public p95: number,
+    public p99: number,
+    public p999: number,
+    public max: number,
+  ) {}
+}
@@ -1,20 +1,31 @@
 import { SimulationRun } from './simulationRun';
 import { RequestType } from './requestType';
 import { StatsByTime } from './statsByTime';
+import { ResponseTimePercentiles } from './responseTimePercentiles';
+import { RequestTimingBreakdown } from './requestTimingBreakdown';
 
 export class SimulationStats {
   constructor(
     public id: number,
     public numberOfRequests: number,
+    public numberOfFailures: number,
     public avgResponseTime: number,
     public simulationRun: SimulationRun,
     public requestType: RequestType,
     public statsByMinute: StatsByTime[],
     public statsBySecond: StatsByTime[],
+    public persona?: string,
+    public percentiles?: ResponseTimePercentiles,
+    public timings?: RequestTimingBreakdown,
+    public statusCodes?: Record<number, number>,
   ) {}
 }
 
 export function getOrder(simulationStats: SimulationStats): number {
+  // The totals of the personas come after the stats of all students.
+  if (simulationStats.persona) {
+    return 23;
+  }
   switch (simulationStats.requestType) {
     case RequestType.TOTAL:
       return 0;
@@ -56,5 +67,11 @@ export function getOrder(simulationStats: SimulationStats): number {
       return 18;
     case RequestType.WEBSOCKET:
       return 19;
+    case RequestType.EXAM_START_SPIKE:
+      return 20;
+    case RequestType.RATE_LIMIT_WAIT:
+      return 21;
+    case RequestType.PAGE_LOAD:
+      return 22;
   }
 }
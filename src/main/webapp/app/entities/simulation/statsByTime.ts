@@ -1,11 +1,16 @@
 import { SimulationStats } from './simulationStats';
+import { ResponseTimePercentiles } from './responseTimePercentiles';
+import { RequestTimingBreakdown } from './requestTimingBreakdown';
 
 export class StatsByTime {
   constructor(
     public id: number,
     public dateTime: Date,
     public numberOfRequests: number,
+    public numberOfFailures: number,
     public avgResponseTime: number,
     public simulationStats: SimulationStats,
+    public percentiles?: ResponseTimePercentiles,
+    public timings?: RequestTimingBreakdown,
   ) {}
 }
@@ -37,7 +37,7 @@ export class ResultBoxComponent implements OnInit {
     name: 'colorNumber',
     selectable: true,
     group: ScaleType.Linear,
-    domain: ['#33ADFF'],
+    domain: ['#33ADFF', '#EB0505'],
   };
 
   private datePipe = inject(DatePipe);
@@ -61,6 +61,18 @@ export class ResultBoxComponent implements OnInit {
     return durationInMicroSeconds.toFixed(2) + ' µs';
   }
 
+  formatErrorRate(stats: SimulationStats): string {
+    const all = stats.numberOfRequests + stats.numberOfFailures;
+    return all === 0 ? '0.00 %' : ((100 * stats.numberOfFailures) / all).toFixed(2) + ' %';
+  }
+
+  formatStatusCodes(statusCodes: Record<number, number>): string {
+    // Status 0 counts the failed requests that got no response, like timeouts.
+    return Object.entries(statusCodes)
+      .map(([status, count]) => `${status === '0' ? 'none' : status}: ${count}`)
+      .join(', ');
+  }
+
   formatRequestType(requestType: RequestType): string {
     return requestType.replace(/_/g, ' ');
   }
@@ -91,6 +103,13 @@ export class ResultBoxComponent implements OnInit {
             value: stats.numberOfRequests,
           })),
         },
+        {
+          name: 'Failed',
+          series: this.statsBySecond.map(stats => ({
+            name: stats.dateTime,
+            value: stats.numberOfFailures,
+          })),
+        },
       ];
     }
   }
@@ -1,7 +1,7 @@
 package de.tum.cit.aet.service;
 
 import static de.tum.cit.aet.util.ArtemisServer.PRODUCTION;
-import static de.tum.cit.aet.util.ArtemisServer.TS1;
+import static de.tum.cit.aet.util.TS1;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -411,26 +411,293 @@ public class SimulationDataServiceIT {
         assertFalse(simulationDataService.validateSimulation(simulation));
     }
 
+    @Test
+    public void testValidateSimulation_success_concurrencyProfile() {
+        simulation.setServer(TS1);
+        simulation.setMode(Simulation.Mode.CREATE_COURSE_AND_EXAM);
+        simulation.setNumberOfCommitsAndPushesFrom(1);
+        simulation.setNumberOfCommitsAndPushesTo(4);
+        simulation.setNumberOfUsers(10);
+        simulation.setCustomizeUserRange(false);
+        simulation.setName("Test");
+        simulation.setConcurrencyProfile("start 2, ramp 60 10, hold 120, spike 10 20, ramp 30 1");
+        assertTrue(simulationDataService.validateSimulation(simulation));
+    }
+
+    @Test
+    public void testValidateSimulation_fail_onMalformedConcurrencyProfile() {
+        simulation.setServer(TS1);
+        simulation.setMode(Simulation.Mode.CREATE_COURSE_AND_EXAM);
+        simulation.setNumberOfCommitsAndPushesFrom(1);
+        simulation.setNumberOfCommitsAndPushesTo(4);
+        simulation.setNumberOfUsers(10);
+        simulation.setCustomizeUserRange(false);
+        simulation.setName("Test");
+        simulation.setConcurrencyProfile("ramp 60");
+        assertFalse(simulationDataService.validateSimulation(simulation));
+    }
+
+    @Test
+    public void testValidateSimulation_fail_onConcurrencyProfileForOpenLoop() {
+        simulation.setServer(TS1);
+        simulation.setMode(Simulation.Mode.CREATE_COURSE_AND_EXAM);
+        simulation.setNumberOfCommitsAndPushesFrom(1);
+        simulation.setNumberOfCommitsAndPushesTo(4);
+        simulation.setNumberOfUsers(10);
+        simulation.setCustomizeUserRange(false);
+        simulation.setName("Test");
+        simulation.setArrivalMode(Simulation.ArrivalMode.CONSTANT_RATE);
+        simulation.setArrivalRate(5);
+        simulation.setConcurrencyProfile("ramp 60 10");
+        assertFalse(simulationDataService.validateSimulation(simulation));
+    }
+
+    @Test
+    public void testValidateSimulation_success_adaptiveConcurrency() {
+        simulation.setServer(TS1);
+        simulation.setMode(Simulation.Mode.CREATE_COURSE_AND_EXAM);
+        simulation.setNumberOfCommitsAndPushesFrom(1);
+        simulation.setNumberOfCommitsAndPushesTo(4);
+        simulation.setNumberOfUsers(10);
+        simulation.setCustomizeUserRange(false);
+        simulation.setName("Test");
+        simulation.setAdaptiveConcurrency(true);
+        simulation.setAdaptiveStep(5);
+        simulation.setSloLatencyMillis(500);
+        simulation.setSloErrorRate(0.02);
+        assertTrue(simulationDataService.validateSimulation(simulation));
+    }
+
+    @Test
+    public void testValidateSimulation_fail_onAdaptiveConcurrencyWithProfile() {
+        simulation.setServer(TS1);
+        simulation.setMode(Simulation.Mode.CREATE_COURSE_AND_EXAM);
+        simulation.setNumberOfCommitsAndPushesFrom(1);
+        simulation.setNumberOfCommitsAndPushesTo(4);
+        simulation.setNumberOfUsers(10);
+        simulation.setCustomizeUserRange(false);
+        simulation.setName("Test");
+        simulation.setAdaptiveConcurrency(true);
+        simulation.setConcurrencyProfile("ramp 60 10");
+        assertFalse(simulationDataService.validateSimulation(simulation));
+    }
+
+    @Test
+    public void testValidateSimulation_success_distributed() {
+        simulation.setServer(TS1);
+        simulation.setMode(Simulation.Mode.CREATE_COURSE_AND_EXAM);
+        simulation.setNumberOfCommitsAndPushesFrom(1);
+        simulation.setNumberOfCommitsAndPushesTo(4);
+        simulation.setNumberOfUsers(10);
+        simulation.setCustomizeUserRange(false);
+        simulation.setName("Test");
+        simulation.setDistributed(true);
+        assertTrue(simulationDataService.validateSimulation(simulation));
+    }
+
+    @Test
+    public void testValidateSimulation_fail_onDistributedPipelinedSessions() {
+        simulation.setServer(TS1);
+        simulation.setMode(Simulation.Mode.CREATE_COURSE_AND_EXAM);
+        simulation.setNumberOfCommitsAndPushesFrom(1);
+        simulation.setNumberOfCommitsAndPushesTo(4);
+        simulation.setNumberOfUsers(10);
+        simulation.setCustomizeUserRange(false);
+        simulation.setName("Test");
+        simulation.setDistributed(true);
+        simulation.setPipelinedSessions(true);
+        assertFalse(simulationDataService.validateSimulation(simulation));
+    }
+
+    @Test
+    public void testValidateSimulation_success_reactiveSessions() {
+        simulation.setServer(TS1);
+        simulation.setMode(Simulation.Mode.CREATE_COURSE_AND_EXAM);
+        simulation.setNumberOfCommitsAndPushesFrom(1);
+        simulation.setNumberOfCommitsAndPushesTo(4);
+        simulation.setNumberOfUsers(10);
+        simulation.setCustomizeUserRange(false);
+        simulation.setName("Test");
+        simulation.setReactiveSessions(true);
+        assertTrue(simulationDataService.validateSimulation(simulation));
+    }
+
+    @Test
+    public void testValidateSimulation_fail_onReactiveSessionsWithExamStartSpike() {
+        simulation.setServer(TS1);
+        simulation.setMode(Simulation.Mode.CREATE_COURSE_AND_EXAM);
+        simulation.setNumberOfCommitsAndPushesFrom(1);
+        simulation.setNumberOfCommitsAndPushesTo(4);
+        simulation.setNumberOfUsers(10);
+        simulation.setCustomizeUserRange(false);
+        simulation.setName("Test");
+        simulation.setReactiveSessions(true);
+        simulation.setExamStartSpike(true);
+        assertFalse(simulationDataService.validateSimulation(simulation));
+    }
+
+    @Test
+    public void testValidateSimulation_success_soak() {
+        simulation.setServer(TS1);
+        simulation.setMode(Simulation.Mode.CREATE_COURSE_AND_EXAM);
+        simulation.setNumberOfCommitsAndPushesFrom(1);
+        simulation.setNumberOfCommitsAndPushesTo(4);
+        simulation.setNumberOfUsers(10);
+        simulation.setCustomizeUserRange(false);
+        simulation.setName("Test");
+        simulation.setSoakDurationMinutes(90);
+        simulation.setAutosaveIntervalSeconds(30);
+        assertTrue(simulationDataService.validateSimulation(simulation));
+    }
+
+    @Test
+    public void testValidateSimulation_fail_onSoakWithoutAutosaveInterval() {
+        simulation.setServer(TS1);
+        simulation.setMode(Simulation.Mode.CREATE_COURSE_AND_EXAM);
+        simulation.setNumberOfCommitsAndPushesFrom(1);
+        simulation.setNumberOfCommitsAndPushesTo(4);
+        simulation.setNumberOfUsers(10);
+        simulation.setCustomizeUserRange(false);
+        simulation.setName("Test");
+        simulation.setSoakDurationMinutes(90);
+        simulation.setAutosaveIntervalSeconds(0);
+        assertFalse(simulationDataService.validateSimulation(simulation));
+    }
+
+    @Test
+    public void testValidateSimulation_success_examStartSpike() {
+        simulation.setServer(TS1);
+        simulation.setMode(Simulation.Mode.CREATE_COURSE_AND_EXAM);
+        simulation.setNumberOfCommitsAndPushesFrom(1);
+        simulation.setNumberOfCommitsAndPushesTo(4);
+        simulation.setNumberOfUsers(10);
+        simulation.setCustomizeUserRange(false);
+        simulation.setName("Test");
+        simulation.setExamStartSpike(true);
+        simulation.setExamStartJitterMillis(2000);
+        assertTrue(simulationDataService.validateSimulation(simulation));
+    }
+
+    @Test
+    public void testValidateSimulation_fail_onNegativeExamStartJitter() {
+        simulation.setServer(TS1);
+        simulation.setMode(Simulation.Mode.CREATE_COURSE_AND_EXAM);
+        simulation.setNumberOfCommitsAndPushesFrom(1);
+        simulation.setNumberOfCommitsAndPushesTo(4);
+        simulation.setNumberOfUsers(10);
+        simulation.setCustomizeUserRange(false);
+        simulation.setName("Test");
+        simulation.setExamStartSpike(true);
+        simulation.setExamStartJitterMillis(-1);
+        assertFalse(simulationDataService.validateSimulation(simulation));
+    }
+
+    @Test
+    public void testValidateSimulation_success_scenario() {
+        simulation.setServer(TS1);
+        simulation.setMode(Simulation.Mode.CREATE_COURSE_AND_EXAM);
+        simulation.setNumberOfCommitsAndPushesFrom(1);
+        simulation.setNumberOfCommitsAndPushesTo(4);
+        simulation.setNumberOfUsers(10);
+        simulation.setCustomizeUserRange(false);
+        simulation.setName("Test");
+        simulation.setScenario("steps: [login, initialCalls, openExamCourse, examStart, enterExam, participate, submit]");
+        assertTrue(simulationDataService.validateSimulation(simulation));
+    }
+
+    @Test
+    public void testValidateSimulation_fail_onMalformedScenario() {
+        simulation.setServer(TS1);
+        simulation.setMode(Simulation.Mode.CREATE_COURSE_AND_EXAM);
+        simulation.setNumberOfCommitsAndPushesFrom(1);
+        simulation.setNumberOfCommitsAndPushesTo(4);
+        simulation.setNumberOfUsers(10);
+        simulation.setCustomizeUserRange(false);
+        simulation.setName("Test");
+        simulation.setScenario("steps: [login, { loop: { steps: [autosave] } }]");
+        assertFalse(simulationDataService.validateSimulation(simulation));
+    }
+
+    @Test
+    public void testValidateSimulation_success_personas() {
+        simulation.setServer(TS1);
+        simulation.setMode(Simulation.Mode.CREATE_COURSE_AND_EXAM);
+        simulation.setNumberOfCommitsAndPushesFrom(1);
+        simulation.setNumberOfCommitsAndPushesTo(4);
+        simulation.setNumberOfUsers(10);
+        simulation.setCustomizeUserRange(false);
+        simulation.setName("Test");
+        simulation.setPersonas("[{name: pusher, weight: 1, commits: 20-40}, {name: reloader, weight: 3, reloadsPerExercise: 2}]");
+        assertTrue(simulationDataService.validateSimulation(simulation));
+    }
+
+    @Test
+    public void testValidateSimulation_fail_onMalformedPersonas() {
+        simulation.setServer(TS1);
+        simulation.setMode(Simulation.Mode.CREATE_COURSE_AND_EXAM);
+        simulation.setNumberOfCommitsAndPushesFrom(1);
+        simulation.setNumberOfCommitsAndPushesTo(4);
+        simulation.setNumberOfUsers(10);
+        simulation.setCustomizeUserRange(false);
+        simulation.setName("Test");
+        simulation.setPersonas("[{name: pusher, weight: 1}, {name: pusher, weight: 3}]");
+        assertFalse(simulationDataService.validateSimulation(simulation));
+    }
+
+    @Test
+    public void testValidateSimulation_fail_onMalformedThinkTime() {
+        simulation.setServer(TS1);
+        simulation.setMode(Simulation.Mode.CREATE_COURSE_AND_EXAM);
+        simulation.setNumberOfCommitsAndPushesFrom(1);
+        simulation.setNumberOfCommitsAndPushesTo(4);
+        simulation.setNumberOfUsers(10);
+        simulation.setCustomizeUserRange(false);
+        simulation.setName("Test");
+        simulation.setThinkTimeRest("uniform 500 200");
+        assertFalse(simulationDataService.validateSimulation(simulation));
+    }
+
     @Test
     public void cancelActiveRun_success() {
+        var simulation = new Simulation();
+        simulation.setServer(TS1);
+        var run = new SimulationRun();
+        run.setSimulation(simulation);
+        run.setLogMessages(new HashSet<>());
+        run.setStatus(SimulationRun.Status.RUNNING);
+
+        when(simulationRunRepository.findById(1L)).thenReturn(java.util.Optional.of(run));
+        when(simulationQueueService.cancelSimulationRun(run)).thenReturn(true);
+
+        simulationDataService.cancelActiveRun(1L);
+
+        // The run winds down and marks itself as cancelled once its partial result is saved.
+        verify(simulationQueueService).cancelSimulationRun(run);
+        verify(simulationRunRepository, never()).save(any());
+        assertEquals(SimulationRun.Status.RUNNING, run.getStatus());
+    }
+
+    @Test
+    public void cancelActiveRun_success_notExecuting() {
+        var simulation = new Simulation();
+        simulation.setServer(TS1);
         var run = new SimulationRun();
+        run.setSimulation(simulation);
         run.setLogMessages(new HashSet<>());
         run.setStatus(SimulationRun.Status.RUNNING);
 
         when(simulationRunRepository.findByIdWithStatsAndLogMessages(1L)).thenReturn(java.util.Optional.of(run));
         when(simulationRunRepository.findById(1L)).thenReturn(java.util.Optional.of(run));
-        doNothing().when(simulationQueueService).abortSimulationExecution();
+        when(simulationQueueService.cancelSimulationRun(run)).thenReturn(false);
         doNothing().when(simulationWebsocketService).sendRunStatusUpdate(any());
         doNothing().when(simulationWebsocketService).sendRunLogMessage(any(), any());
 
         simulationDataService.cancelActiveRun(1L);
 
-        verify(simulationQueueService).abortSimulationExecution();
         verify(simulationWebsocketService).sendRunStatusUpdate(run);
         verify(simulationWebsocketService).sendRunLogMessage(eq(run), any());
         verify(simulationRunRepository).save(run);
         verify(logMessageRepository).save(any());
-        verify(simulationQueueService).restartSimulationExecution();
         assertEquals(SimulationRun.Status.CANCELLED, run.getStatus());
     }
 
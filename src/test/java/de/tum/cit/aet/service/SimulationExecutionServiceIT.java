@@ -332,6 +332,47 @@ public class SimulationExecutionServiceIT {
         );
     }
 
+    /**
+     * A student whose login fails leaves the exam start barrier, so the others still get through it.
+     */
+    @Test
+    public void testPipelinedSessionsWithExamStartBarrier_failedLogin_othersFinish() {
+        Simulation simulation = new Simulation();
+        simulation.setServer(TS1);
+        simulation.setNumberOfUsers(3);
+        simulation.setMode(Simulation.Mode.CREATE_COURSE_AND_EXAM);
+        simulation.setCustomizeUserRange(false);
+        simulation.setNumberOfCommitsAndPushesFrom(8);
+        simulation.setNumberOfCommitsAndPushesTo(15);
+        simulation.setOnlineIdePercentage(100);
+        simulation.setPipelinedSessions(true);
+        simulation.setExamStartBarrier(true);
+
+        SimulationRun run = new SimulationRun();
+        run.setSimulation(simulation);
+        run.setStatus(QUEUED);
+
+        when(artemisConfiguration.getCleanup(TS1)).thenReturn(false);
+        when(simulatedArtemisStudent2.login()).thenThrow(new IllegalStateException("Test exception"));
+
+        simulationExecutionService.simulateExam(run);
+
+        for (SimulatedArtemisStudent simulatedStudent : List.of(simulatedArtemisStudent1, simulatedArtemisStudent3)) {
+            verify(simulatedStudent, times(1)).login();
+            verify(simulatedStudent, times(1)).performInitialCalls();
+            verify(simulatedStudent, times(1)).startExamParticipation(1, 1, 0);
+            verify(simulatedStudent, times(1)).participateInExam(1, 1);
+            verify(simulatedStudent, times(1)).submitAndEndExam(1, 1);
+        }
+        verify(simulatedArtemisStudent2, times(1)).login();
+        verify(simulatedArtemisStudent2, times(0)).startExamParticipation(anyLong(), anyLong(), anyLong());
+
+        verify(simulationWebsocketService, times(2)).sendRunStatusUpdate(run);
+        assertEquals(RUNNING, statusesOnWebsocketUpdate.get(0));
+        assertEquals(FINISHED, statusesOnWebsocketUpdate.get(1));
+        verify(simulationResultService, times(1)).calculateAndSaveResult(eq(run), any());
+    }
+
     @Test
     public void testExistingCourseCreateExam_cleanupEnabled_success() {
         Simulation simulation = new Simulation();
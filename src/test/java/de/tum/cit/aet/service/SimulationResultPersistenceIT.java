@@ -0,0 +1,116 @@
+package de.tum.cit.aet.service;
+
+import static de.tum.cit.aet.util.ArtemisServer.TS1;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.tum.cit.aet.IntegrationTest;
+import de.tum.cit.aet.domain.RequestStat;
+import de.tum.cit.aet.domain.RequestType;
+import de.tum.cit.aet.domain.Simulation;
+import de.tum.cit.aet.domain.SimulationRun;
+import de.tum.cit.aet.repository.SimulationRepository;
+import de.tum.cit.aet.repository.SimulationRunRepository;
+import de.tum.cit.aet.repository.StatsByMinuteRepository;
+import de.tum.cit.aet.repository.StatsBySecondRepository;
+import de.tum.cit.aet.service.simulation.RequestStatAggregate;
+import de.tum.cit.aet.service.simulation.SimulationResultService;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Saves results to the database for real, unlike {@link SimulationResultServiceIT}, to check how many statements it
+ * takes.
+ */
+@IntegrationTest
+@Transactional
+public class SimulationResultPersistenceIT {
+
+    private static final int SECONDS = 3600;
+
+    @Autowired
+    private SimulationResultService simulationResultService;
+
+    @Autowired
+    private SimulationRepository simulationRepository;
+
+    @Autowired
+    private SimulationRunRepository simulationRunRepository;
+
+    @Autowired
+    private StatsByMinuteRepository statsByMinuteRepository;
+
+    @Autowired
+    private StatsBySecondRepository statsBySecondRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    private SimulationRun simulationRun;
+
+    @BeforeEach
+    void setUp() {
+        Simulation simulation = new Simulation();
+        simulation.setName("Batched result");
+        simulation.setMode(Simulation.Mode.EXISTING_COURSE_UNPREPARED_EXAM);
+        simulation.setServer(TS1);
+        simulation.setNumberOfUsers(1);
+        simulation.setCreationDate(ZonedDateTime.now());
+        simulation.setIdeType(Simulation.IDEType.OFFLINE);
+        simulation.setPasswordPercentage(100);
+        simulation.setNumberOfCommitsAndPushesFrom(1);
+        simulation.setNumberOfCommitsAndPushesTo(2);
+        simulation = simulationRepository.save(simulation);
+
+        simulationRun = new SimulationRun();
+        simulationRun.setSimulation(simulation);
+        simulationRun.setStartDateTime(ZonedDateTime.now());
+        simulationRun.setStatus(SimulationRun.Status.RUNNING);
+        simulationRun = simulationRunRepository.save(simulationRun);
+        entityManager.flush();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void resultOfAnHourIsSavedInBatches() {
+        ZonedDateTime start = ZonedDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        List<RequestStat> requestStats = new ArrayList<>();
+        for (int second = 0; second < SECONDS; second++) {
+            requestStats.add(RequestStat.of(start.plusSeconds(second), 100L, RequestType.AUTHENTICATION));
+            requestStats.add(RequestStat.of(start.plusSeconds(second), 200L, RequestType.MISC));
+        }
+        long secondsBefore = statsBySecondRepository.count();
+        long minutesBefore = statsByMinuteRepository.count();
+        statistics.clear();
+
+        simulationResultService.calculateAndSaveResult(simulationRun, RequestStatAggregate.of(requestStats));
+        entityManager.flush();
+        long statements = statistics.getPrepareStatementCount();
+
+        // Total, authentication and misc, each with a row per second and per minute.
+        assertEquals(3L * SECONDS, statsBySecondRepository.count() - secondsBefore);
+        assertEquals(3L * SECONDS / 60, statsByMinuteRepository.count() - minutesBefore);
+        // One insert per row would be over 11,000 statements.
+        assertTrue(statements <= 100, "Saving the result took " + statements + " statements");
+    }
+}
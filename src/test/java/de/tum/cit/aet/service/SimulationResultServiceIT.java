@@ -3,19 +3,31 @@ package de.tum.cit.aet.service;
 import static de.tum.cit.aet.domain.RequestType.*;
 import static java.time.ZonedDateTime.now;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import de.tum.cit.aet.IntegrationTest;
+import de.tum.cit.aet.domain.EndpointStats;
 import de.tum.cit.aet.domain.RequestStat;
+import de.tum.cit.aet.domain.RequestType;
 import de.tum.cit.aet.domain.Simulation;
 import de.tum.cit.aet.domain.SimulationRun;
+import de.tum.cit.aet.domain.StatsRollup;
+import de.tum.cit.aet.repository.EndpointStatsRepository;
 import de.tum.cit.aet.repository.SimulationStatsRepository;
 import de.tum.cit.aet.repository.StatsByMinuteRepository;
 import de.tum.cit.aet.repository.StatsBySecondRepository;
+import de.tum.cit.aet.repository.StatsRollupRepository;
+import de.tum.cit.aet.service.simulation.RequestStatAggregate;
 import de.tum.cit.aet.service.simulation.SimulationResultService;
 import jakarta.transaction.Transactional;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -37,6 +49,12 @@ public class SimulationResultServiceIT {
     @MockitoBean
     private StatsBySecondRepository statsBySecondRepository;
 
+    @MockitoBean
+    private StatsRollupRepository statsRollupRepository;
+
+    @MockitoBean
+    private EndpointStatsRepository endpointStatsRepository;
+
     private List<RequestStat> requestStats;
 
     private SimulationRun simulationRun;
@@ -47,46 +65,46 @@ public class SimulationResultServiceIT {
     void setUp() {
         nowMinute = now().truncatedTo(ChronoUnit.MINUTES);
         requestStats = List.of(
-            new RequestStat(nowMinute, 100L, AUTHENTICATION),
-            new RequestStat(nowMinute, 120L, AUTHENTICATION),
-            new RequestStat(nowMinute.plus(20, ChronoUnit.MILLIS), 200L, AUTHENTICATION),
-            new RequestStat(nowMinute.plus(25, ChronoUnit.MILLIS), 180L, AUTHENTICATION),
-            new RequestStat(nowMinute.plus(30, ChronoUnit.MILLIS), 150L, AUTHENTICATION),
-            new RequestStat(nowMinute.plusMinutes(1).plus(100, ChronoUnit.MILLIS), 240L, GET_STUDENT_EXAM),
-            new RequestStat(nowMinute.plusMinutes(1).plus(110, ChronoUnit.MILLIS), 220L, GET_STUDENT_EXAM),
-            new RequestStat(nowMinute.plusMinutes(1).plus(110, ChronoUnit.MILLIS), 200L, GET_STUDENT_EXAM),
-            new RequestStat(nowMinute.plusMinutes(1).plus(130, ChronoUnit.MILLIS), 180L, GET_STUDENT_EXAM),
-            new RequestStat(nowMinute.plusMinutes(1).plus(130, ChronoUnit.MILLIS), 160L, GET_STUDENT_EXAM),
-            new RequestStat(nowMinute.plusMinutes(2).plus(200, ChronoUnit.MILLIS), 300L, START_STUDENT_EXAM),
-            new RequestStat(nowMinute.plusMinutes(2).plus(210, ChronoUnit.MILLIS), 280L, START_STUDENT_EXAM),
-            new RequestStat(nowMinute.plusMinutes(2).plus(210, ChronoUnit.MILLIS), 260L, START_STUDENT_EXAM),
-            new RequestStat(nowMinute.plusMinutes(2).plus(220, ChronoUnit.MILLIS), 240L, START_STUDENT_EXAM),
-            new RequestStat(nowMinute.plusMinutes(2).plus(220, ChronoUnit.MILLIS), 220L, START_STUDENT_EXAM),
-            new RequestStat(nowMinute.plusMinutes(3).plus(300, ChronoUnit.MILLIS), 340L, SUBMIT_EXERCISE),
-            new RequestStat(nowMinute.plusMinutes(3).plus(310, ChronoUnit.MILLIS), 320L, SUBMIT_EXERCISE),
-            new RequestStat(nowMinute.plusMinutes(3).plus(310, ChronoUnit.MILLIS), 300L, SUBMIT_EXERCISE),
-            new RequestStat(nowMinute.plusMinutes(3).plus(320, ChronoUnit.MILLIS), 280L, SUBMIT_EXERCISE),
-            new RequestStat(nowMinute.plusMinutes(3).plus(320, ChronoUnit.MILLIS), 260L, SUBMIT_EXERCISE),
-            new RequestStat(nowMinute.plusMinutes(4).plus(400, ChronoUnit.MILLIS), 380L, SUBMIT_STUDENT_EXAM),
-            new RequestStat(nowMinute.plusMinutes(4).plus(410, ChronoUnit.MILLIS), 360L, SUBMIT_STUDENT_EXAM),
-            new RequestStat(nowMinute.plusMinutes(4).plus(410, ChronoUnit.MILLIS), 340L, SUBMIT_STUDENT_EXAM),
-            new RequestStat(nowMinute.plusMinutes(5).plus(420, ChronoUnit.MILLIS), 320L, SUBMIT_STUDENT_EXAM),
-            new RequestStat(nowMinute.plusMinutes(5).plus(420, ChronoUnit.MILLIS), 300L, SUBMIT_STUDENT_EXAM),
-            new RequestStat(nowMinute.plusMinutes(5).plus(500, ChronoUnit.MILLIS), 440L, CLONE_PASSWORD),
-            new RequestStat(nowMinute.plusMinutes(5).plus(510, ChronoUnit.MILLIS), 420L, CLONE_PASSWORD),
-            new RequestStat(nowMinute.plusMinutes(5).plus(510, ChronoUnit.MILLIS), 400L, CLONE_PASSWORD),
-            new RequestStat(nowMinute.plusMinutes(5).plus(520, ChronoUnit.MILLIS), 380L, CLONE_PASSWORD),
-            new RequestStat(nowMinute.plusMinutes(5).plus(520, ChronoUnit.MILLIS), 360L, CLONE_PASSWORD),
-            new RequestStat(nowMinute.plusMinutes(6).plus(600, ChronoUnit.MILLIS), 500L, PUSH_PASSWORD),
-            new RequestStat(nowMinute.plusMinutes(6).plus(610, ChronoUnit.MILLIS), 480L, PUSH_PASSWORD),
-            new RequestStat(nowMinute.plusMinutes(6).plus(610, ChronoUnit.MILLIS), 460L, PUSH_PASSWORD),
-            new RequestStat(nowMinute.plusMinutes(6).plus(620, ChronoUnit.MILLIS), 440L, PUSH_PASSWORD),
-            new RequestStat(nowMinute.plusMinutes(6).plus(620, ChronoUnit.MILLIS), 420L, PUSH_PASSWORD),
-            new RequestStat(nowMinute.plusMinutes(7).plus(700, ChronoUnit.MILLIS), 560L, MISC),
-            new RequestStat(nowMinute.plusMinutes(7).plus(710, ChronoUnit.MILLIS), 540L, MISC),
-            new RequestStat(nowMinute.plusMinutes(7).plus(710, ChronoUnit.MILLIS), 520L, MISC),
-            new RequestStat(nowMinute.plusMinutes(7).plus(720, ChronoUnit.MILLIS), 500L, MISC),
-            new RequestStat(nowMinute.plusMinutes(7).plus(720, ChronoUnit.MILLIS), 480L, MISC)
+            RequestStat.of(nowMinute, 100L, AUTHENTICATION),
+            RequestStat.of(nowMinute, 120L, AUTHENTICATION),
+            RequestStat.of(nowMinute.plus(20, ChronoUnit.MILLIS), 200L, AUTHENTICATION),
+            RequestStat.of(nowMinute.plus(25, ChronoUnit.MILLIS), 180L, AUTHENTICATION),
+            RequestStat.of(nowMinute.plus(30, ChronoUnit.MILLIS), 150L, AUTHENTICATION),
+            RequestStat.of(nowMinute.plusMinutes(1).plus(100, ChronoUnit.MILLIS), 240L, GET_STUDENT_EXAM),
+            RequestStat.of(nowMinute.plusMinutes(1).plus(110, ChronoUnit.MILLIS), 220L, GET_STUDENT_EXAM),
+            RequestStat.of(nowMinute.plusMinutes(1).plus(110, ChronoUnit.MILLIS), 200L, GET_STUDENT_EXAM),
+            RequestStat.of(nowMinute.plusMinutes(1).plus(130, ChronoUnit.MILLIS), 180L, GET_STUDENT_EXAM),
+            RequestStat.of(nowMinute.plusMinutes(1).plus(130, ChronoUnit.MILLIS), 160L, GET_STUDENT_EXAM),
+            RequestStat.of(nowMinute.plusMinutes(2).plus(200, ChronoUnit.MILLIS), 300L, START_STUDENT_EXAM),
+            RequestStat.of(nowMinute.plusMinutes(2).plus(210, ChronoUnit.MILLIS), 280L, START_STUDENT_EXAM),
+            RequestStat.of(nowMinute.plusMinutes(2).plus(210, ChronoUnit.MILLIS), 260L, START_STUDENT_EXAM),
+            RequestStat.of(nowMinute.plusMinutes(2).plus(220, ChronoUnit.MILLIS), 240L, START_STUDENT_EXAM),
+            RequestStat.of(nowMinute.plusMinutes(2).plus(220, ChronoUnit.MILLIS), 220L, START_STUDENT_EXAM),
+            RequestStat.of(nowMinute.plusMinutes(3).plus(300, ChronoUnit.MILLIS), 340L, SUBMIT_EXERCISE),
+            RequestStat.of(nowMinute.plusMinutes(3).plus(310, ChronoUnit.MILLIS), 320L, SUBMIT_EXERCISE),
+            RequestStat.of(nowMinute.plusMinutes(3).plus(310, ChronoUnit.MILLIS), 300L, SUBMIT_EXERCISE),
+            RequestStat.of(nowMinute.plusMinutes(3).plus(320, ChronoUnit.MILLIS), 280L, SUBMIT_EXERCISE),
+            RequestStat.of(nowMinute.plusMinutes(3).plus(320, ChronoUnit.MILLIS), 260L, SUBMIT_EXERCISE),
+            RequestStat.of(nowMinute.plusMinutes(4).plus(400, ChronoUnit.MILLIS), 380L, SUBMIT_STUDENT_EXAM),
+            RequestStat.of(nowMinute.plusMinutes(4).plus(410, ChronoUnit.MILLIS), 360L, SUBMIT_STUDENT_EXAM),
+            RequestStat.of(nowMinute.plusMinutes(4).plus(410, ChronoUnit.MILLIS), 340L, SUBMIT_STUDENT_EXAM),
+            RequestStat.of(nowMinute.plusMinutes(5).plus(420, ChronoUnit.MILLIS), 320L, SUBMIT_STUDENT_EXAM),
+            RequestStat.of(nowMinute.plusMinutes(5).plus(420, ChronoUnit.MILLIS), 300L, SUBMIT_STUDENT_EXAM),
+            RequestStat.of(nowMinute.plusMinutes(5).plus(500, ChronoUnit.MILLIS), 440L, CLONE_PASSWORD),
+            RequestStat.of(nowMinute.plusMinutes(5).plus(510, ChronoUnit.MILLIS), 420L, CLONE_PASSWORD),
+            RequestStat.of(nowMinute.plusMinutes(5).plus(510, ChronoUnit.MILLIS), 400L, CLONE_PASSWORD),
+            RequestStat.of(nowMinute.plusMinutes(5).plus(520, ChronoUnit.MILLIS), 380L, CLONE_PASSWORD),
+            RequestStat.of(nowMinute.plusMinutes(5).plus(520, ChronoUnit.MILLIS), 360L, CLONE_PASSWORD),
+            RequestStat.of(nowMinute.plusMinutes(6).plus(600, ChronoUnit.MILLIS), 500L, PUSH_PASSWORD),
+            RequestStat.of(nowMinute.plusMinutes(6).plus(610, ChronoUnit.MILLIS), 480L, PUSH_PASSWORD),
+            RequestStat.of(nowMinute.plusMinutes(6).plus(610, ChronoUnit.MILLIS), 460L, PUSH_PASSWORD),
+            RequestStat.of(nowMinute.plusMinutes(6).plus(620, ChronoUnit.MILLIS), 440L, PUSH_PASSWORD),
+            RequestStat.of(nowMinute.plusMinutes(6).plus(620, ChronoUnit.MILLIS), 420L, PUSH_PASSWORD),
+            RequestStat.of(nowMinute.plusMinutes(7).plus(700, ChronoUnit.MILLIS), 560L, MISC),
+            RequestStat.of(nowMinute.plusMinutes(7).plus(710, ChronoUnit.MILLIS), 540L, MISC),
+            RequestStat.of(nowMinute.plusMinutes(7).plus(710, ChronoUnit.MILLIS), 520L, MISC),
+            RequestStat.of(nowMinute.plusMinutes(7).plus(720, ChronoUnit.MILLIS), 500L, MISC),
+            RequestStat.of(nowMinute.plusMinutes(7).plus(720, ChronoUnit.MILLIS), 480L, MISC)
         );
         Simulation simulation = new Simulation();
         simulation.setOnlineIdePercentage(0);
@@ -94,12 +112,13 @@ public class SimulationResultServiceIT {
         simulation.setTokenPercentage(25);
         simulation.setSshPercentage(25);
         simulationRun = new SimulationRun();
+        simulationRun.setId(1L);
         simulationRun.setSimulation(simulation);
     }
 
     @Test
     public void calculateAndSaveResult() {
-        simulationResultService.calculateAndSaveResult(simulationRun, requestStats);
+        simulationResultService.calculateAndSaveResult(simulationRun, RequestStatAggregate.of(requestStats));
         var totalStats = simulationRun
             .getStats()
             .stream()
@@ -190,6 +209,10 @@ public class SimulationResultServiceIT {
         assertEquals(150, authStats.getAvgResponseTime());
         assertEquals(simulationRun, authStats.getSimulationRun());
         assertEquals(1, authStats.getStatsByMinute().size());
+        assertEquals(150, authStats.getPercentiles().getP50());
+        assertEquals(200, authStats.getPercentiles().getP99());
+        assertEquals(200, authStats.getPercentiles().getMax());
+        assertEquals(200, authStats.getStatsByMinute().iterator().next().getPercentiles().getMax());
 
         // GET_STUDENT_EXAM
         assertEquals(5, getStudentExamsStats.getNumberOfRequests());
@@ -257,5 +280,170 @@ public class SimulationResultServiceIT {
         assertEquals(520, miscStats.getAvgResponseTime());
         assertEquals(simulationRun, miscStats.getSimulationRun());
         assertEquals(1, miscStats.getStatsByMinute().size());
+
+        // The rollups are not needed once the result is saved
+        verify(statsRollupRepository).deleteAllBySimulationRunId(1L);
+    }
+
+    @Test
+    public void calculateAndSaveResult_perEndpoint() {
+        String account = "GET api/core/public/account";
+        String submit = "PUT api/exam/courses/{courseId}/exams/{examId}/student-exams/submit";
+        List<RequestStat> stats = List.of(
+            RequestStat.of(nowMinute, 100L, AUTHENTICATION, null, 0, 0).withEndpoint(account),
+            RequestStat.of(nowMinute, 300L, AUTHENTICATION, null, 0, 0).withEndpoint(account),
+            RequestStat.of(nowMinute, 500L, SUBMIT_STUDENT_EXAM, null, 0, 0).withEndpoint(submit),
+            RequestStat.of(nowMinute, 700L, MISC)
+        );
+
+        simulationResultService.calculateAndSaveResult(simulationRun, RequestStatAggregate.of(stats));
+
+        // Requests without an endpoint only count towards their request type.
+        assertEquals(2, simulationRun.getEndpointStats().size());
+        EndpointStats accountStats = simulationRun
+            .getEndpointStats()
+            .stream()
+            .filter(endpoint -> endpoint.getUriTemplate().equals("api/core/public/account"))
+            .findFirst()
+            .orElseThrow();
+        assertEquals("GET", accountStats.getHttpMethod());
+        assertEquals(2, accountStats.getNumberOfRequests());
+        assertEquals(200, accountStats.getAvgResponseTime());
+        assertEquals(simulationRun, accountStats.getSimulationRun());
+    }
+
+    @Test
+    public void calculateAndSaveResult_withFailures() {
+        String submit = "PUT api/exam/courses/{courseId}/exams/{examId}/student-exams/submit";
+        ZonedDateTime nextSecond = nowMinute.plusSeconds(1);
+        List<RequestStat> stats = List.of(
+            RequestStat.of(nowMinute, 400L, SUBMIT_STUDENT_EXAM, null, 0, 0).withEndpoint(submit).withOutcome(200, null),
+            RequestStat.of(nowMinute, 10L, SUBMIT_STUDENT_EXAM, null, 0, 0).withEndpoint(submit).withOutcome(503, "IllegalStateException"),
+            RequestStat.of(nextSecond, 20L, SUBMIT_STUDENT_EXAM, null, 0, 0).withEndpoint(submit).withOutcome(0, "TimeoutException")
+        );
+
+        simulationResultService.calculateAndSaveResult(simulationRun, RequestStatAggregate.of(stats));
+
+        var submitStats = simulationRun
+            .getStats()
+            .stream()
+            .filter(result -> result.getRequestType() == SUBMIT_STUDENT_EXAM)
+            .findFirst()
+            .orElseThrow();
+        // Failures do not count as requests, so they do not pull the average down.
+        assertEquals(1, submitStats.getNumberOfRequests());
+        assertEquals(2, submitStats.getNumberOfFailures());
+        assertEquals(400, submitStats.getAvgResponseTime());
+        assertEquals(Map.of(0, 1L, 200, 1L, 503, 1L), submitStats.getStatusCodes());
+        // A second with failures only still shows up, without an average.
+        var failedSecond = submitStats
+            .getStatsBySecond()
+            .stream()
+            .filter(second -> second.getDateTime().isEqual(nextSecond))
+            .findFirst()
+            .orElseThrow();
+        assertEquals(0, failedSecond.getNumberOfRequests());
+        assertEquals(1, failedSecond.getNumberOfFailures());
+        assertEquals(0, failedSecond.getAvgResponseTime());
+        EndpointStats endpointStats = simulationRun.getEndpointStats().iterator().next();
+        assertEquals(2, endpointStats.getNumberOfFailures());
+        assertEquals(Map.of(0, 1L, 200, 1L, 503, 1L), endpointStats.getStatusCodes());
+    }
+
+    @Test
+    public void saveResultFromRollups() {
+        // One rollup per request, so rollups of the same second have to add up.
+        List<StatsRollup> rollups = requestStats
+            .stream()
+            .map(stat -> {
+                StatsRollup rollup = new StatsRollup();
+                rollup.setDateTime(stat.dateTime().truncatedTo(ChronoUnit.SECONDS));
+                rollup.setRequestType(stat.type());
+                rollup.setNumberOfRequests(1);
+                rollup.setTotalResponseTime(stat.duration());
+                rollup.setSimulationRun(simulationRun);
+                return rollup;
+            })
+            .toList();
+        when(statsRollupRepository.findAllBySimulationRunId(1L)).thenReturn(rollups);
+
+        assertTrue(simulationResultService.saveResultFromRollups(simulationRun));
+
+        var totalStats = simulationRun
+            .getStats()
+            .stream()
+            .filter(stats -> stats.getRequestType() == TOTAL)
+            .findFirst()
+            .orElseThrow();
+        var authStats = simulationRun
+            .getStats()
+            .stream()
+            .filter(stats -> stats.getRequestType() == AUTHENTICATION)
+            .findFirst()
+            .orElseThrow();
+
+        // TOTAL, the same as calculated from the requests themselves
+        assertEquals(40, totalStats.getNumberOfRequests());
+        assertEquals(328, totalStats.getAvgResponseTime());
+        assertEquals(8, totalStats.getStatsByMinute().size());
+
+        // AUTHENTICATION, all within the same second
+        assertEquals(5, authStats.getNumberOfRequests());
+        assertEquals(150, authStats.getAvgResponseTime());
+        assertEquals(1, authStats.getStatsBySecond().size());
+        assertEquals(5, authStats.getStatsBySecond().iterator().next().getNumberOfRequests());
+
+        // Only the request types that occurred, besides the total
+        assertEquals(9, simulationRun.getStats().size());
+    }
+
+    @Test
+    public void saveResultFromRollups_personaTotals() {
+        // The writer rolls up requests per type, and the totals of each persona separately.
+        when(statsRollupRepository.findAllBySimulationRunId(1L)).thenReturn(
+            List.of(rollup(MISC, null, 3, 300), rollup(TOTAL, "crammer", 2, 100), rollup(TOTAL, "procrastinator", 1, 200))
+        );
+
+        assertTrue(simulationResultService.saveResultFromRollups(simulationRun));
+
+        var totalStats = simulationRun
+            .getStats()
+            .stream()
+            .filter(stats -> stats.getRequestType() == TOTAL && stats.getPersona() == null)
+            .findFirst()
+            .orElseThrow();
+        var crammerStats = simulationRun
+            .getStats()
+            .stream()
+            .filter(stats -> "crammer".equals(stats.getPersona()))
+            .findFirst()
+            .orElseThrow();
+
+        // The persona totals are not counted again towards the total
+        assertEquals(3, totalStats.getNumberOfRequests());
+        assertEquals(100, totalStats.getAvgResponseTime());
+        assertEquals(TOTAL, crammerStats.getRequestType());
+        assertEquals(2, crammerStats.getNumberOfRequests());
+        assertEquals(50, crammerStats.getAvgResponseTime());
+        assertEquals(4, simulationRun.getStats().size());
+    }
+
+    private StatsRollup rollup(RequestType type, String persona, long numberOfRequests, long totalResponseTime) {
+        StatsRollup rollup = new StatsRollup();
+        rollup.setDateTime(nowMinute);
+        rollup.setRequestType(type);
+        rollup.setPersona(persona);
+        rollup.setNumberOfRequests(numberOfRequests);
+        rollup.setTotalResponseTime(totalResponseTime);
+        rollup.setSimulationRun(simulationRun);
+        return rollup;
+    }
+
+    @Test
+    public void saveResultFromRollups_noRollups() {
+        when(statsRollupRepository.findAllBySimulationRunId(1L)).thenReturn(List.of());
+
+        assertFalse(simulationResultService.saveResultFromRollups(simulationRun));
+        assertNull(simulationRun.getStats());
     }
 }
@@ -0,0 +1,65 @@
+package de.tum.cit.aet.service.artemis.interaction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+class ArtemisHttpClientsTest {
+
+    private final ConnectionProvider sharedPool = ConnectionProvider.create("test", 10);
+    private final LoopResources loopResources = LoopResources.create("test-http", 1, true);
+    private final ArtemisHttpClients httpClients = new ArtemisHttpClients(sharedPool, loopResources);
+
+    @BeforeEach
+    void init() {
+        ReflectionTestUtils.setField(httpClients, "maxIdleTimeSeconds", 30);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sharedPool.dispose();
+        loopResources.dispose();
+    }
+
+    @Test
+    void ownPoolHoldsAsManyConnectionsAsABrowser() {
+        ConnectionProvider pool = httpClients.newConnectionPool("student1");
+
+        assertEquals(SimulatedArtemisUser.MAX_PARALLEL_REQUESTS_PER_ORIGIN, pool.maxConnections());
+        pool.dispose();
+    }
+
+    @Test
+    void userWithOwnPoolUsesItForAllOfItsClientsUntilReleased() {
+        SimulatedArtemisAdmin user = new SimulatedArtemisAdmin("http://localhost", "admin", "admin");
+        user.setHttpClients(httpClients, true);
+
+        user.createWebClientBuilder();
+        Object pool = ReflectionTestUtils.getField(user, "connectionPool");
+        user.createWebClientBuilder();
+
+        assertNotNull(pool);
+        assertSame(pool, ReflectionTestUtils.getField(user, "connectionPool"));
+        user.releaseConnections();
+        assertNull(ReflectionTestUtils.getField(user, "connectionPool"));
+    }
+
+    @Test
+    void userWithoutOwnPoolUsesTheSharedClient() {
+        SimulatedArtemisAdmin user = new SimulatedArtemisAdmin("http://localhost", "admin", "admin");
+        user.setHttpClients(httpClients, false);
+
+        user.createWebClientBuilder();
+
+        assertNull(ReflectionTestUtils.getField(user, "connectionPool"));
+        assertSame(httpClients.shared(), ReflectionTestUtils.getField(user, "httpClient"));
+    }
+}
@@ -0,0 +1,42 @@
+package de.tum.cit.aet.service.artemis.interaction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+class EndpointsTest {
+
+    @Test
+    void of_keepsTheTemplateAndDropsTheQuery() {
+        assertEquals(
+            "GET api/programming/participations/{participationId}/repository/files",
+            Endpoints.of("GET", "api/programming/participations/{participationId}/repository/files?commit=yes")
+        );
+    }
+
+    @Test
+    void of_replacesIdsInPaths() {
+        assertEquals(
+            "POST api/communication/courses/{id}/messages",
+            Endpoints.of("POST", "/api/communication/courses/42/messages?conversationId=7")
+        );
+        assertEquals(
+            "GET api/core/files/{id}/download",
+            Endpoints.of("GET", "/api/core/files/0f8fad5b-d9cb-469f-a165-70867728950e/download")
+        );
+    }
+
+    @Test
+    void of_internsTheNames() {
+        assertSame(Endpoints.of("GET", "api/core/public/time"), Endpoints.of("GET", new StringBuilder("/api/core/public/time").toString()));
+    }
+
+    @Test
+    void of_namesRepeatedTemplatesAndPathsAlike() {
+        String template = "api/exam/courses/{courseId}/exams/{examId}/student-exams/submit";
+        assertSame(Endpoints.of("POST", template), Endpoints.of("POST", template));
+        assertEquals("PUT api/exam/courses/{id}/exams/{id}", Endpoints.of("PUT", "/api/exam/courses/1/exams/2"));
+        assertEquals("PUT api/exam/courses/{id}/exams/{id}", Endpoints.of("PUT", "/api/exam/courses/3/exams/4"));
+    }
+}
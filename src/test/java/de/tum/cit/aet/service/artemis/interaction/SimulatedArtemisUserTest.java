@@ -0,0 +1,134 @@
+package de.tum.cit.aet.service.artemis.interaction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.tum.cit.aet.domain.RequestStat;
+import de.tum.cit.aet.domain.RequestType;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.test.web.reactive.server.HttpHandlerConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+class SimulatedArtemisUserTest {
+
+    private static final String AUTH_COOKIE = "jwt=token; Path=/; Max-Age=3600; Expires=Tue, 01 Jan 2030 00:00:00 GMT";
+
+    @Test
+    void loginLater_authenticatesAndRecordsTheLogin() {
+        RouterFunction<ServerResponse> router = loginRouter().build();
+        SimulatedArtemisAdmin admin = new SimulatedArtemisAdmin("http://localhost", "admin", "admin", webClientSupplier(router));
+
+        List<RequestStat> stats = admin.loginLater().block();
+
+        assertEquals(1, stats.size());
+        assertEquals(RequestType.AUTHENTICATION, stats.getFirst().type());
+        assertEquals("POST api/core/public/authenticate", stats.getFirst().endpoint());
+        assertTrue(admin.authenticated);
+    }
+
+    @Test
+    void loadPageLater_keepsTheOrderAndHoldsBrowserParallelism() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        RouterFunction<ServerResponse> router = loginRouter()
+            .GET("/api/slow", request -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                return Mono.delay(Duration.ofMillis(20)).then(Mono.defer(() -> {
+                    inFlight.decrementAndGet();
+                    return ServerResponse.ok().build();
+                }));
+            })
+            .build();
+        SimulatedArtemisAdmin admin = new SimulatedArtemisAdmin("http://localhost", "admin", "admin", webClientSupplier(router));
+        admin.loginLater().block();
+
+        List<Mono<RequestStat>> page = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            RequestType type = i % 2 == 0 ? RequestType.MISC : RequestType.SERVER_TIME;
+            page.add(admin.timed(type, () -> admin.webClient.get().uri("api/slow").retrieve().toBodilessEntity()));
+        }
+        List<RequestStat> stats = admin.loadPageLater(page).block();
+
+        assertEquals(11, stats.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i % 2 == 0 ? RequestType.MISC : RequestType.SERVER_TIME, stats.get(i).type());
+        }
+        assertEquals(RequestType.PAGE_LOAD, stats.getLast().type());
+        assertTrue(maxInFlight.get() <= SimulatedArtemisUser.MAX_PARALLEL_REQUESTS_PER_ORIGIN, "In flight: " + maxInFlight.get());
+    }
+
+    @Test
+    void timed_recordsAFailedRequestWithItsStatus() {
+        RouterFunction<ServerResponse> router = loginRouter()
+            .GET("/api/broken", request -> ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE).build())
+            .build();
+        SimulatedArtemisAdmin admin = new SimulatedArtemisAdmin("http://localhost", "admin", "admin", webClientSupplier(router));
+        admin.loginLater().block();
+
+        Mono<RequestStat> request = admin.timed(RequestType.MISC, () ->
+            admin.webClient.get().uri("api/broken").retrieve().toBodilessEntity()
+        );
+
+        assertThrows(IllegalStateException.class, request::block);
+        List<RequestStat> failed = admin.takeFailedRequests();
+        assertEquals(1, failed.size());
+        assertEquals(RequestType.MISC, failed.getFirst().type());
+        assertEquals("GET api/broken", failed.getFirst().endpoint());
+        assertEquals(503, failed.getFirst().status());
+        assertEquals("IllegalStateException", failed.getFirst().error());
+        assertTrue(admin.takeFailedRequests().isEmpty());
+    }
+
+    @Test
+    void timed_journalsEachRequestOfTheAction() {
+        RouterFunction<ServerResponse> router = loginRouter()
+            .GET("/api/first", request -> ServerResponse.ok().build())
+            .GET("/api/broken", request -> ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE).build())
+            .build();
+        SimulatedArtemisAdmin admin = new SimulatedArtemisAdmin("http://localhost", "admin", "admin", webClientSupplier(router));
+        admin.loginLater().block();
+        List<String> journaled = new ArrayList<>();
+        admin.setRequestJournal((type, start, duration, limiterWait, student, endpoint, status, failed) ->
+            journaled.add(type + " " + endpoint + " " + status + (failed ? " failed" : ""))
+        );
+
+        Mono<RequestStat> request = admin.timed(RequestType.MISC, () ->
+            admin.webClient
+                .get()
+                .uri("api/first")
+                .retrieve()
+                .toBodilessEntity()
+                .then(admin.webClient.get().uri("api/broken").retrieve().toBodilessEntity())
+        );
+
+        assertThrows(IllegalStateException.class, request::block);
+        assertEquals(List.of("MISC GET api/first 200", "MISC GET api/broken 503 failed"), journaled);
+    }
+
+    private static RouterFunctions.Builder loginRouter() {
+        return RouterFunctions.route()
+            .POST("/api/core/public/authenticate", request -> ServerResponse.ok().header(HttpHeaders.SET_COOKIE, AUTH_COOKIE).build())
+            .GET("/api/core/public/account", request ->
+                ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue("{\"authorities\":[\"ROLE_SUPER_ADMIN\"]}")
+            );
+    }
+
+    private static Supplier<WebClient.Builder> webClientSupplier(RouterFunction<ServerResponse> router) {
+        ClientHttpConnector connector = new HttpHandlerConnector(RouterFunctions.toHttpHandler(router));
+        return () -> WebClient.builder().clientConnector(connector);
+    }
+}
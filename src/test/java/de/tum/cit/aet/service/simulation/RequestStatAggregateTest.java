@@ -0,0 +1,252 @@
+package de.tum.cit.aet.service.simulation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.tum.cit.aet.domain.RequestStat;
+import de.tum.cit.aet.domain.RequestTimingBreakdown;
+import de.tum.cit.aet.domain.RequestTimings;
+import de.tum.cit.aet.domain.RequestType;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class RequestStatAggregateTest {
+
+    private static final ZonedDateTime MINUTE = ZonedDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+
+    @Test
+    void sumsRequestsPerSecondAndMinute() {
+        RequestStatAggregate aggregate = RequestStatAggregate.of(
+            List.of(
+                RequestStat.of(MINUTE.plusNanos(1_000), 10L, RequestType.MISC),
+                RequestStat.of(MINUTE.plusNanos(999_000_000), 30L, RequestType.MISC),
+                RequestStat.of(MINUTE.plusSeconds(59), 20L, RequestType.MISC),
+                RequestStat.of(MINUTE.plusMinutes(1), 40L, RequestType.MISC)
+            )
+        );
+
+        RequestStatAggregate.Series misc = aggregate.get(RequestType.MISC, null);
+        assertThat(misc.count()).isEqualTo(4);
+        assertThat(misc.totalDuration()).isEqualTo(100);
+        assertThat(misc.bySecond()).hasSize(3);
+        assertThat(misc.bySecond().get(MINUTE)).containsExactly(2, 40, 0, 0, 0, 0, 0, 0, 0);
+        assertThat(misc.byMinute()).hasSize(2);
+        assertThat(misc.byMinute().get(MINUTE)).containsExactly(3, 60, 0, 0, 0, 0, 0, 0, 0);
+        assertThat(misc.histogramOfMinute(MINUTE).getMaxValue()).isEqualTo(30);
+        assertThat(misc.histogram().getTotalCount()).isEqualTo(4);
+    }
+
+    @Test
+    void totalsLeaveOutWhatIsCountedUnderAnotherType() {
+        RequestStatAggregate aggregate = RequestStatAggregate.of(
+            List.of(
+                RequestStat.of(MINUTE, 100L, RequestType.AUTHENTICATION, "crammer", 0, 0),
+                RequestStat.of(MINUTE, 100L, RequestType.MISC, null, 50, 0),
+                RequestStat.of(MINUTE, 500L, RequestType.PAGE_LOAD, "crammer", 0, 0),
+                RequestStat.of(MINUTE, 100L, RequestType.EXAM_START_SPIKE)
+            )
+        );
+
+        assertThat(aggregate.getNumberOfRequests()).isEqualTo(2);
+        assertThat(aggregate.get(RequestType.PAGE_LOAD, null).count()).isEqualTo(1);
+        assertThat(aggregate.get(RequestType.EXAM_START_SPIKE, null).count()).isEqualTo(1);
+        assertThat(aggregate.get(RequestType.TOTAL, "crammer").count()).isEqualTo(1);
+        assertThat(aggregate.personas()).containsExactly("crammer");
+        assertThat(aggregate.get(RequestType.RATE_LIMIT_WAIT, null).totalDuration()).isEqualTo(50);
+    }
+
+    @Test
+    void countsTheExamStartSpikeAgainOnlyUnderItsOwnType() {
+        List<RequestStat> spike = List.of(
+            RequestStat.of(MINUTE, 100L, RequestType.START_STUDENT_EXAM, "crammer", 50, 0),
+            RequestStat.of(MINUTE, 300L, RequestType.START_STUDENT_EXAM, "crammer", 0, 1).withOutcome(503, "IllegalStateException")
+        );
+        RequestStatAggregate aggregate = RequestStatAggregate.of(spike);
+        spike.forEach(aggregate::recordExamStartSpike);
+
+        RequestStatAggregate.Series examStartSpike = aggregate.get(RequestType.EXAM_START_SPIKE, null);
+        assertThat(examStartSpike.histogram().getTotalCount()).isEqualTo(1);
+        assertThat(examStartSpike.failures()).isEqualTo(1);
+        assertThat(aggregate.getNumberOfRequests()).isEqualTo(1);
+        assertThat(aggregate.get(RequestType.RATE_LIMIT_WAIT, null).count()).isEqualTo(1);
+    }
+
+    @Test
+    void sumsThePhasesOfTimedRequests() {
+        RequestStatAggregate aggregate = RequestStatAggregate.of(
+            List.of(
+                new RequestStat(MINUTE, 100L, RequestType.MISC, null, 0, 0, new RequestTimings(5, 10, 20, 50, 15, 1), null, 0, null),
+                new RequestStat(
+                    MINUTE.plusSeconds(1),
+                    60L,
+                    RequestType.MISC,
+                    null,
+                    0,
+                    0,
+                    new RequestTimings(0, 0, 0, 40, 20, 1),
+                    null,
+                    0,
+                    null
+                ),
+                RequestStat.of(MINUTE.plusSeconds(1), 30L, RequestType.MISC)
+            )
+        );
+
+        RequestStatAggregate.Series misc = aggregate.get(RequestType.MISC, null);
+        assertThat(misc.totalTimings()).isEqualTo(new RequestTimings(5, 10, 20, 90, 35, 2));
+        assertThat(misc.bySecond().get(MINUTE.plusSeconds(1))).containsExactly(2, 90, 0, 0, 0, 40, 20, 0, 1);
+        assertThat(RequestStatAggregate.Series.timingsOf(misc.byMinute().get(MINUTE))).isEqualTo(new RequestTimings(5, 10, 20, 90, 35, 2));
+        assertThat(aggregate.get(RequestType.TOTAL, null).totalTimings()).isEqualTo(misc.totalTimings());
+        // Averaged over the two timed requests, not all three.
+        assertThat(RequestTimingBreakdown.of(misc.totalTimings()).getAvgFirstByteTime()).isEqualTo(45);
+    }
+
+    @Test
+    void countsFailuresApartFromTheDurations() {
+        String endpoint = "POST api/exam/courses/{id}/exams/{id}/student-exams/submit";
+        RequestStatAggregate aggregate = RequestStatAggregate.of(
+            List.of(
+                RequestStat.of(MINUTE, 800L, RequestType.MISC, null, 0, 0).withEndpoint(endpoint).withOutcome(200, null),
+                RequestStat.of(MINUTE, 5L, RequestType.MISC, null, 0, 0).withEndpoint(endpoint).withOutcome(503, "IllegalStateException"),
+                RequestStat.of(MINUTE.plusSeconds(1), 30_000L, RequestType.MISC, null, 0, 0)
+                    .withEndpoint(endpoint)
+                    .withOutcome(0, "TimeoutException"),
+                RequestStat.of(MINUTE.plusSeconds(2), 100L, RequestType.MISC)
+            )
+        );
+
+        RequestStatAggregate.Series misc = aggregate.get(RequestType.MISC, null);
+        assertThat(misc.count()).isEqualTo(2);
+        assertThat(misc.totalDuration()).isEqualTo(900);
+        assertThat(misc.failures()).isEqualTo(2);
+        assertThat(misc.histogram().getMaxValue()).isEqualTo(800);
+        assertThat(misc.bySecond().get(MINUTE)).containsExactly(1, 800, 0, 0, 0, 0, 0, 1, 0);
+        assertThat(RequestStatAggregate.Series.failuresOf(misc.bySecond().get(MINUTE.plusSeconds(1)))).isEqualTo(1);
+        assertThat(misc.statuses()).containsExactly(Map.entry(0, 1L), Map.entry(200, 1L), Map.entry(503, 1L));
+        assertThat(aggregate.get(RequestType.TOTAL, null).failures()).isEqualTo(2);
+        RequestStatAggregate.EndpointSeries submit = aggregate.endpoints().get(endpoint);
+        assertThat(submit.count()).isEqualTo(1);
+        assertThat(submit.failures()).isEqualTo(2);
+        assertThat(submit.histogram().getTotalCount()).isEqualTo(1);
+    }
+
+    @Test
+    void lateRequestsCountTowardsTheirOwnSecondAndMinute() {
+        RequestStatAggregate aggregate = RequestStatAggregate.of(
+            List.of(
+                RequestStat.of(MINUTE.plusMinutes(2), 10L, RequestType.MISC),
+                RequestStat.of(MINUTE.plusMinutes(3), 20L, RequestType.MISC),
+                RequestStat.of(MINUTE.plusMinutes(2).plusSeconds(30), 30L, RequestType.MISC),
+                RequestStat.of(MINUTE, 40L, RequestType.MISC)
+            )
+        );
+
+        RequestStatAggregate.Series misc = aggregate.get(RequestType.MISC, null);
+        assertThat(misc.bySecond().firstKey().toInstant()).isEqualTo(MINUTE.toInstant());
+        assertThat(misc.byMinute()).hasSize(3);
+        assertThat(misc.histogramOfMinute(MINUTE).getMaxValue()).isEqualTo(40);
+        assertThat(misc.histogramOfMinute(MINUTE.plusMinutes(2)).getTotalCount()).isEqualTo(2);
+        assertThat(misc.histogramOfMinute(MINUTE.plusMinutes(3)).getMaxValue()).isEqualTo(20);
+        assertThat(misc.histogram().getTotalCount()).isEqualTo(4);
+    }
+
+    @Test
+    void slicesOfWorkersMergeLikeTheirRequests() {
+        String endpoint = "GET api/core/public/account";
+        List<RequestStat> stats = List.of(
+            new RequestStat(
+                MINUTE,
+                100L,
+                RequestType.MISC,
+                "crammer",
+                40,
+                1,
+                new RequestTimings(5, 10, 20, 50, 15, 1),
+                endpoint,
+                200,
+                null
+            ),
+            RequestStat.of(MINUTE.plusSeconds(61), 300L, RequestType.MISC, null, 0, 2).withEndpoint(endpoint).withOutcome(503, "x"),
+            RequestStat.of(MINUTE.plusSeconds(61), 500L, RequestType.PAGE_LOAD, "crammer", 0, 0)
+        );
+        RequestStatSlice slice = new RequestStatSlice();
+        slice.recordAll(stats);
+
+        RequestStatAggregate merged = new RequestStatAggregate();
+        merged.merge(slice.drain());
+
+        RequestStatAggregate recorded = RequestStatAggregate.of(stats);
+        for (RequestType type : List.of(RequestType.MISC, RequestType.TOTAL, RequestType.PAGE_LOAD, RequestType.RATE_LIMIT_WAIT)) {
+            RequestStatAggregate.Series expected = recorded.get(type, null);
+            RequestStatAggregate.Series actual = merged.get(type, null);
+            assertThat(actual.bySecond()).usingRecursiveComparison().isEqualTo(expected.bySecond());
+            assertThat(actual.histogram()).isEqualTo(expected.histogram());
+            assertThat(actual.statuses()).isEqualTo(expected.statuses());
+        }
+        assertThat(merged.get(RequestType.TOTAL, "crammer").count()).isEqualTo(1);
+        assertThat(merged.personas()).containsExactly("crammer");
+        assertThat(merged.endpoints().get(endpoint).sums()).containsExactly(recorded.endpoints().get(endpoint).sums());
+        assertThat(slice.drain().series()).isEmpty();
+    }
+
+    @Test
+    void typesWithoutRequestsAreEmpty() {
+        RequestStatAggregate.Series series = new RequestStatAggregate().get(RequestType.WEBSOCKET, null);
+
+        assertThat(series.count()).isZero();
+        assertThat(series.bySecond()).isEmpty();
+        assertThat(series.histogram().getTotalCount()).isZero();
+    }
+
+    @Test
+    void recordsFromManyThreadsAtOnce() {
+        RequestStatAggregate aggregate = new RequestStatAggregate();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int thread = 0; thread < 100; thread++) {
+                executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        aggregate.record(RequestStat.of(MINUTE.plusSeconds(i % 120), 1_000L, RequestType.MISC));
+                    }
+                });
+            }
+        }
+
+        assertThat(aggregate.getNumberOfRequests()).isEqualTo(100_000);
+        assertThat(aggregate.get(RequestType.MISC, null).totalDuration()).isEqualTo(100_000_000);
+        assertThat(aggregate.get(RequestType.MISC, null).histogram().getTotalCount()).isEqualTo(100_000);
+    }
+
+    @Test
+    void slicesLoseNoRequestsDrainedWhileRecording() throws Exception {
+        RequestStatSlice slice = new RequestStatSlice();
+        RequestStatAggregate merged = new RequestStatAggregate();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> students = new ArrayList<>();
+            for (int thread = 0; thread < 20; thread++) {
+                students.add(
+                    executor.submit(() -> {
+                        for (int i = 0; i < 1000; i++) {
+                            slice.recordAll(List.of(RequestStat.of(MINUTE.plusSeconds(i % 120), 1_000L, RequestType.MISC)));
+                        }
+                    })
+                );
+            }
+            for (Future<?> student : students) {
+                while (!student.isDone()) {
+                    merged.merge(slice.drain());
+                }
+                student.get();
+            }
+        }
+        merged.merge(slice.drain());
+
+        assertThat(merged.getNumberOfRequests()).isEqualTo(20_000);
+        assertThat(merged.get(RequestType.MISC, null).histogram().getTotalCount()).isEqualTo(20_000);
+    }
+}
@@ -0,0 +1,144 @@
+package de.tum.cit.aet.service.simulation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.withinPercentage;
+
+import de.tum.cit.aet.domain.RequestType;
+import de.tum.cit.aet.domain.SimulationRun;
+import de.tum.cit.aet.service.artemis.interaction.SimulatedArtemisAdmin;
+import de.tum.cit.aet.service.artemis.interaction.SimulatedArtemisUser;
+import de.tum.cit.aet.service.dto.SampleQueryResultDTO;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class SampleJournalServiceTest {
+
+    private static final ZonedDateTime MINUTE = ZonedDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+
+    private static final long MINUTE_NANOS = MINUTE.toEpochSecond() * 1_000_000_000L;
+
+    private static final SimulatedArtemisUser[] NO_STUDENTS = {};
+
+    @TempDir
+    private Path directory;
+
+    private final SampleJournalService sampleJournalService = new SampleJournalService();
+
+    @BeforeEach
+    void init() {
+        ReflectionTestUtils.setField(sampleJournalService, "directory", directory.toString());
+        SimulationRun run = new SimulationRun();
+        run.setId(1L);
+        try (SampleJournalWriter journal = sampleJournalService.start(run, NO_STUDENTS)) {
+            record(journal, RequestType.PUSH_SSH, 999, 1_000_000L, 500);
+            record(journal, RequestType.PUSH_SSH, 1_997, 3_000_000L, 800);
+            record(journal, RequestType.PUSH_SSH, 60_995, 5_000_000L, 600);
+            record(journal, RequestType.PUSH_SSH, 2_993, 7_000_000L, 900);
+            record(journal, RequestType.CLONE_SSH, 3_991, 9_000_000L, 700);
+            record(journal, RequestType.PAGE_LOAD, 4_989, 11_000_000L, 700);
+        }
+    }
+
+    @Test
+    void queryFiltersByTypeAndStudent() {
+        var filter = new SampleFilter(Set.of(RequestType.PUSH_SSH), 500, 800, null, null, null);
+
+        SampleQueryResultDTO result = sampleJournalService.query(1, filter, 60);
+
+        assertThat(result.numberOfRequests()).isEqualTo(3);
+        assertThat(result.percentiles().getMax()).isCloseTo(5_000_000L, withinPercentage(1));
+        assertThat(result.timeline()).hasSize(2);
+        assertThat(result.timeline().getFirst().dateTime().toInstant()).isEqualTo(MINUTE.toInstant());
+        assertThat(result.timeline().getFirst().numberOfRequests()).isEqualTo(2);
+        assertThat(result.timeline().getFirst().avgResponseTime()).isEqualTo(2_000_000);
+        assertThat(result.timeline().getLast().maxResponseTime()).isEqualTo(5_000_000);
+    }
+
+    @Test
+    void queryFiltersByTimeAndLeavesOutPageLoads() {
+        var filter = new SampleFilter(null, null, null, MINUTE.plusSeconds(2), MINUTE.plusSeconds(10), null);
+
+        SampleQueryResultDTO result = sampleJournalService.query(1, filter, 1);
+
+        // Made at 2.993 s and 3.991 s; the pushes sent before 2 s or after 10 s and the page load are left out.
+        assertThat(result.numberOfRequests()).isEqualTo(2);
+        assertThat(result.timeline()).extracting(SampleQueryResultDTO.Interval::maxResponseTime).containsExactly(7_000_000L, 9_000_000L);
+    }
+
+    @Test
+    void queryFiltersByEndpoint() {
+        SimulationRun run = new SimulationRun();
+        run.setId(3L);
+        try (SampleJournalWriter journal = sampleJournalService.start(run, NO_STUDENTS)) {
+            journal.record(RequestType.MISC, MINUTE_NANOS, 1_000_000L, 0, 1, "GET api/core/public/account", 200, false);
+            journal.record(RequestType.MISC, MINUTE_NANOS, 2_000_000L, 0, 1, "GET api/course/courses/{courseId}/for-overview", 200, false);
+            journal.record(RequestType.MISC, MINUTE_NANOS, 4_000_000L, 0, 1, "GET api/core/public/account", 200, false);
+            journal.record(RequestType.MISC, MINUTE_NANOS, 8_000_000L, 0, 1, null, 200, false);
+        }
+        var filter = new SampleFilter(null, null, null, null, null, Set.of("GET api/core/public/account", "GET api/unknown"));
+
+        SampleQueryResultDTO result = sampleJournalService.query(3, filter, 60);
+
+        assertThat(result.numberOfRequests()).isEqualTo(2);
+        assertThat(result.timeline().getFirst().avgResponseTime()).isEqualTo(2_500_000);
+    }
+
+    @Test
+    void queryCountsFailuresApartFromTheResponseTimes() {
+        SimulationRun run = new SimulationRun();
+        run.setId(4L);
+        try (SampleJournalWriter journal = sampleJournalService.start(run, NO_STUDENTS)) {
+            journal.record(RequestType.MISC, MINUTE_NANOS + 999_000_000L, 1_000_000L, 0, 1, null, 200, false);
+            journal.record(RequestType.MISC, MINUTE_NANOS + 910_000_000L, 90_000_000L, 0, 2, null, 503, true);
+            journal.record(RequestType.MISC, MINUTE_NANOS + 69_920_000_000L, 80_000_000L, 0, 3, null, 0, true);
+        }
+        var filter = new SampleFilter(null, null, null, null, null, null);
+
+        SampleQueryResultDTO result = sampleJournalService.query(4, filter, 60);
+
+        assertThat(result.numberOfRequests()).isEqualTo(1);
+        assertThat(result.numberOfFailures()).isEqualTo(2);
+        assertThat(result.percentiles().getMax()).isCloseTo(1_000_000L, withinPercentage(1));
+        assertThat(result.timeline()).extracting(SampleQueryResultDTO.Interval::numberOfFailures).containsExactly(1L, 1L);
+        assertThat(result.timeline().getLast().numberOfRequests()).isZero();
+        assertThat(result.timeline().getLast().avgResponseTime()).isZero();
+    }
+
+    @Test
+    void startJournalsTheRequestsOfTheStudents() {
+        SimulationRun run = new SimulationRun();
+        run.setId(5L);
+        SimulatedArtemisUser admin = new SimulatedArtemisAdmin("http://localhost", "admin", "admin");
+        try (SampleJournalWriter journal = sampleJournalService.start(run, new SimulatedArtemisUser[] { admin })) {
+            assertThat(ReflectionTestUtils.getField(admin, "requestJournal")).isSameAs(journal);
+            // Requests that complete while the run wraps up are dropped.
+            journal.close();
+            journal.record(RequestType.MISC, MINUTE_NANOS, 1_000_000L, 0, 1, null, 200, false);
+        }
+        var filter = new SampleFilter(null, null, null, null, null, null);
+
+        assertThat(sampleJournalService.query(5, filter, 60).numberOfRequests()).isZero();
+    }
+
+    @Test
+    void runsWithoutJournalAreNotFound() {
+        var filter = new SampleFilter(null, null, null, null, null, null);
+
+        assertThatThrownBy(() -> sampleJournalService.query(2, filter, 60)).isInstanceOf(NoSuchElementException.class);
+    }
+
+    /**
+     * Journal a successful request made the given milliseconds into the minute.
+     */
+    private static void record(SampleJournalWriter journal, RequestType type, long startMillis, long durationNanos, int student) {
+        journal.record(type, MINUTE_NANOS + startMillis * 1_000_000L, durationNanos, 0, student, null, 200, false);
+    }
+}
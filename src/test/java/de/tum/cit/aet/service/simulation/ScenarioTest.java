@@ -0,0 +1,164 @@
+package de.tum.cit.aet.service.simulation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.tum.cit.aet.domain.RequestStat;
+import de.tum.cit.aet.domain.RequestType;
+import de.tum.cit.aet.service.artemis.interaction.SimulatedArtemisStudent;
+import de.tum.cit.aet.util.CancellationToken;
+import de.tum.cit.aet.util.SyncPoint;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+class ScenarioTest {
+
+    private static final Scenario.Context CONTEXT = new Scenario.Context(12, 34, 56, null, null);
+
+    private static SimulatedArtemisStudent student() {
+        SimulatedArtemisStudent student = mock(SimulatedArtemisStudent.class);
+        RequestStat stat = RequestStat.of(ZonedDateTime.now(), 1L, RequestType.MISC);
+        when(student.login()).thenReturn(List.of(stat));
+        when(student.autosaveExam(anyBoolean())).thenReturn(List.of(stat));
+        when(student.performRequest(any(), any(), any(), any())).thenReturn(stat);
+        when(student.getUsername()).thenReturn("student7");
+        when(student.getCancellationToken()).thenReturn(new CancellationToken());
+        return student;
+    }
+
+    @Test
+    void runsFlowsAndLoopsInOrder() throws InterruptedException {
+        Scenario scenario = Scenario.compile(
+            """
+            steps:
+              - login
+              - loop:
+                  times: 3
+                  steps: [autosave, autosaveAndPush]
+            """
+        );
+        SimulatedArtemisStudent student = student();
+        RequestStatCollector requestStats = new RequestStatCollector();
+
+        scenario.run(student, CONTEXT, requestStats);
+
+        verify(student).login();
+        verify(student, times(3)).autosaveExam(false);
+        verify(student, times(3)).autosaveExam(true);
+        assertThat(requestStats.getAggregate().getNumberOfRequests()).isEqualTo(7);
+    }
+
+    @Test
+    void fillsInPlaceholdersOfPathsAndBodies() throws InterruptedException {
+        Scenario scenario = Scenario.compile(
+            """
+            {"steps": [
+              {"get": "/api/exam/courses/{courseId}/exams/{examId}/exercises/{programmingExerciseId}"},
+              {"put": "api/core/users/{username}", "body": "{\\"exam\\": {examId}}", "type": "SUBMIT_EXERCISE"}
+            ]}
+            """
+        );
+        SimulatedArtemisStudent student = student();
+
+        scenario.run(student, CONTEXT, new RequestStatCollector());
+
+        verify(student).performRequest(HttpMethod.GET, "api/exam/courses/12/exams/34/exercises/56", null, RequestType.MISC);
+        verify(student).performRequest(HttpMethod.PUT, "api/core/users/student7", "{\"exam\": 34}", RequestType.SUBMIT_EXERCISE);
+    }
+
+    @Test
+    void choosesBranchesInProportionToTheirWeights() throws InterruptedException {
+        Scenario scenario = Scenario.compile(
+            """
+            steps:
+              - loop:
+                  times: 10000
+                  steps:
+                    - choose:
+                        - weight: 3
+                          steps: [autosave]
+                        - weight: 1
+                          steps: [{ get: "api/core/courses" }]
+            """
+        );
+        SimulatedArtemisStudent student = student();
+        RequestStatCollector requestStats = new RequestStatCollector();
+
+        scenario.run(student, CONTEXT, requestStats);
+
+        assertThat(requestStats.getAggregate().getNumberOfRequests()).isEqualTo(10000);
+        long requests = mockingDetails(student)
+            .getInvocations()
+            .stream()
+            .filter(invocation -> invocation.getMethod().getName().equals("performRequest"))
+            .count();
+        assertThat(requests).isBetween(2200L, 2800L);
+    }
+
+    @Test
+    void leavesTheExamStartIfTheSessionFailsBeforeIt() {
+        Scenario scenario = Scenario.compile("steps: [login, examStart, autosave]");
+        SimulatedArtemisStudent student = student();
+        when(student.login()).thenThrow(new IllegalStateException("login failed"));
+        SyncPoint examStart = new SyncPoint(2);
+
+        assertThatThrownBy(() -> scenario.run(student, new Scenario.Context(1, 2, 0, examStart, null), new RequestStatCollector()))
+            .isInstanceOf(IllegalStateException.class);
+
+        // The other student can pass on their own now.
+        assertThat(scenario.hasExamStart()).isTrue();
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> examStart.await(null));
+        verify(student, times(0)).autosaveExam(anyBoolean());
+    }
+
+    @Test
+    void loopsStopOnceTheRunIsCancelled() {
+        Scenario scenario = Scenario.compile(
+            """
+            steps:
+              - loop:
+                  seconds: 3600
+                  steps: [{ wait: fixed 30000 }]
+            """
+        );
+        SimulatedArtemisStudent student = student();
+        CancellationToken cancellation = new CancellationToken();
+        cancellation.cancel();
+        when(student.getCancellationToken()).thenReturn(cancellation);
+
+        // A cancelled wait returns at once, so only the loop itself can stop the student.
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () ->
+            assertThatThrownBy(() -> scenario.run(student, CONTEXT, new RequestStatCollector())).isInstanceOf(CancellationException.class)
+        );
+    }
+
+    @Test
+    void rejectsMalformedScenarios() {
+        assertThatThrownBy(() -> Scenario.compile("")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Scenario.compile("steps: [dance]")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Scenario.compile("steps: [{get: 'api/{unknown}'}]")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Scenario.compile("steps: [{get: 'api', type: TOTAL}]")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Scenario.compile("steps: [{wait: 'uniform 5 1'}]")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Scenario.compile("steps: [examStart, examStart]")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Scenario.compile("steps: [{loop: {times: 2, steps: [examStart]}}]")).isInstanceOf(
+            IllegalArgumentException.class
+        );
+        assertThatThrownBy(() -> Scenario.compile("steps: [{loop: {seconds: 5, steps: []}}]")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Scenario.compile("steps: [{choose: [{weight: 0, steps: []}]}]")).isInstanceOf(
+            IllegalArgumentException.class
+        );
+        assertThatThrownBy(() -> Scenario.compile("steps: [{get: 'api', params: 1}]")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,47 @@
+package de.tum.cit.aet.service.simulation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.tum.cit.aet.artemisModel.ArtemisAuthMechanism;
+import de.tum.cit.aet.domain.Simulation;
+import de.tum.cit.aet.util.Persona;
+import java.util.EnumSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class SimulationExecutionServiceTest {
+
+    @Test
+    void personaOnlineIdePercentage_fallsBackToTheOnlineIdeIfTheSimulationAllowsNothingElse() {
+        Simulation simulation = new Simulation();
+        simulation.setOnlineIdePercentage(100);
+        simulation.setPasswordPercentage(0);
+        simulation.setTokenPercentage(0);
+        simulation.setSshPercentage(0);
+        Persona persona = Persona.parseAll("- name: half\n  weight: 1\n  onlineIdePercentage: 50").getFirst();
+
+        Set<ArtemisAuthMechanism> mechanisms = EnumSet.noneOf(ArtemisAuthMechanism.class);
+        for (int i = 0; i < 1_000; i++) {
+            mechanisms.add(SimulationExecutionService.getArtemisAuthMechanism(simulation, persona));
+        }
+
+        assertThat(mechanisms).containsExactly(ArtemisAuthMechanism.ONLINE_IDE);
+    }
+
+    @Test
+    void personaOnlineIdePercentage_splitsTheRestLikeTheSimulation() {
+        Simulation simulation = new Simulation();
+        simulation.setOnlineIdePercentage(50);
+        simulation.setPasswordPercentage(0);
+        simulation.setTokenPercentage(50);
+        simulation.setSshPercentage(0);
+        Persona persona = Persona.parseAll("- name: none\n  weight: 1\n  onlineIdePercentage: 0").getFirst();
+
+        Set<ArtemisAuthMechanism> mechanisms = EnumSet.noneOf(ArtemisAuthMechanism.class);
+        for (int i = 0; i < 1_000; i++) {
+            mechanisms.add(SimulationExecutionService.getArtemisAuthMechanism(simulation, persona));
+        }
+
+        assertThat(mechanisms).containsExactly(ArtemisAuthMechanism.PARTICIPATION_TOKEN);
+    }
+}
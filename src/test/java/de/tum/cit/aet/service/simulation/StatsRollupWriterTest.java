@@ -0,0 +1,191 @@
+package de.tum.cit.aet.service.simulation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.tum.cit.aet.domain.RequestStat;
+import de.tum.cit.aet.domain.RequestType;
+import de.tum.cit.aet.domain.SimulationRun;
+import de.tum.cit.aet.domain.StatsRollup;
+import de.tum.cit.aet.repository.StatsRollupRepository;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+class StatsRollupWriterTest {
+
+    private static final ZonedDateTime SECOND = ZonedDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    private final StatsRollupRepository repository = mock(StatsRollupRepository.class);
+    private final RequestStatAggregate aggregate = new RequestStatAggregate();
+    private final List<StatsRollup> saved = new ArrayList<>();
+
+    private StatsRollupWriter writer() {
+        when(repository.saveAll(any())).thenAnswer(invocation -> {
+            invocation.<Iterable<StatsRollup>>getArgument(0).forEach(saved::add);
+            return List.of();
+        });
+        SimulationRun simulationRun = new SimulationRun();
+        simulationRun.setId(1L);
+        return new StatsRollupWriter(simulationRun, aggregate, repository);
+    }
+
+    private StatsRollup rollup(RequestType type, String persona) {
+        return saved
+            .stream()
+            .filter(rollup -> rollup.getRequestType() == type && Objects.equals(rollup.getPersona(), persona))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    @Test
+    void sumsEachSecondPerTypeAndPersonaTotal() {
+        StatsRollupWriter writer = writer();
+
+        aggregate.recordAll(
+            List.of(
+                RequestStat.of(SECOND.plusNanos(1_000), 100L, RequestType.MISC, "crammer", 0, 0),
+                RequestStat.of(SECOND.plusNanos(900_000_000), 300L, RequestType.MISC, "crammer", 0, 0),
+                RequestStat.of(SECOND, 50L, RequestType.MISC, null, 0, 0),
+                RequestStat.of(SECOND.plusSeconds(1), 70L, RequestType.AUTHENTICATION)
+            )
+        );
+        writer.flush();
+
+        assertThat(saved).hasSize(3);
+        StatsRollup misc = rollup(RequestType.MISC, null);
+        assertThat(misc.getDateTime()).isEqualTo(SECOND);
+        assertThat(misc.getNumberOfRequests()).isEqualTo(3);
+        assertThat(misc.getTotalResponseTime()).isEqualTo(450);
+        assertThat(rollup(RequestType.TOTAL, "crammer").getTotalResponseTime()).isEqualTo(400);
+        assertThat(rollup(RequestType.AUTHENTICATION, null).getDateTime()).isEqualTo(SECOND.plusSeconds(1));
+    }
+
+    @Test
+    void rollsUpRateLimiterWaitsSeparately() {
+        StatsRollupWriter writer = writer();
+
+        aggregate.recordAll(
+            List.of(RequestStat.of(SECOND, 100L, RequestType.MISC, null, 40, 0), RequestStat.of(SECOND, 100L, RequestType.MISC))
+        );
+        writer.flush();
+
+        StatsRollup waits = rollup(RequestType.RATE_LIMIT_WAIT, null);
+        assertThat(waits.getNumberOfRequests()).isEqualTo(1);
+        assertThat(waits.getTotalResponseTime()).isEqualTo(40);
+        assertThat(rollup(RequestType.MISC, null).getNumberOfRequests()).isEqualTo(2);
+    }
+
+    @Test
+    void countsFailedRequestsWithoutTheirResponseTime() {
+        StatsRollupWriter writer = writer();
+
+        aggregate.recordAll(
+            List.of(
+                RequestStat.of(SECOND, 100L, RequestType.MISC),
+                RequestStat.of(SECOND, 5L, RequestType.MISC, null, 0, 0).withOutcome(503, "IllegalStateException")
+            )
+        );
+        writer.flush();
+
+        StatsRollup misc = rollup(RequestType.MISC, null);
+        assertThat(misc.getNumberOfRequests()).isEqualTo(1);
+        assertThat(misc.getTotalResponseTime()).isEqualTo(100);
+        assertThat(misc.getNumberOfFailures()).isEqualTo(1);
+    }
+
+    @Test
+    void includesTheSlicesOfWorkers() {
+        StatsRollupWriter writer = writer();
+        RequestStatSlice slice = new RequestStatSlice();
+        slice.recordAll(
+            List.of(
+                RequestStat.of(SECOND, 100L, RequestType.MISC, "crammer", 40, 0),
+                RequestStat.of(SECOND, 300L, RequestType.MISC, "crammer", 0, 0),
+                RequestStat.of(SECOND, 5L, RequestType.MISC, null, 0, 0).withOutcome(503, "IllegalStateException")
+            )
+        );
+
+        aggregate.merge(slice.drain());
+        writer.flush();
+
+        StatsRollup crammer = rollup(RequestType.TOTAL, "crammer");
+        assertThat(crammer.getDateTime()).isEqualTo(SECOND);
+        assertThat(crammer.getNumberOfRequests()).isEqualTo(2);
+        assertThat(crammer.getTotalResponseTime()).isEqualTo(400);
+        assertThat(rollup(RequestType.MISC, null).getNumberOfFailures()).isEqualTo(1);
+        assertThat(rollup(RequestType.RATE_LIMIT_WAIT, null).getTotalResponseTime()).isEqualTo(40);
+    }
+
+    @Test
+    void leavesOutTheExamStartSpike() {
+        StatsRollupWriter writer = writer();
+
+        aggregate.recordAll(List.of(RequestStat.of(SECOND, 100L, RequestType.EXAM_START_SPIKE)));
+        writer.flush();
+
+        verify(repository, never()).saveAll(any());
+    }
+
+    @Test
+    void onlyAppendsWhatArrivedSinceTheLastFlush() {
+        StatsRollupWriter writer = writer();
+
+        aggregate.recordAll(List.of(RequestStat.of(SECOND, 100L, RequestType.MISC)));
+        writer.flush();
+        writer.flush();
+        aggregate.recordAll(List.of(RequestStat.of(SECOND, 200L, RequestType.MISC)));
+        writer.close();
+
+        verify(repository, times(2)).saveAll(any());
+        assertThat(saved).extracting(StatsRollup::getTotalResponseTime).containsExactly(100L, 200L);
+    }
+
+    @Test
+    void forgetsSecondsPastTheGracePeriod() {
+        StatsRollupWriter writer = writer();
+
+        aggregate.recordAll(List.of(RequestStat.of(SECOND, 100L, RequestType.MISC)));
+        writer.flush();
+        aggregate.recordAll(List.of(RequestStat.of(SECOND.plusSeconds(StatsRollupWriter.GRACE_SECONDS + 1), 200L, RequestType.MISC)));
+        writer.flush();
+        aggregate.recordAll(List.of(RequestStat.of(SECOND, 300L, RequestType.MISC)));
+        writer.flush();
+
+        assertThat(saved).extracting(StatsRollup::getTotalResponseTime).containsExactly(100L, 200L);
+    }
+
+    @Test
+    void writesTheRollupsOfAFailedFlushWithTheNextOne() {
+        StatsRollupWriter writer = writer();
+        when(repository.saveAll(any())).thenThrow(new DataAccessResourceFailureException("down")).thenAnswer(invocation -> {
+            invocation.<Iterable<StatsRollup>>getArgument(0).forEach(saved::add);
+            return List.of();
+        });
+
+        aggregate.recordAll(List.of(RequestStat.of(SECOND, 100L, RequestType.MISC)));
+        writer.flush();
+        aggregate.recordAll(List.of(RequestStat.of(SECOND, 200L, RequestType.MISC)));
+        writer.flush();
+
+        assertThat(saved).hasSize(1);
+        assertThat(saved.getFirst().getNumberOfRequests()).isEqualTo(2);
+        assertThat(saved.getFirst().getTotalResponseTime()).isEqualTo(300);
+    }
+
+    @Test
+    void doesNotWriteWithoutStats() {
+        writer().close();
+
+        verify(repository, never()).saveAll(any());
+    }
+}
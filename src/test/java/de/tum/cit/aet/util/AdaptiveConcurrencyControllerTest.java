@@ -0,0 +1,109 @@
+package de.tum.cit.aet.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyControllerTest {
+
+    private static final long FAST = Duration.ofMillis(50).toNanos();
+    private static final long SLOW = Duration.ofSeconds(2).toNanos();
+
+    private final ConcurrencyLimit limit = new ConcurrencyLimit(1);
+    private final List<AdaptiveConcurrencyController.Evaluation> evaluations = new ArrayList<>();
+    private final AdaptiveConcurrencyController controller = new AdaptiveConcurrencyController(
+        limit,
+        10,
+        100,
+        Duration.ofMillis(500),
+        0.05,
+        evaluations::add
+    );
+
+    @Test
+    void startsAtOneStep() {
+        assertThat(limit.limit()).isEqualTo(10);
+    }
+
+    @Test
+    void growsAdditivelyWhileWithinTheSlo() {
+        interval(FAST, 100, 0);
+        interval(FAST, 100, 0);
+
+        assertThat(limit.limit()).isEqualTo(30);
+        assertThat(controller.sustainedConcurrency()).isEqualTo(20);
+        assertThat(evaluations).allMatch(AdaptiveConcurrencyController.Evaluation::withinSlo);
+    }
+
+    @Test
+    void halvesOnALatencyBreachAndKeepsTheBestSustainedLevel() {
+        interval(FAST, 100, 0);
+        interval(FAST, 100, 0);
+        interval(FAST, 100, 0);
+        // 40 students: one in ten requests is slow, which puts the 95th percentile over the objective.
+        for (int i = 0; i < 90; i++) {
+            controller.record(FAST);
+        }
+        for (int i = 0; i < 10; i++) {
+            controller.record(SLOW);
+        }
+        controller.evaluate();
+
+        assertThat(limit.limit()).isEqualTo(20);
+        assertThat(evaluations.getLast().withinSlo()).isFalse();
+        assertThat(controller.sustainedConcurrency()).isEqualTo(30);
+    }
+
+    @Test
+    void backsOffOnErrorsEvenWhenLatencyIsFine() {
+        interval(FAST, 100, 0);
+        interval(FAST, 90, 10);
+
+        assertThat(limit.limit()).isEqualTo(10);
+        assertThat(evaluations.getLast().errorRate()).isEqualTo(0.1);
+    }
+
+    @Test
+    void neverExceedsTheCeilingOrDropsBelowOne() {
+        for (int i = 0; i < 20; i++) {
+            interval(FAST, 100, 0);
+        }
+        assertThat(limit.limit()).isEqualTo(100);
+
+        for (int i = 0; i < 20; i++) {
+            interval(SLOW, 100, 0);
+        }
+        assertThat(limit.limit()).isEqualTo(1);
+    }
+
+    @Test
+    void skipsIntervalsWithTooFewRequests() {
+        interval(SLOW, AdaptiveConcurrencyController.MIN_SAMPLES - 1, 0);
+
+        assertThat(evaluations).isEmpty();
+        assertThat(limit.limit()).isEqualTo(10);
+    }
+
+    @Test
+    void judgesSkippedRequestsWithTheNextInterval() {
+        interval(SLOW, AdaptiveConcurrencyController.MIN_SAMPLES - 1, 0);
+        interval(FAST, 1, 0);
+
+        assertThat(evaluations).hasSize(1);
+        assertThat(evaluations.getFirst().withinSlo()).isFalse();
+        assertThat(limit.limit()).isEqualTo(5);
+    }
+
+    private void interval(long duration, int requests, int failures) {
+        for (int i = 0; i < requests; i++) {
+            controller.record(duration);
+        }
+        for (int i = 0; i < failures; i++) {
+            controller.recordFailure();
+        }
+        controller.evaluate();
+    }
+}
@@ -0,0 +1,87 @@
+package de.tum.cit.aet.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ArrivalScheduleTest {
+
+    @Test
+    void constantRateSpacesStudentsEvenly() {
+        ArrivalSchedule schedule = ArrivalSchedule.constantRate(5, 2);
+
+        assertThat(schedule.size()).isEqualTo(5);
+        assertThat(schedule.offsetNanos(0)).isZero();
+        assertThat(schedule.offsetNanos(1)).isEqualTo(500_000_000L);
+        assertThat(schedule.duration()).isEqualTo(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void constantRateRejectsANonPositiveRate() {
+        assertThatThrownBy(() -> ArrivalSchedule.constantRate(5, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ArrivalSchedule.constantRate(5, Double.NaN)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void poissonArrivalsAreOrderedAndMatchTheMeanRate() {
+        ArrivalSchedule schedule = ArrivalSchedule.poisson(10_000, 100, new Random(42));
+
+        for (int i = 1; i < schedule.size(); i++) {
+            assertThat(schedule.offsetNanos(i)).isGreaterThanOrEqualTo(schedule.offsetNanos(i - 1));
+        }
+        // 10,000 arrivals at 100 per second take about 100 seconds; the spread of the sum is about one second.
+        assertThat(schedule.duration().toMillis() / 1000.0).isCloseTo(100, within(5.0));
+    }
+
+    /**
+     * A linear ramp from 0 to 10 students per second over 10 seconds admits 50 students, and the n-th of them arrives
+     * where the area under the ramp, t^2 / 2, reaches n.
+     */
+    @Test
+    void rateCurveFollowsALinearRamp() {
+        ArrivalSchedule schedule = ArrivalSchedule.rateCurve(51, "0:0, 10:10");
+
+        assertThat(schedule.offsetNanos(8) / 1e9).isCloseTo(4, within(1e-6));
+        assertThat(schedule.offsetNanos(50) / 1e9).isCloseTo(10, within(1e-6));
+    }
+
+    @Test
+    void rateCurveHoldsTheLastRateAfterTheLastPoint() {
+        ArrivalSchedule schedule = ArrivalSchedule.rateCurve(21, "0:10, 1:10");
+
+        assertThat(schedule.offsetNanos(10) / 1e9).isCloseTo(1, within(1e-6));
+        assertThat(schedule.offsetNanos(20) / 1e9).isCloseTo(2, within(1e-6));
+    }
+
+    @Test
+    void rateCurveRejectsACurveThatRunsOutOfStudents() {
+        assertThatThrownBy(() -> ArrivalSchedule.rateCurve(100, "0:1, 10:0"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("ends at zero");
+    }
+
+    @Test
+    void parseRateCurveStartsAtZeroWhenTheFirstPointIsLater() {
+        List<ArrivalSchedule.RatePoint> points = ArrivalSchedule.parseRateCurve("60:5, 120:20");
+
+        assertThat(points).containsExactly(
+            new ArrivalSchedule.RatePoint(0, 0),
+            new ArrivalSchedule.RatePoint(60, 5),
+            new ArrivalSchedule.RatePoint(120, 20)
+        );
+    }
+
+    @Test
+    void parseRateCurveRejectsMalformedCurves() {
+        assertThatThrownBy(() -> ArrivalSchedule.parseRateCurve("")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ArrivalSchedule.parseRateCurve("0:1, 10")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ArrivalSchedule.parseRateCurve("0:one")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ArrivalSchedule.parseRateCurve("0:-1")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ArrivalSchedule.parseRateCurve("10:1, 5:1")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
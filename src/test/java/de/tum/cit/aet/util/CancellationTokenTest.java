@@ -0,0 +1,76 @@
+package de.tum.cit.aet.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class CancellationTokenTest {
+
+    @Test
+    void cancelRunsEveryActionOnce() {
+        CancellationToken cancellation = new CancellationToken();
+        AtomicInteger runs = new AtomicInteger();
+        cancellation.onCancel(runs::incrementAndGet);
+        cancellation.onCancel(runs::incrementAndGet);
+
+        cancellation.cancel();
+        cancellation.cancel();
+
+        assertThat(cancellation.isCancelled()).isTrue();
+        assertThat(runs).hasValue(2);
+    }
+
+    @Test
+    void actionsRegisteredAfterTheCancellationRunRightAway() {
+        CancellationToken cancellation = new CancellationToken();
+        cancellation.cancel();
+        AtomicInteger runs = new AtomicInteger();
+
+        cancellation.onCancel(runs::incrementAndGet);
+
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void throwIfCancelledThrowsOnlyOnceCancelled() {
+        CancellationToken cancellation = new CancellationToken();
+        assertThatNoException().isThrownBy(cancellation::throwIfCancelled);
+
+        cancellation.cancel();
+
+        assertThatThrownBy(cancellation::throwIfCancelled).isInstanceOf(CancellationException.class);
+    }
+
+    @Test
+    void sleepWakesUpOnCancellation() throws InterruptedException {
+        CancellationToken cancellation = new CancellationToken();
+        Thread.ofVirtual().start(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            cancellation.cancel();
+        });
+        long start = System.nanoTime();
+
+        boolean sleptFully = cancellation.sleep(Duration.ofMinutes(1));
+
+        assertThat(sleptFully).isFalse();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(30));
+    }
+
+    @Test
+    void sleepSleepsTheFullTimeWithoutCancellation() throws InterruptedException {
+        CancellationToken cancellation = new CancellationToken();
+        long start = System.nanoTime();
+
+        assertThat(cancellation.sleep(Duration.ofMillis(20))).isTrue();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(Duration.ofMillis(20).toNanos());
+    }
+}
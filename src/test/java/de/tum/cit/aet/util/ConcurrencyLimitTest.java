@@ -0,0 +1,66 @@
+package de.tum.cit.aet.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class ConcurrencyLimitTest {
+
+    @Test
+    void growingTheLimitLetsWaitingActionsStart() throws InterruptedException {
+        ConcurrencyLimit limit = new ConcurrencyLimit(1);
+        int count = 10;
+        CountDownLatch allArrived = new CountDownLatch(count);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread runner = Thread.ofPlatform().start(() ->
+            SimulationConcurrency.forEachIndex(limit, count, index -> {
+                allArrived.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            })
+        );
+
+        assertThat(allArrived.await(200, TimeUnit.MILLISECONDS)).isFalse();
+        limit.resize(count);
+        assertThat(allArrived.await(30, TimeUnit.SECONDS)).as("all %d actions should be in flight after growing", count).isTrue();
+
+        release.countDown();
+        runner.join();
+    }
+
+    /**
+     * Shrinking must not wait for running actions to finish, and must not let new ones start until enough have.
+     */
+    @Test
+    void shrinkingTheLimitHoldsBackNewActionsOnly() {
+        ConcurrencyLimit limit = new ConcurrencyLimit(8);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger highWaterMarkAfterShrinking = new AtomicInteger();
+        AtomicInteger started = new AtomicInteger();
+
+        SimulationConcurrency.forEachIndex(limit, 200, index -> {
+            int running = inFlight.incrementAndGet();
+            if (started.incrementAndGet() == 50) {
+                limit.resize(2);
+            } else if (started.get() > 100) {
+                highWaterMarkAfterShrinking.accumulateAndGet(running, Math::max);
+            }
+            try {
+                Thread.sleep(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+        });
+
+        assertThat(limit.limit()).isEqualTo(2);
+        assertThat(highWaterMarkAfterShrinking).hasValueLessThanOrEqualTo(2);
+    }
+}
@@ -0,0 +1,64 @@
+package de.tum.cit.aet.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class ConcurrencyProfileTest {
+
+    private final ConcurrencyProfile profile = ConcurrencyProfile.parse("start 10, ramp 100 110, hold 50, spike 10 500, step 20 50, ramp 10 1");
+
+    @Test
+    void rampInterpolatesLinearly() {
+        assertThat(profile.levelAt(0)).isEqualTo(10);
+        assertThat(profile.levelAt(50)).isEqualTo(60);
+        assertThat(profile.levelAt(99.99)).isEqualTo(110);
+    }
+
+    @Test
+    void holdKeepsTheLevelAndSpikeReturnsToIt() {
+        assertThat(profile.levelAt(120)).isEqualTo(110);
+        assertThat(profile.levelAt(155)).isEqualTo(500);
+        assertThat(profile.stageAt(165).kind()).isEqualTo(ConcurrencyProfile.Kind.STEP);
+        assertThat(profile.stageAt(165).fromLevel()).isEqualTo(50);
+        assertThat(profile.levelAt(165)).isEqualTo(50);
+        // The ramp after the step starts from the step's level, not the spike's.
+        assertThat(profile.stageAt(180).fromLevel()).isEqualTo(50);
+    }
+
+    @Test
+    void theLastLevelHoldsAfterTheProfileEnds() {
+        assertThat(profile.stageAt(1000)).isNull();
+        assertThat(profile.levelAt(1000)).isEqualTo(1);
+    }
+
+    @Test
+    void stagesRecordTheirBoundaries() {
+        assertThat(profile.stages()).hasSize(5);
+        ConcurrencyProfile.Stage spike = profile.stages().get(2);
+        assertThat(spike.index()).isEqualTo(2);
+        assertThat(spike.description()).isEqualTo("spike 10 500");
+        assertThat(spike.startSecond()).isEqualTo(150);
+        assertThat(spike.endSecond()).isEqualTo(160);
+    }
+
+    @Test
+    void aProfileWithoutStagesIsAFixedLevel() {
+        ConcurrencyProfile fixed = ConcurrencyProfile.parse("start 42");
+
+        assertThat(fixed.stages()).isEmpty();
+        assertThat(fixed.levelAt(0)).isEqualTo(42);
+        assertThat(fixed.levelAt(3600)).isEqualTo(42);
+    }
+
+    @Test
+    void parseRejectsMalformedProfiles() {
+        assertThatThrownBy(() -> ConcurrencyProfile.parse(" ")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ConcurrencyProfile.parse("jump 10 5")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ConcurrencyProfile.parse("ramp 10")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ConcurrencyProfile.parse("hold 0")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ConcurrencyProfile.parse("ramp 10 0")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ConcurrencyProfile.parse("hold 10, start 5")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,29 @@
+package de.tum.cit.aet.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class HttpStatusCountsTest {
+
+    @Test
+    void encodeAndDecodeRoundTrip() {
+        String encoded = HttpStatusCounts.encode(Map.of(503, 3L, 200, 18_234L, 0, 1L));
+
+        assertThat(encoded).isEqualTo("0=1,200=18234,503=3");
+        assertThat(HttpStatusCounts.decode(encoded)).containsExactly(Map.entry(0, 1L), Map.entry(200, 18_234L), Map.entry(503, 3L));
+    }
+
+    @Test
+    void noCountsAreStoredAsNull() {
+        assertThat(HttpStatusCounts.encode(Map.of())).isNull();
+        assertThat(HttpStatusCounts.decode(null)).isEmpty();
+    }
+
+    @Test
+    void decodeRejectsOtherText() {
+        assertThatThrownBy(() -> HttpStatusCounts.decode("200:5")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,47 @@
+package de.tum.cit.aet.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramsTest {
+
+    @Test
+    void encodedHistogramsDecodeToTheSamePercentiles() {
+        Histogram histogram = LatencyHistograms.create();
+        for (long millis = 1; millis <= 1000; millis++) {
+            histogram.recordValue(millis * 1_000_000);
+        }
+
+        Histogram decoded = LatencyHistograms.decode(LatencyHistograms.encode(histogram));
+
+        assertThat(decoded.getTotalCount()).isEqualTo(1000);
+        assertThat(decoded.getValueAtPercentile(99)).isEqualTo(histogram.getValueAtPercentile(99));
+        assertThat(decoded.getMaxValue()).isEqualTo(histogram.getMaxValue());
+    }
+
+    @Test
+    void decodedHistogramsMerge() {
+        Histogram fast = LatencyHistograms.create();
+        Histogram slow = LatencyHistograms.create();
+        for (int i = 0; i < 99; i++) {
+            fast.recordValue(1_000_000);
+        }
+        slow.recordValue(5_000_000_000L);
+
+        Histogram merged = LatencyHistograms.decode(LatencyHistograms.encode(fast));
+        merged.add(LatencyHistograms.decode(LatencyHistograms.encode(slow)));
+
+        assertThat(merged.getTotalCount()).isEqualTo(100);
+        assertThat(merged.valuesAreEquivalent(merged.getValueAtPercentile(50), 1_000_000)).isTrue();
+        assertThat(merged.valuesAreEquivalent(merged.getMaxValue(), 5_000_000_000L)).isTrue();
+    }
+
+    @Test
+    void decodeRejectsWhatIsNoHistogram() {
+        assertThatThrownBy(() -> LatencyHistograms.decode("bm90IGEgaGlzdG9ncmFt")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LatencyHistograms.decode("%%%")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
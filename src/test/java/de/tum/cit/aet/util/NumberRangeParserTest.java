@@ -0,0 +1,28 @@
+package de.tum.cit.aet.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class NumberRangeParserTest {
+
+    @Test
+    void formatCollapsesConsecutiveNumbersIntoRanges() {
+        assertThat(NumberRangeParser.formatNumberRange(List.of(1, 2, 3, 5, 7, 8, 9))).isEqualTo("1-3,5,7-9");
+    }
+
+    @Test
+    void formatOfNothingIsEmpty() {
+        assertThat(NumberRangeParser.formatNumberRange(List.of())).isEmpty();
+    }
+
+    /**
+     * Distributed runs hand a worker its students as a formatted range, which the worker parses again.
+     */
+    @Test
+    void formatIsTheInverseOfParse() {
+        List<Integer> numbers = NumberRangeParser.parseNumberRange("4-250,260,300-301,1000");
+        assertThat(NumberRangeParser.parseNumberRange(NumberRangeParser.formatNumberRange(numbers))).isEqualTo(numbers);
+    }
+}
@@ -0,0 +1,112 @@
+package de.tum.cit.aet.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class PersonaTest {
+
+    private static final String PERSONAS = """
+        - name: pusher
+          weight: 1
+          commits: 20-40
+          onlineIdePercentage: 0
+          exerciseOrder: reverse
+        - name: reloader
+          weight: 3
+          commits: 2
+          reloadsPerExercise: 1.5
+          thinkTimeRest: exponential 5000
+        """;
+
+    @Test
+    void parsesEverySetting() {
+        List<Persona> personas = Persona.parseAll(PERSONAS);
+        assertThat(personas).hasSize(2);
+
+        Persona pusher = personas.get(0);
+        assertThat(pusher.name()).isEqualTo("pusher");
+        assertThat(pusher.commitsFrom()).isEqualTo(20);
+        assertThat(pusher.commitsTo()).isEqualTo(40);
+        assertThat(pusher.onlineIdePercentage()).isZero();
+        assertThat(pusher.exerciseOrder()).isEqualTo(Persona.ExerciseOrder.REVERSE);
+        assertThat(pusher.thinkTimeRest()).isNull();
+
+        Persona reloader = personas.get(1);
+        assertThat(reloader.commitsFrom()).isEqualTo(2);
+        assertThat(reloader.commitsTo()).isEqualTo(3);
+        assertThat(reloader.onlineIdePercentage()).isNull();
+        assertThat(reloader.reloadsPerExercise()).isEqualTo(1.5);
+        assertThat(reloader.exerciseOrder()).isEqualTo(Persona.ExerciseOrder.GIVEN);
+        assertThat(reloader.thinkTimeRest()).isEqualTo("exponential 5000");
+    }
+
+    @Test
+    void acceptsJson() {
+        List<Persona> personas = Persona.parseAll("[{\"name\": \"a\", \"weight\": 1}, {\"name\": \"b\", \"weight\": 2}]");
+        assertThat(personas).extracting(Persona::name).containsExactly("a", "b");
+    }
+
+    @Test
+    void rejectsMalformedPersonas() {
+        assertThatThrownBy(() -> Persona.parseAll("")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Persona.parseAll("name: a")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Persona.parseAll("[{name: a}]")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Persona.parseAll("[{name: a, weight: 0}]")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Persona.parseAll("[{name: a, weight: 1}, {name: a, weight: 2}]"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("twice");
+        assertThatThrownBy(() -> Persona.parseAll("[{name: a, weight: 1, commits: 5-5}]")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Persona.parseAll("[{name: a, weight: 1, onlineIdePercentage: 120}]")).isInstanceOf(
+            IllegalArgumentException.class
+        );
+        assertThatThrownBy(() -> Persona.parseAll("[{name: a, weight: 1, exerciseOrder: sideways}]")).isInstanceOf(
+            IllegalArgumentException.class
+        );
+        assertThatThrownBy(() -> Persona.parseAll("[{name: a, weight: 1, thinkTimeGit: fixed}]"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("persona 'a'");
+        assertThatThrownBy(() -> Persona.parseAll("[{name: a, weight: 1, reloads: 2}]"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("reloads");
+    }
+
+    @Test
+    void assignsStudentsInProportionToTheWeights() {
+        List<Persona> personas = Persona.parseAll(PERSONAS);
+        Map<String, Long> counts = count(Persona.assign(personas, 100, new Random(42)));
+        assertThat(counts).containsEntry("pusher", 25L).containsEntry("reloader", 75L);
+    }
+
+    @Test
+    void givesTheRemainderToTheLargestFractions() {
+        List<Persona> personas = Persona.parseAll("[{name: a, weight: 1}, {name: b, weight: 1}, {name: c, weight: 2}]");
+        // Exact shares of 2.5, 2.5 and 5: one of a and b gets the leftover student.
+        Map<String, Long> counts = count(Persona.assign(personas, 10, new Random(42)));
+        assertThat(counts.get("a") + counts.get("b")).isEqualTo(5);
+        assertThat(counts.get("c")).isEqualTo(5);
+
+        // Exact shares of 1/3 each: every student goes to a different persona.
+        personas = Persona.parseAll("[{name: a, weight: 1}, {name: b, weight: 1}, {name: c, weight: 1}]");
+        counts = count(Persona.assign(personas, 2, new Random(1)));
+        assertThat(counts.values()).containsOnly(1L);
+    }
+
+    @Test
+    void ordersExercises() {
+        List<Integer> exercises = List.of(1, 2, 3, 4);
+        assertThat(Persona.ExerciseOrder.GIVEN.apply(exercises, new Random(1))).containsExactly(1, 2, 3, 4);
+        assertThat(Persona.ExerciseOrder.REVERSE.apply(exercises, new Random(1))).containsExactly(4, 3, 2, 1);
+        assertThat(Persona.ExerciseOrder.RANDOM.apply(exercises, new Random(1))).containsExactlyInAnyOrderElementsOf(exercises);
+    }
+
+    private static Map<String, Long> count(List<Persona> assignment) {
+        return assignment.stream().map(Persona::name).collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+    }
+}
@@ -0,0 +1,72 @@
+package de.tum.cit.aet.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void letsAFullBucketThroughRightAway() {
+        RateLimiter limiter = new RateLimiter(10, clock::get);
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.reserve()).isZero();
+        }
+    }
+
+    @Test
+    void spacesRequestsOutOnceTheBucketIsEmpty() {
+        RateLimiter limiter = new RateLimiter(10, clock::get);
+        for (int i = 0; i < 10; i++) {
+            limiter.reserve();
+        }
+        // Each caller waits for the token after the one reserved before it.
+        assertThat(limiter.reserve()).isEqualTo(SECOND / 10);
+        assertThat(limiter.reserve()).isEqualTo(2 * SECOND / 10);
+        assertThat(limiter.reserve()).isEqualTo(3 * SECOND / 10);
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() {
+        RateLimiter limiter = new RateLimiter(10, clock::get);
+        for (int i = 0; i < 10; i++) {
+            limiter.reserve();
+        }
+        clock.addAndGet(SECOND / 2);
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.reserve()).isZero();
+        }
+        assertThat(limiter.reserve()).isPositive();
+    }
+
+    @Test
+    void neverStoresMoreThanOneSecondOfTokens() {
+        RateLimiter limiter = new RateLimiter(5, clock::get);
+        clock.addAndGet(60 * SECOND);
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.reserve()).isZero();
+        }
+        assertThat(limiter.reserve()).isEqualTo(SECOND / 5);
+    }
+
+    @Test
+    void allowsOneRequestAtRatesBelowOnePerSecond() {
+        RateLimiter limiter = new RateLimiter(0.5, clock::get);
+        assertThat(limiter.reserve()).isZero();
+        assertThat(limiter.reserve()).isEqualTo(2 * SECOND);
+    }
+
+    @Test
+    void rejectsRatesThatAreNotPositive() {
+        assertThatThrownBy(() -> new RateLimiter(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RateLimiter(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RateLimiter(Double.NaN)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
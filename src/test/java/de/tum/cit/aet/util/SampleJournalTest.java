@@ -0,0 +1,110 @@
+package de.tum.cit.aet.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SampleJournalTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void recordsComeBackInOrder() throws IOException {
+        Path path = directory.resolve("run.samples");
+        try (SampleJournal.Writer writer = SampleJournal.Writer.create(path)) {
+            for (int i = 0; i < 1000; i++) {
+                writer.append(1_000_000_000L * i, i * 1_000L, 2_000L, i, (short) 3, (short) 200, (byte) (i % 7), i % 3 == 0);
+            }
+        }
+
+        List<long[]> records = new ArrayList<>();
+        long count = SampleJournal.scan(path, (start, duration, limiterWait, student, endpoint, status, type, failed) ->
+            records.add(new long[] { start, duration, limiterWait, student, endpoint, status, type, failed ? 1 : 0 })
+        );
+
+        assertThat(count).isEqualTo(1000);
+        assertThat(Files.size(path)).isEqualTo(SampleJournal.HEADER_SIZE + 1000L * SampleJournal.RECORD_SIZE);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(records.get(i)).containsExactly(1_000_000_000L * i, i * 1_000L, 2_000L, i, 3, 200, i % 7, i % 3 == 0 ? 1 : 0);
+        }
+    }
+
+    @Test
+    void journalReadsUpToTheLastRecordWhileStillOpen() throws IOException {
+        Path path = directory.resolve("run.samples");
+        try (SampleJournal.Writer writer = SampleJournal.Writer.create(path)) {
+            writer.append(1, 1_000, 0, 1, (short) 0, (short) 0, (byte) 0, false);
+            writer.append(2, 2_000, 0, 2, (short) 0, (short) 0, (byte) 0, false);
+
+            List<Integer> students = new ArrayList<>();
+            SampleJournal.scan(path, (start, duration, limiterWait, student, endpoint, status, type, failed) -> students.add(student));
+
+            assertThat(students).containsExactly(1, 2);
+        }
+    }
+
+    @Test
+    void concurrentWritersLoseNoRecordsAcrossRegions() throws Exception {
+        Path path = directory.resolve("run.samples");
+        int writers = 4;
+        long perWriter = SampleJournal.RECORDS_PER_REGION / writers + 1_000;
+        try (
+            SampleJournal.Writer writer = SampleJournal.Writer.create(path);
+            ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()
+        ) {
+            List<Future<?>> appends = new ArrayList<>();
+            for (int student = 1; student <= writers; student++) {
+                int id = student;
+                appends.add(
+                    executor.submit(() -> {
+                        for (long i = 1; i <= perWriter; i++) {
+                            writer.append(i, 1_000, 0, id, (short) 0, (short) 200, (byte) 0, false);
+                        }
+                    })
+                );
+            }
+            for (Future<?> append : appends) {
+                append.get();
+            }
+        }
+
+        long[] perStudent = new long[writers + 1];
+        long count = SampleJournal.scan(path, (start, duration, limiterWait, student, endpoint, status, type, failed) ->
+            perStudent[student]++
+        );
+
+        assertThat(count).isEqualTo(writers * perWriter);
+        for (int student = 1; student <= writers; student++) {
+            assertThat(perStudent[student]).isEqualTo(perWriter);
+        }
+    }
+
+    @Test
+    void closedWriterRejectsRecords() throws IOException {
+        SampleJournal.Writer writer = SampleJournal.Writer.create(directory.resolve("run.samples"));
+        writer.close();
+
+        assertThatThrownBy(() -> writer.append(1, 1_000, 0, 1, (short) 0, (short) 0, (byte) 0, false)).isInstanceOf(
+            IllegalStateException.class
+        );
+    }
+
+    @Test
+    void otherFilesAreRejected() throws IOException {
+        Path path = Files.writeString(directory.resolve("other.txt"), "not a journal, but long enough");
+
+        SampleJournal.RecordConsumer ignored = (start, duration, limiterWait, student, endpoint, status, type, failed) -> {};
+        assertThatThrownBy(() -> SampleJournal.scan(path, ignored)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
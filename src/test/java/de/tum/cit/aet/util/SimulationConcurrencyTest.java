@@ -131,4 +131,79 @@ class SimulationConcurrencyTest {
 
         assertThat(completed).hasValue(49);
     }
+
+    @Test
+    void forEachIndexAtStartsEveryIndexNoEarlierThanScheduled() {
+        ArrivalSchedule schedule = ArrivalSchedule.constantRate(5, 100);
+        long start = System.nanoTime();
+        long[] startedAfter = new long[5];
+
+        SimulationConcurrency.forEachIndexAt(schedule, index -> startedAfter[index] = System.nanoTime() - start);
+
+        for (int index = 0; index < 5; index++) {
+            assertThat(startedAfter[index]).isGreaterThanOrEqualTo(schedule.offsetNanos(index));
+        }
+    }
+
+    /**
+     * The point of open-loop: later students arrive on time even though every earlier one is still stuck waiting.
+     */
+    @Test
+    void forEachIndexAtDoesNotWaitForEarlierIndicesToFinish() throws InterruptedException {
+        int count = 50;
+        CountDownLatch allArrived = new CountDownLatch(count);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread runner = Thread.ofPlatform().start(() ->
+            SimulationConcurrency.forEachIndexAt(ArrivalSchedule.constantRate(count, 1000), index -> {
+                allArrived.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            })
+        );
+
+        assertThat(allArrived.await(30, TimeUnit.SECONDS)).as("all %d actions should be in flight at once", count).isTrue();
+
+        release.countDown();
+        runner.join();
+    }
+
+    /**
+     * After a cancellation, the students queued behind the ceiling never start, while the ones in flight finish.
+     */
+    @Test
+    void forEachIndexStartsNoIndexAfterACancellation() {
+        CancellationToken cancellation = new CancellationToken();
+        AtomicInteger started = new AtomicInteger();
+        AtomicInteger finished = new AtomicInteger();
+
+        SimulationConcurrency.forEachIndex(new ConcurrencyLimit(1), 100, cancellation, index -> {
+            if (started.incrementAndGet() == 2) {
+                cancellation.cancel();
+            }
+            finished.incrementAndGet();
+        });
+
+        assertThat(started).hasValue(2);
+        assertThat(finished).hasValue(2);
+    }
+
+    @Test
+    void forEachIndexAtStopsWaitingForTheNextArrivalOnCancellation() {
+        CancellationToken cancellation = new CancellationToken();
+        AtomicInteger started = new AtomicInteger();
+        long start = System.nanoTime();
+
+        // One arrival every ten seconds; the first one cancels, so the run must not wait for the second.
+        SimulationConcurrency.forEachIndexAt(ArrivalSchedule.constantRate(3, 0.1), cancellation, index -> {
+            started.incrementAndGet();
+            cancellation.cancel();
+        });
+
+        assertThat(started).hasValue(1);
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(5));
+    }
 }
@@ -0,0 +1,87 @@
+package de.tum.cit.aet.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class SyncPointTest {
+
+    /**
+     * With more students than slots, waiting students must hand their slot back, or the run would stall with every
+     * slot held by someone waiting for a student who never gets one.
+     */
+    @Test
+    void awaitReleasesTheSlotSoMoreStudentsThanSlotsCanMeet() {
+        int students = 20;
+        SyncPoint syncPoint = new SyncPoint(students);
+        ConcurrencyLimit limit = new ConcurrencyLimit(3);
+        AtomicInteger arrivedBeforeAnyonePassed = new AtomicInteger();
+        AtomicInteger passed = new AtomicInteger();
+
+        SimulationConcurrency.forEachIndex(limit, students, index -> {
+            if (passed.get() == 0) {
+                arrivedBeforeAnyonePassed.incrementAndGet();
+            }
+            try {
+                syncPoint.await(limit);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            passed.incrementAndGet();
+        });
+
+        assertThat(arrivedBeforeAnyonePassed).hasValue(students);
+        assertThat(passed).hasValue(students);
+    }
+
+    @Test
+    void studentsWhoLeaveAreNotWaitedFor() {
+        SyncPoint syncPoint = new SyncPoint(10);
+        AtomicInteger passed = new AtomicInteger();
+
+        SimulationConcurrency.forEachIndex(new ConcurrencyLimit(10), 10, index -> {
+            if (index % 2 == 0) {
+                syncPoint.leave();
+                return;
+            }
+            try {
+                syncPoint.await(null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            passed.incrementAndGet();
+        });
+
+        assertThat(passed).hasValue(5);
+    }
+
+    /**
+     * A cancelled run never starts some of its students, so the ones already waiting must not wait for them.
+     */
+    @Test
+    void openLetsWaitingStudentsThroughWithoutTheOthers() {
+        SyncPoint syncPoint = new SyncPoint(10);
+        CancellationToken cancellation = new CancellationToken();
+        cancellation.onCancel(syncPoint::open);
+        AtomicInteger passed = new AtomicInteger();
+
+        SimulationConcurrency.forEachIndex(new ConcurrencyLimit(10), 3, index -> {
+            if (index == 2) {
+                cancellation.cancel();
+                return;
+            }
+            try {
+                syncPoint.await(null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            passed.incrementAndGet();
+        });
+
+        assertThat(passed).hasValue(2);
+    }
+}
@@ -0,0 +1,69 @@
+package de.tum.cit.aet.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ThinkTimeTest {
+
+    @Test
+    void emptyThinkTimesNeverPause() {
+        assertThat(ThinkTime.parse(null).isNone()).isTrue();
+        assertThat(ThinkTime.parse("  ").isNone()).isTrue();
+        assertThat(ThinkTime.parse("none").sample(new Random(1))).isEqualTo(Duration.ZERO);
+    }
+
+    @Test
+    void fixedAlwaysPausesTheSameTime() {
+        ThinkTime thinkTime = ThinkTime.parse("fixed 100");
+        assertThat(thinkTime.isNone()).isFalse();
+        assertThat(thinkTime.sample(new Random(1))).isEqualTo(Duration.ofMillis(100));
+    }
+
+    @Test
+    void uniformStaysWithinItsBounds() {
+        ThinkTime thinkTime = ThinkTime.parse("Uniform 200 500");
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(thinkTime.sample(random)).isBetween(Duration.ofMillis(200), Duration.ofMillis(500));
+        }
+    }
+
+    @Test
+    void lognormalMatchesItsMedianAndNinetiethPercentile() {
+        ThinkTime thinkTime = ThinkTime.parse("lognormal 2000 8000");
+        Random random = new Random(42);
+        long[] millis = new long[100_000];
+        for (int i = 0; i < millis.length; i++) {
+            millis[i] = thinkTime.sample(random).toMillis();
+        }
+        Arrays.sort(millis);
+        assertThat(millis[millis.length / 2]).isBetween(1900L, 2100L);
+        assertThat(millis[millis.length * 9 / 10]).isBetween(7600L, 8400L);
+    }
+
+    @Test
+    void exponentialMatchesItsMean() {
+        ThinkTime thinkTime = ThinkTime.parse("exponential 1000");
+        Random random = new Random(42);
+        double total = 0;
+        for (int i = 0; i < 100_000; i++) {
+            total += thinkTime.sample(random).toMillis();
+        }
+        assertThat(total / 100_000).isBetween(970.0, 1030.0);
+    }
+
+    @Test
+    void malformedThinkTimesAreRejected() {
+        assertThatThrownBy(() -> ThinkTime.parse("gaussian 100")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ThinkTime.parse("fixed")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ThinkTime.parse("fixed -5")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ThinkTime.parse("uniform 500 200")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ThinkTime.parse("lognormal 2000 1000")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ThinkTime.parse("fixed ten")).isInstanceOf(IllegalArgumentException.class);
+    }
+}